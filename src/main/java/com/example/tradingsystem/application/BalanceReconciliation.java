@@ -0,0 +1,32 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.ledger.AccountType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 余额投影与账户表的核对结果
+ *
+ * @param projectionSequence 核对时投影已应用的最后一条事件序号
+ * @param checkedUsers 核对的用户账户数
+ * @param checkedMerchants 核对的商家账户数
+ * @param mismatchCount 不一致的账户数
+ * @param mismatches 不一致的账户明细（最多 {@link BalanceReconciliationService#MAX_REPORTED_MISMATCHES} 条）
+ * @param rebuilt 是否因不一致从账户表重建了投影
+ */
+public record BalanceReconciliation(long projectionSequence, long checkedUsers, long checkedMerchants,
+                                    long mismatchCount, List<Mismatch> mismatches, boolean rebuilt) {
+
+    public boolean isConsistent() {
+        return mismatchCount == 0;
+    }
+
+    /**
+     * @param databaseBalance 账户表中的余额
+     * @param projectedBalance 投影中的余额，投影中没有该账户时为 null
+     */
+    public record Mismatch(AccountType accountType, long accountId, BigDecimal databaseBalance,
+                           BigDecimal projectedBalance) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.ledger.AccountEventSourcingProperties;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadSource;
+import com.example.tradingsystem.infrastructure.ledger.AccountStateProjection;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 余额投影核对应用服务
+ *
+ * <p>逐行比较 {@link AccountStateProjection} 与 user_accounts / merchant_accounts 中的余额：
+ * <ul>
+ *   <li>账户表通过 {@link BulkReadSource} 在只读事务中用游标流式读取，内存占用与行数无关</li>
+ *   <li>事件在事务提交后才进入投影，核对期间有并发变动的账户可能暂时不一致；
+ *       第一遍发现的不一致会在扫描结束后重新读取一次，两次都不一致才报告</li>
+ *   <li>启动完成后默认核对一次（{@code trading.ledger.event-sourcing.reconcile-on-startup}），
+ *       节点崩溃丢失了未刷盘的事件、或重新启用时快照已过期，都会在这里发现</li>
+ *   <li>确认不一致时默认从账户表重建投影（{@code rebuild-on-drift}），结果中返回重建前的不一致明细</li>
+ * </ul>
+ * 与内存余额账本（{@code trading.ledger.engine}）同时启用时，账户表的余额在检查点之间落后于账本，核对结果没有意义，
+ * 这一组合在启动时被 {@code TradingModeGuard} 拒绝。
+ */
+@Service
+@ConditionalOnProperty(prefix = "trading.ledger.event-sourcing", name = "enabled", havingValue = "true")
+public class BalanceReconciliationService {
+
+    static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceReconciliationService.class);
+
+    private final AccountStateProjection projection;
+    private final UserAccountRepository userAccountRepository;
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final AccountEventSourcingProperties properties;
+    private final BulkReadSource bulkReadSource;
+
+    public BalanceReconciliationService(AccountStateProjection projection,
+                                        UserAccountRepository userAccountRepository,
+                                        MerchantAccountRepository merchantAccountRepository,
+                                        AccountEventSourcingProperties properties,
+                                        BulkReadSource bulkReadSource) {
+        this.projection = projection;
+        this.userAccountRepository = userAccountRepository;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.properties = properties;
+        this.bulkReadSource = bulkReadSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (!properties.isReconcileOnStartup()) {
+            return;
+        }
+        BalanceReconciliation result = reconcile();
+        if (result.isConsistent()) {
+            log.info("Balance projection matches the account tables: users={}, merchants={}, sequence={}",
+                    result.checkedUsers(), result.checkedMerchants(), result.projectionSequence());
+        } else {
+            log.warn("Balance projection disagrees with the account tables for {} accounts, first: {}, rebuilt={}",
+                    result.mismatchCount(), result.mismatches().get(0), result.rebuilt());
+        }
+    }
+
+    /**
+     * 核对全部账户
+     *
+     * @return 核对结果
+     */
+    public BalanceReconciliation reconcile() {
+        long sequence = projection.audit().lastSequence();
+        List<BalanceReconciliation.Mismatch> suspects = new ArrayList<>();
+        long[] counts = bulkReadSource.read(status -> {
+            long users = 0;
+            long merchants = 0;
+            try (Cursor<UserAccount> cursor = bulkReadSource.repository().streamUsers()) {
+                for (UserAccount user : cursor) {
+                    users++;
+                    compare(AccountType.USER, user.getId(), user.getBalance()).ifPresent(suspects::add);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try (Cursor<MerchantAccount> cursor = bulkReadSource.repository().streamMerchants()) {
+                for (MerchantAccount merchant : cursor) {
+                    merchants++;
+                    compare(AccountType.MERCHANT, merchant.getId(), merchant.getBalance()).ifPresent(suspects::add);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new long[] {users, merchants};
+        });
+
+        // 重新读取第一遍不一致的账户，排除核对期间刚提交、事件尚未进入投影的变动
+        List<BalanceReconciliation.Mismatch> mismatches = new ArrayList<>();
+        long mismatchCount = 0;
+        for (BalanceReconciliation.Mismatch suspect : suspects) {
+            Optional<BalanceReconciliation.Mismatch> confirmed = compare(suspect.accountType(), suspect.accountId(),
+                    currentBalance(suspect.accountType(), suspect.accountId()));
+            if (confirmed.isPresent()) {
+                mismatchCount++;
+                if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                    mismatches.add(confirmed.get());
+                }
+            }
+        }
+        boolean rebuilt = mismatchCount > 0 && properties.isRebuildOnDrift();
+        if (rebuilt) {
+            projection.rebuild();
+        }
+        return new BalanceReconciliation(sequence, counts[0], counts[1], mismatchCount, mismatches, rebuilt);
+    }
+
+    private Optional<BalanceReconciliation.Mismatch> compare(AccountType accountType, long accountId, Money balance) {
+        if (balance == null) {
+            return Optional.empty();
+        }
+        // 新建后没有余额变动的账户不在投影中，视为余额 0
+        Optional<Money> projected = projection.balanceOf(accountType, accountId);
+        if (projected.map(Money::getAmount).orElse(BigDecimal.ZERO).compareTo(balance.getAmount()) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new BalanceReconciliation.Mismatch(accountType, accountId, balance.getAmount(),
+                projected.map(Money::getAmount).orElse(null)));
+    }
+
+    private Money currentBalance(AccountType accountType, long accountId) {
+        if (accountType == AccountType.USER) {
+            UserAccount user = userAccountRepository.selectById(accountId);
+            return user == null ? null : user.getBalance();
+        }
+        MerchantAccount merchant = merchantAccountRepository.selectById(accountId);
+        return merchant == null ? null : merchant.getBalance();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.tradingsystem.application;
+
+/**
+ * 购物车中的一行
+ *
+ * @param sku 商品SKU
+ * @param quantity 购买数量
+ */
+public record CartLine(String sku, long quantity) {
+}
@@ -0,0 +1,305 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderCompletedEvent;
+import com.example.tradingsystem.domain.order.OrderDomainService;
+import com.example.tradingsystem.domain.order.OrderPlacedEvent;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.shared.DomainEventPublisher;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.shared.Quantity;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.cache.CatalogCache;
+import com.example.tradingsystem.infrastructure.cluster.ClusterMembership;
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import com.example.tradingsystem.infrastructure.inventory.StockAllotmentManager;
+import com.example.tradingsystem.infrastructure.ledger.BalanceLedger;
+import com.example.tradingsystem.infrastructure.lock.DistributedLock;
+import com.example.tradingsystem.infrastructure.mybatis.BatchUnitOfWork;
+import com.example.tradingsystem.infrastructure.reservation.ReservationHolds;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购物车下单应用服务
+ *
+ * <p>一个购物车的多行（可来自多个商家）在一个事务中全部成交或全部不成交：
+ * <ol>
+ *   <li>同一 SKU 的多行合并，按 SKU 的字典序逐个获取 SKU 锁；所有购物车和单笔下单使用相同的锁键，
+ *       按固定顺序加锁不会形成环路等待。所有锁共用 {@value #LOCK_WAIT_MILLIS} 毫秒的总等待时间，
+ *       任何一个锁在剩余时间内拿不到时释放已拿到的锁并拒绝</li>
+ *   <li>加锁在事务之外完成，拿到全部锁后才开启事务，等锁期间不占用数据库连接</li>
+ *   <li>事务超时为 {@value #TRANSACTION_TIMEOUT_SECONDS} 秒，每个锁的租约覆盖加锁等待和整个事务：
+ *       先拿到的锁不会在等待后面的锁或事务提交前过期。开启租约看门狗时由看门狗续期</li>
+ *   <li>在锁内加载用户和各行商品，每行生成一笔订单</li>
+ *   <li>用领域服务统一执行：用户余额只扣一次合计金额，每个商家只入账一次净额</li>
+ *   <li>商品、用户、商家和订单的更新合并为 JDBC 批次写入（每种语句一个批次），用户行和每个商家行各只更新一次</li>
+ * </ol>
+ * 与 N 次 {@link OrderService#placeOrder(String, String, long)} 相比，只有一个事务和一次用户行更新。
+ *
+ * <p>购物车只走默认下单路径：不与分片、集群、单次调用交易、内存余额账本同时使用，也不能包含走本地库存配额的 SKU；
+ * 集群模式下 SKU 由归属节点的进程内锁保护，购物车拿到的 Redis 锁与其不互斥，因此拒绝而不是混用两种锁。
+ * 不经过 SKU 等待队列。开启预留时同样扣除其他预留占用后检查库存和余额。
+ *
+ * <p>启用 {@link OrderAdmission} 时在本服务内、事务开始前按节点并发上限准入，任何入口调用购物车下单都受限。
+ */
+@Service
+public class CartOrderService {
+
+    /** 单个购物车的最大行数，限制一次持有的锁数量 */
+    static final int MAX_LINES = 50;
+
+    /** 获取全部 SKU 锁的总等待时间 */
+    static final long LOCK_WAIT_MILLIS = 5000;
+
+    /** 购物车事务的超时时间，不含加锁等待（加锁在事务开始前完成） */
+    static final int TRANSACTION_TIMEOUT_SECONDS = 15;
+
+    /** 每个 SKU 锁的租约，覆盖加锁等待和整个事务（含提交） */
+    static final long LOCK_LEASE_SECONDS =
+            TimeUnit.MILLISECONDS.toSeconds(LOCK_WAIT_MILLIS) + TRANSACTION_TIMEOUT_SECONDS + 5;
+
+    private final OrderService orderService;
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final OrderDomainService orderDomainService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final CatalogCache catalogCache;
+    private final HotKeyDetector hotKeyDetector;
+    private final StockAllotmentManager stockAllotmentManager;
+    private final BatchUnitOfWork unitOfWork;
+    private final TradeExecutionProperties tradeExecutionProperties;
+    private final ShardedOrderService shardedOrderService;
+    private final BalanceLedger balanceLedger;
+    private final ReservationHolds reservationHolds;
+    private final ClusterMembership clusterMembership;
+    private final OrderAdmission orderAdmission;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartOrderService(OrderService orderService,
+                            MerchantAccountRepository merchantAccountRepository,
+                            OrderDomainService orderDomainService,
+                            DomainEventPublisher domainEventPublisher,
+                            CatalogCache catalogCache,
+                            HotKeyDetector hotKeyDetector,
+                            StockAllotmentManager stockAllotmentManager,
+                            BatchUnitOfWork unitOfWork,
+                            TradeExecutionProperties tradeExecutionProperties,
+                            ObjectProvider<ShardedOrderService> shardedOrderService,
+                            ObjectProvider<BalanceLedger> balanceLedger,
+                            ObjectProvider<ReservationHolds> reservationHolds,
+                            ObjectProvider<ClusterMembership> clusterMembership,
+                            ObjectProvider<OrderAdmission> orderAdmission,
+                            PlatformTransactionManager transactionManager) {
+        this.orderService = orderService;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.orderDomainService = orderDomainService;
+        this.domainEventPublisher = domainEventPublisher;
+        this.catalogCache = catalogCache;
+        this.hotKeyDetector = hotKeyDetector;
+        this.stockAllotmentManager = stockAllotmentManager;
+        this.unitOfWork = unitOfWork;
+        this.tradeExecutionProperties = tradeExecutionProperties;
+        this.shardedOrderService = shardedOrderService.getIfAvailable();
+        this.balanceLedger = balanceLedger.getIfAvailable();
+        this.reservationHolds = reservationHolds.getIfAvailable();
+        this.clusterMembership = clusterMembership.getIfAvailable();
+        this.orderAdmission = orderAdmission.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(TRANSACTION_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * 购物车下单
+     *
+     * @param username 用户名
+     * @param lines 购物车各行
+     * @return 各行的订单（按 SKU 排序）
+     * @throws BusinessException 如果购物车为空、行数过多，或当前配置不支持购物车下单
+     * @throws ResourceNotFoundException 如果用户或某个商品不存在
+     * @throws IllegalStateException 如果某行库存不足或余额不足以支付合计金额
+     * @throws ConcurrentUpdateException 如果某个 SKU 锁拿不到或聚合根被并发修改
+     * @throws OverloadException 如果节点并发已达上限
+     */
+    public List<Order> placeCartOrder(String username, List<CartLine> lines) {
+        Map<String, Long> quantities = merge(lines);
+        if (shardedOrderService != null || balanceLedger != null || clusterMembership != null
+                || tradeExecutionProperties.isSingleCall()) {
+            throw new BusinessException("Cart orders are not supported in the current trade execution mode");
+        }
+        return orderAdmission != null
+                ? orderAdmission.placeCartOrder(() -> place(username, quantities))
+                : place(username, quantities);
+    }
+
+    /**
+     * 在事务外按顺序加锁，拿到全部锁后才开启事务（取得数据库连接），等锁期间不占用连接
+     */
+    private List<Order> place(String username, Map<String, Long> quantities) {
+        for (String sku : quantities.keySet()) {
+            hotKeyDetector.recordOrder(sku);
+            if (stockAllotmentManager.isAllotted(sku)) {
+                throw new BusinessException("Product " + sku + " cannot be ordered in a cart");
+            }
+            orderService.rejectImpossible(username, sku);
+        }
+
+        List<DistributedLock> locks = new ArrayList<>(quantities.size());
+        List<String> lockKeys = new ArrayList<>(quantities.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LOCK_WAIT_MILLIS);
+        try {
+            for (String sku : quantities.keySet()) {
+                String lockKey = OrderService.lockKey(sku);
+                DistributedLock lock = orderService.lockFor(sku);
+                long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                if (!lock.tryLock(lockKey, remainingMillis, TimeUnit.SECONDS.toMillis(LOCK_LEASE_SECONDS),
+                        TimeUnit.MILLISECONDS)) {
+                    hotKeyDetector.recordContention(sku);
+                    throw new ConcurrentUpdateException("System busy, please try again later");
+                }
+                locks.add(lock);
+                lockKeys.add(lockKey);
+            }
+        } catch (RuntimeException e) {
+            // 还没有写入任何数据，已拿到的锁立即按相反顺序释放
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock(lockKeys.get(i));
+            }
+            throw e;
+        }
+
+        try {
+            return transactionTemplate.execute(status -> execute(username, quantities));
+        } finally {
+            // 事务已结束时立即释放；调用方自己在事务中时推迟到其结束
+            for (int i = 0; i < locks.size(); i++) {
+                orderService.unlockAfterCompletion(locks.get(i), lockKeys.get(i), null);
+            }
+        }
+    }
+
+    private List<Order> execute(String username, Map<String, Long> quantities) {
+        UserAccount user = catalogCache.loadUser(username);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+
+        // 加载各行商品和商家，同一商家只加载一次
+        Map<Long, MerchantAccount> merchants = new LinkedHashMap<>();
+        List<Order> orders = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Long> line : quantities.entrySet()) {
+            Product product = catalogCache.loadProduct(line.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found: " + line.getKey());
+            }
+            MerchantAccount merchant = merchants.get(product.getMerchantId());
+            if (merchant == null) {
+                merchant = merchantAccountRepository.selectById(product.getMerchantId());
+                if (merchant == null) {
+                    throw new ResourceNotFoundException("Merchant not found: " + product.getMerchantId());
+                }
+                merchants.put(merchant.getId(), merchant);
+            }
+            product.setMerchant(merchant);
+            orderService.noteSoldOut(product, false);
+            orders.add(new Order(user, merchant, product, Quantity.of(line.getValue())));
+        }
+        checkHolds(user, orders);
+
+        orderDomainService.executeCartOrder(orders, user);
+
+        // 各行订单与聚合根的更新一起批量发送，订单ID在发送后回填；失败时整个事务回滚
+        orders.forEach(order -> unitOfWork.registerInsert(OrderRepository.class, order));
+        for (Order order : orders) {
+            orderService.noteSoldOut(order.getProduct(), true);
+            unitOfWork.registerUpdate(ProductRepository.class, order.getProduct());
+        }
+        unitOfWork.registerUpdate(UserAccountRepository.class, user);
+        merchants.values().forEach(merchant -> unitOfWork.registerUpdate(MerchantAccountRepository.class, merchant));
+        orderService.flush(quantities.keySet());
+
+        publishOrderEvents(user, orders);
+        return orders;
+    }
+
+    /**
+     * 订单写入后发布各行的创建和完成事件；余额变动事件与实际写入一致：用户一次合计扣款，每个商家一次净额入账
+     */
+    private void publishOrderEvents(UserAccount user, List<Order> orders) {
+        Money total = null;
+        Map<MerchantAccount, Money> credits = new LinkedHashMap<>();
+        for (Order order : orders) {
+            total = total == null ? order.getTotalPrice() : total.add(order.getTotalPrice());
+            credits.merge(order.getMerchant(), order.getTotalPrice(), Money::add);
+        }
+        for (Order order : orders) {
+            domainEventPublisher.publish(new OrderPlacedEvent(order.getId(), user.getUsername(),
+                    order.getMerchant().getName(), order.getProduct().getSku(),
+                    order.getQuantity().getValue(), order.getTotalPrice()));
+        }
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.USER, user.getId(), BalanceChangeType.WITHDRAW, total));
+        credits.forEach((merchant, amount) -> domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.MERCHANT, merchant.getId(), BalanceChangeType.CREDIT, amount)));
+        for (Order order : orders) {
+            domainEventPublisher.publish(new OrderCompletedEvent(order.getId(), user.getUsername(),
+                    order.getMerchant().getName(), order.getProduct().getSku(),
+                    order.getQuantity().getValue(), order.getTotalPrice()));
+        }
+    }
+
+    /**
+     * 扣除其他预留占用后检查各行库存和合计金额是否足够，合计金额计为占用直到事务结束
+     */
+    private void checkHolds(UserAccount user, List<Order> orders) {
+        if (reservationHolds == null) {
+            return;
+        }
+        Money total = null;
+        for (Order order : orders) {
+            Product product = order.getProduct();
+            if (product.getStockQuantity().getValue() - reservationHolds.heldStock(product.getId())
+                    < order.getQuantity().getValue()) {
+                throw new IllegalStateException("Insufficient stock");
+            }
+            total = total == null ? order.getTotalPrice() : total.add(order.getTotalPrice());
+        }
+        reservationHolds.holdDebit(user.getId(), total, user.getBalance(), null);
+    }
+
+    /**
+     * 合并同一 SKU 的行，按 SKU 排序（即加锁顺序）
+     */
+    private static Map<String, Long> merge(List<CartLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new BusinessException("Cart is empty");
+        }
+        Map<String, Long> quantities = new TreeMap<>();
+        for (CartLine line : lines) {
+            if (line.quantity() <= 0) {
+                throw new BusinessException("Quantity must be positive: " + line.sku());
+            }
+            quantities.merge(line.sku(), line.quantity(), Long::sum);
+        }
+        if (quantities.size() > MAX_LINES) {
+            throw new BusinessException("Cart cannot have more than " + MAX_LINES + " products");
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.infrastructure.cluster.ClusterFrameCodec;
+import com.example.tradingsystem.infrastructure.cluster.ClusterMember;
+import com.example.tradingsystem.infrastructure.cluster.ClusterMembership;
+import com.example.tradingsystem.infrastructure.cluster.ClusterPeerClient;
+import com.example.tradingsystem.infrastructure.cluster.ClusterProperties;
+import com.example.tradingsystem.infrastructure.cluster.PeerRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 集群模式下的下单入口
+ *
+ * <p>本节点是 SKU 的归属节点时直接下单，否则通过常驻连接转发给归属节点，由它在进程内串行化：
+ * <ul>
+ *   <li>归属节点返回的失败按原异常类型重新抛出，调用方看到的结果与本地下单一致</li>
+ *   <li>请求没有发出（归属节点不可达）时先报告归属节点不可达，等它开始同时拿分布式锁后才回退为本地下单，使用分布式锁；
+ *       等待期间抛出可重试的 {@link ConcurrentUpdateException}</li>
+ *   <li>请求已发出但没有应答时结果未知，抛出 {@link ConcurrentUpdateException}，不自动重试以免重复下单</li>
+ * </ul>
+ */
+@Service
+@ConditionalOnProperty(prefix = "trading.cluster", name = "enabled", havingValue = "true")
+public class ClusterOrderRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterOrderRouter.class);
+
+    private final OrderService orderService;
+    private final ClusterMembership membership;
+    private final ClusterPeerClient peerClient;
+    private final ClusterProperties properties;
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ClusterOrderRouter(OrderService orderService,
+                              ClusterMembership membership,
+                              ClusterPeerClient peerClient,
+                              ClusterProperties properties) {
+        this.orderService = orderService;
+        this.membership = membership;
+        this.peerClient = peerClient;
+        this.properties = properties;
+    }
+
+    /**
+     * 下单购买商品，异常与 {@link OrderService#placeOrder(String, String, long)} 相同
+     */
+    public Order placeOrder(String username, String sku, long quantity) {
+        ClusterMember owner = membership.ownerOf(sku);
+        if (owner == null || owner.nodeId().equals(membership.nodeId())) {
+            return orderService.placeOrder(username, sku, quantity);
+        }
+
+        ClusterFrameCodec.OrderResult result;
+        try {
+            result = peerClient.forward(owner, username, sku, quantity, properties.getForwardTimeout());
+        } catch (PeerRequestException e) {
+            if (e.isDelivered()) {
+                throw new ConcurrentUpdateException("Order owner " + owner.nodeId()
+                        + " did not respond, check order history before retrying");
+            }
+            if (!membership.reportUnreachable(owner)) {
+                throw new ConcurrentUpdateException("Order owner " + owner.nodeId()
+                        + " is unreachable, please try again");
+            }
+            log.warn("Order owner {} unavailable, placing order for {} locally", owner.nodeId(), sku);
+            fallbacks.incrementAndGet();
+            return orderService.placeOrder(username, sku, quantity);
+        }
+        forwarded.incrementAndGet();
+
+        return switch (result.status()) {
+            case ClusterFrameCodec.STATUS_OK -> result.order();
+            case ClusterFrameCodec.STATUS_NOT_FOUND -> throw new ResourceNotFoundException(result.reason());
+            case ClusterFrameCodec.STATUS_BUSY -> throw new ConcurrentUpdateException(result.reason());
+            case ClusterFrameCodec.STATUS_REJECTED -> throw new BusinessException(result.reason());
+            case ClusterFrameCodec.STATUS_INVALID_ARGUMENT -> throw new IllegalArgumentException(result.reason());
+            case ClusterFrameCodec.STATUS_INVALID_STATE -> throw new IllegalStateException(result.reason());
+            default -> throw new IllegalStateException("Forwarded order failed on " + owner.nodeId()
+                    + ": " + result.reason());
+        };
+    }
+
+    /**
+     * @return 转发给其他节点并得到应答的下单数
+     */
+    public long forwardedOrders() {
+        return forwarded.get();
+    }
+
+    /**
+     * @return 因归属节点不可达而在本地执行的下单数
+     */
+    public long fallbackOrders() {
+        return fallbacks.get();
+    }
+}
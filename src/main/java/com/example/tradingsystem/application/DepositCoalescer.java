@@ -0,0 +1,156 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.shared.DomainEventPublisher;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 充值合并器
+ *
+ * <p>启用 {@code trading.deposit.coalescing.enabled} 后，并发到达的充值先进入待处理队列，
+ * 每个合并窗口统一提交一次：
+ * <ul>
+ *   <li>同一用户的多笔充值合并为一条原子 upsert 语句</li>
+ *   <li>一个窗口内的所有用户在同一个事务中提交，最后一次批量查询回读余额</li>
+ *   <li>每笔充值仍各自发布一个余额变动事件</li>
+ * </ul>
+ * 调用方最多多等一个窗口的时间；事务失败时，该批次的所有充值都以异常结束。
+ * 开始关闭后不再有定时刷新，之后提交的充值由调用线程立即提交。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.deposit.coalescing", name = "enabled", havingValue = "true")
+public class DepositCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(DepositCoalescer.class);
+
+    private final UserAccountRepository userAccountRepository;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchUsers;
+    private final ConcurrentHashMap<String, List<PendingDeposit>> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "deposit-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DepositCoalescer(UserAccountRepository userAccountRepository,
+                            DomainEventPublisher domainEventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            DepositCoalescingProperties properties) {
+        this.userAccountRepository = userAccountRepository;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchUsers = Math.max(1, properties.getMaxBatchUsers());
+        long windowMicros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(properties.getWindow().toNanos()));
+        flusher.scheduleWithFixedDelay(this::flush, windowMicros, windowMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * 提交一笔充值，在下一个合并窗口结束时完成
+     *
+     * @param username 用户名
+     * @param amount 充值金额（必须大于0）
+     * @return 充值后的用户账户
+     */
+    public CompletableFuture<UserAccount> submit(String username, Money amount) {
+        PendingDeposit deposit = new PendingDeposit(amount, new CompletableFuture<>());
+        pending.compute(username, (key, deposits) -> {
+            List<PendingDeposit> list = deposits == null ? new ArrayList<>() : deposits;
+            list.add(deposit);
+            return list;
+        });
+        // 先入队再检查：关闭前入队的由最后一次刷新带走，关闭后入队的在这里自行提交
+        if (closed) {
+            flush();
+        }
+        return deposit.future();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, List<PendingDeposit>> batch = new HashMap<>();
+        for (String username : pending.keySet()) {
+            List<PendingDeposit> deposits = pending.remove(username);
+            if (deposits != null) {
+                batch.put(username, deposits);
+            }
+            if (batch.size() >= maxBatchUsers) {
+                commit(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            commit(batch);
+        }
+    }
+
+    private void commit(Map<String, List<PendingDeposit>> batch) {
+        Map<String, UserAccount> accounts;
+        try {
+            accounts = transactionTemplate.execute(status -> {
+                batch.forEach((username, deposits) -> {
+                    Money total = Money.zero();
+                    for (PendingDeposit deposit : deposits) {
+                        total = total.add(deposit.amount());
+                    }
+                    userAccountRepository.upsertDeposit(username, total.getAmount());
+                });
+                Map<String, UserAccount> loaded = new HashMap<>();
+                for (UserAccount account : userAccountRepository.selectList(new LambdaQueryWrapper<UserAccount>()
+                        .in(UserAccount::getUsername, batch.keySet()))) {
+                    loaded.put(account.getUsername(), account);
+                    for (PendingDeposit deposit : batch.get(account.getUsername())) {
+                        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                                AccountType.USER, account.getId(), BalanceChangeType.DEPOSIT, deposit.amount()));
+                    }
+                }
+                return loaded;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Coalesced deposit batch of {} users failed", batch.size(), e);
+            batch.values().forEach(deposits -> deposits.forEach(d -> d.future().completeExceptionally(e)));
+            return;
+        }
+        batch.forEach((username, deposits) -> {
+            UserAccount account = accounts.get(username);
+            deposits.forEach(d -> d.future().complete(account));
+        });
+    }
+
+    private record PendingDeposit(Money amount, CompletableFuture<UserAccount> future) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.tradingsystem.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 充值合并配置（trading.deposit.coalescing.*）
+ */
+@ConfigurationProperties(prefix = "trading.deposit.coalescing")
+public class DepositCoalescingProperties {
+
+    /** 是否启用充值合并 */
+    private boolean enabled = false;
+
+    /** 合并窗口：窗口内同一用户的充值合并为一条语句 */
+    private Duration window = Duration.ofMillis(5);
+
+    /** 单个事务最多处理的用户数 */
+    private int maxBatchUsers = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchUsers() {
+        return maxBatchUsers;
+    }
+
+    public void setMaxBatchUsers(int maxBatchUsers) {
+        this.maxBatchUsers = maxBatchUsers;
+    }
+}
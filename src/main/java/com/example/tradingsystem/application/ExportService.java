@@ -0,0 +1,164 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadSource;
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
+import com.example.tradingsystem.repository.BulkReadRepository;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 全量数据导出应用服务
+ *
+ * <p>通过 MyBatis {@link Cursor} 逐行读取，边读边写入 {@link ExportSink}，内存占用与行数无关：
+ * <ul>
+ *   <li>游标只在只读事务内有效，导出期间保持同一个连接；连接来自 {@link BulkReadSource}，
+ *       配置了独立连接池时不占用也不影响主库连接的语句方式</li>
+ *   <li>每行复用同一个值数组，不累积对象</li>
+ *   <li>订单导出先输出 orders，再输出 orders_archive，两者均按ID升序</li>
+ * </ul>
+ * 开启 {@code trading.sharding} 时订单和用户账户在用户分片上：按分片配置顺序逐个分片在只读事务中流式输出，
+ * 使用主数据源上的 Mapper，由分片路由选择连接（分片没有归档表）；商家账户仍从目录库导出。
+ */
+@Service
+public class ExportService {
+
+    static final List<String> ORDER_COLUMNS = List.of("id", "userId", "merchantId", "productId", "quantity",
+            "unitPrice", "totalPrice", "status", "createdAt");
+    static final List<String> USER_COLUMNS = List.of("id", "username", "balance");
+    static final List<String> MERCHANT_COLUMNS = List.of("id", "name", "balance");
+
+    private final BulkReadSource bulkReadSource;
+    private final BulkReadRepository shardRepository;
+    private final ShardRouter shardRouter;
+
+    public ExportService(BulkReadSource bulkReadSource,
+                         BulkReadRepository shardRepository,
+                         ObjectProvider<ShardRouter> shardRouter) {
+        this.bulkReadSource = bulkReadSource;
+        this.shardRepository = shardRepository;
+        this.shardRouter = shardRouter.getIfAvailable();
+    }
+
+    /**
+     * 导出全部订单（含归档订单）
+     *
+     * @return 导出的行数
+     */
+    public long exportOrders(ExportSink sink) throws IOException {
+        Object[] values = new Object[ORDER_COLUMNS.size()];
+        return export(sink, ORDER_COLUMNS, repository -> {
+            long rows = writeOrders(repository.streamOrders(), sink, values);
+            return rows + writeOrders(repository.streamArchivedOrders(), sink, values);
+        }, repository -> writeOrders(repository.streamOrders(), sink, values));
+    }
+
+    /**
+     * 导出全部用户账户
+     *
+     * @return 导出的行数
+     */
+    public long exportUsers(ExportSink sink) throws IOException {
+        Object[] values = new Object[USER_COLUMNS.size()];
+        RowWriter writer = repository -> {
+            long rows = 0;
+            try (Cursor<UserAccount> cursor = repository.streamUsers()) {
+                for (UserAccount user : cursor) {
+                    values[0] = user.getId();
+                    values[1] = user.getUsername();
+                    values[2] = user.getBalance().getAmount();
+                    sink.row(values);
+                    rows++;
+                }
+            }
+            return rows;
+        };
+        return export(sink, USER_COLUMNS, writer, writer);
+    }
+
+    /**
+     * 导出全部商家账户
+     *
+     * @return 导出的行数
+     */
+    public long exportMerchants(ExportSink sink) throws IOException {
+        return export(sink, MERCHANT_COLUMNS, repository -> {
+            Object[] values = new Object[MERCHANT_COLUMNS.size()];
+            long rows = 0;
+            try (Cursor<MerchantAccount> cursor = repository.streamMerchants()) {
+                for (MerchantAccount merchant : cursor) {
+                    values[0] = merchant.getId();
+                    values[1] = merchant.getName();
+                    values[2] = merchant.getBalance().getAmount();
+                    sink.row(values);
+                    rows++;
+                }
+            }
+            return rows;
+        }, null);
+    }
+
+    private static long writeOrders(Cursor<Order> cursor, ExportSink sink, Object[] values) throws IOException {
+        long rows = 0;
+        try (cursor) {
+            for (Order order : cursor) {
+                values[0] = order.getId();
+                values[1] = order.getUserId();
+                values[2] = order.getMerchantId();
+                values[3] = order.getProductId();
+                values[4] = order.getQuantity().getValue();
+                values[5] = order.getUnitPrice().getAmount();
+                values[6] = order.getTotalPrice().getAmount();
+                values[7] = order.getStatus();
+                values[8] = order.getCreatedAt();
+                sink.row(values);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @param writer 目录库（未分片时的全部数据）的写出方式
+     * @param shardWriter 分片模式下在每个分片上的写出方式，为 null 表示数据只在目录库
+     */
+    private long export(ExportSink sink, List<String> columns, RowWriter writer, RowWriter shardWriter)
+            throws IOException {
+        sink.begin(columns);
+        long rows = 0;
+        try {
+            if (shardRouter == null || shardWriter == null) {
+                Long read = bulkReadSource.read(status -> write(writer, bulkReadSource.repository()));
+                rows = read == null ? 0 : read;
+            } else {
+                for (String shard : shardRouter.shards()) {
+                    rows += shardRouter.readInShardNamed(shard, () -> write(shardWriter, shardRepository));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        sink.end();
+        return rows;
+    }
+
+    private static long write(RowWriter writer, BulkReadRepository repository) {
+        try {
+            return writer.write(repository);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        long write(BulkReadRepository repository) throws IOException;
+    }
+}
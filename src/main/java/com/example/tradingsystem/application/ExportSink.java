@@ -0,0 +1,32 @@
+package com.example.tradingsystem.application;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 流式导出的输出端
+ *
+ * <p>由 {@link ExportService} 逐行回调，实现方直接写出到输出流，不缓存行；
+ * 输出流阻塞（客户端读取慢）时回调同样阻塞，游标随之停止拉取，形成背压。
+ */
+public interface ExportSink {
+
+    /**
+     * 导出开始，写出表头
+     *
+     * @param columns 列名，与 {@link #row(Object[])} 的值一一对应
+     */
+    void begin(List<String> columns) throws IOException;
+
+    /**
+     * 写出一行
+     *
+     * @param values 列值（Long、BigDecimal、String、Instant 或枚举，可能为 null），调用返回后数组会被复用
+     */
+    void row(Object[] values) throws IOException;
+
+    /**
+     * 导出结束，刷新剩余输出
+     */
+    void end() throws IOException;
+}
@@ -5,8 +5,10 @@ import com.example.tradingsystem.domain.merchant.MerchantAccount;
 import com.example.tradingsystem.domain.product.Product;
 import com.example.tradingsystem.domain.shared.Money;
 import com.example.tradingsystem.domain.shared.Quantity;
+import com.example.tradingsystem.infrastructure.prefilter.OrderPrefilter;
 import com.example.tradingsystem.repository.MerchantAccountRepository;
 import com.example.tradingsystem.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,10 +29,14 @@ public class InventoryService {
 
     private final MerchantAccountRepository merchantAccountRepository;
     private final ProductRepository productRepository;
+    private final OrderPrefilter orderPrefilter;
 
-    public InventoryService(MerchantAccountRepository merchantAccountRepository, ProductRepository productRepository) {
+    public InventoryService(MerchantAccountRepository merchantAccountRepository,
+                            ProductRepository productRepository,
+                            ObjectProvider<OrderPrefilter> orderPrefilter) {
         this.merchantAccountRepository = merchantAccountRepository;
         this.productRepository = productRepository;
+        this.orderPrefilter = orderPrefilter.getIfAvailable();
     }
 
     /**
@@ -43,6 +49,7 @@ public class InventoryService {
      *   <li>如果商品已存在，验证商家是否匹配</li>
      *   <li>增加商品库存</li>
      * </ol>
+     * 开启下单前置过滤时，SKU 登记到 {@link OrderPrefilter}，事务提交后清除售罄标记。
      * 
      * @param merchantName 商家名称
      * @param sku 商品SKU
@@ -60,6 +67,9 @@ public class InventoryService {
                                            long quantity) {
         Money productPrice = Money.of(price);
         Quantity stockQuantity = Quantity.of(quantity);
+        if (orderPrefilter != null) {
+            orderPrefilter.restocked(sku);
+        }
 
         // 查询或创建商家
         MerchantAccount merchant = merchantAccountRepository.selectOne(
@@ -81,17 +91,19 @@ public class InventoryService {
         if (product == null) {
             // 创建新商品
             product = new Product(sku, name, productPrice, merchant);
+            product.addStock(stockQuantity);
             productRepository.insert(product);
-        } else {
-            // 验证商家是否匹配
-            ensureSameMerchant(merchant, product);
-            // 设置商家对象（用于业务逻辑）
-            product.setMerchant(merchant);
+            return product;
         }
 
-        // 增加库存
+        // 验证商家是否匹配
+        ensureSameMerchant(merchant, product);
+        // 设置商家对象（用于业务逻辑）
+        product.setMerchant(merchant);
+
+        // 增加库存（原子累加，不与库存配额的租借、归还互相覆盖）
         product.addStock(stockQuantity);
-        productRepository.updateById(product);
+        productRepository.increaseStock(product.getId(), stockQuantity.getValue());
         
         return product;
     }
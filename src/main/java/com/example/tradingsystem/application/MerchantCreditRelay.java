@@ -0,0 +1,84 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
+import com.example.tradingsystem.infrastructure.shard.ShardingProperties;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.MerchantCredit;
+import com.example.tradingsystem.repository.MerchantCreditRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 分片模式下的商家入账中继
+ *
+ * <p>逐个分片读取发件箱中的待入账记录，在目录库的一个事务中登记去重记录并入账，再回到分片标记已入账。
+ * 任一步失败都会在下一轮重试；目录库按 (分片, 订单ID) 去重，重复投递不会重复入账。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class MerchantCreditRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantCreditRelay.class);
+
+    private final ShardRouter shardRouter;
+    private final MerchantCreditRepository merchantCreditRepository;
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final ShardingProperties properties;
+
+    public MerchantCreditRelay(ShardRouter shardRouter,
+                               MerchantCreditRepository merchantCreditRepository,
+                               MerchantAccountRepository merchantAccountRepository,
+                               ShardingProperties properties) {
+        this.shardRouter = shardRouter;
+        this.merchantCreditRepository = merchantCreditRepository;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${trading.sharding.relay-interval-ms:200}",
+            initialDelayString = "${trading.sharding.relay-interval-ms:200}")
+    public void scheduledRelay() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("Merchant credit relay failed, will retry", e);
+        }
+    }
+
+    /**
+     * 处理所有分片的一批待入账记录
+     *
+     * @return 本轮处理的记录数
+     */
+    public int relay() {
+        int relayed = 0;
+        for (String shard : shardRouter.shards()) {
+            relayed += relayShard(shard);
+        }
+        return relayed;
+    }
+
+    private int relayShard(String shard) {
+        List<MerchantCredit> pending = shardRouter.inShardNamed(shard,
+                () -> merchantCreditRepository.selectPending(properties.getRelayBatchSize()));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        shardRouter.inCatalog(() -> {
+            for (MerchantCredit credit : pending) {
+                if (merchantCreditRepository.insertApplied(shard, credit.orderId()) == 1) {
+                    merchantAccountRepository.creditBalance(credit.merchantId(), credit.amount());
+                }
+            }
+            return null;
+        });
+        shardRouter.inShardNamed(shard,
+                () -> merchantCreditRepository.markApplied(pending.stream().map(MerchantCredit::id).toList()));
+        return pending.size();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import com.example.tradingsystem.infrastructure.limit.ConcurrencyLimitProperties;
+import com.example.tradingsystem.infrastructure.limit.ConcurrencyLimitSnapshot;
+import com.example.tradingsystem.infrastructure.limit.GradientConcurrencyLimit;
+import com.example.tradingsystem.infrastructure.lock.LockQueueRejectedException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 下单准入控制
+ *
+ * <p>在事务开始和加锁之前按节点的自适应并发上限准入，超出时立即拒绝，而不是让请求在
+ * Tomcat 线程、连接池或 SKU 锁上排队直到超时：
+ * <ul>
+ *   <li>所有下单共享节点级上限；开启 {@code per-sku-class} 时热点 SKU 还须通过单独的上限</li>
+ *   <li>购物车下单由 {@link CartOrderService} 在服务层准入，只计节点级上限</li>
+ *   <li>拿不到数据库连接视为节点过载，直接下调所有上限</li>
+ *   <li>SKU 锁等待超时、排队拒绝和乐观锁冲突只说明单个 SKU 竞争激烈：热点 SKU 下调其单独的上限，
+ *       节点上限不计这次样本，一个热点 SKU 不会拖低全部流量的上限</li>
+ *   <li>其他结果（包括业务拒绝）作为延迟样本</li>
+ *   <li>拒绝时抛出 {@link OverloadException}，HTTP 接口返回 429 和 Retry-After</li>
+ * </ul>
+ * 上限只在本节点内生效。
+ */
+@Service
+@ConditionalOnProperty(prefix = "trading.limiter", name = "enabled", havingValue = "true")
+public class OrderAdmission {
+
+    private final ConcurrencyLimitProperties properties;
+    private final HotKeyDetector hotKeyDetector;
+    private final GradientConcurrencyLimit nodeLimit;
+    private final GradientConcurrencyLimit hotSkuLimit;
+
+    public OrderAdmission(ConcurrencyLimitProperties properties, HotKeyDetector hotKeyDetector) {
+        this.properties = properties;
+        this.hotKeyDetector = hotKeyDetector;
+        this.nodeLimit = new GradientConcurrencyLimit("node", properties.getInitialLimit(), properties);
+        this.hotSkuLimit = properties.isPerSkuClass()
+                ? new GradientConcurrencyLimit("hot-sku", properties.getHotInitialLimit(), properties)
+                : null;
+    }
+
+    /**
+     * 在并发上限内执行下单
+     *
+     * @param sku 商品SKU（用于区分热点 SKU）
+     * @param placement 下单调用
+     * @return 订单
+     * @throws OverloadException 如果并发已达上限
+     */
+    public Order placeOrder(String sku, Supplier<Order> placement) {
+        GradientConcurrencyLimit.Permit hotPermit = null;
+        if (hotSkuLimit != null && hotKeyDetector.isHot(sku)) {
+            hotPermit = hotSkuLimit.tryAcquire();
+            if (hotPermit == null) {
+                throw overloaded("Too many concurrent orders for hot product " + sku);
+            }
+        }
+        GradientConcurrencyLimit.Permit permit = nodeLimit.tryAcquire();
+        if (permit == null) {
+            if (hotPermit != null) {
+                hotPermit.abandon();
+            }
+            throw overloaded("Too many concurrent orders");
+        }
+        return admitted(permit, hotPermit, placement);
+    }
+
+    /**
+     * 在节点并发上限内执行购物车下单
+     *
+     * <p>购物车可能同时包含热点和非热点 SKU，只计节点级上限。
+     *
+     * @param placement 购物车下单调用
+     * @return 各行的订单
+     * @throws OverloadException 如果并发已达上限
+     */
+    public List<Order> placeCartOrder(Supplier<List<Order>> placement) {
+        GradientConcurrencyLimit.Permit permit = nodeLimit.tryAcquire();
+        if (permit == null) {
+            throw overloaded("Too many concurrent orders");
+        }
+        return admitted(permit, null, placement);
+    }
+
+    private <T> T admitted(GradientConcurrencyLimit.Permit permit, GradientConcurrencyLimit.Permit hotPermit,
+                           Supplier<T> placement) {
+        boolean nodeDropped = false;
+        boolean skuContended = false;
+        try {
+            return placement.get();
+        } catch (RuntimeException e) {
+            nodeDropped = isResourceExhausted(e);
+            skuContended = isSkuContention(e);
+            throw e;
+        } finally {
+            if (nodeDropped) {
+                permit.dropped();
+            } else if (skuContended) {
+                // 单个 SKU 的竞争不代表节点过载，耗时也不是有效的延迟样本
+                permit.abandon();
+            } else {
+                permit.release();
+            }
+            if (hotPermit != null) {
+                if (nodeDropped || skuContended) {
+                    hotPermit.dropped();
+                } else {
+                    hotPermit.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 各并发上限的当前状态
+     */
+    public List<ConcurrencyLimitSnapshot> limits() {
+        return hotSkuLimit == null
+                ? List.of(nodeLimit.snapshot())
+                : List.of(nodeLimit.snapshot(), hotSkuLimit.snapshot());
+    }
+
+    private OverloadException overloaded(String message) {
+        return new OverloadException(message + ", please retry later", properties.getRetryAfter());
+    }
+
+    private static boolean isResourceExhausted(RuntimeException e) {
+        return e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    /**
+     * SKU 等待队列的拒绝由下单服务包装为 {@link OverloadException}，按原因与准入本身的拒绝区分
+     */
+    private static boolean isSkuContention(RuntimeException e) {
+        if (e instanceof OverloadException) {
+            return e.getCause() instanceof LockQueueRejectedException;
+        }
+        return e instanceof ConcurrentUpdateException;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.OrderStatus;
+
+import java.time.Instant;
+
+/**
+ * 订单历史查询条件
+ *
+ * @param status 订单状态，为 null 时不过滤
+ * @param from 创建时间下界（包含），为 null 时不限
+ * @param to 创建时间上界（不包含），为 null 时不限
+ * @param cursor 上一页返回的游标，为 null 时从最新的订单开始
+ * @param limit 每页条数
+ */
+public record OrderHistoryQuery(OrderStatus status, Instant from, Instant to, String cursor, int limit) {
+}
@@ -0,0 +1,12 @@
+package com.example.tradingsystem.application;
+
+import java.util.List;
+
+/**
+ * 订单历史的一页
+ *
+ * @param items 本页订单（按创建时间、ID 倒序）
+ * @param nextCursor 下一页游标，没有更多数据时为 null
+ */
+public record OrderPage(List<OrderSummary> items, String nextCursor) {
+}
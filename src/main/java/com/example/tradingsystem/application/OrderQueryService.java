@@ -0,0 +1,228 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.archive.OrderArchiver;
+import com.example.tradingsystem.infrastructure.cache.CatalogCache;
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 订单历史查询应用服务
+ *
+ * <p>按用户或商家列出订单，使用键集分页（seek）而不是 OFFSET：
+ * <ul>
+ *   <li>排序键为 (created_at, id) 倒序，游标记录上一页最后一行的排序键</li>
+ *   <li>下一页条件为 {@code created_at < ? OR (created_at = ? AND id < ?)}，
+ *       在 (user_id / merchant_id, created_at, id, status) 索引上直接定位，翻到第几页代价都相同</li>
+ *   <li>只读取列表需要的列，返回 {@link OrderSummary}</li>
+ *   <li>热表不足一页，或本页已翻到归档分界时间之前时，用同样的条件查询归档表并合并</li>
+ * </ul>
+ * 开启 {@code trading.sharding} 时订单在用户分片上（分片没有归档表）：用户历史在用户所在分片上查询，
+ * 商家历史在所有分片上并行执行同一个分页查询，按 (created_at, id) 合并；
+ * 各分片的订单ID区间互不重叠（见 {@link com.example.tradingsystem.infrastructure.shard.ShardOrderIdRanges}），跨分片的游标仍能唯一定位。
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderQueryService {
+
+    /** 每页最大条数 */
+    public static final int MAX_LIMIT = 100;
+
+    private static final Comparator<Order> NEWEST_FIRST =
+            Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId).reversed();
+
+    private final OrderRepository orderRepository;
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final CatalogCache catalogCache;
+    private final OrderArchiver orderArchiver;
+    private final UserAccountRepository userAccountRepository;
+    private final ShardRouter shardRouter;
+
+    public OrderQueryService(OrderRepository orderRepository,
+                             MerchantAccountRepository merchantAccountRepository,
+                             CatalogCache catalogCache,
+                             OrderArchiver orderArchiver,
+                             UserAccountRepository userAccountRepository,
+                             ObjectProvider<ShardRouter> shardRouter) {
+        this.orderRepository = orderRepository;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.catalogCache = catalogCache;
+        this.orderArchiver = orderArchiver;
+        this.userAccountRepository = userAccountRepository;
+        this.shardRouter = shardRouter.getIfAvailable();
+    }
+
+    /**
+     * 查询用户的订单历史
+     *
+     * @param username 用户名
+     * @param query 查询条件
+     * @return 一页订单
+     * @throws ResourceNotFoundException 如果用户不存在
+     */
+    public OrderPage listByUser(String username, OrderHistoryQuery query) {
+        if (shardRouter != null) {
+            return listOnUserShard(username, query);
+        }
+        UserAccount user = catalogCache.loadUser(username);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+        return list(Order::getUserId, user.getId(), query);
+    }
+
+    /**
+     * 查询商家的订单历史
+     *
+     * @param merchantName 商家名称
+     * @param query 查询条件
+     * @return 一页订单
+     * @throws ResourceNotFoundException 如果商家不存在
+     */
+    public OrderPage listByMerchant(String merchantName, OrderHistoryQuery query) {
+        MerchantAccount merchant = merchantAccountRepository.selectOne(
+                new LambdaQueryWrapper<MerchantAccount>()
+                        .select(MerchantAccount::getId)
+                        .eq(MerchantAccount::getName, merchantName)
+        );
+        if (merchant == null) {
+            throw new ResourceNotFoundException("Merchant not found: " + merchantName);
+        }
+        if (shardRouter != null) {
+            return listAcrossShards(merchant.getId(), query);
+        }
+        return list(Order::getMerchantId, merchant.getId(), query);
+    }
+
+    private OrderPage list(SFunction<Order, Long> owner, Long ownerId, OrderHistoryQuery query) {
+        int limit = limit(query);
+        Cursor cursor = cursor(query);
+
+        List<Order> rows = new ArrayList<>(orderRepository.selectList(pageQuery(owner, ownerId, query, cursor, limit)));
+        // 归档行都早于归档分界时间：热表够一页且本页最后一行仍晚于分界时间时，归档表不可能有更靠前的行
+        boolean fullPage = rows.size() > limit;
+        if (!fullPage || rows.get(limit - 1).getCreatedAt().isBefore(orderArchiver.cutoff())) {
+            rows.addAll(orderRepository.selectArchivedList(pageQuery(owner, ownerId, query, cursor, limit)));
+            rows.sort(NEWEST_FIRST);
+        }
+        return page(rows, limit);
+    }
+
+    /**
+     * 分片模式下的用户历史：用户和订单都在用户所在的分片上
+     */
+    private OrderPage listOnUserShard(String username, OrderHistoryQuery query) {
+        int limit = limit(query);
+        Cursor cursor = cursor(query);
+        List<Order> rows = shardRouter.readInShard(username, () -> {
+            UserAccount user = userAccountRepository.selectOne(new LambdaQueryWrapper<UserAccount>()
+                    .select(UserAccount::getId)
+                    .eq(UserAccount::getUsername, username));
+            if (user == null) {
+                throw new ResourceNotFoundException("User not found: " + username);
+            }
+            return orderRepository.selectList(pageQuery(Order::getUserId, user.getId(), query, cursor, limit));
+        });
+        return page(rows, limit);
+    }
+
+    /**
+     * 分片模式下的商家历史：每个分片最多返回 limit + 1 行，合并后取最新的一页
+     */
+    private OrderPage listAcrossShards(Long merchantId, OrderHistoryQuery query) {
+        int limit = limit(query);
+        Cursor cursor = cursor(query);
+        List<Order> rows = new ArrayList<>();
+        for (List<Order> shardRows : shardRouter.fanOut(shard -> orderRepository.selectList(
+                pageQuery(Order::getMerchantId, merchantId, query, cursor, limit))).values()) {
+            rows.addAll(shardRows);
+        }
+        rows.sort(NEWEST_FIRST);
+        return page(rows, limit);
+    }
+
+    private static int limit(OrderHistoryQuery query) {
+        return Math.max(1, Math.min(query.limit(), MAX_LIMIT));
+    }
+
+    private static Cursor cursor(OrderHistoryQuery query) {
+        return query.cursor() == null ? null : Cursor.decode(query.cursor());
+    }
+
+    /**
+     * 由按 (created_at, id) 倒序排好的候选行生成一页，多取的一行只用于判断是否还有下一页
+     */
+    private static OrderPage page(List<Order> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<OrderSummary> items = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            items.add(OrderSummary.of(rows.get(i)));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummary last = items.get(items.size() - 1);
+            nextCursor = new Cursor(last.createdAt(), last.id()).encode();
+        }
+        return new OrderPage(items, nextCursor);
+    }
+
+    /**
+     * 一页的查询条件，热表和归档表共用
+     */
+    private static LambdaQueryWrapper<Order> pageQuery(SFunction<Order, Long> owner, Long ownerId,
+                                                       OrderHistoryQuery query, Cursor cursor, int limit) {
+        LambdaQueryWrapper<Order> wrapper = new LambdaQueryWrapper<Order>()
+                .select(Order::getId, Order::getUserId, Order::getMerchantId, Order::getProductId,
+                        Order::getQuantity, Order::getTotalPrice, Order::getStatus, Order::getCreatedAt)
+                .eq(owner, ownerId)
+                .eq(query.status() != null, Order::getStatus, query.status())
+                .ge(query.from() != null, Order::getCreatedAt, query.from())
+                .lt(query.to() != null, Order::getCreatedAt, query.to());
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(Order::getCreatedAt, cursor.createdAt())
+                    .or(x -> x.eq(Order::getCreatedAt, cursor.createdAt()).lt(Order::getId, cursor.id())));
+        }
+        return wrapper.orderByDesc(Order::getCreatedAt).orderByDesc(Order::getId).last("LIMIT " + (limit + 1));
+    }
+
+    /**
+     * 分页游标：上一页最后一行的 (created_at, id)
+     */
+    private record Cursor(Instant createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + "." + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\.");
+                if (parts.length != 3) {
+                    throw new BusinessException("Invalid cursor");
+                }
+                return new Cursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                        Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Invalid cursor");
+            }
+        }
+    }
+}
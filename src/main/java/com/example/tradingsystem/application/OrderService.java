@@ -1,23 +1,46 @@
 package com.example.tradingsystem.application;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
 import com.example.tradingsystem.domain.merchant.MerchantAccount;
 import com.example.tradingsystem.domain.order.Order;
 import com.example.tradingsystem.domain.order.OrderCompletedEvent;
 import com.example.tradingsystem.domain.order.OrderDomainService;
 import com.example.tradingsystem.domain.order.OrderPlacedEvent;
 import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.shared.Money;
 import com.example.tradingsystem.domain.shared.DomainEventPublisher;
 import com.example.tradingsystem.domain.shared.Quantity;
 import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.cache.CatalogCache;
+import com.example.tradingsystem.infrastructure.cluster.ClusterMembership;
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import com.example.tradingsystem.infrastructure.inventory.StockAllotmentManager;
+import com.example.tradingsystem.infrastructure.ledger.BalanceLedger;
+import com.example.tradingsystem.infrastructure.lock.ChainedLock;
 import com.example.tradingsystem.infrastructure.lock.DistributedLock;
+import com.example.tradingsystem.infrastructure.lock.LockQueueRejectedException;
+import com.example.tradingsystem.infrastructure.lock.LockWaitQueue;
+import com.example.tradingsystem.infrastructure.mybatis.BatchUnitOfWork;
+import com.example.tradingsystem.infrastructure.prefilter.OrderPrefilter;
+import com.example.tradingsystem.infrastructure.reservation.ReservationHolds;
 import com.example.tradingsystem.repository.MerchantAccountRepository;
 import com.example.tradingsystem.repository.OrderRepository;
 import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.TradeExecutionRepository;
+import com.example.tradingsystem.repository.TradeExecutionResult;
 import com.example.tradingsystem.repository.UserAccountRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -39,6 +62,18 @@ public class OrderService {
     private final OrderDomainService orderDomainService;
     private final DomainEventPublisher domainEventPublisher;
     private final DistributedLock distributedLock;
+    private final CatalogCache catalogCache;
+    private final HotKeyDetector hotKeyDetector;
+    private final StockAllotmentManager stockAllotmentManager;
+    private final BatchUnitOfWork unitOfWork;
+    private final TradeExecutionRepository tradeExecutionRepository;
+    private final TradeExecutionProperties tradeExecutionProperties;
+    private final ShardedOrderService shardedOrderService;
+    private final ClusterMembership clusterMembership;
+    private final BalanceLedger balanceLedger;
+    private final ReservationHolds reservationHolds;
+    private final LockWaitQueue lockWaitQueue;
+    private final OrderPrefilter orderPrefilter;
 
     public OrderService(UserAccountRepository userAccountRepository,
                         MerchantAccountRepository merchantAccountRepository,
@@ -46,7 +81,19 @@ public class OrderService {
                         OrderRepository orderRepository,
                         OrderDomainService orderDomainService,
                         DomainEventPublisher domainEventPublisher,
-                        DistributedLock distributedLock) {
+                        DistributedLock distributedLock,
+                        CatalogCache catalogCache,
+                        HotKeyDetector hotKeyDetector,
+                        StockAllotmentManager stockAllotmentManager,
+                        BatchUnitOfWork unitOfWork,
+                        TradeExecutionRepository tradeExecutionRepository,
+                        TradeExecutionProperties tradeExecutionProperties,
+                        ObjectProvider<ShardedOrderService> shardedOrderService,
+                        ObjectProvider<ClusterMembership> clusterMembership,
+                        ObjectProvider<BalanceLedger> balanceLedger,
+                        ObjectProvider<ReservationHolds> reservationHolds,
+                        ObjectProvider<LockWaitQueue> lockWaitQueue,
+                        ObjectProvider<OrderPrefilter> orderPrefilter) {
         this.userAccountRepository = userAccountRepository;
         this.merchantAccountRepository = merchantAccountRepository;
         this.productRepository = productRepository;
@@ -54,6 +101,18 @@ public class OrderService {
         this.orderDomainService = orderDomainService;
         this.domainEventPublisher = domainEventPublisher;
         this.distributedLock = distributedLock;
+        this.catalogCache = catalogCache;
+        this.hotKeyDetector = hotKeyDetector;
+        this.stockAllotmentManager = stockAllotmentManager;
+        this.unitOfWork = unitOfWork;
+        this.tradeExecutionRepository = tradeExecutionRepository;
+        this.tradeExecutionProperties = tradeExecutionProperties;
+        this.shardedOrderService = shardedOrderService.getIfAvailable();
+        this.clusterMembership = clusterMembership.getIfAvailable();
+        this.balanceLedger = balanceLedger.getIfAvailable();
+        this.reservationHolds = reservationHolds.getIfAvailable();
+        this.lockWaitQueue = lockWaitQueue.getIfAvailable();
+        this.orderPrefilter = orderPrefilter.getIfAvailable();
     }
 
     /**
@@ -65,9 +124,18 @@ public class OrderService {
      *   <li>创建订单聚合根并保存（获取ID）</li>
      *   <li>发布订单创建事件</li>
      *   <li>使用领域服务执行订单交易（扣库存、扣用户余额、加商家余额）</li>
-     *   <li>保存所有聚合根状态</li>
-     *   <li>发布订单完成事件</li>
+     *   <li>保存所有聚合根状态（每种语句一个批次，共 4 次往返，逐条检查乐观锁）</li>
+     *   <li>发布余额变动事件和订单完成事件</li>
      * </ol>
+     *
+     * <p>走本地库存配额的 SKU 不加分布式锁、不更新商品行，见 {@link StockAllotmentManager}；
+     * 开启 {@code trading.trade-execution.single-call} 时，锁内只有一次存储过程调用，见 {@link TradeExecutionRepository}；
+     * 开启 {@code trading.sharding} 时交给 {@link ShardedOrderService}；
+     * 开启 {@code trading.cluster} 且本节点是 SKU 的归属节点时，用进程内锁代替分布式锁；
+     * 开启 {@code trading.ledger.engine} 时余额在锁内由 {@link BalanceLedger} 检查和转移，不更新账户行；
+     * 开启 {@code trading.reservation} 时只有扣除预留后的库存和余额可用，见 {@link ReservationHolds}；
+     * 开启 {@code trading.lock.queue} 时同一 SKU 的请求先在本节点按到达顺序排队，只有队首等待分布式锁，见 {@link LockWaitQueue}；
+     * 开启 {@code trading.prefilter} 时未知用户、未知 SKU 和已售罄 SKU 的订单在加锁前被拒绝，见 {@link OrderPrefilter}。
      * 
      * @param username 用户名
      * @param sku 商品SKU
@@ -75,32 +143,83 @@ public class OrderService {
      * @return 订单对象
      * @throws ResourceNotFoundException 如果用户或商品不存在
      * @throws IllegalStateException 如果库存不足或余额不足
+     * @throws ConcurrentUpdateException 如果聚合根被并发修改
+     * @throws OverloadException 如果 SKU 的等待队列已满或无法在截止时间前轮到
      */
     @Transactional
     public Order placeOrder(String username, String sku, long quantity) {
+        hotKeyDetector.recordOrder(sku);
+        if (shardedOrderService != null) {
+            return shardedOrderService.placeOrder(username, sku, quantity);
+        }
+        rejectImpossible(username, sku);
+        if (stockAllotmentManager.isAllotted(sku)) {
+            return placeAllottedOrder(username, sku, quantity);
+        }
+        return placeLockedOrder(username, sku, quantity, null);
+    }
+
+    /**
+     * 确认预留：在 SKU 锁内认领预留，按预留时的单价走普通流程下单（调用方须在事务中）
+     *
+     * <p>预留的占用在事务提交后才释放；下单失败、事务回滚时预留恢复，仍可再次确认或等待到期。
+     *
+     * @throws ResourceNotFoundException 如果预留不存在、已到期或已被认领
+     */
+    Order placeReservedOrder(ReservationHolds.Hold hold) {
+        hotKeyDetector.recordOrder(hold.sku());
+        return placeLockedOrder(hold.username(), hold.sku(), hold.quantity(), hold.id());
+    }
+
+    private Order placeLockedOrder(String username, String sku, long quantity, String reservationId) {
         // 生成分布式锁键
-        String lockKey = "order:product:" + sku;
+        String lockKey = lockKey(sku);
+        DistributedLock lock = lockFor(sku);
         
-        // 尝试获取分布式锁
-        boolean locked = distributedLock.tryLock(lockKey, 5, TimeUnit.SECONDS);
+        // 排队（启用时）后尝试获取分布式锁
+        LockWaitQueue.Ticket ticket = enterQueue(sku);
+        boolean locked;
+        try {
+            locked = ticket == null
+                    ? lock.tryLock(lockKey, 5, TimeUnit.SECONDS)
+                    : lock.tryLock(lockKey, ticket.remainingMillis(), TimeUnit.SECONDS.toMillis(5), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException | Error e) {
+            // 加锁本身失败（例如降级时的行锁超时）也要让出队首，否则后面的请求一直排不到
+            if (ticket != null) {
+                ticket.leave();
+            }
+            throw e;
+        }
         if (!locked) {
+            if (ticket != null) {
+                ticket.leave();
+            }
+            hotKeyDetector.recordContention(sku);
             throw new ConcurrentUpdateException("System busy, please try again later");
         }
         
         try {
-            // 1. 加载聚合根
-            UserAccount user = userAccountRepository.selectOne(
-                    new LambdaQueryWrapper<UserAccount>()
-                            .eq(UserAccount::getUsername, username)
-            );
+            ReservationHolds.Hold reservation = null;
+            if (reservationId != null) {
+                reservation = reservationHolds.claim(reservationId);
+                if (reservation == null) {
+                    throw new ResourceNotFoundException("Reservation not found or expired: " + reservationId);
+                }
+            }
+            if (balanceLedger != null) {
+                return placeLedgerOrder(username, sku, quantity, reservation);
+            }
+            if (tradeExecutionProperties.isSingleCall()) {
+                return placeSingleCallOrder(username, sku, quantity);
+            }
+
+            // 1. 加载聚合根（缓存命中时按主键查询）
+            UserAccount user = catalogCache.loadUser(username);
             if (user == null) {
                 throw new ResourceNotFoundException("User not found: " + username);
             }
             
-            Product product = productRepository.selectOne(
-                    new LambdaQueryWrapper<Product>()
-                            .eq(Product::getSku, sku)
-            );
+            Product product = catalogCache.loadProduct(sku);
             if (product == null) {
                 throw new ResourceNotFoundException("Product not found: " + sku);
             }
@@ -113,62 +232,330 @@ public class OrderService {
             
             // 设置关联对象（用于业务逻辑）
             product.setMerchant(merchant);
+            noteSoldOut(product, false);
+            Money unitPrice = reservation != null ? reservation.unitPrice() : product.getPrice();
+            checkHolds(user, product, quantity, unitPrice.multiply(quantity), reservation);
+
+            // 2. 创建订单聚合根，使用领域服务执行订单交易（跨聚合协调）
+            Order order = new Order(user, merchant, product, Quantity.of(quantity), unitPrice);
+            orderDomainService.executeOrder(order, user, merchant, product);
+            noteSoldOut(product, true);
+
+            // 3. 新订单与各聚合根的更新一起批量发送（每种语句一个批次），订单ID在发送后回填；
+            //    失败时整个事务回滚，不留下未完成的订单
+            unitOfWork.registerInsert(OrderRepository.class, order);
+            unitOfWork.registerUpdate(ProductRepository.class, product);
+            unitOfWork.registerUpdate(UserAccountRepository.class, user);
+            unitOfWork.registerUpdate(MerchantAccountRepository.class, merchant);
+            flush(List.of(sku));
+
+            // 4. 发布订单创建、余额变动和订单完成事件
+            publishOrderEvents(order, user, merchant, product);
+            return order;
+        } finally {
+            // 释放分布式锁（在事务结束后，避免下一个持锁者读到未提交前的旧数据）
+            unlockAfterCompletion(lock, lockKey, ticket);
+        }
+    }
 
-            // 2. 创建订单聚合根
-            Order order = new Order(user, merchant, product, Quantity.of(quantity));
-            orderRepository.insert(order); // 先保存以获取ID
-
-            // 3. 发布订单创建事件
-            domainEventPublisher.publish(new OrderPlacedEvent(
-                    order.getId(),
-                    user.getUsername(),
-                    merchant.getName(),
-                    product.getSku(),
-                    order.getQuantity().getValue(),
-                    order.getTotalPrice()
-            ));
-
-            try {
-                // 4. 使用领域服务执行订单交易（跨聚合协调）
-                orderDomainService.executeOrder(order, user, merchant, product);
-
-                // 5. 保存聚合根状态
-                productRepository.updateById(product);
-                userAccountRepository.updateById(user);
-                merchantAccountRepository.updateById(merchant);
-                orderRepository.updateById(order);
-
-                // 6. 发布订单完成事件
-                domainEventPublisher.publish(new OrderCompletedEvent(
-                        order.getId(),
-                        user.getUsername(),
-                        merchant.getName(),
-                        product.getSku(),
-                        order.getQuantity().getValue(),
-                        order.getTotalPrice()
-                ));
-
-                return order;
-            } catch (RuntimeException ex) {
-                order.markFailed();
-                orderRepository.updateById(order);
-                throw ex;
+    /**
+     * @return 串行化某个 SKU 下单使用的锁键
+     */
+    public static String lockKey(String sku) {
+        return "order:product:" + sku;
+    }
+
+    /**
+     * 本节点是 SKU 的归属节点时使用进程内锁（交接期内先等原归属节点排空），否则使用分布式锁
+     *
+     * <p>归属节点被报告不可达或处于交接期时，其他节点可能回退为本地下单并只拿分布式锁，
+     * 这时归属节点在进程内锁之外再拿同一个分布式锁，两边互斥。
+     */
+    DistributedLock lockFor(String sku) {
+        if (clusterMembership != null && clusterMembership.isLocal(sku)) {
+            clusterMembership.awaitHandover(sku);
+            if (clusterMembership.requiresSharedLock()) {
+                return new ChainedLock(clusterMembership.localLock(), distributedLock);
             }
+            return clusterMembership.localLock();
+        }
+        return distributedLock;
+    }
+
+    /**
+     * 进入 SKU 的等待队列，未启用时返回 null
+     */
+    private LockWaitQueue.Ticket enterQueue(String sku) {
+        if (lockWaitQueue == null) {
+            return null;
+        }
+        try {
+            return lockWaitQueue.enter(sku);
+        } catch (LockQueueRejectedException e) {
+            hotKeyDetector.recordContention(sku);
+            // 保留原因，准入控制据此把排队拒绝算作单个 SKU 的竞争而不是节点过载
+            OverloadException overload = new OverloadException(e.getMessage() + ", estimated wait "
+                    + e.getEstimatedWait().toMillis() + "ms, please try again later", e.getEstimatedWait());
+            overload.initCause(e);
+            throw overload;
+        }
+    }
+
+    /**
+     * 有事务时在事务提交或回滚后释放锁（随后离开等待队列），否则立即释放
+     */
+    void unlockAfterCompletion(DistributedLock lock, String lockKey, LockWaitQueue.Ticket ticket) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(lock, lockKey, ticket);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                OrderService.release(lock, lockKey, ticket);
+            }
+        });
+    }
+
+    private static void release(DistributedLock lock, String lockKey, LockWaitQueue.Ticket ticket) {
+        try {
+            lock.unlock(lockKey);
         } finally {
-            // 释放分布式锁
-            distributedLock.unlock(lockKey);
+            if (ticket != null) {
+                ticket.leave();
+            }
+        }
+    }
+
+    /**
+     * 按前置过滤的判定拒绝不可能成交的订单（未启用时不做任何事），异常与锁内检查抛出的相同
+     */
+    void rejectImpossible(String username, String sku) {
+        if (orderPrefilter == null) {
+            return;
+        }
+        switch (orderPrefilter.check(username, sku)) {
+            case UNKNOWN_USER -> throw new ResourceNotFoundException("User not found: " + username);
+            case UNKNOWN_SKU -> throw new ResourceNotFoundException("Product not found: " + sku);
+            case SOLD_OUT -> throw new IllegalStateException("Insufficient stock");
+            case PASSED -> {
+            }
+        }
+    }
+
+    /**
+     * 商品库存为 0 时标记售罄（锁内调用）
+     *
+     * @param uncommitted 库存是本事务扣到 0 的：在事务提交后标记，回滚则不标记
+     */
+    void noteSoldOut(Product product, boolean uncommitted) {
+        if (orderPrefilter == null || !product.isSoldOut()) {
+            return;
+        }
+        String sku = product.getSku();
+        if (!uncommitted || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            orderPrefilter.markSoldOut(sku);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderPrefilter.markSoldOut(sku);
+            }
+        });
+    }
+
+    /**
+     * @return 用户当前余额，启用余额账本时以账本为准（账户行中的余额只是检查点）
+     */
+    Money balanceOf(UserAccount user) {
+        return balanceLedger != null ? balanceLedger.balanceOf(AccountType.USER, user.getId()) : user.getBalance();
+    }
+
+    /**
+     * 扣除其他预留占用后检查库存和余额是否足够，扣款金额计为占用直到事务结束
+     *
+     * @param reservation 本次确认的预留，其占用不算作其他预留；普通下单为 null
+     */
+    private void checkHolds(UserAccount user, Product product, long quantity, Money amount,
+                            ReservationHolds.Hold reservation) {
+        if (reservationHolds == null) {
+            return;
+        }
+        long otherHeldStock = reservationHolds.heldStock(product.getId())
+                - (reservation != null ? reservation.quantity() : 0);
+        if (product.getStockQuantity().getValue() - otherHeldStock < quantity) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        reservationHolds.holdDebit(user.getId(), amount, balanceOf(user), reservation);
+    }
+
+    /**
+     * 通过一次存储过程调用完成交易，Java 侧只做参数校验和结果映射
+     *
+     * <p>存储过程在当前事务内执行，失败时不修改任何数据；成功后按返回的ID重建订单并发布事件。
+     */
+    private Order placeSingleCallOrder(String username, String sku, long quantity) {
+        Quantity orderQuantity = Quantity.of(quantity);
+        Instant createdAt = Instant.now();
+        TradeExecutionResult result = tradeExecutionRepository.executeTrade(username, sku, quantity, createdAt);
+        switch (result.status()) {
+            case TradeExecutionResult.OK -> {
+            }
+            case TradeExecutionResult.USER_NOT_FOUND -> throw new ResourceNotFoundException("User not found: " + username);
+            case TradeExecutionResult.PRODUCT_NOT_FOUND -> throw new ResourceNotFoundException("Product not found: " + sku);
+            case TradeExecutionResult.INSUFFICIENT_STOCK -> throw new IllegalStateException("Insufficient stock");
+            case TradeExecutionResult.INSUFFICIENT_BALANCE -> throw new IllegalStateException("Insufficient balance");
+            default -> throw new IllegalStateException("Unknown trade execution status: " + result.status());
+        }
+
+        Order order = Order.completed(result.orderId(), result.userId(), result.merchantId(), result.productId(),
+                orderQuantity, Money.of(result.unitPrice()), Money.of(result.totalPrice()), createdAt);
+        String merchantName = catalogCache.findMerchantName(result.merchantId()).orElse(null);
+
+        domainEventPublisher.publish(new OrderPlacedEvent(
+                order.getId(), username, merchantName, sku, quantity, order.getTotalPrice()));
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.USER, result.userId(), BalanceChangeType.WITHDRAW, order.getTotalPrice()));
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.MERCHANT, result.merchantId(), BalanceChangeType.CREDIT, order.getTotalPrice()));
+        domainEventPublisher.publish(new OrderCompletedEvent(
+                order.getId(), username, merchantName, sku, quantity, order.getTotalPrice()));
+        return order;
+    }
+
+    /**
+     * 余额由内存余额账本结算的下单
+     *
+     * <p>账户行只用于取ID和名称，余额检查和转移都在内存中完成并写入账本的预写日志，
+     * 事务提交前等待日志刷盘，回滚时账本自动冲正；数据库中的余额由账本的检查点异步写回。
+     */
+    private Order placeLedgerOrder(String username, String sku, long quantity, ReservationHolds.Hold reservation) {
+        UserAccount user = catalogCache.loadUser(username);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+
+        Product product = catalogCache.loadProduct(sku);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found: " + sku);
+        }
+
+        MerchantAccount merchant = merchantAccountRepository.selectById(product.getMerchantId());
+        if (merchant == null) {
+            throw new ResourceNotFoundException("Merchant not found: " + product.getMerchantId());
+        }
+        product.setMerchant(merchant);
+        noteSoldOut(product, false);
+        Money unitPrice = reservation != null ? reservation.unitPrice() : product.getPrice();
+        checkHolds(user, product, quantity, unitPrice.multiply(quantity), reservation);
+
+        Order order = new Order(user, merchant, product, Quantity.of(quantity), unitPrice);
+        orderDomainService.executeFundedOrder(order, product,
+                amount -> balanceLedger.transfer(user.getId(), merchant.getId(), amount));
+        noteSoldOut(product, true);
+
+        unitOfWork.registerInsert(OrderRepository.class, order);
+        unitOfWork.registerUpdate(ProductRepository.class, product);
+        flush(List.of(sku));
+
+        publishOrderEvents(order, user, merchant, product);
+        return order;
+    }
+
+    /**
+     * 从本地库存配额下单
+     *
+     * <p>库存从本节点的配额中扣减，事务回滚时自动退回；商家余额用原子 UPDATE 入账，
+     * 用户余额仍走乐观锁，并发修改时抛出 {@link ConcurrentUpdateException}。
+     */
+    private Order placeAllottedOrder(String username, String sku, long quantity) {
+        UserAccount user = catalogCache.loadUser(username);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + username);
+        }
+
+        Product product = catalogCache.loadProduct(sku);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found: " + sku);
+        }
+
+        MerchantAccount merchant = merchantAccountRepository.selectById(product.getMerchantId());
+        if (merchant == null) {
+            throw new ResourceNotFoundException("Merchant not found: " + product.getMerchantId());
+        }
+        product.setMerchant(merchant);
+
+        Order order = new Order(user, merchant, product, Quantity.of(quantity));
+        if (!stockAllotmentManager.tryAcquire(sku, product.getId(), quantity)) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        orderDomainService.executeReservedOrder(order, user, merchant);
+
+        merchantAccountRepository.creditBalance(merchant.getId(), order.getTotalPrice().getAmount());
+        unitOfWork.registerInsert(OrderRepository.class, order);
+        unitOfWork.registerUpdate(UserAccountRepository.class, user);
+        flush(List.of(sku));
+
+        publishOrderEvents(order, user, merchant, product);
+        return order;
+    }
+
+    /**
+     * 发布一笔已写入的订单的创建、余额变动和完成事件（订单ID已在批量发送后回填）
+     */
+    private void publishOrderEvents(Order order, UserAccount user, MerchantAccount merchant, Product product) {
+        domainEventPublisher.publish(new OrderPlacedEvent(
+                order.getId(),
+                user.getUsername(),
+                merchant.getName(),
+                product.getSku(),
+                order.getQuantity().getValue(),
+                order.getTotalPrice()
+        ));
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.USER, user.getId(), BalanceChangeType.WITHDRAW, order.getTotalPrice()));
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.MERCHANT, merchant.getId(), BalanceChangeType.CREDIT, order.getTotalPrice()));
+        domainEventPublisher.publish(new OrderCompletedEvent(
+                order.getId(),
+                user.getUsername(),
+                merchant.getName(),
+                product.getSku(),
+                order.getQuantity().getValue(),
+                order.getTotalPrice()
+        ));
+    }
+
+    /**
+     * 发送批量更新，乐观锁冲突转换为 {@link ConcurrentUpdateException}，并记为所涉 SKU 的一次竞争
+     */
+    void flush(Collection<String> skus) {
+        try {
+            unitOfWork.flush();
+        } catch (OptimisticLockingFailureException e) {
+            skus.forEach(hotKeyDetector::recordContention);
+            throw new ConcurrentUpdateException(e.getMessage() + ", please try again");
         }
     }
 
     /**
      * 根据ID查询订单
      * 
+     * <p>热表中不存在时继续查询归档表；开启读写分离时在副本上执行；开启分片时并行查询所有分片。
+     * 
      * @param id 订单ID
      * @return 订单对象
      * @throws ResourceNotFoundException 如果订单不存在
      */
+    @Transactional(readOnly = true)
     public Order findById(Long id) {
-        Order order = orderRepository.selectById(id);
+        Order order = shardedOrderService != null
+                ? shardedOrderService.findById(id)
+                : orderRepository.selectById(id);
+        if (order == null && shardedOrderService == null) {
+            order = orderRepository.selectArchivedById(id);
+        }
         if (order == null) {
             throw new ResourceNotFoundException("Order not found: " + id);
         }
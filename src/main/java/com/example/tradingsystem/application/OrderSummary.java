@@ -0,0 +1,29 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 订单历史列表中的一行（精简投影，不包含关联对象）
+ *
+ * @param id 订单ID
+ * @param userId 用户ID
+ * @param merchantId 商家ID
+ * @param productId 商品ID
+ * @param quantity 购买数量
+ * @param totalPrice 订单总价
+ * @param status 订单状态
+ * @param createdAt 创建时间
+ */
+public record OrderSummary(Long id, Long userId, Long merchantId, Long productId, long quantity,
+                           BigDecimal totalPrice, OrderStatus status, Instant createdAt) {
+
+    public static OrderSummary of(Order order) {
+        return new OrderSummary(order.getId(), order.getUserId(), order.getMerchantId(), order.getProductId(),
+                order.getQuantity().getValue(), order.getTotalPrice().getAmount(), order.getStatus(),
+                order.getCreatedAt());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tradingsystem.application;
+
+import java.time.Duration;
+
+/**
+ * 过载拒绝异常：请求在进入事务和加锁之前被并发限制拒绝，可以稍后重试
+ */
+public class OverloadException extends ConcurrentUpdateException {
+
+    private final Duration retryAfter;
+
+    public OverloadException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return 建议客户端等待的时间
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
+import com.example.tradingsystem.infrastructure.shard.ShardingProperties;
+import com.example.tradingsystem.repository.PendingSale;
+import com.example.tradingsystem.repository.PendingSaleRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.SaleOutcomeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 分片模式下的待确认销售对账
+ *
+ * <p>下单线程没能确认的销售（提交应答丢失、撤销失败、进程在两步之间退出）超过
+ * {@code trading.sharding.pending-sale-timeout} 后由这里处理：
+ * <ul>
+ *   <li>先在用户分片上为该销售写入中止结果（{@link SaleOutcomeRepository}）；下单事务仍在执行时等待它结束，
+ *       已写入中止结果后迟到的下单事务无法再提交</li>
+ *   <li>分片上的结果是已提交：删除待确认记录</li>
+ *   <li>结果是中止：删除待确认记录并撤销库存扣减</li>
+ * </ul>
+ * 删除待确认记录与撤销在同一个目录库事务中，并以删除成功为前提，与下单线程的撤销互不重复。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class PendingSaleReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingSaleReconciler.class);
+
+    private final ShardRouter shardRouter;
+    private final PendingSaleRepository pendingSaleRepository;
+    private final SaleOutcomeRepository saleOutcomeRepository;
+    private final ProductRepository productRepository;
+    private final ShardingProperties properties;
+
+    public PendingSaleReconciler(ShardRouter shardRouter,
+                                 PendingSaleRepository pendingSaleRepository,
+                                 SaleOutcomeRepository saleOutcomeRepository,
+                                 ProductRepository productRepository,
+                                 ShardingProperties properties) {
+        this.shardRouter = shardRouter;
+        this.pendingSaleRepository = pendingSaleRepository;
+        this.saleOutcomeRepository = saleOutcomeRepository;
+        this.productRepository = productRepository;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${trading.sharding.reconcile-interval-ms:5000}",
+            initialDelayString = "${trading.sharding.reconcile-interval-ms:5000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Pending sale reconciliation failed, will retry", e);
+        }
+    }
+
+    /**
+     * 处理一批超时的待确认销售
+     *
+     * @return 本轮撤销的销售数
+     */
+    public int reconcile() {
+        Instant before = Instant.now().minus(properties.getPendingSaleTimeout());
+        List<PendingSale> stale = shardRouter.inCatalog(
+                () -> pendingSaleRepository.selectOlderThan(before, properties.getRelayBatchSize()));
+        int reverted = 0;
+        for (PendingSale sale : stale) {
+            try {
+                if (resolve(sale)) {
+                    reverted++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile pending sale {} on shard {}, will retry", sale.id(), sale.shard(), e);
+            }
+        }
+        return reverted;
+    }
+
+    /**
+     * @return 是否撤销了该销售
+     */
+    private boolean resolve(PendingSale sale) {
+        // 先在分片上封住该销售，之后分片上的结果不会再变化
+        boolean committed = shardRouter.inShardNamed(sale.shard(), () -> {
+            saleOutcomeRepository.insertAbortedIfAbsent(sale.id());
+            return SaleOutcomeRepository.COMMITTED.equals(saleOutcomeRepository.selectOutcome(sale.id()));
+        });
+        Boolean reverted = shardRouter.inCatalog(() -> {
+            if (pendingSaleRepository.deleteById(sale.id()) == 0 || committed) {
+                return false;
+            }
+            productRepository.revertSale(sale.productId(), sale.quantity());
+            return true;
+        });
+        if (Boolean.TRUE.equals(reverted)) {
+            log.warn("Reverted sale {} of product {} x{}: shard {} aborted the order",
+                    sale.id(), sale.productId(), sale.quantity(), sale.shard());
+            return true;
+        }
+        return false;
+    }
+}
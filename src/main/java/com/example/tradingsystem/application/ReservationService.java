@@ -0,0 +1,105 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.shared.Quantity;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.cache.CatalogCache;
+import com.example.tradingsystem.infrastructure.lock.DistributedLock;
+import com.example.tradingsystem.infrastructure.reservation.ReservationHolds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 两阶段下单应用服务
+ *
+ * <p>结账流程中的慢步骤（支付等）不再持有 SKU 锁：
+ * <ol>
+ *   <li>预留：在 SKU 锁内检查扣除已有预留后的库存和余额，登记带有效期的预留后立即释放锁</li>
+ *   <li>确认：在 SKU 锁内认领预留，按预留时的价格下单；占用在提交后释放，下单失败时预留恢复</li>
+ *   <li>取消：认领并释放预留；未确认的预留到期后自动释放</li>
+ * </ol>
+ * 预留在默认下单路径和内存余额账本路径上生效；预留只保存在本节点内存中，
+ * 不能与集群、分片、库存配额或单次调用交易同时使用（启动时由 {@link com.example.tradingsystem.config.TradingModeGuard} 检查）。
+ */
+@Service
+@ConditionalOnProperty(prefix = "trading.reservation", name = "enabled", havingValue = "true")
+public class ReservationService {
+
+    private final OrderService orderService;
+    private final ReservationHolds reservationHolds;
+    private final CatalogCache catalogCache;
+
+    public ReservationService(OrderService orderService,
+                              ReservationHolds reservationHolds,
+                              CatalogCache catalogCache) {
+        this.orderService = orderService;
+        this.reservationHolds = reservationHolds;
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * 预留库存和资金
+     *
+     * @param username 用户名
+     * @param sku 商品SKU
+     * @param quantity 购买数量
+     * @return 预留
+     * @throws ResourceNotFoundException 如果用户或商品不存在
+     * @throws IllegalStateException 如果扣除已有预留后库存或余额不足
+     * @throws ConcurrentUpdateException 如果在等待时间内没有拿到 SKU 锁
+     */
+    public ReservationHolds.Hold reserve(String username, String sku, long quantity) {
+        Quantity reservedQuantity = Quantity.of(quantity);
+        String lockKey = OrderService.lockKey(sku);
+        DistributedLock lock = orderService.lockFor(sku);
+        if (!lock.tryLock(lockKey, 5, 5, TimeUnit.SECONDS)) {
+            throw new ConcurrentUpdateException("System busy, please try again later");
+        }
+        try {
+            UserAccount user = catalogCache.loadUser(username);
+            if (user == null) {
+                throw new ResourceNotFoundException("User not found: " + username);
+            }
+            Product product = catalogCache.loadProduct(sku);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found: " + sku);
+            }
+            return reservationHolds.place(user.getId(), username, product.getId(), sku, reservedQuantity.getValue(),
+                    product.getPrice(), product.getStockQuantity().getValue(), orderService.balanceOf(user));
+        } finally {
+            lock.unlock(lockKey);
+        }
+    }
+
+    /**
+     * 确认预留并下单
+     *
+     * @param reservationId 预留ID
+     * @return 订单
+     * @throws ResourceNotFoundException 如果预留不存在、已到期或已被确认/取消
+     */
+    @Transactional
+    public Order confirm(String reservationId) {
+        ReservationHolds.Hold hold = reservationHolds.find(reservationId);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Reservation not found or expired: " + reservationId);
+        }
+        return orderService.placeReservedOrder(hold);
+    }
+
+    /**
+     * 取消预留
+     *
+     * @param reservationId 预留ID
+     * @throws ResourceNotFoundException 如果预留不存在、已到期或已被确认/取消
+     */
+    public void cancel(String reservationId) {
+        if (reservationHolds.cancel(reservationId) == null) {
+            throw new ResourceNotFoundException("Reservation not found or expired: " + reservationId);
+        }
+    }
+}
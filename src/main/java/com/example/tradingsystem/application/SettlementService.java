@@ -1,16 +1,24 @@
 package com.example.tradingsystem.application;
 
+import com.example.tradingsystem.domain.ledger.AccountType;
 import com.example.tradingsystem.domain.merchant.MerchantAccount;
 import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.infrastructure.ledger.BalanceLedger;
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
 import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.MerchantCreditRepository;
+import com.example.tradingsystem.repository.MerchantCreditTotal;
 import com.example.tradingsystem.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 结算应用服务
@@ -24,7 +32,8 @@ import java.util.List;
  * <p>结算逻辑：
  * <ul>
  *   <li>预期金额 = 所有商品的（单价 × 已售数量）之和</li>
- *   <li>实际金额 = 商家账户余额</li>
+ *   <li>实际金额 = 商家账户余额；开启分片时加上各分片发件箱中尚未入账的收入（并行汇总）；
+ *       开启内存余额账本时取账本中的余额</li>
  *   <li>差额 = 实际金额 - 预期金额（应该为0，表示账目平衡）</li>
  * </ul>
  */
@@ -35,11 +44,20 @@ public class SettlementService {
 
     private final MerchantAccountRepository merchantAccountRepository;
     private final ProductRepository productRepository;
+    private final MerchantCreditRepository merchantCreditRepository;
+    private final ShardRouter shardRouter;
+    private final BalanceLedger balanceLedger;
 
     public SettlementService(MerchantAccountRepository merchantAccountRepository,
-                             ProductRepository productRepository) {
+                             ProductRepository productRepository,
+                             MerchantCreditRepository merchantCreditRepository,
+                             ObjectProvider<ShardRouter> shardRouter,
+                             ObjectProvider<BalanceLedger> balanceLedger) {
         this.merchantAccountRepository = merchantAccountRepository;
         this.productRepository = productRepository;
+        this.merchantCreditRepository = merchantCreditRepository;
+        this.shardRouter = shardRouter.getIfAvailable();
+        this.balanceLedger = balanceLedger.getIfAvailable();
     }
 
     /**
@@ -58,6 +76,9 @@ public class SettlementService {
         
         // 查询所有商品
         List<com.example.tradingsystem.domain.product.Product> products = productRepository.selectList(null);
+
+        // 分片模式下各分片尚未入账的收入
+        Map<Long, Money> pendingCredits = pendingCredits();
         
         // 对每个商家进行结算
         for (MerchantAccount merchant : merchants) {
@@ -67,8 +88,11 @@ public class SettlementService {
                     .map(p -> p.getPrice().multiply(p.getSoldQuantity().getValue()))
                     .reduce(Money.zero(), Money::add);
             
-            // 实际金额：商家账户余额
-            Money actual = merchant.getBalance();
+            // 实际金额：商家账户余额（加上尚未入账的收入）
+            Money balance = balanceLedger != null
+                    ? balanceLedger.balanceOf(AccountType.MERCHANT, merchant.getId())
+                    : merchant.getBalance();
+            Money actual = balance.add(pendingCredits.getOrDefault(merchant.getId(), Money.zero()));
             
             // 计算差额
             Money diff = actual.subtract(expected);
@@ -83,6 +107,20 @@ public class SettlementService {
         return results;
     }
 
+    private Map<Long, Money> pendingCredits() {
+        Map<Long, Money> pending = new HashMap<>();
+        if (shardRouter == null) {
+            return pending;
+        }
+        for (List<MerchantCreditTotal> totals
+                : shardRouter.fanOut(shard -> merchantCreditRepository.sumPendingByMerchant()).values()) {
+            for (MerchantCreditTotal total : totals) {
+                pending.merge(total.merchantId(), Money.of(total.amount()), Money::add);
+            }
+        }
+        return pending;
+    }
+
     /**
      * 结算结果
      * 
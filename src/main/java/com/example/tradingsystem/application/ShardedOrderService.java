@@ -0,0 +1,185 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderCompletedEvent;
+import com.example.tradingsystem.domain.order.OrderPlacedEvent;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.shared.DomainEventPublisher;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.shared.Quantity;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.cache.CatalogCache;
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
+import com.example.tradingsystem.repository.MerchantCreditRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.PendingSale;
+import com.example.tradingsystem.repository.PendingSaleRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.SaleOutcomeRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 分片模式下的下单服务
+ *
+ * <p>商品和商家在目录库，用户和订单在用户所在的分片，一笔订单分三步完成：
+ * <ol>
+ *   <li>目录库事务：条件扣减库存并增加已售数量（不需要分布式锁），同时写入一条待确认销售</li>
+ *   <li>用户分片事务：扣减用户余额、插入已完成订单、写入带销售ID的商家入账发件箱</li>
+ *   <li>{@link MerchantCreditRelay} 异步把发件箱中的收入入账到目录库，按 (分片, 订单ID) 去重</li>
+ * </ol>
+ * 第 2 步提交后删除待确认销售；第 2 步在事务内失败（确定已回滚）时撤销销售并抛出原异常。
+ * 提交结果未知（例如提交应答丢失）或撤销本身失败时待确认销售保留，
+ * 由 {@link PendingSaleReconciler} 按分片上的销售结果栅栏决定确认还是撤销，不会超卖也不会重复撤销。
+ */
+@Service
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class ShardedOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedOrderService.class);
+
+    private final ShardRouter shardRouter;
+    private final CatalogCache catalogCache;
+    private final ProductRepository productRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final OrderRepository orderRepository;
+    private final MerchantCreditRepository merchantCreditRepository;
+    private final PendingSaleRepository pendingSaleRepository;
+    private final SaleOutcomeRepository saleOutcomeRepository;
+    private final DomainEventPublisher domainEventPublisher;
+
+    public ShardedOrderService(ShardRouter shardRouter,
+                               CatalogCache catalogCache,
+                               ProductRepository productRepository,
+                               UserAccountRepository userAccountRepository,
+                               OrderRepository orderRepository,
+                               MerchantCreditRepository merchantCreditRepository,
+                               PendingSaleRepository pendingSaleRepository,
+                               SaleOutcomeRepository saleOutcomeRepository,
+                               DomainEventPublisher domainEventPublisher) {
+        this.shardRouter = shardRouter;
+        this.catalogCache = catalogCache;
+        this.productRepository = productRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.orderRepository = orderRepository;
+        this.merchantCreditRepository = merchantCreditRepository;
+        this.pendingSaleRepository = pendingSaleRepository;
+        this.saleOutcomeRepository = saleOutcomeRepository;
+        this.domainEventPublisher = domainEventPublisher;
+    }
+
+    /**
+     * 下单购买商品
+     *
+     * @throws ResourceNotFoundException 如果用户或商品不存在
+     * @throws IllegalStateException 如果库存不足或余额不足
+     * @throws ConcurrentUpdateException 如果用户账户被并发修改
+     */
+    public Order placeOrder(String username, String sku, long quantity) {
+        Quantity orderQuantity = Quantity.of(quantity);
+        String shard = shardRouter.shardOf(username);
+        String saleId = UUID.randomUUID().toString();
+
+        Product product = shardRouter.inCatalog(() -> {
+            Product loaded = catalogCache.loadProduct(sku);
+            if (loaded == null) {
+                throw new ResourceNotFoundException("Product not found: " + sku);
+            }
+            if (productRepository.recordSale(loaded.getId(), quantity) == 0) {
+                throw new IllegalStateException("Insufficient stock");
+            }
+            pendingSaleRepository.insert(new PendingSale(saleId, shard, loaded.getId(), quantity, Instant.now()));
+            return loaded;
+        });
+        Money total = product.getPrice().multiply(quantity);
+
+        AtomicBoolean workDone = new AtomicBoolean();
+        Order order;
+        try {
+            order = shardRouter.inShardNamed(shard, () -> {
+                // 对账任务已判定该销售中止时主键冲突，整个分片事务回滚
+                saleOutcomeRepository.insertCommitted(saleId);
+                UserAccount user = userAccountRepository.selectOne(
+                        new LambdaQueryWrapper<UserAccount>().eq(UserAccount::getUsername, username));
+                if (user == null) {
+                    throw new ResourceNotFoundException("User not found: " + username);
+                }
+                user.withdraw(total);
+                if (userAccountRepository.updateById(user) == 0) {
+                    throw new ConcurrentUpdateException("User account was modified concurrently, please try again");
+                }
+                Order created = Order.completed(null, user.getId(), product.getMerchantId(), product.getId(),
+                        orderQuantity, product.getPrice(), total, Instant.now());
+                orderRepository.insert(created);
+                merchantCreditRepository.insertPending(saleId, created.getId(), product.getMerchantId(),
+                        total.getAmount());
+                workDone.set(true);
+                return created;
+            });
+        } catch (RuntimeException e) {
+            // 工作未完成时分片事务已回滚，可以立即撤销；否则是提交阶段失败，结果未知，交给对账任务
+            if (!workDone.get()) {
+                cancelSale(saleId, product.getId(), quantity, e);
+            }
+            throw e;
+        }
+        resolveSale(saleId);
+
+        String merchantName = catalogCache.findMerchantName(product.getMerchantId()).orElse(null);
+        domainEventPublisher.publish(new OrderPlacedEvent(
+                order.getId(), username, merchantName, sku, quantity, total));
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.USER, order.getUserId(), BalanceChangeType.WITHDRAW, total));
+        domainEventPublisher.publish(new OrderCompletedEvent(
+                order.getId(), username, merchantName, sku, quantity, total));
+        return order;
+    }
+
+    /**
+     * 撤销一笔确定未在分片提交的销售；撤销失败时保留待确认销售由对账任务处理，原异常照常抛出
+     */
+    private void cancelSale(String saleId, Long productId, long quantity, RuntimeException cause) {
+        try {
+            shardRouter.inCatalog(() -> {
+                if (pendingSaleRepository.deleteById(saleId) == 1) {
+                    productRepository.revertSale(productId, quantity);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 分片事务已提交，删除待确认销售；失败时由对账任务在分片发件箱中找到该销售后删除
+     */
+    private void resolveSale(String saleId) {
+        try {
+            shardRouter.inCatalog(() -> pendingSaleRepository.deleteById(saleId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to resolve pending sale {}, the reconciler will retry", saleId, e);
+        }
+    }
+
+    /**
+     * 按ID查找订单：订单ID全局唯一，按ID所在的区间只查询一个分片
+     *
+     * @return 订单，不存在时返回 null
+     */
+    public Order findById(Long id) {
+        String shard = shardRouter.shardOfOrder(id);
+        return shard == null ? null : shardRouter.readInShardNamed(shard, () -> orderRepository.selectById(id));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tradingsystem.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 批量库存导入配置（trading.stock-import.*）
+ */
+@ConfigurationProperties(prefix = "trading.stock-import")
+public class StockImportProperties {
+
+    /** 每个事务处理的行数（多行 INSERT 每行 5 个参数，不宜超过 10000） */
+    private int chunkSize = 1_000;
+
+    /** 响应中最多返回的被拒绝行数 */
+    private int maxReportedRejections = 1_000;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxReportedRejections() {
+        return maxReportedRejections;
+    }
+
+    public void setMaxReportedRejections(int maxReportedRejections) {
+        this.maxReportedRejections = maxReportedRejections;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tradingsystem.application;
+
+import java.util.List;
+
+/**
+ * 批量导入结果
+ *
+ * @param accepted 成功导入的行数
+ * @param rejected 被拒绝的行数
+ * @param rejections 被拒绝的行（最多保留配置的条数）
+ */
+public record StockImportResult(long accepted, long rejected, List<Rejection> rejections) {
+
+    /**
+     * 被拒绝的一行
+     *
+     * @param line 行号
+     * @param sku 商品SKU（解析失败时为 null）
+     * @param reason 拒绝原因
+     */
+    public record Rejection(long line, String sku, String reason) {
+    }
+}
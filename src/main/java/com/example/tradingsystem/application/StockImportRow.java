@@ -0,0 +1,25 @@
+package com.example.tradingsystem.application;
+
+/**
+ * 批量导入的一行原始数据（字段未经校验）
+ *
+ * @param line 行号（从1开始）
+ * @param merchant 商家名称
+ * @param sku 商品SKU
+ * @param name 商品名称
+ * @param price 商品价格
+ * @param quantity 增加的库存数量
+ * @param error 解析错误，格式正确时为 null
+ */
+public record StockImportRow(long line, String merchant, String sku, String name,
+                             String price, String quantity, String error) {
+
+    public static StockImportRow of(long line, String merchant, String sku, String name,
+                                    String price, String quantity) {
+        return new StockImportRow(line, merchant, sku, name, price, quantity, null);
+    }
+
+    public static StockImportRow malformed(long line, String error) {
+        return new StockImportRow(line, null, null, null, null, null, error);
+    }
+}
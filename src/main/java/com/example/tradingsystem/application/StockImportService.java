@@ -0,0 +1,242 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.infrastructure.prefilter.OrderPrefilter;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.ProductStockUpsert;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 批量库存导入应用服务
+ *
+ * <p>逐行消费导入数据，按块（默认 1000 行）提交，每块一个事务：
+ * <ol>
+ *   <li>校验字段，格式错误的行直接拒绝</li>
+ *   <li>一次批量查询解析商家，缺失的商家用一条多行 INSERT 创建</li>
+ *   <li>一次批量查询已有商品，属于其他商家的 SKU 拒绝（与 {@link InventoryService} 相同的归属规则）</li>
+ *   <li>同一 SKU 的多行合并后按 SKU 排序，用一条多行 upsert 累加库存；并发导入按相同顺序锁行，不会互相死锁</li>
+ *   <li>upsert 后重新读取归属：查询之后被其他商家抢先创建的 SKU 不会被改动，这些行计为拒绝</li>
+ * </ol>
+ * 已提交的块不会因为后续的块失败而回滚，导入中断后可以按行号续传。
+ * 开启下单前置过滤时，每块的 SKU 登记到 {@link OrderPrefilter}，块提交后清除售罄标记。
+ */
+@Service
+public class StockImportService {
+
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockImportProperties properties;
+    private final OrderPrefilter orderPrefilter;
+
+    public StockImportService(MerchantAccountRepository merchantAccountRepository,
+                              ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              StockImportProperties properties,
+                              ObjectProvider<OrderPrefilter> orderPrefilter) {
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.orderPrefilter = orderPrefilter.getIfAvailable();
+    }
+
+    /**
+     * 导入库存
+     *
+     * @param rows 逐行读取的导入数据
+     * @return 导入结果
+     */
+    public StockImportResult importStock(Iterator<StockImportRow> rows) {
+        Progress progress = new Progress(properties.getMaxReportedRejections());
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<StockImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize) {
+                applyChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, progress);
+        }
+        progress.rejections.sort(Comparator.comparingLong(StockImportResult.Rejection::line));
+        return new StockImportResult(progress.accepted, progress.rejected, progress.rejections);
+    }
+
+    private void applyChunk(List<StockImportRow> chunk, Progress progress) {
+        List<ValidRow> valid = new ArrayList<>(chunk.size());
+        for (StockImportRow row : chunk) {
+            String reason = row.error() != null ? row.error() : validate(row);
+            if (reason != null) {
+                progress.reject(row.line(), row.sku(), reason);
+            } else {
+                valid.add(new ValidRow(row.line(), row.merchant().trim(), row.sku().trim(), row.name().trim(),
+                        Money.of(new BigDecimal(row.price().trim())).getAmount(),
+                        Long.parseLong(row.quantity().trim())));
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Progress chunkProgress = new Progress(Integer.MAX_VALUE);
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Long> merchantIds = resolveMerchants(valid);
+            Set<String> skus = new LinkedHashSet<>();
+            valid.forEach(row -> skus.add(row.sku()));
+            Map<String, Long> owners = loadOwners(skus);
+
+            // 按 SKU 排序，所有导入以相同顺序锁行
+            Map<String, ProductStockUpsert> upserts = new TreeMap<>();
+            Map<String, List<Long>> lines = new HashMap<>();
+            for (ValidRow row : valid) {
+                Long merchantId = merchantIds.get(row.merchant());
+                Long owner = owners.putIfAbsent(row.sku(), merchantId);
+                if (owner != null && !owner.equals(merchantId)) {
+                    chunkProgress.reject(row.line(), row.sku(), "Product belongs to another merchant");
+                    continue;
+                }
+                upserts.merge(row.sku(),
+                        new ProductStockUpsert(row.sku(), row.name(), row.price(), merchantId, row.quantity()),
+                        (existing, added) -> existing.plus(added.quantity()));
+                lines.computeIfAbsent(row.sku(), sku -> new ArrayList<>()).add(row.line());
+            }
+            if (upserts.isEmpty()) {
+                return;
+            }
+            productRepository.upsertStock(new ArrayList<>(upserts.values()));
+            // upsert 已锁住这些行，此时读到的归属不会再变
+            Map<String, Long> written = loadOwners(upserts.keySet());
+            for (ProductStockUpsert upsert : upserts.values()) {
+                List<Long> skuLines = lines.get(upsert.sku());
+                if (!upsert.merchantId().equals(written.get(upsert.sku()))) {
+                    skuLines.forEach(line -> chunkProgress.reject(line, upsert.sku(), "Product belongs to another merchant"));
+                    continue;
+                }
+                chunkProgress.accepted += skuLines.size();
+                if (orderPrefilter != null) {
+                    orderPrefilter.restocked(upsert.sku());
+                }
+            }
+        });
+        progress.accepted += chunkProgress.accepted;
+        chunkProgress.rejections.forEach(r -> progress.reject(r.line(), r.sku(), r.reason()));
+    }
+
+    /**
+     * 解析本块涉及的所有商家，不存在的批量创建
+     */
+    private Map<String, Long> resolveMerchants(List<ValidRow> rows) {
+        Set<String> names = new LinkedHashSet<>();
+        rows.forEach(row -> names.add(row.merchant()));
+
+        Map<String, Long> ids = selectMerchantIds(names);
+        if (ids.size() < names.size()) {
+            List<String> missing = new ArrayList<>();
+            for (String name : names) {
+                if (!ids.containsKey(name)) {
+                    missing.add(name);
+                }
+            }
+            merchantAccountRepository.insertMissing(missing);
+            ids.putAll(selectMerchantIds(missing));
+        }
+        return ids;
+    }
+
+    private Map<String, Long> selectMerchantIds(Iterable<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> list = new ArrayList<>();
+        names.forEach(list::add);
+        for (MerchantAccount merchant : merchantAccountRepository.selectList(new LambdaQueryWrapper<MerchantAccount>()
+                .select(MerchantAccount::getId, MerchantAccount::getName)
+                .in(MerchantAccount::getName, list))) {
+            ids.put(merchant.getName(), merchant.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 查询已存在商品的归属商家
+     */
+    private Map<String, Long> loadOwners(Collection<String> skus) {
+        Map<String, Long> owners = new HashMap<>();
+        for (Product product : productRepository.selectList(new LambdaQueryWrapper<Product>()
+                .select(Product::getId, Product::getSku, Product::getMerchantId)
+                .in(Product::getSku, skus))) {
+            owners.put(product.getSku(), product.getMerchantId());
+        }
+        return owners;
+    }
+
+    private static String validate(StockImportRow row) {
+        if (isBlank(row.merchant()) || isBlank(row.sku()) || isBlank(row.name())) {
+            return "merchant, sku and name are required";
+        }
+        try {
+            if (isBlank(row.price()) || new BigDecimal(row.price().trim()).compareTo(new BigDecimal("0.01")) < 0) {
+                return "price must be at least 0.01";
+            }
+        } catch (NumberFormatException e) {
+            return "price is not a number";
+        }
+        try {
+            if (isBlank(row.quantity()) || Long.parseLong(row.quantity().trim()) < 1) {
+                return "quantity must be at least 1";
+            }
+        } catch (NumberFormatException e) {
+            return "quantity is not an integer";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record ValidRow(long line, String merchant, String sku, String name, BigDecimal price, long quantity) {
+    }
+
+    /**
+     * 导入进度
+     */
+    private static final class Progress {
+
+        private final int maxReportedRejections;
+        private final List<StockImportResult.Rejection> rejections = new ArrayList<>();
+        private long accepted;
+        private long rejected;
+
+        private Progress(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+
+        private void reject(long line, String sku, String reason) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new StockImportResult.Rejection(line, sku, reason));
+            }
+        }
+    }
+}
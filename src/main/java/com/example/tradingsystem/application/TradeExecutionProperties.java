@@ -0,0 +1,21 @@
+package com.example.tradingsystem.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 下单执行方式配置（trading.trade-execution.*）
+ */
+@ConfigurationProperties(prefix = "trading.trade-execution")
+public class TradeExecutionProperties {
+
+    /** 是否通过存储过程 execute_trade 在一次数据库往返中完成交易（需先安装 db/mysql/execute_trade.sql） */
+    private boolean singleCall = false;
+
+    public boolean isSingleCall() {
+        return singleCall;
+    }
+
+    public void setSingleCall(boolean singleCall) {
+        this.singleCall = singleCall;
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.tradingsystem.application;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.shared.DomainEventPublisher;
 import com.example.tradingsystem.domain.shared.Money;
 import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.ledger.BalanceLedger;
+import com.example.tradingsystem.infrastructure.prefilter.OrderPrefilter;
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
 import com.example.tradingsystem.repository.UserAccountRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletionException;
 
 /**
  * 用户账户应用服务
@@ -22,9 +33,27 @@ import java.math.BigDecimal;
 public class UserAccountService {
 
     private final UserAccountRepository userAccountRepository;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DepositCoalescer depositCoalescer;
+    private final ShardRouter shardRouter;
+    private final BalanceLedger balanceLedger;
+    private final OrderPrefilter orderPrefilter;
 
-    public UserAccountService(UserAccountRepository userAccountRepository) {
+    public UserAccountService(UserAccountRepository userAccountRepository,
+                              DomainEventPublisher domainEventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<DepositCoalescer> depositCoalescer,
+                              ObjectProvider<ShardRouter> shardRouter,
+                              ObjectProvider<BalanceLedger> balanceLedger,
+                              ObjectProvider<OrderPrefilter> orderPrefilter) {
         this.userAccountRepository = userAccountRepository;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.depositCoalescer = depositCoalescer.getIfAvailable();
+        this.shardRouter = shardRouter.getIfAvailable();
+        this.balanceLedger = balanceLedger.getIfAvailable();
+        this.orderPrefilter = orderPrefilter.getIfAvailable();
     }
 
     /**
@@ -32,49 +61,99 @@ public class UserAccountService {
      * 
      * <p>业务逻辑：
      * <ol>
-     *   <li>根据用户名查询账户，如果不存在则创建新账户</li>
-     *   <li>调用账户的deposit方法进行充值</li>
-     *   <li>保存账户信息到数据库</li>
+     *   <li>用一条原子 upsert 语句充值：账户不存在时创建，存在时在原余额上累加</li>
+     *   <li>回读账户最新余额</li>
+     *   <li>发布余额变动事件</li>
      * </ol>
+     *
+     * <p>启用充值合并且调用方不在事务中时，交给 {@link DepositCoalescer} 与同一窗口内的其他充值合并提交；
+     * 否则在当前事务（没有时新建事务）中直接执行。开启分片时在用户所在分片的独立事务中执行，不参与合并。
+     * 开启内存余额账本时只确保账户行存在，余额在账本中累加，日志刷盘后返回。
+     * 开启下单前置过滤时，用户名在写入前登记到 {@link OrderPrefilter}。
      * 
      * @param username 用户名
      * @param amount 充值金额
      * @return 更新后的用户账户
+     * @throws IllegalArgumentException 如果充值金额不大于0
      */
-    @Transactional
     public UserAccount deposit(String username, BigDecimal amount) {
         Money depositAmount = Money.of(amount);
-        
-        // 使用MyBatis Plus的LambdaQueryWrapper查询
+        if (!depositAmount.isPositive()) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        if (orderPrefilter != null) {
+            orderPrefilter.addUser(username);
+        }
+
+        if (shardRouter != null) {
+            return shardRouter.inShard(username, () -> applyDeposit(username, depositAmount));
+        }
+        if (balanceLedger != null) {
+            return applyLedgerDeposit(username, depositAmount);
+        }
+        if (depositCoalescer != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return depositCoalescer.submit(username, depositAmount).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        return transactionTemplate.execute(status -> applyDeposit(username, depositAmount));
+    }
+
+    private UserAccount applyDeposit(String username, Money depositAmount) {
+        userAccountRepository.upsertDeposit(username, depositAmount.getAmount());
+
         UserAccount account = userAccountRepository.selectOne(
                 new LambdaQueryWrapper<UserAccount>()
                         .eq(UserAccount::getUsername, username)
         );
-        
-        // 如果账户不存在，创建新账户
-        if (account == null) {
-            account = new UserAccount(username, Money.zero());
-            userAccountRepository.insert(account);
-        }
-        
-        // 充值
-        account.deposit(depositAmount);
-        
-        // 更新账户
-        userAccountRepository.updateById(account);
-        
+
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.USER, account.getId(), BalanceChangeType.DEPOSIT, depositAmount));
+
         return account;
     }
 
+    private UserAccount applyLedgerDeposit(String username, Money depositAmount) {
+        UserAccount account = loadOrCreate(username);
+        Money balance = balanceLedger.deposit(account.getId(), depositAmount);
+
+        domainEventPublisher.publish(new AccountBalanceChangedEvent(
+                AccountType.USER, account.getId(), BalanceChangeType.DEPOSIT, depositAmount));
+
+        return UserAccount.restore(account.getId(), account.getUsername(), balance);
+    }
+
     /**
      * 获取或创建用户账户
      * 
-     * <p>如果账户不存在，则创建新账户并保存到数据库
+     * <p>如果账户不存在，则创建新账户并保存到数据库；开启分片时在用户所在分片上执行；
+     * 开启内存余额账本时余额取自账本
      * 
      * @param username 用户名
      * @return 用户账户
      */
     public UserAccount getOrCreate(String username) {
+        if (shardRouter != null) {
+            return shardRouter.inShard(username, () -> loadOrCreate(username));
+        }
+        if (orderPrefilter != null) {
+            orderPrefilter.addUser(username);
+        }
+        UserAccount account = loadOrCreate(username);
+        if (balanceLedger != null) {
+            return UserAccount.restore(account.getId(), account.getUsername(),
+                    balanceLedger.balanceOf(AccountType.USER, account.getId()));
+        }
+        return account;
+    }
+
+    private UserAccount loadOrCreate(String username) {
         // 查询账户
         UserAccount account = userAccountRepository.selectOne(
                 new LambdaQueryWrapper<UserAccount>()
@@ -0,0 +1,77 @@
+package com.example.tradingsystem.config;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动时检查互不兼容的交易模式组合
+ *
+ * <p>各模式分别接管下单路径的一部分，有的组合会绕过另一方的约束（例如库存配额路径直接修改账户行，
+ * 绕过内存余额账本），配置了这样的组合时启动失败，而不是在运行中产生不一致的数据。
+ */
+@Component
+public class TradingModeGuard {
+
+    public TradingModeGuard(Environment environment) {
+        List<String> conflicts = conflicts(environment);
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Incompatible trading modes: " + String.join("; ", conflicts));
+        }
+    }
+
+    /**
+     * @return 配置中互不兼容的模式组合，每项一条说明
+     */
+    static List<String> conflicts(Environment environment) {
+        List<String> conflicts = new ArrayList<>();
+        if (enabled(environment, "trading.ledger.engine.enabled")) {
+            String ledger = "trading.ledger.engine.enabled";
+            reject(environment, conflicts, ledger, "trading.cluster.enabled",
+                    "ledger balances live in one process and cannot be shared by cluster nodes");
+            reject(environment, conflicts, ledger, "trading.allotment.enabled",
+                    "allotted orders debit user_accounts directly and bypass the ledger");
+            reject(environment, conflicts, ledger, "trading.sharding.enabled",
+                    "sharded orders debit shard user_accounts directly and bypass the ledger");
+            reject(environment, conflicts, ledger, "trading.trade-execution.single-call",
+                    "the trade procedure debits user_accounts directly and bypasses the ledger");
+            reject(environment, conflicts, ledger, "trading.ledger.event-sourcing.enabled",
+                    "account tables lag the ledger between checkpoints, so the projection's reconciliation "
+                            + "sees drift and rebuilds from stale balances");
+        }
+        if (enabled(environment, "trading.reservation.enabled")) {
+            String reservation = "trading.reservation.enabled";
+            reject(environment, conflicts, reservation, "trading.cluster.enabled",
+                    "holds are kept in one node's memory and are invisible to the other nodes");
+            reject(environment, conflicts, reservation, "trading.allotment.enabled",
+                    "allotted orders do not check reservation holds");
+            reject(environment, conflicts, reservation, "trading.sharding.enabled",
+                    "sharded orders do not check reservation holds");
+            reject(environment, conflicts, reservation, "trading.trade-execution.single-call",
+                    "the trade procedure does not check reservation holds");
+        }
+        if (enabled(environment, "trading.archive.enabled")) {
+            reject(environment, conflicts, "trading.archive.enabled", "trading.sharding.enabled",
+                    "sharded orders live on the user shards, which have no orders_archive table");
+        }
+        if (enabled(environment, "trading.prefilter.enabled")) {
+            reject(environment, conflicts, "trading.prefilter.enabled", "trading.sharding.enabled",
+                    "sharded orders skip the prefilter, and its user filter is built from the catalog database, "
+                            + "which holds no shard users");
+        }
+        return conflicts;
+    }
+
+    private static void reject(Environment environment, List<String> conflicts,
+                               String mode, String other, String reason) {
+        if (enabled(environment, other)) {
+            conflicts.add(mode + " cannot be combined with " + other + ": " + reason);
+        }
+    }
+
+    private static boolean enabled(Environment environment, String property) {
+        return environment.getProperty(property, Boolean.class, false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.tradingsystem.config;
+
+import com.example.tradingsystem.interfaces.api.json.JsonWritableHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC配置类
+ *
+ * <p>把 {@link JsonWritableHttpMessageConverter} 放在 Jackson 之前，热点接口的响应不经过反射序列化。
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new JsonWritableHttpMessageConverter());
+    }
+}
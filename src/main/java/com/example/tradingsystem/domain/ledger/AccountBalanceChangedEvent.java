@@ -0,0 +1,32 @@
+package com.example.tradingsystem.domain.ledger;
+
+import com.example.tradingsystem.domain.shared.DomainEvent;
+import com.example.tradingsystem.domain.shared.Money;
+
+import java.time.Instant;
+
+/**
+ * 账户余额变动事件
+ *
+ * <p>用户账户的充值、扣款以及商家账户的入账、出账都会发布该事件，
+ * 事件溯源模式下账户余额可以完全由这些事件推导出来。
+ */
+public record AccountBalanceChangedEvent(
+        AccountType accountType,
+        Long accountId,
+        BalanceChangeType changeType,
+        Money amount,
+        Instant occurredOn
+) implements DomainEvent {
+
+    public AccountBalanceChangedEvent {
+        if (occurredOn == null) {
+            occurredOn = Instant.now();
+        }
+    }
+
+    public AccountBalanceChangedEvent(AccountType accountType, Long accountId,
+                                      BalanceChangeType changeType, Money amount) {
+        this(accountType, accountId, changeType, amount, Instant.now());
+    }
+}
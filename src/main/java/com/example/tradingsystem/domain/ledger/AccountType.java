@@ -0,0 +1,9 @@
+package com.example.tradingsystem.domain.ledger;
+
+/**
+ * 账户类型
+ */
+public enum AccountType {
+    USER,
+    MERCHANT
+}
@@ -0,0 +1,22 @@
+package com.example.tradingsystem.domain.ledger;
+
+/**
+ * 余额变动类型
+ */
+public enum BalanceChangeType {
+    /** 用户充值（增加） */
+    DEPOSIT,
+    /** 用户扣款（减少） */
+    WITHDRAW,
+    /** 商家入账（增加） */
+    CREDIT,
+    /** 商家出账（减少） */
+    DEBIT;
+
+    /**
+     * @return 该变动是否增加余额
+     */
+    public boolean isIncrease() {
+        return this == DEPOSIT || this == CREDIT;
+    }
+}
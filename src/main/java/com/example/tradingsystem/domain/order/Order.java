@@ -105,6 +105,20 @@ public class Order implements AggregateRoot {
                  MerchantAccount merchant,
                  Product product,
                  Quantity quantity) {
+        this(user, merchant, product, quantity, product == null ? null : product.getPrice());
+    }
+
+    /**
+     * 按指定单价创建订单（确认预留时按预留时的价格成交）
+     *
+     * @param unitPrice 成交单价（不能为空）
+     * @throws IllegalArgumentException 如果参数无效
+     */
+    public Order(UserAccount user,
+                 MerchantAccount merchant,
+                 Product product,
+                 Quantity quantity,
+                 Money unitPrice) {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
         }
@@ -117,6 +131,9 @@ public class Order implements AggregateRoot {
         if (quantity == null) {
             throw new IllegalArgumentException("Quantity cannot be null");
         }
+        if (unitPrice == null) {
+            throw new IllegalArgumentException("Unit price cannot be null");
+        }
         this.user = user;
         this.merchant = merchant;
         this.product = product;
@@ -124,7 +141,7 @@ public class Order implements AggregateRoot {
         this.merchantId = merchant.getId();
         this.productId = product.getId();
         this.quantity = quantity;
-        this.unitPrice = product.getPrice();
+        this.unitPrice = unitPrice;
         this.totalPrice = this.unitPrice.multiply(quantity.getValue());
         this.status = OrderStatus.CREATED;
         this.createdAt = Instant.now();
@@ -132,6 +149,31 @@ public class Order implements AggregateRoot {
         this.version = 0L;
     }
 
+    /**
+     * 构造一笔已经完成的订单（单次调用交易路径、分片下单路径）
+     *
+     * <p>不关联用户、商家、商品对象，只保留ID。
+     *
+     * @param id 订单ID，尚未写入数据库时为 null
+     * @param createdAt 创建时间（与写入数据库的值一致）
+     * @return 状态为COMPLETED的订单
+     */
+    public static Order completed(Long id, Long userId, Long merchantId, Long productId,
+                                  Quantity quantity, Money unitPrice, Money totalPrice, Instant createdAt) {
+        Order order = new Order();
+        order.id = id;
+        order.userId = userId;
+        order.merchantId = merchantId;
+        order.productId = productId;
+        order.quantity = quantity;
+        order.unitPrice = unitPrice;
+        order.totalPrice = totalPrice;
+        order.status = OrderStatus.COMPLETED;
+        order.createdAt = createdAt;
+        order.version = 0L;
+        return order;
+    }
+
     @Override
     public Long getId() {
         return id;
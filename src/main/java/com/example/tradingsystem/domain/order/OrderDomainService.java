@@ -7,6 +7,11 @@ import com.example.tradingsystem.domain.shared.Quantity;
 import com.example.tradingsystem.domain.user.UserAccount;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * 订单领域服务
  * 处理跨聚合的业务逻辑，协调多个聚合根之间的交互
@@ -44,5 +49,85 @@ public class OrderDomainService {
         // 4. 标记订单完成
         order.markCompleted();
     }
-}
 
+    /**
+     * 执行库存已预留的订单交易
+     * 库存已由调用方从本节点的库存配额中扣减，这里只处理资金部分
+     *
+     * @param order 订单聚合根
+     * @param user 用户账户聚合根
+     * @param merchant 商家账户聚合根
+     */
+    public void executeReservedOrder(Order order, UserAccount user, MerchantAccount merchant) {
+        // 1. 验证用户余额
+        Money totalPrice = order.getTotalPrice();
+        if (user.getBalance().isLessThan(totalPrice)) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+
+        // 2. 执行交易：扣用户余额、加商家余额
+        user.withdraw(totalPrice);
+        merchant.credit(totalPrice);
+
+        // 3. 标记订单完成
+        order.markCompleted();
+    }
+
+    /**
+     * 执行资金由外部账本结算的订单交易
+     * 余额由调用方提供的扣款动作检查和转移（如内存余额账本），这里处理库存和订单状态
+     *
+     * @param order 订单聚合根
+     * @param product 商品聚合根
+     * @param payment 按订单总价扣款，余额不足时抛出 {@link IllegalStateException}
+     */
+    public void executeFundedOrder(Order order, Product product, Consumer<Money> payment) {
+        // 1. 验证库存
+        Quantity orderQuantity = order.getQuantity();
+        if (product.getStockQuantity().isLessThan(orderQuantity)) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+
+        // 2. 扣款（同时验证余额）
+        payment.accept(order.getTotalPrice());
+
+        // 3. 扣库存并标记订单完成
+        product.sell(orderQuantity);
+        order.markCompleted();
+    }
+
+    /**
+     * 执行多行订单交易（购物车）
+     * 所有行的库存和用户余额先全部验证，再统一执行：用户只扣一次合计金额，每个商家只入账一次净额
+     *
+     * @param orders 各行订单，每行关联不同的商品；同一商家的各行须关联同一个商家对象
+     * @param user 用户账户聚合根
+     */
+    public void executeCartOrder(List<Order> orders, UserAccount user) {
+        // 1. 验证各行库存，汇总用户应付金额和各商家应收金额
+        Money total = null;
+        Map<MerchantAccount, Money> credits = new LinkedHashMap<>();
+        for (Order order : orders) {
+            if (order.getProduct().getStockQuantity().isLessThan(order.getQuantity())) {
+                throw new IllegalStateException("Insufficient stock");
+            }
+            total = total == null ? order.getTotalPrice() : total.add(order.getTotalPrice());
+            credits.merge(order.getMerchant(), order.getTotalPrice(), Money::add);
+        }
+
+        // 2. 验证用户余额
+        if (user.getBalance().isLessThan(total)) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+
+        // 3. 执行交易：逐行扣库存，用户扣一次合计，每个商家加一次净额
+        for (Order order : orders) {
+            order.getProduct().sell(order.getQuantity());
+        }
+        user.withdraw(total);
+        credits.forEach(MerchantAccount::credit);
+
+        // 4. 标记订单完成
+        orders.forEach(Order::markCompleted);
+    }
+}
@@ -183,6 +183,13 @@ public class Product implements AggregateRoot {
         return soldQuantity;
     }
 
+    /**
+     * @return 库存是否已为 0
+     */
+    public boolean isSoldOut() {
+        return stockQuantity.getValue() == 0;
+    }
+
     /**
      * 增加库存
      * 
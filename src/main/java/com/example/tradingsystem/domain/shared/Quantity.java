@@ -57,8 +57,8 @@ public class Quantity {
     
     public Quantity subtract(Quantity other) {
         long result = this.value - other.value;
-        if (result <= 0) {
-            throw new IllegalArgumentException("Result quantity must be positive");
+        if (result < 0) {
+            throw new IllegalArgumentException("Result quantity cannot be negative");
         }
         return new Quantity(result);
     }
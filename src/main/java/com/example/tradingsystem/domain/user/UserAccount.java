@@ -78,6 +78,20 @@ public class UserAccount implements AggregateRoot {
         this(username, initialBalance == null ? Money.zero() : Money.of(initialBalance));
     }
 
+    /**
+     * 按已知状态重建用户账户（余额由内存余额账本维护时使用）
+     *
+     * @param id 账户ID
+     * @param username 用户名
+     * @param balance 当前余额
+     * @return 用户账户
+     */
+    public static UserAccount restore(Long id, String username, Money balance) {
+        UserAccount account = new UserAccount(username, balance);
+        account.id = id;
+        return account;
+    }
+
     @Override
     public Long getId() {
         return id;
@@ -0,0 +1,78 @@
+package com.example.tradingsystem.infrastructure.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 订单归档配置（trading.archive.*）
+ */
+@ConfigurationProperties(prefix = "trading.archive")
+public class ArchiveProperties {
+
+    /** 是否启用后台归档任务 */
+    private boolean enabled = false;
+
+    /** 订单创建超过该时长且已完成/失败时归档 */
+    private Duration minAge = Duration.ofDays(90);
+
+    /** 每批扫描的订单ID区间大小 */
+    private int batchSize = 500;
+
+    /** 批次之间的停顿，限制对线上写入的影响 */
+    private Duration pause = Duration.ofMillis(50);
+
+    /** 单次运行最多处理的批数 */
+    private int maxBatchesPerRun = 200;
+
+    /** 两次运行之间的间隔（毫秒） */
+    private long intervalMs = 60_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Duration minAge) {
+        this.minAge = minAge;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public void setPause(Duration pause) {
+        this.pause = pause;
+    }
+
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.tradingsystem.infrastructure.archive;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单冷热分离的后台归档任务
+ *
+ * <p>把已完成/失败且超过保留期的订单从 orders 迁移到 orders_archive，保持热表和其索引足够小：
+ * <ul>
+ *   <li>从最小ID开始按主键区间分批扫描，每批只在一个短事务里复制并删除选中的ID</li>
+ *   <li>订单ID随时间递增，扫描到第一条未过保留期的订单即停止</li>
+ *   <li>批次之间停顿，且每次运行有批数上限，不与下单路径争抢资源</li>
+ * </ul>
+ * 只迁移终态订单，状态不会再变化，因此复制和删除之间不需要额外加锁。
+ *
+ * <p>定时归档在自己的线程上运行，批次间的停顿不会占用 Spring 共享的调度线程。
+ * 只处理目录库的 orders，不能与 {@code trading.sharding} 同时开启（见 TradingModeGuard）。
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final OrderRepository orderRepository;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         ArchiveProperties properties,
+                         PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (properties.isEnabled()) {
+            long interval = Math.max(1, properties.getIntervalMs());
+            scheduler.scheduleWithFixedDelay(this::scheduledArchive, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return 当前的归档分界时间，早于该时间的终态订单可能已在归档表中
+     */
+    public Instant cutoff() {
+        return Instant.now().minus(properties.getMinAge());
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        // 中断批次间的停顿，当前批次的事务照常完成
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void scheduledArchive() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            // 抛出的异常会终止后续调度，这里记录后等下一轮重试
+            log.warn("Order archive run failed", e);
+        }
+    }
+
+    /**
+     * 执行一次归档
+     *
+     * @return 归档的订单数
+     */
+    public int archive() {
+        Instant cutoff = cutoff();
+        Long nextId = orderRepository.selectMinId();
+        int archived = 0;
+        for (int batch = 0; nextId != null && batch < properties.getMaxBatchesPerRun(); batch++) {
+            List<Order> rows = orderRepository.selectList(new LambdaQueryWrapper<Order>()
+                    .select(Order::getId, Order::getStatus, Order::getCreatedAt)
+                    .ge(Order::getId, nextId)
+                    .orderByAsc(Order::getId)
+                    .last("LIMIT " + properties.getBatchSize()));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = new ArrayList<>(rows.size());
+            boolean reachedCutoff = false;
+            for (Order row : rows) {
+                if (!row.getCreatedAt().isBefore(cutoff)) {
+                    reachedCutoff = true;
+                } else if (row.getStatus() == OrderStatus.COMPLETED || row.getStatus() == OrderStatus.FAILED) {
+                    ids.add(row.getId());
+                }
+            }
+            if (!ids.isEmpty()) {
+                archived += moveToArchive(ids);
+            }
+
+            if (reachedCutoff || rows.size() < properties.getBatchSize()) {
+                break;
+            }
+            nextId = rows.get(rows.size() - 1).getId() + 1;
+            if (!pause()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders created before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int moveToArchive(List<Long> ids) {
+        Integer moved = transactionTemplate.execute(status -> {
+            int copied = orderRepository.copyToArchive(ids);
+            int deleted = orderRepository.deleteByIds(ids);
+            if (copied != ids.size() || deleted != ids.size()) {
+                throw new IllegalStateException("Archive batch mismatch: selected=" + ids.size()
+                        + ", copied=" + copied + ", deleted=" + deleted);
+            }
+            return copied;
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.tradingsystem.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 进程内缓存与启动预热配置（trading.cache.*）
+ */
+@ConfigurationProperties(prefix = "trading.cache")
+public class CacheProperties {
+
+    /** 商品目录缓存的最大条目数 */
+    private long maxProducts = 200_000;
+
+    /** 用户名 -> 用户ID 缓存的最大条目数 */
+    private long maxUsers = 1_000_000;
+
+    private final Warmup warmup = new Warmup();
+
+    public long getMaxProducts() {
+        return maxProducts;
+    }
+
+    public void setMaxProducts(long maxProducts) {
+        this.maxProducts = maxProducts;
+    }
+
+    public long getMaxUsers() {
+        return maxUsers;
+    }
+
+    public void setMaxUsers(long maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * 启动预热配置
+     */
+    public static class Warmup {
+
+        /** 是否在启动时预热 */
+        private boolean enabled = true;
+
+        /** 预热的热门商品数量（按已售数量排序） */
+        private int hotProducts = 10_000;
+
+        /** 预热的最近活跃用户数量 */
+        private int recentUsers = 50_000;
+
+        /** 每页读取的行数 */
+        private int pageSize = 1_000;
+
+        /** 并行度 */
+        private int parallelism = 4;
+
+        /** 预热时间上限，超时后放弃剩余部分并开始接收流量 */
+        private Duration timeBudget = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getHotProducts() {
+            return hotProducts;
+        }
+
+        public void setHotProducts(int hotProducts) {
+            this.hotProducts = hotProducts;
+        }
+
+        public int getRecentUsers() {
+            return recentUsers;
+        }
+
+        public void setRecentUsers(int recentUsers) {
+            this.recentUsers = recentUsers;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Duration getTimeBudget() {
+            return timeBudget;
+        }
+
+        public void setTimeBudget(Duration timeBudget) {
+            this.timeBudget = timeBudget;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.tradingsystem.infrastructure.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 启动时的缓存预热
+ *
+ * <p>并行执行两条预热流水线，每条都按键集分页（keyset pagination）分块读取：
+ * <ul>
+ *   <li>热门商品：按 (sold_quantity, id) 倒序取前 N 个商品，并批量加载其商家名称</li>
+ *   <li>活跃用户：按订单 ID 倒序扫描最近的订单，批量加载下单用户</li>
+ * </ul>
+ *
+ * <p>作为 {@link ApplicationRunner} 同步执行：Spring Boot 在所有 runner 完成后才把 readiness
+ * 置为 ACCEPTING_TRAFFIC，因此预热完成（或超出时间预算）之前 readiness 探针不会放入流量。
+ */
+@Component
+public class CacheWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+
+    /** 扫描订单的行数上限 = 目标用户数 × 该倍数，避免少数用户的大量订单拖慢预热 */
+    private static final int MAX_ORDER_SCAN_FACTOR = 10;
+
+    private final CatalogCache catalogCache;
+    private final ProductRepository productRepository;
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final OrderRepository orderRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final CacheProperties.Warmup properties;
+
+    public CacheWarmup(CatalogCache catalogCache,
+                       ProductRepository productRepository,
+                       MerchantAccountRepository merchantAccountRepository,
+                       OrderRepository orderRepository,
+                       UserAccountRepository userAccountRepository,
+                       CacheProperties properties) {
+        this.catalogCache = catalogCache;
+        this.productRepository = productRepository;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.orderRepository = orderRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.properties = properties.getWarmup();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), r -> {
+            Thread thread = new Thread(r, "cache-warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<Void> products = CompletableFuture
+                    .supplyAsync(() -> warmProducts(pool, stopped), pool)
+                    .thenCompose(CacheWarmup::allOf);
+            CompletableFuture<Void> users = CompletableFuture
+                    .supplyAsync(() -> warmUsers(pool, stopped), pool)
+                    .thenCompose(CacheWarmup::allOf);
+            CompletableFuture.allOf(products, users)
+                    .get(properties.getTimeBudget().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up exceeded its time budget of {}, continuing with a partially warm cache",
+                    properties.getTimeBudget());
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up failed, continuing with a partially warm cache", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.set(true);
+            pool.shutdownNow();
+        }
+        log.info("Cache warm-up finished in {} ms: products={}, users={}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                catalogCache.productCount(), catalogCache.userCount());
+    }
+
+    /**
+     * 按已售数量倒序分页读取热门商品；每页的商家名称在线程池中并行加载
+     */
+    private List<CompletableFuture<Void>> warmProducts(ExecutorService pool, AtomicBoolean stopped) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        Set<Long> seenMerchants = new HashSet<>();
+        Product last = null;
+        int loaded = 0;
+        while (loaded < properties.getHotProducts() && !stopped.get()) {
+            int limit = Math.min(properties.getPageSize(), properties.getHotProducts() - loaded);
+            LambdaQueryWrapper<Product> query = new LambdaQueryWrapper<Product>()
+                    .select(Product::getId, Product::getSku, Product::getName, Product::getPrice,
+                            Product::getMerchantId, Product::getSoldQuantity);
+            if (last != null) {
+                long sold = last.getSoldQuantity().getValue();
+                long id = last.getId();
+                query.and(w -> w.lt(Product::getSoldQuantity, sold)
+                        .or(x -> x.eq(Product::getSoldQuantity, sold).lt(Product::getId, id)));
+            }
+            query.orderByDesc(Product::getSoldQuantity).orderByDesc(Product::getId).last("LIMIT " + limit);
+
+            List<Product> page = productRepository.selectList(query);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> merchantIds = new ArrayList<>();
+            for (Product product : page) {
+                catalogCache.putProduct(product);
+                if (seenMerchants.add(product.getMerchantId())) {
+                    merchantIds.add(product.getMerchantId());
+                }
+            }
+            if (!merchantIds.isEmpty()) {
+                chunks.add(CompletableFuture.runAsync(() -> {
+                    for (MerchantAccount merchant : merchantAccountRepository.selectByIds(merchantIds)) {
+                        catalogCache.putMerchant(merchant.getId(), merchant.getName());
+                    }
+                }, pool));
+            }
+            loaded += page.size();
+            last = page.get(page.size() - 1);
+            if (page.size() < limit) {
+                break;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 按订单 ID 倒序扫描最近的订单，找出活跃用户；每批用户在线程池中并行加载
+     */
+    private List<CompletableFuture<Void>> warmUsers(ExecutorService pool, AtomicBoolean stopped) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        Set<Long> seenUsers = new LinkedHashSet<>();
+        long maxScanned = (long) properties.getRecentUsers() * MAX_ORDER_SCAN_FACTOR;
+        long scanned = 0;
+        Long lastOrderId = null;
+        while (seenUsers.size() < properties.getRecentUsers() && scanned < maxScanned && !stopped.get()) {
+            List<Order> page = orderRepository.selectList(new LambdaQueryWrapper<Order>()
+                    .select(Order::getId, Order::getUserId)
+                    .lt(lastOrderId != null, Order::getId, lastOrderId)
+                    .orderByDesc(Order::getId)
+                    .last("LIMIT " + properties.getPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> userIds = new ArrayList<>();
+            for (Order order : page) {
+                if (seenUsers.size() < properties.getRecentUsers() && seenUsers.add(order.getUserId())) {
+                    userIds.add(order.getUserId());
+                }
+            }
+            if (!userIds.isEmpty()) {
+                chunks.add(CompletableFuture.runAsync(() -> {
+                    for (UserAccount user : userAccountRepository.selectByIds(userIds)) {
+                        catalogCache.putUser(user.getUsername(), user.getId());
+                    }
+                }, pool));
+            }
+            scanned += page.size();
+            lastOrderId = page.get(page.size() - 1).getId();
+            if (page.size() < properties.getPageSize()) {
+                break;
+            }
+        }
+        return chunks;
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new));
+    }
+}
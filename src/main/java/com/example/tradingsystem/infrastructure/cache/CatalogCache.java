@@ -0,0 +1,145 @@
+package com.example.tradingsystem.infrastructure.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 商品目录与用户索引的进程内缓存
+ *
+ * <p>缓存的都是创建后不再变化的映射：
+ * <ul>
+ *   <li>SKU -> 商品目录信息（ID、名称、价格、商家ID）</li>
+ *   <li>用户名 -> 用户ID</li>
+ *   <li>商家ID -> 商家名称</li>
+ * </ul>
+ * 命中时，按 SKU / 用户名的二级索引查询变为按主键查询；库存和余额等可变字段始终从数据库读取。
+ */
+@Component
+public class CatalogCache {
+
+    private final ProductRepository productRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final MerchantAccountRepository merchantAccountRepository;
+
+    private final Cache<String, ProductInfo> productsBySku;
+    private final Cache<String, Long> userIdsByUsername;
+    private final Cache<Long, String> merchantNames;
+
+    public CatalogCache(ProductRepository productRepository,
+                        UserAccountRepository userAccountRepository,
+                        MerchantAccountRepository merchantAccountRepository,
+                        CacheProperties properties) {
+        this.productRepository = productRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.productsBySku = Caffeine.newBuilder().maximumSize(properties.getMaxProducts()).build();
+        this.userIdsByUsername = Caffeine.newBuilder().maximumSize(properties.getMaxUsers()).build();
+        this.merchantNames = Caffeine.newBuilder().maximumSize(properties.getMaxProducts()).build();
+    }
+
+    /**
+     * 按 SKU 加载商品（包含最新库存）
+     *
+     * @return 商品，不存在时返回 null
+     */
+    public Product loadProduct(String sku) {
+        ProductInfo info = productsBySku.getIfPresent(sku);
+        if (info != null) {
+            Product product = productRepository.selectById(info.id());
+            if (product != null) {
+                return product;
+            }
+            productsBySku.invalidate(sku);
+        }
+        Product product = productRepository.selectOne(
+                new LambdaQueryWrapper<Product>().eq(Product::getSku, sku));
+        if (product != null) {
+            putProduct(product);
+        }
+        return product;
+    }
+
+    /**
+     * 按 SKU 查询商品目录信息（不读取库存）
+     */
+    public Optional<ProductInfo> findProduct(String sku) {
+        ProductInfo info = productsBySku.getIfPresent(sku);
+        if (info != null) {
+            return Optional.of(info);
+        }
+        Product product = productRepository.selectOne(
+                new LambdaQueryWrapper<Product>().eq(Product::getSku, sku));
+        return product == null ? Optional.empty() : Optional.of(putProduct(product));
+    }
+
+    /**
+     * 按用户名加载用户账户（包含最新余额）
+     *
+     * @return 用户账户，不存在时返回 null
+     */
+    public UserAccount loadUser(String username) {
+        Long userId = userIdsByUsername.getIfPresent(username);
+        if (userId != null) {
+            UserAccount user = userAccountRepository.selectById(userId);
+            if (user != null) {
+                return user;
+            }
+            userIdsByUsername.invalidate(username);
+        }
+        UserAccount user = userAccountRepository.selectOne(
+                new LambdaQueryWrapper<UserAccount>().eq(UserAccount::getUsername, username));
+        if (user != null) {
+            putUser(user.getUsername(), user.getId());
+        }
+        return user;
+    }
+
+    /**
+     * 查询商家名称
+     */
+    public Optional<String> findMerchantName(Long merchantId) {
+        String name = merchantNames.getIfPresent(merchantId);
+        if (name != null) {
+            return Optional.of(name);
+        }
+        MerchantAccount merchant = merchantAccountRepository.selectById(merchantId);
+        if (merchant == null) {
+            return Optional.empty();
+        }
+        putMerchant(merchant.getId(), merchant.getName());
+        return Optional.of(merchant.getName());
+    }
+
+    public ProductInfo putProduct(Product product) {
+        ProductInfo info = new ProductInfo(product.getId(), product.getSku(), product.getName(),
+                product.getPrice(), product.getMerchantId());
+        productsBySku.put(info.sku(), info);
+        return info;
+    }
+
+    public void putUser(String username, Long userId) {
+        userIdsByUsername.put(username, userId);
+    }
+
+    public void putMerchant(Long merchantId, String name) {
+        merchantNames.put(merchantId, name);
+    }
+
+    public long productCount() {
+        return productsBySku.estimatedSize();
+    }
+
+    public long userCount() {
+        return userIdsByUsername.estimatedSize();
+    }
+}
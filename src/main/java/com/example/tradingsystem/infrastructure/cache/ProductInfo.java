@@ -0,0 +1,12 @@
+package com.example.tradingsystem.infrastructure.cache;
+
+import com.example.tradingsystem.domain.shared.Money;
+
+/**
+ * 商品目录信息（缓存用）
+ *
+ * <p>只包含创建后不再变化的字段：SKU、名称、价格和所属商家。库存、已售数量等可变状态不在缓存中，
+ * 仍然以数据库为准。
+ */
+public record ProductInfo(Long id, String sku, String name, Money price, Long merchantId) {
+}
@@ -0,0 +1,45 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * 集群 SKU 归属配置（trading.cluster.enabled=true 时生效）
+ *
+ * <p>节点间转发连接的服务端见 {@code interfaces.cluster.ClusterPeerServer}，它在启动后以实际端口加入集群。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "trading.cluster", name = "enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    public ClusterCoordinator clusterCoordinator(ClusterProperties properties,
+                                                 ObjectProvider<RedisTemplate<String, String>> redisTemplate) {
+        return switch (properties.getCoordinator()) {
+            case REDIS -> new RedisClusterCoordinator(redisTemplate.getObject(), Clock.systemUTC());
+            case DIRECTORY -> new DirectoryClusterCoordinator(Path.of(properties.getDirectory()), Clock.systemUTC());
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public ClusterPeerClient clusterPeerClient() {
+        return new ClusterPeerClient();
+    }
+
+    @Bean
+    public ClusterMembership clusterMembership(ClusterCoordinator coordinator,
+                                               ClusterPeerClient peerClient,
+                                               ClusterProperties properties) {
+        String nodeId = properties.getNodeId() != null && !properties.getNodeId().isBlank()
+                ? properties.getNodeId()
+                : UUID.randomUUID().toString();
+        return new ClusterMembership(coordinator, peerClient, properties, nodeId, Clock.systemUTC());
+    }
+}
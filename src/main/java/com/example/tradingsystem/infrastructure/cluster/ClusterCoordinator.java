@@ -0,0 +1,45 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 集群成员注册
+ *
+ * <p>成员通过周期性心跳保持存活，超过存活时间没有心跳的成员不再出现在 {@link #members()} 中。
+ * 节点转发失败时可以报告归属节点不可达，报告同样在存活时间后失效。
+ */
+public interface ClusterCoordinator {
+
+    /**
+     * 注册或续期本节点
+     *
+     * @param self 本节点
+     * @param ttl 存活时间
+     */
+    void heartbeat(ClusterMember self, Duration ttl);
+
+    /**
+     * @return 当前存活的成员（按节点ID排序）
+     */
+    List<ClusterMember> members();
+
+    /**
+     * 报告某个成员从本节点不可达
+     *
+     * @param nodeId 不可达的成员
+     * @param ttl 报告的有效时间
+     */
+    void reportUnreachable(String nodeId, Duration ttl);
+
+    /**
+     * @return 当前被报告不可达（报告仍有效）的成员ID
+     */
+    Set<String> unreachable();
+
+    /**
+     * 注销本节点
+     */
+    void leave(ClusterMember self);
+}
@@ -0,0 +1,156 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.shared.Quantity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 节点间转发连接的帧编解码
+ *
+ * <p>每帧以 1 字节消息类型开头，字段按 {@link DataOutput} 的格式依次写出（整数大端序，字符串为 modified UTF-8）：
+ * <pre>
+ * FORWARD_ORDER  序号 i64, 用户名 utf, SKU utf, 数量 i64
+ * ORDER_RESULT   序号 i64, 状态 u8, 错误信息 utf, [状态为 OK 时] 订单字段
+ * DRAIN          序号 i64, SKU utf
+ * DRAINED        序号 i64, 是否排空 bool
+ * </pre>
+ * 订单字段：ID、用户ID、商家ID、商品ID、数量（i64），单价、总价（十进制字符串），创建时间（秒 i64 + 纳秒 i32）。
+ */
+public final class ClusterFrameCodec {
+
+    public static final byte FORWARD_ORDER = 1;
+    public static final byte ORDER_RESULT = 2;
+    public static final byte DRAIN = 3;
+    public static final byte DRAINED = 4;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_NOT_FOUND = 1;
+    public static final byte STATUS_BUSY = 2;
+    public static final byte STATUS_REJECTED = 3;
+    public static final byte STATUS_INVALID_ARGUMENT = 4;
+    public static final byte STATUS_INVALID_STATE = 5;
+    public static final byte STATUS_ERROR = 6;
+
+    private ClusterFrameCodec() {
+    }
+
+    public static void writeOrderRequest(DataOutput out, OrderRequest request) throws IOException {
+        out.writeByte(FORWARD_ORDER);
+        out.writeLong(request.sequence());
+        out.writeUTF(request.username());
+        out.writeUTF(request.sku());
+        out.writeLong(request.quantity());
+    }
+
+    /**
+     * @param order 下单成功时的订单，失败时为 null
+     * @param reason 失败原因，成功时为 null
+     */
+    public static void writeOrderResult(DataOutput out, long sequence, byte status, Order order, String reason)
+            throws IOException {
+        out.writeByte(ORDER_RESULT);
+        out.writeLong(sequence);
+        out.writeByte(status);
+        out.writeUTF(reason == null ? "" : reason);
+        if (status == STATUS_OK) {
+            out.writeLong(order.getId());
+            out.writeLong(order.getUserId());
+            out.writeLong(order.getMerchantId());
+            out.writeLong(order.getProductId());
+            out.writeLong(order.getQuantity().getValue());
+            out.writeUTF(order.getUnitPrice().getAmount().toPlainString());
+            out.writeUTF(order.getTotalPrice().getAmount().toPlainString());
+            out.writeLong(order.getCreatedAt().getEpochSecond());
+            out.writeInt(order.getCreatedAt().getNano());
+        }
+    }
+
+    public static void writeDrain(DataOutput out, DrainRequest request) throws IOException {
+        out.writeByte(DRAIN);
+        out.writeLong(request.sequence());
+        out.writeUTF(request.sku());
+    }
+
+    public static void writeDrained(DataOutput out, DrainResult result) throws IOException {
+        out.writeByte(DRAINED);
+        out.writeLong(result.sequence());
+        out.writeBoolean(result.drained());
+    }
+
+    /**
+     * 读取一帧（阻塞直到读完）
+     *
+     * @throws IOException 连接关闭或读取失败
+     * @throws IllegalArgumentException 未知的消息类型
+     */
+    public static Frame read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case FORWARD_ORDER -> new OrderRequest(in.readLong(), in.readUTF(), in.readUTF(), in.readLong());
+            case ORDER_RESULT -> readOrderResult(in);
+            case DRAIN -> new DrainRequest(in.readLong(), in.readUTF());
+            case DRAINED -> new DrainResult(in.readLong(), in.readBoolean());
+            default -> throw new IllegalArgumentException("Unknown cluster message type: " + type);
+        };
+    }
+
+    private static OrderResult readOrderResult(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        byte status = in.readByte();
+        String reason = in.readUTF();
+        if (status != STATUS_OK) {
+            return new OrderResult(sequence, status, null, reason);
+        }
+        Long id = in.readLong();
+        Long userId = in.readLong();
+        Long merchantId = in.readLong();
+        Long productId = in.readLong();
+        Quantity quantity = Quantity.of(in.readLong());
+        Money unitPrice = Money.of(new BigDecimal(in.readUTF()));
+        Money totalPrice = Money.of(new BigDecimal(in.readUTF()));
+        Instant createdAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        Order order = Order.completed(id, userId, merchantId, productId, quantity, unitPrice, totalPrice, createdAt);
+        return new OrderResult(sequence, status, order, null);
+    }
+
+    /**
+     * 一帧消息
+     */
+    public sealed interface Frame permits OrderRequest, OrderResult, DrainRequest, DrainResult {
+
+        long sequence();
+    }
+
+    /**
+     * 转发的下单请求
+     */
+    public record OrderRequest(long sequence, String username, String sku, long quantity) implements Frame {
+    }
+
+    /**
+     * 下单结果
+     *
+     * @param order 成功时为归属节点创建的订单
+     * @param reason 失败原因
+     */
+    public record OrderResult(long sequence, byte status, Order order, String reason) implements Frame {
+    }
+
+    /**
+     * 请求原归属节点排空某个 SKU 上进行中的下单
+     */
+    public record DrainRequest(long sequence, String sku) implements Frame {
+    }
+
+    /**
+     * 排空结果，超时未排空时 drained 为 false
+     */
+    public record DrainResult(long sequence, boolean drained) implements Frame {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+/**
+ * 集群成员
+ *
+ * @param nodeId 节点ID（参与哈希）
+ * @param host 转发连接地址
+ * @param port 转发连接端口
+ */
+public record ClusterMember(String nodeId, String host, int port) {
+
+    /**
+     * @return 注册表中保存的地址，格式 host:port
+     */
+    public String address() {
+        return host + ":" + port;
+    }
+
+    /**
+     * 从注册表中的地址还原成员
+     *
+     * @throws IllegalArgumentException 地址格式错误
+     */
+    public static ClusterMember parse(String nodeId, String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Invalid member address: " + address);
+        }
+        return new ClusterMember(nodeId, address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import com.example.tradingsystem.infrastructure.lock.InProcessLock;
+import com.example.tradingsystem.infrastructure.shard.ConsistentHashRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 集群成员视图和 SKU 归属
+ *
+ * <p>各节点定期心跳并读取存活成员，在一致性哈希环上按 SKU 确定归属节点：
+ * <ul>
+ *   <li>归属节点用 {@link #localLock()} 在进程内串行化该 SKU 的下单，其他节点把请求转发过去</li>
+ *   <li>成员变化时哈希环整体替换，并保留上一个哈希环用于交接</li>
+ *   <li>交接期内，新归属节点首次处理某个 SKU 前请求原归属节点排空进行中的下单，见 {@link #awaitHandover(String)}</li>
+ *   <li>转发失败的节点报告归属节点不可达（{@link #reportUnreachable(ClusterMember)}），至少过两个心跳间隔后才回退为本地下单（Redis 锁）；
+ *       归属节点在刷新时看到报告，此后与交接期内一样，在进程内锁之外再拿 Redis 锁（{@link #requiresSharedLock()}），
+ *       与回退的节点互斥</li>
+ * </ul>
+ * 各节点的视图最多相差一个心跳间隔，这段时间内两个节点可能同时处理同一个 SKU，
+ * 由商品行的乐观锁兜底（冲突的一方得到可重试的失败）。
+ */
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterCoordinator coordinator;
+    private final ClusterPeerClient peerClient;
+    private final ClusterProperties properties;
+    private final Clock clock;
+    private final String nodeId;
+    private final Map<String, Long> handedOver = new ConcurrentHashMap<>();
+    private final InProcessLock localLock = new InProcessLock();
+    /** 本节点报告过不可达的成员 */
+    private final Map<String, Report> reportedUnreachable = new ConcurrentHashMap<>();
+
+    private volatile ClusterMember self;
+    private volatile boolean suspected;
+    private volatile View view = View.EMPTY;
+
+    public ClusterMembership(ClusterCoordinator coordinator,
+                             ClusterPeerClient peerClient,
+                             ClusterProperties properties,
+                             String nodeId,
+                             Clock clock) {
+        this.coordinator = coordinator;
+        this.peerClient = peerClient;
+        this.properties = properties;
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * 以转发连接的实际端口加入集群
+     */
+    public void join(int port) {
+        self = new ClusterMember(nodeId, properties.getAdvertisedHost(), port);
+        refresh();
+        log.info("Node {} joined cluster at {}, members={}", nodeId, self.address(), view.members.keySet());
+    }
+
+    /**
+     * 离开集群，其他节点在下一次刷新时接管本节点的 SKU
+     */
+    public void leave() {
+        ClusterMember member = self;
+        if (member == null) {
+            return;
+        }
+        try {
+            coordinator.leave(member);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deregister node {}, it will expire after {}", nodeId, properties.getMemberTtl(), e);
+        }
+        self = null;
+    }
+
+    /**
+     * 心跳并刷新成员视图（协调器不可用时保留当前视图）
+     */
+    @Scheduled(fixedDelayString = "${trading.cluster.heartbeat-interval-ms:1000}")
+    public void refresh() {
+        ClusterMember member = self;
+        if (member == null) {
+            return;
+        }
+        List<ClusterMember> members;
+        try {
+            coordinator.heartbeat(member, properties.getMemberTtl());
+            members = coordinator.members();
+            boolean nowSuspected = coordinator.unreachable().contains(nodeId);
+            if (nowSuspected != suspected) {
+                log.warn(nowSuspected ? "Node {} was reported unreachable, taking Redis locks for owned SKUs"
+                        : "Node {} is no longer reported unreachable", nodeId);
+                suspected = nowSuspected;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cluster membership refresh failed, keeping current view", e);
+            return;
+        }
+        Map<String, ClusterMember> byId = new LinkedHashMap<>();
+        members.forEach(m -> byId.put(m.nodeId(), m));
+        byId.putIfAbsent(member.nodeId(), member);
+        synchronized (this) {
+            View current = view;
+            if (byId.equals(current.members)) {
+                return;
+            }
+            ConsistentHashRing ring = new ConsistentHashRing(byId.keySet(), properties.getVirtualNodes());
+            ConsistentHashRing previous = current.ring;
+            if (previous == null && byId.size() > 1) {
+                // 刚加入集群：此前 SKU 由其他成员分担
+                List<String> others = byId.keySet().stream().filter(id -> !id.equals(nodeId)).toList();
+                previous = new ConsistentHashRing(others, properties.getVirtualNodes());
+            }
+            view = new View(current.epoch + 1, ring, previous, byId, clock.instant());
+            handedOver.clear();
+            log.info("Cluster membership changed: epoch={}, members={}", current.epoch + 1, byId.keySet());
+        }
+    }
+
+    /**
+     * @return SKU 的归属节点；尚未加入集群时为 null
+     */
+    public ClusterMember ownerOf(String sku) {
+        View current = view;
+        if (current.ring == null) {
+            return self;
+        }
+        return current.members.get(current.ring.nodeFor(sku));
+    }
+
+    /**
+     * @return 本节点是否是 SKU 的归属节点（尚未加入集群时视为是）
+     */
+    public boolean isLocal(String sku) {
+        ClusterMember owner = ownerOf(sku);
+        return owner == null || owner.nodeId().equals(nodeId);
+    }
+
+    /**
+     * 交接期内首次处理新获得的 SKU 前，等待原归属节点排空该 SKU 上进行中的下单
+     *
+     * <p>原归属节点已离开时直接返回：正常离开前已排空，异常退出时其未提交的事务随连接断开回滚。
+     * 排空失败只记录日志，不阻止下单（乐观锁兜底）。
+     */
+    public void awaitHandover(String sku) {
+        View current = view;
+        if (current.previousRing == null
+                || clock.instant().isAfter(current.changedAt.plus(properties.getHandoverGrace()))) {
+            return;
+        }
+        Long confirmed = handedOver.get(sku);
+        if (confirmed != null && confirmed == current.epoch) {
+            return;
+        }
+        String previousOwner = current.previousRing.nodeFor(sku);
+        ClusterMember previous = current.members.get(previousOwner);
+        if (!previousOwner.equals(nodeId) && previous != null) {
+            try {
+                if (!peerClient.drain(previous, sku, properties.getForwardTimeout())) {
+                    log.warn("Node {} did not drain SKU {} in time", previousOwner, sku);
+                }
+            } catch (PeerRequestException e) {
+                log.warn("Handover of SKU {} from node {} failed", sku, previousOwner, e);
+            }
+        }
+        handedOver.put(sku, current.epoch);
+    }
+
+    /**
+     * @return 归属节点是否需要在进程内锁之外再拿 Redis 锁：本节点被报告不可达，或成员变化后的交接期内
+     */
+    public boolean requiresSharedLock() {
+        if (suspected) {
+            return true;
+        }
+        View current = view;
+        return current.previousRing != null
+                && !clock.instant().isAfter(current.changedAt.plus(properties.getHandoverGrace()));
+    }
+
+    /**
+     * 报告归属节点从本节点不可达
+     *
+     * <p>报告写入协调器后，归属节点最迟在下一次心跳刷新时开始同时拿 Redis 锁；
+     * 距首次报告不到两个心跳间隔时返回 false，调用方不应回退为本地下单。
+     *
+     * @return 是否可以回退为本地下单（使用 Redis 锁）
+     */
+    public boolean reportUnreachable(ClusterMember owner) {
+        try {
+            coordinator.reportUnreachable(owner.nodeId(), properties.getMemberTtl());
+        } catch (RuntimeException e) {
+            log.warn("Failed to report node {} unreachable", owner.nodeId(), e);
+            return false;
+        }
+        Instant now = clock.instant();
+        // 上一次报告已失效时重新计时
+        Report report = reportedUnreachable.compute(owner.nodeId(), (id, reported) ->
+                reported == null || now.isAfter(reported.last().plus(properties.getMemberTtl()))
+                        ? new Report(now, now) : new Report(reported.first(), now));
+        return !now.isBefore(report.first().plusMillis(2 * properties.getHeartbeatIntervalMs()));
+    }
+
+    /**
+     * @return 归属节点串行化 SKU 下单使用的进程内锁
+     */
+    public InProcessLock localLock() {
+        return localLock;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return 当前视图中的成员（按节点ID排序）
+     */
+    public List<ClusterMember> members() {
+        return List.copyOf(view.members.values());
+    }
+
+    /**
+     * 对某个成员的不可达报告：首次报告时间和最近一次报告时间
+     */
+    private record Report(Instant first, Instant last) {
+    }
+
+    /**
+     * 成员视图（不可变，整体替换）
+     */
+    private record View(long epoch, ConsistentHashRing ring, ConsistentHashRing previousRing,
+                        Map<String, ClusterMember> members, Instant changedAt) {
+
+        static final View EMPTY = new View(0, null, null, Map.of(), Instant.EPOCH);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节点间转发客户端
+ *
+ * <p>每个对端一条常驻 TCP 连接，请求按序号流水线发送，由该连接的读线程按序号完成对应的等待：
+ * <ul>
+ *   <li>连接在首次使用时建立，断开后下次使用时重建</li>
+ *   <li>连接断开时所有未应答的请求以 {@link PeerRequestException}（已发出）失败</li>
+ * </ul>
+ */
+public class ClusterPeerClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterPeerClient.class);
+
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+
+    private final Map<String, PeerConnection> connections = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 把下单请求转发给归属节点并等待结果
+     *
+     * @throws PeerRequestException 请求未发出、超时或连接断开
+     */
+    public ClusterFrameCodec.OrderResult forward(ClusterMember owner, String username, String sku, long quantity,
+                                                 Duration timeout) {
+        long seq = sequence.incrementAndGet();
+        return (ClusterFrameCodec.OrderResult) send(owner,
+                new ClusterFrameCodec.OrderRequest(seq, username, sku, quantity), timeout);
+    }
+
+    /**
+     * 请求原归属节点排空某个 SKU 上进行中的下单
+     *
+     * @return 对方确认已排空时返回 true
+     * @throws PeerRequestException 请求未发出、超时或连接断开
+     */
+    public boolean drain(ClusterMember previousOwner, String sku, Duration timeout) {
+        long seq = sequence.incrementAndGet();
+        ClusterFrameCodec.DrainResult result = (ClusterFrameCodec.DrainResult) send(previousOwner,
+                new ClusterFrameCodec.DrainRequest(seq, sku), timeout);
+        return result.drained();
+    }
+
+    private ClusterFrameCodec.Frame send(ClusterMember peer, ClusterFrameCodec.Frame request, Duration timeout) {
+        PeerConnection connection;
+        CompletableFuture<ClusterFrameCodec.Frame> response;
+        try {
+            connection = connection(peer);
+            response = connection.send(request);
+        } catch (IOException e) {
+            throw new PeerRequestException("Cluster peer " + peer.nodeId() + " is unavailable", false, e);
+        }
+        try {
+            return response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            connection.pending.remove(request.sequence());
+            throw new PeerRequestException("Cluster peer " + peer.nodeId() + " did not respond in " + timeout, true, e);
+        } catch (ExecutionException e) {
+            throw new PeerRequestException("Connection to cluster peer " + peer.nodeId() + " was lost", true,
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PeerRequestException("Interrupted waiting for cluster peer " + peer.nodeId(), true, e);
+        }
+    }
+
+    private PeerConnection connection(ClusterMember peer) throws IOException {
+        PeerConnection existing = connections.get(peer.nodeId());
+        if (existing != null && existing.open && existing.member.equals(peer)) {
+            return existing;
+        }
+        synchronized (connections) {
+            existing = connections.get(peer.nodeId());
+            if (existing != null && existing.open && existing.member.equals(peer)) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.close();
+            }
+            PeerConnection created = new PeerConnection(peer);
+            connections.put(peer.nodeId(), created);
+            return created;
+        }
+    }
+
+    @Override
+    public void close() {
+        connections.values().forEach(PeerConnection::close);
+        connections.clear();
+    }
+
+    /**
+     * 到一个对端的常驻连接
+     */
+    private static final class PeerConnection {
+
+        private final ClusterMember member;
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private final Map<Long, CompletableFuture<ClusterFrameCodec.Frame>> pending = new ConcurrentHashMap<>();
+        private volatile boolean open = true;
+
+        private PeerConnection(ClusterMember member) throws IOException {
+            this.member = member;
+            this.socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(member.host(), member.port()), CONNECT_TIMEOUT_MS);
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Thread reader = new Thread(this::readLoop, "cluster-peer-" + member.nodeId());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        CompletableFuture<ClusterFrameCodec.Frame> send(ClusterFrameCodec.Frame request) throws IOException {
+            CompletableFuture<ClusterFrameCodec.Frame> response = new CompletableFuture<>();
+            pending.put(request.sequence(), response);
+            try {
+                synchronized (out) {
+                    if (request instanceof ClusterFrameCodec.OrderRequest order) {
+                        ClusterFrameCodec.writeOrderRequest(out, order);
+                    } else if (request instanceof ClusterFrameCodec.DrainRequest drain) {
+                        ClusterFrameCodec.writeDrain(out, drain);
+                    } else {
+                        throw new IllegalArgumentException("Not a request frame: " + request);
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                pending.remove(request.sequence());
+                close();
+                throw e;
+            }
+            return response;
+        }
+
+        private void readLoop() {
+            try {
+                while (open) {
+                    ClusterFrameCodec.Frame frame = ClusterFrameCodec.read(in);
+                    CompletableFuture<ClusterFrameCodec.Frame> response = pending.remove(frame.sequence());
+                    if (response != null) {
+                        response.complete(frame);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (open) {
+                    log.debug("Connection to cluster peer {} closed", member.nodeId(), e);
+                }
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close connection to cluster peer {}", member.nodeId(), e);
+            }
+            IOException closed = new IOException("Connection to " + member.nodeId() + " closed");
+            pending.values().forEach(response -> response.completeExceptionally(closed));
+            pending.clear();
+        }
+    }
+}
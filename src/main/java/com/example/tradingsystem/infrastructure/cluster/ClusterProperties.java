@@ -0,0 +1,173 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 集群 SKU 归属配置（trading.cluster.*）
+ */
+@ConfigurationProperties(prefix = "trading.cluster")
+public class ClusterProperties {
+
+    /** 是否启用集群 SKU 归属和请求转发 */
+    private boolean enabled = false;
+
+    /** 节点ID，为空时启动时随机生成 */
+    private String nodeId;
+
+    /** 成员注册方式 */
+    private Coordinator coordinator = Coordinator.REDIS;
+
+    /** DIRECTORY 方式下的共享目录（同一台机器上的多个实例） */
+    private String directory = "data/cluster";
+
+    /** 节点间转发连接的监听地址 */
+    private String bindAddress = "0.0.0.0";
+
+    /** 其他节点连接本节点使用的地址 */
+    private String advertisedHost = "127.0.0.1";
+
+    /** 节点间转发连接的监听端口，0 表示随机端口 */
+    private int port = 9190;
+
+    /** 心跳和成员刷新间隔 */
+    private long heartbeatIntervalMs = 1000;
+
+    /** 超过该时间没有心跳的成员视为已离开 */
+    private Duration memberTtl = Duration.ofSeconds(5);
+
+    /** 每个节点在哈希环上的虚拟节点数 */
+    private int virtualNodes = 160;
+
+    /** 转发下单等待应答的超时时间 */
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+
+    /** 归属变化后，新归属节点在该时间内首次处理某个 SKU 前需等待原归属节点排空 */
+    private Duration handoverGrace = Duration.ofSeconds(10);
+
+    /** 处理转发请求的工作线程数 */
+    private int workerThreads = 16;
+
+    /** 工作线程的等待队列容量，队列满时转发的请求立即应答 BUSY */
+    private int workerQueueCapacity = 256;
+
+    public enum Coordinator {
+        /** 成员注册在 Redis 哈希中 */
+        REDIS,
+        /** 成员注册为共享目录中的文件，用于单机多实例 */
+        DIRECTORY
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Coordinator getCoordinator() {
+        return coordinator;
+    }
+
+    public void setCoordinator(Coordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getBindAddress() {
+        return bindAddress;
+    }
+
+    public void setBindAddress(String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    public String getAdvertisedHost() {
+        return advertisedHost;
+    }
+
+    public void setAdvertisedHost(String advertisedHost) {
+        this.advertisedHost = advertisedHost;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public long getHeartbeatIntervalMs() {
+        return heartbeatIntervalMs;
+    }
+
+    public void setHeartbeatIntervalMs(long heartbeatIntervalMs) {
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+    }
+
+    public Duration getMemberTtl() {
+        return memberTtl;
+    }
+
+    public void setMemberTtl(Duration memberTtl) {
+        this.memberTtl = memberTtl;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public Duration getForwardTimeout() {
+        return forwardTimeout;
+    }
+
+    public void setForwardTimeout(Duration forwardTimeout) {
+        this.forwardTimeout = forwardTimeout;
+    }
+
+    public Duration getHandoverGrace() {
+        return handoverGrace;
+    }
+
+    public void setHandoverGrace(Duration handoverGrace) {
+        this.handoverGrace = handoverGrace;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getWorkerQueueCapacity() {
+        return workerQueueCapacity;
+    }
+
+    public void setWorkerQueueCapacity(int workerQueueCapacity) {
+        this.workerQueueCapacity = workerQueueCapacity;
+    }
+}
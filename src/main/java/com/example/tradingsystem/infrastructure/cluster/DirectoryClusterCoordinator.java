@@ -0,0 +1,130 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于共享目录的成员注册，用于同一台机器上的多个实例（开发和测试）
+ *
+ * <p>每个节点一个文件 {@code <nodeId>.member}，内容为 {@code host:port@过期时间毫秒}，
+ * 先写临时文件再原子改名，读取方不会看到写了一半的内容。不可达报告写在 {@code <nodeId>.unreachable}，内容为过期时间毫秒。
+ */
+public class DirectoryClusterCoordinator implements ClusterCoordinator {
+
+    private static final String SUFFIX = ".member";
+    private static final String UNREACHABLE_SUFFIX = ".unreachable";
+
+    private final Path directory;
+    private final Clock clock;
+
+    public DirectoryClusterCoordinator(Path directory, Clock clock) {
+        this.directory = directory;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create cluster directory " + directory, e);
+        }
+    }
+
+    @Override
+    public void heartbeat(ClusterMember self, Duration ttl) {
+        long expiresAt = clock.millis() + ttl.toMillis();
+        try {
+            write(self.nodeId() + SUFFIX, self.address() + "@" + expiresAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to register cluster member " + self.nodeId(), e);
+        }
+    }
+
+    @Override
+    public List<ClusterMember> members() {
+        long now = clock.millis();
+        List<ClusterMember> members = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String nodeId = name.substring(0, name.length() - SUFFIX.length());
+                String value;
+                try {
+                    value = Files.readString(file, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    // 成员恰好离开
+                    continue;
+                }
+                int at = value.lastIndexOf('@');
+                if (at < 0 || Long.parseLong(value.substring(at + 1).trim()) < now) {
+                    continue;
+                }
+                members.add(ClusterMember.parse(nodeId, value.substring(0, at)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list cluster members in " + directory, e);
+        }
+        members.sort(Comparator.comparing(ClusterMember::nodeId));
+        return members;
+    }
+
+    @Override
+    public void reportUnreachable(String nodeId, Duration ttl) {
+        try {
+            write(nodeId + UNREACHABLE_SUFFIX, String.valueOf(clock.millis() + ttl.toMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to report cluster member " + nodeId + " unreachable", e);
+        }
+    }
+
+    @Override
+    public Set<String> unreachable() {
+        long now = clock.millis();
+        Set<String> nodeIds = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + UNREACHABLE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String value;
+                try {
+                    value = Files.readString(file, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (Long.parseLong(value.trim()) >= now) {
+                    nodeIds.add(name.substring(0, name.length() - UNREACHABLE_SUFFIX.length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list unreachable cluster members in " + directory, e);
+        }
+        return nodeIds;
+    }
+
+    @Override
+    public void leave(ClusterMember self) {
+        try {
+            Files.deleteIfExists(directory.resolve(self.nodeId() + SUFFIX));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deregister cluster member " + self.nodeId(), e);
+        }
+    }
+
+    /**
+     * 先写临时文件再原子改名
+     */
+    private void write(String fileName, String content) throws IOException {
+        Path temp = directory.resolve(fileName + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+/**
+ * 节点间请求失败
+ *
+ * <p>{@link #isDelivered()} 为 false 表示请求没有发出（连接不上或写入失败），对方一定没有执行；
+ * 为 true 表示请求已发出但没有收到应答（超时或连接断开），对方可能已经执行。
+ */
+public class PeerRequestException extends RuntimeException {
+
+    private final boolean delivered;
+
+    public PeerRequestException(String message, boolean delivered, Throwable cause) {
+        super(message, cause);
+        this.delivered = delivered;
+    }
+
+    public boolean isDelivered() {
+        return delivered;
+    }
+}
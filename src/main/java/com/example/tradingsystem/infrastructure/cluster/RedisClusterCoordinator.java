@@ -0,0 +1,81 @@
+package com.example.tradingsystem.infrastructure.cluster;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于 Redis 哈希的成员注册
+ *
+ * <p>键 {@value #KEY} 中每个字段是一个节点ID，值为 {@code host:port@过期时间毫秒}；
+ * 读取成员时顺带删除已过期的字段。不可达报告在键 {@value #UNREACHABLE_KEY} 中，字段为节点ID，值为过期时间毫秒。
+ */
+public class RedisClusterCoordinator implements ClusterCoordinator {
+
+    static final String KEY = "trading:cluster:members";
+    static final String UNREACHABLE_KEY = "trading:cluster:unreachable";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Clock clock;
+
+    public RedisClusterCoordinator(RedisTemplate<String, String> redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void heartbeat(ClusterMember self, Duration ttl) {
+        long expiresAt = clock.millis() + ttl.toMillis();
+        redisTemplate.opsForHash().put(KEY, self.nodeId(), self.address() + "@" + expiresAt);
+    }
+
+    @Override
+    public List<ClusterMember> members() {
+        long now = clock.millis();
+        List<ClusterMember> members = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(KEY).entrySet()) {
+            String nodeId = (String) entry.getKey();
+            String value = (String) entry.getValue();
+            int at = value.lastIndexOf('@');
+            if (at < 0 || Long.parseLong(value.substring(at + 1)) < now) {
+                redisTemplate.opsForHash().delete(KEY, nodeId);
+                continue;
+            }
+            members.add(ClusterMember.parse(nodeId, value.substring(0, at)));
+        }
+        members.sort(Comparator.comparing(ClusterMember::nodeId));
+        return members;
+    }
+
+    @Override
+    public void reportUnreachable(String nodeId, Duration ttl) {
+        redisTemplate.opsForHash().put(UNREACHABLE_KEY, nodeId, String.valueOf(clock.millis() + ttl.toMillis()));
+    }
+
+    @Override
+    public Set<String> unreachable() {
+        long now = clock.millis();
+        Set<String> nodeIds = new HashSet<>();
+        for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(UNREACHABLE_KEY).entrySet()) {
+            String nodeId = (String) entry.getKey();
+            if (Long.parseLong((String) entry.getValue()) < now) {
+                redisTemplate.opsForHash().delete(UNREACHABLE_KEY, nodeId);
+                continue;
+            }
+            nodeIds.add(nodeId);
+        }
+        return nodeIds;
+    }
+
+    @Override
+    public void leave(ClusterMember self) {
+        redisTemplate.opsForHash().delete(KEY, self.nodeId());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.tradingsystem.infrastructure.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 全表流式读取的独立连接池配置（trading.datasource.bulk-read.*）
+ */
+@ConfigurationProperties(prefix = "trading.datasource.bulk-read")
+public class BulkReadProperties {
+
+    /** 是否为流式读取使用独立连接池，关闭时使用主数据源 */
+    private boolean enabled = false;
+
+    /** JDBC URL，MySQL 上应带 useCursorFetch=true */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    /** 连接池大小，同时进行的导出、核对和重建各占一个连接 */
+    private int maximumPoolSize = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+}
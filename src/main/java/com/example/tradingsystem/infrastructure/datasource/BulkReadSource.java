@@ -0,0 +1,92 @@
+package com.example.tradingsystem.infrastructure.datasource;
+
+import com.example.tradingsystem.repository.BulkReadRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 全表流式读取（导出、余额核对、下单前置过滤重建）使用的连接来源
+ *
+ * <p>MySQL 驱动只有在连接参数 useCursorFetch=true 时才按 fetchSize 分批读取游标，
+ * 但该参数会让连接上的所有语句改用服务端预处理语句，因此不加在主库 URL 上：
+ * <ul>
+ *   <li>开启 {@code trading.datasource.bulk-read.enabled} 时，使用独立的只读小连接池（URL 带 useCursorFetch=true）
+ *       和只注册了 {@link BulkReadRepository} 的会话工厂，事务也由该连接池自己的事务管理器管理</li>
+ *   <li>未开启时使用主数据源上的同一个 Mapper 和主事务管理器（只读事务，开启副本时路由到副本）</li>
+ * </ul>
+ * 独立连接池上的读取看不到调用方事务中未提交的数据。
+ */
+@Component
+public class BulkReadSource {
+
+    private final BulkReadRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final HikariDataSource dataSource;
+
+    public BulkReadSource(BulkReadProperties properties,
+                          BulkReadRepository repository,
+                          PlatformTransactionManager transactionManager) {
+        if (properties.isEnabled()) {
+            this.dataSource = createDataSource(properties);
+            Configuration configuration = new Configuration(
+                    new Environment("bulk-read", new SpringManagedTransactionFactory(), dataSource));
+            configuration.setMapUnderscoreToCamelCase(true);
+            configuration.addMapper(BulkReadRepository.class);
+            this.repository = new SqlSessionTemplate(new SqlSessionFactoryBuilder().build(configuration))
+                    .getMapper(BulkReadRepository.class);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        } else {
+            this.dataSource = null;
+            this.repository = repository;
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+        }
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 在只读事务中执行流式读取
+     */
+    public <T> T read(TransactionCallback<T> action) {
+        return transactionTemplate.execute(action);
+    }
+
+    /**
+     * @return 流式读取Mapper，只能在 {@link #read} 内使用
+     */
+    public BulkReadRepository repository() {
+        return repository;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    private static HikariDataSource createDataSource(BulkReadProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("bulk-read");
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        if (properties.getDriverClassName() != null) {
+            dataSource.setDriverClassName(properties.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        // 不可达时不阻塞启动，读取时再报错
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.tradingsystem.infrastructure.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离的路由数据源
+ *
+ * <p>当前事务为只读（{@code @Transactional(readOnly = true)}）且副本可用时从副本取连接，其余一律走主库；
+ * 副本取连接失败时立即回退到主库并标记副本不可用。
+ *
+ * <p>必须包在 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 里使用：
+ * 事务管理器在事务开始时就会取连接，此时只读标记尚未设置，延迟到第一条语句才能正确路由。
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routeToReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+                fallbacks.incrementAndGet();
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (routeToReplica()) {
+            try {
+                Connection connection = replica.getConnection(username, password);
+                replicaConnections.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+                fallbacks.incrementAndGet();
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * @return 从副本取得的连接数
+     */
+    public long replicaConnections() {
+        return replicaConnections.get();
+    }
+
+    /**
+     * @return 只读事务因副本不可用或延迟过大而回退到主库的次数
+     */
+    public long fallbacks() {
+        return fallbacks.get();
+    }
+
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        if (lagMonitor.isAvailable()) {
+            return true;
+        }
+        fallbacks.incrementAndGet();
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.tradingsystem.infrastructure.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 副本复制延迟监控
+ *
+ * <p>通过心跳表 replication_heartbeat 测量延迟，不依赖具体数据库的复制状态命令：
+ * <ol>
+ *   <li>读取副本上的心跳时间，与本节点上次写入主库的心跳时间比较得到延迟</li>
+ *   <li>再向主库写入新的心跳（多节点同时写入时保留较新的值）</li>
+ * </ol>
+ * 延迟超过 {@link ReplicaProperties#getMaxLag()}、副本不可达或尚未完成首次检查时，副本标记为不可用，
+ * 只读事务回退到主库。
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaProperties properties;
+    private final Clock clock;
+
+    private volatile boolean available;
+    private volatile Duration lastLag;
+    private Instant lastWrittenBeat;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, ReplicaProperties properties, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @return 副本当前是否可以承接只读事务
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * @return 最近一次测得的复制延迟，尚未测得时返回 null
+     */
+    public Duration lastLag() {
+        return lastLag;
+    }
+
+    /**
+     * 副本连接失败时由路由数据源调用，直到下一次检查成功前不再路由到副本
+     */
+    public void markUnavailable(Exception cause) {
+        if (available) {
+            log.warn("Replica unavailable, routing read-only transactions to primary", cause);
+        }
+        available = false;
+    }
+
+    @Scheduled(fixedDelayString = "${trading.datasource.replica.heartbeat-interval-ms:1000}")
+    public synchronized void check() {
+        boolean healthy = false;
+        try {
+            Instant replicaBeat = readBeat();
+            if (lastWrittenBeat != null && replicaBeat != null) {
+                Duration lag = replicaBeat.isBefore(lastWrittenBeat)
+                        ? Duration.between(replicaBeat, lastWrittenBeat) : Duration.ZERO;
+                lastLag = lag;
+                healthy = lag.compareTo(properties.getMaxLag()) <= 0;
+                if (!healthy && available) {
+                    log.warn("Replica lag {} exceeds {}, routing read-only transactions to primary",
+                            lag, properties.getMaxLag());
+                }
+            }
+        } catch (DataAccessException e) {
+            markUnavailable(e);
+        }
+        if (healthy && !available) {
+            log.info("Replica caught up (lag {}), routing read-only transactions to replica", lastLag);
+        }
+        available = healthy;
+        writeBeat();
+    }
+
+    private Instant readBeat() {
+        List<Timestamp> beats = replica.queryForList(
+                "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+        return beats.isEmpty() || beats.get(0) == null ? null : beats.get(0).toInstant();
+    }
+
+    private void writeBeat() {
+        Instant now = clock.instant();
+        try {
+            primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?) "
+                    + "ON DUPLICATE KEY UPDATE beat_at = GREATEST(beat_at, VALUES(beat_at))", Timestamp.from(now));
+            lastWrittenBeat = now;
+        } catch (DataAccessException e) {
+            log.warn("Failed to write replication heartbeat", e);
+        }
+    }
+}
@@ -2,26 +2,35 @@ package com.example.tradingsystem.infrastructure.event;
 
 import com.example.tradingsystem.domain.order.OrderCompletedEvent;
 import com.example.tradingsystem.domain.order.OrderPlacedEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
+import com.example.tradingsystem.infrastructure.journal.DomainEventJournal;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * 订单事件监听器
- * 演示如何使用 Spring 的 @EventListener 监听领域事件
+ * 演示如何使用 Spring 的 @TransactionalEventListener 监听领域事件
  * 
  * ApplicationEventPublisher 的工作流程：
  * 1. OrderService 发布事件 -> DomainEventPublisher.publish()
  * 2. DomainEventPublisher 调用 -> ApplicationEventPublisher.publishEvent()
  * 3. Spring 容器查找所有监听该事件的监听器
  * 4. 调用监听器的处理方法（同步或异步）
+ *
+ * 审计流水写入 {@link DomainEventJournal}（内存映射的追加日志），替代原来的 log.info，
+ * 下游可以从任意序号追读或回放。
+ * 两个事件都在下单事务提交后才写入流水，回滚的订单（库存或余额不足、并发冲突）不会留下记录；
+ * 不在事务中发布的事件照常立即写入。
  */
 @Component
 public class OrderEventListener {
 
-    private static final Logger log = LoggerFactory.getLogger(OrderEventListener.class);
+    private final DomainEventJournal domainEventJournal;
+
+    public OrderEventListener(DomainEventJournal domainEventJournal) {
+        this.domainEventJournal = domainEventJournal;
+    }
 
     /**
      * 监听订单创建事件
@@ -31,11 +40,9 @@ public class OrderEventListener {
      * - 更新统计信息
      * - 触发其他业务流程
      */
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleOrderPlaced(OrderPlacedEvent event) {
-        log.info("订单已创建: orderId={}, username={}, sku={}, quantity={}, totalPrice={}",
-                event.orderId(), event.username(), event.sku(), 
-                event.quantity(), event.totalPrice());
+        domainEventJournal.append(event);
         
         // 这里可以添加其他业务逻辑，比如：
         // - 发送邮件通知
@@ -51,12 +58,10 @@ public class OrderEventListener {
      * - 触发发货流程
      * - 更新商家统计
      */
-    @EventListener
-    @Async  // 异步处理，不阻塞主流程
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Async  // 提交后异步处理，不阻塞主流程
     public void handleOrderCompleted(OrderCompletedEvent event) {
-        log.info("订单已完成: orderId={}, username={}, merchant={}, sku={}, totalPrice={}",
-                event.orderId(), event.username(), event.merchantName(), 
-                event.sku(), event.totalPrice());
+        domainEventJournal.append(event);
         
         // 这里可以添加其他业务逻辑，比如：
         // - 发送订单确认邮件
@@ -0,0 +1,12 @@
+package com.example.tradingsystem.infrastructure.hotkey;
+
+/**
+ * 热点 SKU 统计
+ *
+ * @param sku 商品SKU
+ * @param orders 窗口内的下单次数（近似上界）
+ * @param contentions 窗口内的锁竞争失败次数（近似上界）
+ * @param hot 是否已被判定为热点
+ */
+public record HotKey(String sku, long orders, long contentions, boolean hot) {
+}
@@ -0,0 +1,210 @@
+package com.example.tradingsystem.infrastructure.hotkey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * 热点 SKU 探测器
+ *
+ * <p>对两路信号分别维护滑动窗口内的 Space-Saving 统计：
+ * <ul>
+ *   <li>下单：每次 placeOrder 调用</li>
+ *   <li>竞争：每次因拿不到锁抛出的 ConcurrentUpdateException</li>
+ * </ul>
+ * 滑动窗口由若干子窗口组成，每个子窗口一个固定容量的统计器，过期的子窗口整体清空复用，
+ * 因此内存占用恒定。每路统计按 SKU 哈希拆成若干分段，同一个 SKU 总落在同一分段，
+ * 下单线程只争用所在分段的锁，读取时再把各分段合并。热点集合每秒重新计算一次，{@link #isHot(String)} 只是一次集合查询，
+ * 集合变化时发布 {@link HotKeysChangedEvent}。
+ */
+@Component
+public class HotKeyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyDetector.class);
+
+    private final HotKeyProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StripedWindow orders;
+    private final StripedWindow contentions;
+
+    private volatile Set<String> hotSkus = Set.of();
+
+    @Autowired
+    public HotKeyDetector(HotKeyProperties properties, ApplicationEventPublisher eventPublisher) {
+        this(properties, eventPublisher, System::currentTimeMillis);
+    }
+
+    HotKeyDetector(HotKeyProperties properties, ApplicationEventPublisher eventPublisher, LongSupplier clock) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        long slotMillis = Math.max(1, properties.getWindow().toMillis() / properties.getSlots());
+        int stripes = Math.max(1, properties.getStripes());
+        this.orders = new StripedWindow(stripes, properties.getSlots(), slotMillis, properties.getCapacity(), clock);
+        this.contentions = new StripedWindow(stripes, properties.getSlots(), slotMillis, properties.getCapacity(), clock);
+    }
+
+    /**
+     * 记录一次下单
+     */
+    public void recordOrder(String sku) {
+        orders.offer(sku);
+    }
+
+    /**
+     * 记录一次锁竞争失败
+     */
+    public void recordContention(String sku) {
+        contentions.offer(sku);
+    }
+
+    /**
+     * @return 该 SKU 当前是否为热点
+     */
+    public boolean isHot(String sku) {
+        return hotSkus.contains(sku);
+    }
+
+    /**
+     * @return 当前的热点 SKU 集合
+     */
+    public Set<String> hotSkus() {
+        return hotSkus;
+    }
+
+    /**
+     * 当前窗口内最热的 K 个 SKU（按竞争次数、下单次数排序）
+     */
+    public List<HotKey> topK() {
+        Map<String, Long> orderCounts = orders.snapshot();
+        Map<String, Long> contentionCounts = contentions.snapshot();
+        Set<String> keys = new HashSet<>(orderCounts.keySet());
+        keys.addAll(contentionCounts.keySet());
+        Set<String> hot = hotSkus;
+        List<HotKey> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(new HotKey(key, orderCounts.getOrDefault(key, 0L),
+                    contentionCounts.getOrDefault(key, 0L), hot.contains(key)));
+        }
+        result.sort(Comparator.comparingLong(HotKey::contentions)
+                .thenComparingLong(HotKey::orders)
+                .reversed());
+        return result.size() > properties.getTopK() ? result.subList(0, properties.getTopK()) : result;
+    }
+
+    /**
+     * 重新计算热点集合，变化时发布事件
+     */
+    @Scheduled(fixedDelayString = "${trading.hotkey.refresh-interval-ms:1000}")
+    public void refresh() {
+        Set<String> next = new LinkedHashSet<>();
+        for (HotKey key : topK()) {
+            if (key.orders() >= properties.getOrderThreshold()
+                    || key.contentions() >= properties.getContentionThreshold()) {
+                next.add(key.sku());
+            }
+        }
+        Set<String> previous = hotSkus;
+        if (next.equals(previous)) {
+            return;
+        }
+        Set<String> added = new HashSet<>(next);
+        added.removeAll(previous);
+        Set<String> removed = new HashSet<>(previous);
+        removed.removeAll(next);
+        hotSkus = Set.copyOf(next);
+        if (!added.isEmpty()) {
+            log.info("Hot SKUs detected: {}", added);
+        }
+        eventPublisher.publishEvent(new HotKeysChangedEvent(hotSkus, Set.copyOf(added), Set.copyOf(removed)));
+    }
+
+    /**
+     * 按 key 哈希分段的滑动窗口；各分段的 key 互不重叠，合并时直接拼接
+     */
+    private static final class StripedWindow {
+
+        private final SlidingWindow[] stripes;
+
+        private StripedWindow(int stripes, int slots, long slotMillis, int capacity, LongSupplier clock) {
+            this.stripes = new SlidingWindow[stripes];
+            for (int i = 0; i < stripes; i++) {
+                this.stripes[i] = new SlidingWindow(slots, slotMillis, capacity, clock);
+            }
+        }
+
+        void offer(String key) {
+            int hash = key.hashCode();
+            stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)].offer(key);
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> merged = new HashMap<>();
+            for (SlidingWindow stripe : stripes) {
+                merged.putAll(stripe.snapshot());
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * 由若干子窗口组成的滑动窗口
+     */
+    private static final class SlidingWindow {
+
+        private final SpaceSavingSketch[] sketches;
+        private final long[] epochs;
+        private final long slotMillis;
+        private final LongSupplier clock;
+
+        private SlidingWindow(int slots, long slotMillis, int capacity, LongSupplier clock) {
+            this.sketches = new SpaceSavingSketch[slots];
+            this.epochs = new long[slots];
+            this.slotMillis = slotMillis;
+            this.clock = clock;
+            for (int i = 0; i < slots; i++) {
+                sketches[i] = new SpaceSavingSketch(capacity);
+                epochs[i] = -1;
+            }
+        }
+
+        synchronized void offer(String key) {
+            long epoch = clock.getAsLong() / slotMillis;
+            int index = (int) (epoch % sketches.length);
+            if (epochs[index] != epoch) {
+                sketches[index].clear();
+                epochs[index] = epoch;
+            }
+            sketches[index].offer(key, 1);
+        }
+
+        /**
+         * 合并窗口内所有未过期子窗口的计数
+         */
+        synchronized Map<String, Long> snapshot() {
+            long current = clock.getAsLong() / slotMillis;
+            Map<String, Long> merged = new HashMap<>();
+            for (int i = 0; i < sketches.length; i++) {
+                if (epochs[i] < 0 || current - epochs[i] >= sketches.length) {
+                    continue;
+                }
+                for (SpaceSavingSketch.Entry entry : sketches[i].entries()) {
+                    merged.merge(entry.key(), entry.count(), Long::sum);
+                }
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.tradingsystem.infrastructure.hotkey;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 热点 SKU 探测配置（trading.hotkey.*）
+ */
+@ConfigurationProperties(prefix = "trading.hotkey")
+public class HotKeyProperties {
+
+    /** 每个子窗口跟踪的 key 数量（决定内存占用和精度） */
+    private int capacity = 256;
+
+    /** 滑动窗口长度 */
+    private Duration window = Duration.ofSeconds(60);
+
+    /** 滑动窗口切分的子窗口个数 */
+    private int slots = 6;
+
+    /** 统计按 SKU 哈希拆分的分段数，每段独立加锁，降低下单线程之间的争用 */
+    private int stripes = 16;
+
+    /** 管理接口返回的条目数 */
+    private int topK = 20;
+
+    /** 窗口内下单次数达到该值即视为热点 */
+    private long orderThreshold = 1_000;
+
+    /** 窗口内锁竞争失败次数达到该值即视为热点 */
+    private long contentionThreshold = 50;
+
+    /** 热点集合重新计算的间隔（毫秒） */
+    private long refreshIntervalMs = 1_000;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public long getOrderThreshold() {
+        return orderThreshold;
+    }
+
+    public void setOrderThreshold(long orderThreshold) {
+        this.orderThreshold = orderThreshold;
+    }
+
+    public long getContentionThreshold() {
+        return contentionThreshold;
+    }
+
+    public void setContentionThreshold(long contentionThreshold) {
+        this.contentionThreshold = contentionThreshold;
+    }
+
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.tradingsystem.infrastructure.hotkey;
+
+import java.util.Set;
+
+/**
+ * 热点 SKU 集合变化事件
+ *
+ * <p>其他组件可以监听该事件，把新出现的热点 SKU 切换到专门的处理方式（独立通道、本地库存配额等）。
+ *
+ * @param hotSkus 当前的热点 SKU
+ * @param added 新增的热点 SKU
+ * @param removed 不再是热点的 SKU
+ */
+public record HotKeysChangedEvent(Set<String> hotSkus, Set<String> added, Set<String> removed) {
+}
@@ -0,0 +1,144 @@
+package com.example.tradingsystem.infrastructure.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving 频繁项统计
+ *
+ * <p>用固定数量的计数器近似统计数据流中出现次数最多的 key，内存占用与数据流规模无关：
+ * <ul>
+ *   <li>已跟踪的 key：计数加一</li>
+ *   <li>未跟踪且计数器未满：新建计数器</li>
+ *   <li>未跟踪且计数器已满：替换计数最小的 key，新计数 = 最小计数 + 1，误差 = 最小计数</li>
+ * </ul>
+ * 任何真实出现次数大于 N/capacity 的 key 都保证会被跟踪到；返回的计数是上界，{@code count - error} 是下界。
+ *
+ * <p>计数器按最小堆组织，替换操作为 O(log capacity)。非线程安全，由调用方加锁。
+ */
+class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    /** 按计数排序的最小堆 */
+    private final Counter[] heap;
+    private int size;
+
+    SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    /**
+     * 记录 key 出现 weight 次
+     */
+    void offer(String key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            siftDown(counter.index);
+            return;
+        }
+        if (size < capacity) {
+            counter = new Counter(key, weight, 0);
+            counter.index = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+            return;
+        }
+        Counter min = heap[0];
+        counters.remove(min.key);
+        min.error = min.count;
+        min.count += weight;
+        min.key = key;
+        counters.put(key, min);
+        siftDown(0);
+    }
+
+    /**
+     * @return 当前跟踪的所有 key 及其计数（按计数降序）
+     */
+    List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(heap[i].key, heap[i].count, heap[i].error));
+        }
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries;
+    }
+
+    void clear() {
+        counters.clear();
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    /**
+     * 统计结果
+     *
+     * @param key 统计的 key
+     * @param count 计数（上界）
+     * @param error 最大高估量
+     */
+    record Entry(String key, long count, long error) {
+    }
+
+    private static final class Counter {
+        private String key;
+        private long count;
+        private long error;
+        private int index;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.tradingsystem.infrastructure.inventory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 库存配额配置（trading.allotment.*）
+ */
+@ConfigurationProperties(prefix = "trading.allotment")
+public class AllotmentProperties {
+
+    /** 是否启用库存配额 */
+    private boolean enabled = false;
+
+    /** 固定走配额路径的 SKU */
+    private List<String> skus = new ArrayList<>();
+
+    /** 是否把热点探测器识别出的 SKU 自动切换到配额路径 */
+    private boolean followHotKeys = false;
+
+    /** 每次从商品行租借的库存数量 */
+    private long leaseSize = 100;
+
+    /** 本地剩余配额低于该值时在后台预先续租 */
+    private long refillThreshold = 20;
+
+    /** 租约有效期，到期未续租的剩余配额归还商品行 */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /** 商品行库存耗尽后，再次尝试租借前的等待时间 */
+    private Duration soldOutBackoff = Duration.ofSeconds(1);
+
+    /** 已售数量批量回写、过期配额归还的间隔（毫秒） */
+    private long reconcileIntervalMs = 1_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getSkus() {
+        return skus;
+    }
+
+    public void setSkus(List<String> skus) {
+        this.skus = skus;
+    }
+
+    public boolean isFollowHotKeys() {
+        return followHotKeys;
+    }
+
+    public void setFollowHotKeys(boolean followHotKeys) {
+        this.followHotKeys = followHotKeys;
+    }
+
+    public long getLeaseSize() {
+        return leaseSize;
+    }
+
+    public void setLeaseSize(long leaseSize) {
+        this.leaseSize = leaseSize;
+    }
+
+    public long getRefillThreshold() {
+        return refillThreshold;
+    }
+
+    public void setRefillThreshold(long refillThreshold) {
+        this.refillThreshold = refillThreshold;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public Duration getSoldOutBackoff() {
+        return soldOutBackoff;
+    }
+
+    public void setSoldOutBackoff(Duration soldOutBackoff) {
+        this.soldOutBackoff = soldOutBackoff;
+    }
+
+    public long getReconcileIntervalMs() {
+        return reconcileIntervalMs;
+    }
+
+    public void setReconcileIntervalMs(long reconcileIntervalMs) {
+        this.reconcileIntervalMs = reconcileIntervalMs;
+    }
+}
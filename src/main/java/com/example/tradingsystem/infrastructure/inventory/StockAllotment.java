@@ -0,0 +1,48 @@
+package com.example.tradingsystem.infrastructure.inventory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个 SKU 在本节点持有的库存配额
+ *
+ * <p>{@code available} 是已从商品行扣下、尚未卖出的库存；{@code unreconciledSold} 是已提交、
+ * 尚未回写到 sold_quantity 的销量。租借和归还由 {@code leaseLock} 串行化，卖出只是一次 CAS。
+ */
+final class StockAllotment {
+
+    final String sku;
+    final Long productId;
+    final AtomicLong available = new AtomicLong();
+    final AtomicLong unreconciledSold = new AtomicLong();
+    final ReentrantLock leaseLock = new ReentrantLock();
+    final AtomicBoolean refillScheduled = new AtomicBoolean();
+
+    /** 租约到期时间（毫秒），每次租借成功后顺延 */
+    volatile long leaseExpiresAt;
+
+    /** 商品行库存耗尽时，在该时间之前不再尝试租借 */
+    volatile long soldOutUntil;
+
+    StockAllotment(String sku, Long productId) {
+        this.sku = sku;
+        this.productId = productId;
+    }
+
+    /**
+     * 从本地配额中扣减
+     *
+     * @return 配额足够时返回 true
+     */
+    boolean tryTake(long quantity) {
+        long current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return true;
+    }
+}
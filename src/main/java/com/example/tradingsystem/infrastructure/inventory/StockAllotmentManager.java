@@ -0,0 +1,252 @@
+package com.example.tradingsystem.infrastructure.inventory;
+
+import com.example.tradingsystem.infrastructure.hotkey.HotKeysChangedEvent;
+import com.example.tradingsystem.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节点本地的库存配额（用于秒杀等热点 SKU）
+ *
+ * <p>被指定的 SKU 不再逐单加分布式锁、逐单更新商品行，而是：
+ * <ul>
+ *   <li>租借：按块（如 100 件）用条件 UPDATE 从 stock_quantity 中扣下，放入本地原子计数器</li>
+ *   <li>卖出：对本地计数器做一次 CAS；下单事务回滚时配额退回本地计数器</li>
+ *   <li>续租：剩余配额低于阈值时后台预先续租，耗尽时同步续租</li>
+ *   <li>对账：已提交的销量定时批量累加到 sold_quantity</li>
+ *   <li>归还：租约到期、SKU 取消指定或节点停机时，未卖出的配额加回 stock_quantity</li>
+ * </ul>
+ * 租借、对账、归还都在独立事务中执行，与下单事务的提交或回滚无关。
+ *
+ * <p>代价：sold_quantity 最多滞后一个对账周期；节点崩溃时其持有的未卖出配额不会自动归还，
+ * 每个 SKU 最多损失一个租借块，需要人工盘点补回。
+ */
+@Component
+public class StockAllotmentManager {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAllotmentManager.class);
+
+    /** 条件扣减因并发失败时的重试次数 */
+    private static final int LEASE_ATTEMPTS = 3;
+
+    private final AllotmentProperties properties;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> designated = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, StockAllotment> allotments = new ConcurrentHashMap<>();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stock-allotment-refiller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockAllotmentManager(AllotmentProperties properties,
+                                 ProductRepository productRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (properties.isEnabled()) {
+            designated.addAll(properties.getSkus());
+        }
+    }
+
+    /**
+     * @return 该 SKU 是否走本地配额路径
+     */
+    public boolean isAllotted(String sku) {
+        return designated.contains(sku);
+    }
+
+    /**
+     * 从本地配额中扣减库存，不足时同步向商品行续租
+     *
+     * <p>在事务中调用时，扣减在事务提交后计入待对账销量，回滚时退回本地配额。
+     *
+     * @param sku 商品SKU
+     * @param productId 商品ID
+     * @param quantity 购买数量
+     * @return 库存足够时返回 true，已售罄时返回 false
+     */
+    public boolean tryAcquire(String sku, Long productId, long quantity) {
+        StockAllotment allotment = allotments.computeIfAbsent(sku, key -> new StockAllotment(key, productId));
+        if (!allotment.tryTake(quantity) && !refillAndTake(allotment, quantity)) {
+            return false;
+        }
+        if (allotment.available.get() < properties.getRefillThreshold()
+                && allotment.refillScheduled.compareAndSet(false, true)) {
+            refiller.execute(() -> backgroundRefill(allotment));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        allotment.unreconciledSold.addAndGet(quantity);
+                    } else {
+                        allotment.available.addAndGet(quantity);
+                    }
+                }
+            });
+        } else {
+            allotment.unreconciledSold.addAndGet(quantity);
+        }
+        return true;
+    }
+
+    /**
+     * 跟随热点探测结果切换 SKU 的配额路径
+     */
+    @EventListener
+    public void onHotKeysChanged(HotKeysChangedEvent event) {
+        if (!properties.isEnabled() || !properties.isFollowHotKeys()) {
+            return;
+        }
+        designated.addAll(event.added());
+        for (String sku : event.removed()) {
+            if (!properties.getSkus().contains(sku)) {
+                designated.remove(sku);
+            }
+        }
+    }
+
+    /**
+     * 把已提交销量回写到 sold_quantity，并归还过期或取消指定的 SKU 的剩余配额
+     */
+    @Scheduled(fixedDelayString = "${trading.allotment.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        long now = System.currentTimeMillis();
+        for (StockAllotment allotment : allotments.values()) {
+            flushSold(allotment);
+            if (!isAllotted(allotment.sku) || now >= allotment.leaseExpiresAt) {
+                returnUnused(allotment);
+            }
+        }
+    }
+
+    /**
+     * 停机时回写销量并归还全部剩余配额
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        designated.clear();
+        refiller.shutdown();
+        refiller.awaitTermination(5, TimeUnit.SECONDS);
+        for (StockAllotment allotment : allotments.values()) {
+            flushSold(allotment);
+            returnUnused(allotment);
+        }
+    }
+
+    private boolean refillAndTake(StockAllotment allotment, long quantity) {
+        allotment.leaseLock.lock();
+        try {
+            while (!allotment.tryTake(quantity)) {
+                if (System.currentTimeMillis() < allotment.soldOutUntil
+                        || lease(allotment, Math.max(properties.getLeaseSize(), quantity)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            allotment.leaseLock.unlock();
+        }
+    }
+
+    private void backgroundRefill(StockAllotment allotment) {
+        allotment.leaseLock.lock();
+        try {
+            if (isAllotted(allotment.sku)
+                    && allotment.available.get() < properties.getRefillThreshold()
+                    && System.currentTimeMillis() >= allotment.soldOutUntil) {
+                lease(allotment, properties.getLeaseSize());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Background refill failed for SKU {}", allotment.sku, e);
+        } finally {
+            allotment.refillScheduled.set(false);
+            allotment.leaseLock.unlock();
+        }
+    }
+
+    /**
+     * 从商品行租借库存，库存不足一整块时租借剩余的全部库存；调用方需持有 leaseLock
+     *
+     * @return 实际租借的数量
+     */
+    private long lease(StockAllotment allotment, long wanted) {
+        Long granted = transactionTemplate.execute(status -> {
+            for (int attempt = 0; attempt < LEASE_ATTEMPTS; attempt++) {
+                Long stock = productRepository.selectStockQuantity(allotment.productId);
+                long grant = Math.min(stock == null ? 0 : stock, wanted);
+                if (grant <= 0) {
+                    return 0L;
+                }
+                if (productRepository.decreaseStock(allotment.productId, grant) == 1) {
+                    return grant;
+                }
+            }
+            return 0L;
+        });
+        long leased = granted == null ? 0 : granted;
+        if (leased > 0) {
+            allotment.available.addAndGet(leased);
+            allotment.leaseExpiresAt = System.currentTimeMillis() + properties.getLeaseDuration().toMillis();
+        } else {
+            allotment.soldOutUntil = System.currentTimeMillis() + properties.getSoldOutBackoff().toMillis();
+        }
+        return leased;
+    }
+
+    private void flushSold(StockAllotment allotment) {
+        long sold = allotment.unreconciledSold.getAndSet(0);
+        if (sold == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    productRepository.increaseSoldQuantity(allotment.productId, sold));
+        } catch (RuntimeException e) {
+            allotment.unreconciledSold.addAndGet(sold);
+            log.warn("Failed to reconcile {} sold units for SKU {}", sold, allotment.sku, e);
+        }
+    }
+
+    private void returnUnused(StockAllotment allotment) {
+        if (!allotment.leaseLock.tryLock()) {
+            return;
+        }
+        try {
+            long unused = allotment.available.getAndSet(0);
+            if (unused == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        productRepository.increaseStock(allotment.productId, unused));
+                log.info("Returned {} unused allotted units for SKU {}", unused, allotment.sku);
+            } catch (RuntimeException e) {
+                allotment.available.addAndGet(unused);
+                log.warn("Failed to return {} allotted units for SKU {}", unused, allotment.sku, e);
+            }
+        } finally {
+            allotment.leaseLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import com.example.tradingsystem.domain.order.OrderCompletedEvent;
+import com.example.tradingsystem.domain.order.OrderPlacedEvent;
+import com.example.tradingsystem.domain.shared.DomainEvent;
+import com.example.tradingsystem.domain.shared.Money;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * 领域事件的紧凑二进制编码
+ *
+ * <p>订单事件的字段布局（大端序）：
+ * <pre>
+ * orderId:long | quantity:long | totalPrice:long(分) | occurredOn:long(秒) + int(纳秒)
+ * | username | merchantName | sku （字符串均为 short 长度 + UTF-8，长度 0xFFFF 表示 null）
+ * </pre>
+ * 金额按 2 位小数换算成整数“分”存储，与 {@link Money} 的精度一致。
+ */
+public final class DomainEventCodec {
+
+    public static final byte ORDER_PLACED = 1;
+    public static final byte ORDER_COMPLETED = 2;
+
+    /** 字符串长度前缀是 2 字节无符号数，最大值留作 null 标记 */
+    static final int MAX_STRING_BYTES = 0xFFFE;
+
+    /** null 字符串的长度前缀，与空字符串区分 */
+    static final int NULL_STRING = 0xFFFF;
+
+    private DomainEventCodec() {
+    }
+
+    /**
+     * 事件对应的记录类型
+     *
+     * @throws IllegalArgumentException 如果事件类型不支持
+     */
+    public static byte typeOf(DomainEvent event) {
+        if (event instanceof OrderPlacedEvent) {
+            return ORDER_PLACED;
+        }
+        if (event instanceof OrderCompletedEvent) {
+            return ORDER_COMPLETED;
+        }
+        throw new IllegalArgumentException("Unsupported domain event: " + event.getClass().getName());
+    }
+
+    /**
+     * 编码事件到缓冲区（从当前 position 开始写）
+     */
+    public static void encode(DomainEvent event, ByteBuffer buffer) {
+        if (event instanceof OrderPlacedEvent e) {
+            encodeOrder(buffer, e.orderId(), e.quantity(), e.totalPrice(), e.occurredOn(),
+                    e.username(), e.merchantName(), e.sku());
+        } else if (event instanceof OrderCompletedEvent e) {
+            encodeOrder(buffer, e.orderId(), e.quantity(), e.totalPrice(), e.occurredOn(),
+                    e.username(), e.merchantName(), e.sku());
+        } else {
+            throw new IllegalArgumentException("Unsupported domain event: " + event.getClass().getName());
+        }
+    }
+
+    /**
+     * 从记录内容解码事件
+     *
+     * @throws IllegalArgumentException 如果记录类型未知
+     */
+    public static DomainEvent decode(byte type, ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        long orderId = in.getLong();
+        long quantity = in.getLong();
+        Money totalPrice = readMoney(in);
+        Instant occurredOn = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        String username = readString(in);
+        String merchantName = readString(in);
+        String sku = readString(in);
+        return switch (type) {
+            case ORDER_PLACED -> new OrderPlacedEvent(orderId, username, merchantName, sku, quantity, totalPrice, occurredOn);
+            case ORDER_COMPLETED -> new OrderCompletedEvent(orderId, username, merchantName, sku, quantity, totalPrice, occurredOn);
+            default -> throw new IllegalArgumentException("Unknown journal record type: " + type);
+        };
+    }
+
+    private static void encodeOrder(ByteBuffer out, Long orderId, Long quantity, Money totalPrice, Instant occurredOn,
+                                    String username, String merchantName, String sku) {
+        out.putLong(orderId == null ? 0L : orderId);
+        out.putLong(quantity == null ? 0L : quantity);
+        writeMoney(out, totalPrice);
+        out.putLong(occurredOn.getEpochSecond());
+        out.putInt(occurredOn.getNano());
+        writeString(out, username);
+        writeString(out, merchantName);
+        writeString(out, sku);
+    }
+
+    static void writeMoney(ByteBuffer out, Money money) {
+        out.putLong(money == null ? 0L : money.getAmount().movePointRight(2).longValueExact());
+    }
+
+    static Money readMoney(ByteBuffer in) {
+        return Money.of(BigDecimal.valueOf(in.getLong(), 2));
+    }
+
+    /**
+     * 写入 2 字节无符号长度前缀的 UTF-8 字符串，null 只写入 {@link #NULL_STRING} 长度前缀
+     *
+     * @throws IllegalArgumentException 如果编码后超过 {@value #MAX_STRING_BYTES} 字节
+     */
+    static void writeString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String too long for journal: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import com.example.tradingsystem.domain.shared.DomainEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 领域事件日志
+ *
+ * <p>把每个领域事件编码后追加到 {@link EventJournal}，作为持久化的审计流水：
+ * <ul>
+ *   <li>追加：{@link #append(DomainEvent)}，返回事件序号</li>
+ *   <li>追读：{@link #tailer(long)}，供进程内的下游消费者持续消费</li>
+ *   <li>回放：{@link #replay(long, ObjLongConsumer)}，从任意序号重建下游投影</li>
+ * </ul>
+ */
+@Component
+public class DomainEventJournal {
+
+    /** 编码缓冲区初始大小，超出时按需扩容 */
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final EventJournal journal;
+    private final ThreadLocal<ByteBuffer> encodeBuffer =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+
+    public DomainEventJournal(JournalProperties properties) {
+        this.journal = new EventJournal(Path.of(properties.getDirectory()), properties.getSegmentSize());
+    }
+
+    /**
+     * 追加领域事件
+     *
+     * @param event 领域事件
+     * @return 事件序号
+     */
+    public long append(DomainEvent event) {
+        byte type = DomainEventCodec.typeOf(event);
+        ByteBuffer buffer = encodeBuffer.get();
+        while (true) {
+            try {
+                buffer.clear();
+                DomainEventCodec.encode(event, buffer);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                encodeBuffer.set(buffer);
+            }
+        }
+        buffer.flip();
+        return journal.append(type, buffer);
+    }
+
+    /**
+     * 从指定序号开始追读原始记录，可用 {@link DomainEventCodec#decode(byte, ByteBuffer)} 解码
+     *
+     * @param fromSequence 起始序号（包含）
+     * @return 读取游标
+     */
+    public JournalTailer tailer(long fromSequence) {
+        return journal.tailer(fromSequence);
+    }
+
+    /**
+     * 从指定序号回放当前已写入的所有事件
+     *
+     * @param fromSequence 起始序号（包含）
+     * @param handler 事件处理器（事件, 序号）
+     * @return 下一个未回放的序号
+     */
+    public long replay(long fromSequence, ObjLongConsumer<DomainEvent> handler) {
+        try (JournalTailer tailer = journal.tailer(fromSequence)) {
+            while (tailer.poll((sequence, timestamp, type, payload) ->
+                    handler.accept(DomainEventCodec.decode(type, payload), sequence), 1024) > 0) {
+                // 持续读取直到追上写入位置
+            }
+            return tailer.nextSequence();
+        }
+    }
+
+    /**
+     * @return 最近一次写入的序号
+     */
+    public long lastSequence() {
+        return journal.lastSequence();
+    }
+
+    /**
+     * 定时刷盘：把映射内存中的数据写回磁盘，追加路径本身不做系统调用
+     */
+    @Scheduled(fixedDelayString = "${trading.journal.flush-interval-ms:200}")
+    public void flush() {
+        journal.flush();
+    }
+
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+}
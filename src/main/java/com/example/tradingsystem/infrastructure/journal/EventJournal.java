@@ -0,0 +1,277 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 基于内存映射文件的追加式日志
+ *
+ * <p>日志由若干固定大小的段文件组成，文件名为该段第一条记录的序号（20位补零），写满后自动滚动到新段。
+ * 每条记录的二进制布局如下（大端序）：
+ * <pre>
+ * +--------+--------+----------+-----------+------+---------+
+ * | length | crc32c | sequence | timestamp | type | payload |
+ * | int    | int    | long     | long      | byte | bytes   |
+ * +--------+--------+----------+-----------+------+---------+
+ * </pre>
+ * <ul>
+ *   <li>length：整条记录的字节数（含头部），0 表示尚未写入，-1 表示段结束</li>
+ *   <li>crc32c：覆盖 sequence 到 payload 结尾的校验和，用于识别崩溃时的半条记录</li>
+ * </ul>
+ *
+ * <p>追加只是对映射内存的写入，不产生系统调用；刷盘由 {@link #flush()} 按需或定时触发。
+ * 写入端单线程串行（内部加锁），读取端通过 {@link #tailer(long)} 获取，互不阻塞。
+ */
+public class EventJournal implements AutoCloseable {
+
+    /** 记录头长度：length + crc + sequence + timestamp + type */
+    static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 1;
+    /** 段结束标记 */
+    static final int END_OF_SEGMENT = -1;
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private boolean closed;
+
+    /** 已完整写入的最大序号，读取端以此为可见边界 */
+    private volatile long lastSequence;
+
+    /**
+     * 打开（或创建）日志目录
+     *
+     * <p>会扫描最后一个段并校验 CRC，以恢复下一个序号；末尾的半条记录会被清零丢弃。
+     *
+     * @param directory 日志目录
+     * @param segmentSize 单个段文件的大小（字节）
+     */
+    public EventJournal(Path directory, int segmentSize) {
+        if (segmentSize <= HEADER_LENGTH) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments(directory);
+            if (segments.isEmpty()) {
+                openSegment(1L);
+            } else {
+                recover(segments.get(segments.size() - 1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal at " + directory, e);
+        }
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @param type 记录类型
+     * @param payload 记录内容（从 position 读到 limit，不会修改其 position）
+     * @return 分配给该记录的序号
+     */
+    public long append(byte type, ByteBuffer payload) {
+        int recordLength = HEADER_LENGTH + payload.remaining();
+        if (recordLength > segmentSize - 4) {
+            throw new IllegalArgumentException("Record too large for segment: " + recordLength);
+        }
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (segment.remaining() < recordLength + 4) {
+                roll();
+            }
+            long sequence = nextSequence++;
+            int start = segment.position();
+            segment.position(start + 8);
+            segment.putLong(sequence);
+            segment.putLong(System.currentTimeMillis());
+            segment.put(type);
+            segment.put(payload.duplicate());
+            int end = segment.position();
+
+            CRC32C crc = new CRC32C();
+            crc.update(segment.duplicate().position(start + 8).limit(end));
+            segment.putInt(start + 4, (int) crc.getValue());
+            // length 最后写入：读取端看到非 0 长度时记录已完整
+            segment.putInt(start, recordLength);
+
+            lastSequence = sequence;
+            return sequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 从指定序号开始读取的游标
+     *
+     * @param fromSequence 起始序号（包含），小于 1 时从头开始
+     * @return 读取游标
+     */
+    public JournalTailer tailer(long fromSequence) {
+        return new JournalTailer(directory, fromSequence, this::lastSequence);
+    }
+
+    /**
+     * 将已写入的数据刷到磁盘
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            if (!closed) {
+                segment.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return 最近一次写入的序号，尚未写入任何记录时为 0
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * 删除所有记录都早于指定序号的段文件（当前写入的段不会被删除）
+     *
+     * @param sequence 需要保留的最小序号
+     * @return 删除的段文件数
+     */
+    public int deleteSegmentsBefore(long sequence) {
+        writeLock.lock();
+        try {
+            List<Path> segments = listSegments(directory);
+            int deleted = 0;
+            // 下一个段的起始序号不大于 sequence 时，当前段的全部记录都早于 sequence
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (parseBaseSequence(segments.get(i + 1)) > sequence) {
+                    break;
+                }
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+            return deleted;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete journal segments in " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (!closed) {
+                segment.force();
+                closed = true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void roll() {
+        if (segment.remaining() >= 4) {
+            segment.putInt(segment.position(), END_OF_SEGMENT);
+        }
+        segment.force();
+        try {
+            openSegment(nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll journal segment", e);
+        }
+    }
+
+    private void openSegment(long baseSequence) throws IOException {
+        Path file = directory.resolve(segmentFileName(baseSequence));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        this.nextSequence = baseSequence;
+        this.lastSequence = baseSequence - 1;
+    }
+
+    private void recover(Path lastSegment) throws IOException {
+        openSegment(parseBaseSequence(lastSegment));
+        ByteBuffer view = segment.duplicate();
+        CRC32C crc = new CRC32C();
+        int position = 0;
+        boolean sealed = false;
+        while (position + HEADER_LENGTH <= segmentSize) {
+            int length = view.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                sealed = true;
+                break;
+            }
+            if (length < HEADER_LENGTH || position + length > segmentSize) {
+                break;
+            }
+            crc.reset();
+            crc.update(view.duplicate().position(position + 8).limit(position + length));
+            if ((int) crc.getValue() != view.getInt(position + 4)) {
+                break;
+            }
+            nextSequence = view.getLong(position + 8) + 1;
+            position += length;
+        }
+        lastSequence = nextSequence - 1;
+        if (sealed || position + HEADER_LENGTH > segmentSize) {
+            openSegment(nextSequence);
+            return;
+        }
+        // 清除崩溃时残留的半条记录，避免读取端读到脏数据
+        for (int i = position; i < segmentSize; i++) {
+            if (segment.get(i) != 0) {
+                segment.put(i, (byte) 0);
+            }
+        }
+        segment.position(position);
+    }
+
+    static String segmentFileName(long baseSequence) {
+        return String.format("%020d%s", baseSequence, SEGMENT_SUFFIX);
+    }
+
+    static long parseBaseSequence(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
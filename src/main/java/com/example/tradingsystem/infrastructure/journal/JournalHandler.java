@@ -0,0 +1,20 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 日志记录处理器
+ */
+@FunctionalInterface
+public interface JournalHandler {
+
+    /**
+     * 处理一条日志记录
+     *
+     * @param sequence 记录序号
+     * @param timestamp 写入时间（毫秒）
+     * @param type 记录类型
+     * @param payload 记录内容（只读视图，仅在回调内有效）
+     */
+    void onRecord(long sequence, long timestamp, byte type, ByteBuffer payload);
+}
@@ -0,0 +1,43 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 领域事件日志配置（trading.journal.*）
+ */
+@ConfigurationProperties(prefix = "trading.journal")
+public class JournalProperties {
+
+    /** 日志目录 */
+    private String directory = "data/journal";
+
+    /** 单个段文件大小（字节），默认 64MB */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /** 定时刷盘间隔（毫秒） */
+    private long flushIntervalMs = 200;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+}
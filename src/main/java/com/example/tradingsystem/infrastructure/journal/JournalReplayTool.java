@@ -0,0 +1,38 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import java.nio.file.Path;
+
+/**
+ * 日志回放工具
+ *
+ * <p>离线读取日志目录并逐行打印事件，用于排查问题或把历史事件导入其他系统：
+ * <pre>
+ * java -cp trading-system.jar -Dloader.main=com.example.tradingsystem.infrastructure.journal.JournalReplayTool \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher data/journal [fromSequence]
+ * </pre>
+ */
+public final class JournalReplayTool {
+
+    private JournalReplayTool() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: JournalReplayTool <journal-directory> [fromSequence]");
+            System.exit(1);
+        }
+        Path directory = Path.of(args[0]);
+        long fromSequence = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+
+        long count = 0;
+        try (JournalTailer tailer = new JournalTailer(directory, fromSequence, () -> Long.MAX_VALUE)) {
+            int read;
+            do {
+                read = tailer.poll((sequence, timestamp, type, payload) ->
+                        System.out.println(sequence + "\t" + timestamp + "\t" + DomainEventCodec.decode(type, payload)), 1024);
+                count += read;
+            } while (read > 0);
+        }
+        System.err.println("Replayed " + count + " events");
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * 日志读取游标
+ *
+ * <p>按序号顺序读取 {@link EventJournal} 中的记录，可以在写入进行中持续追读（tail），
+ * 也可以离线打开日志目录做回放。每个游标只供单线程使用。
+ */
+public class JournalTailer implements AutoCloseable {
+
+    private final Path directory;
+    private final LongSupplier committedSequence;
+    private final CRC32C crc = new CRC32C();
+
+    private MappedByteBuffer segment;
+    private long segmentBaseSequence;
+    private long nextSequence;
+
+    /**
+     * @param directory 日志目录
+     * @param fromSequence 起始序号（包含）
+     * @param committedSequence 可读的最大序号，离线回放时可传 {@code () -> Long.MAX_VALUE}
+     */
+    public JournalTailer(Path directory, long fromSequence, LongSupplier committedSequence) {
+        this.directory = directory;
+        this.committedSequence = committedSequence;
+        this.nextSequence = Math.max(1L, fromSequence);
+    }
+
+    /**
+     * 读取一批记录
+     *
+     * @param handler 记录处理器
+     * @param limit 本次最多读取的条数
+     * @return 实际读取的条数，0 表示暂时没有新记录
+     */
+    public int poll(JournalHandler handler, int limit) {
+        int count = 0;
+        while (count < limit) {
+            ByteBuffer record = nextRecord();
+            if (record == null) {
+                break;
+            }
+            long sequence = record.getLong(8);
+            nextSequence = sequence + 1;
+            long timestamp = record.getLong(16);
+            byte type = record.get(24);
+            ByteBuffer payload = record.position(EventJournal.HEADER_LENGTH).slice().asReadOnlyBuffer();
+            handler.onRecord(sequence, timestamp, type, payload);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 下一条待读取记录的序号
+     */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+    }
+
+    /**
+     * 定位并返回下一条记录（跳过起始序号之前的记录），没有可读记录时返回 null
+     */
+    private ByteBuffer nextRecord() {
+        while (true) {
+            if (nextSequence > committedSequence.getAsLong()) {
+                return null;
+            }
+            if (segment == null && !openSegment(sequence -> sequence <= nextSequence, false)) {
+                return null;
+            }
+            int position = segment.position();
+            int length = position + 4 <= segment.limit() ? segment.getInt(position) : EventJournal.END_OF_SEGMENT;
+            if (length == EventJournal.END_OF_SEGMENT) {
+                // 当前段已写满，切换到下一个段；下一个段尚未创建时稍后重试
+                long currentBase = segmentBaseSequence;
+                if (!openSegment(base -> base > currentBase, true)) {
+                    return null;
+                }
+                continue;
+            }
+            if (length < EventJournal.HEADER_LENGTH || position + length > segment.limit()) {
+                return null;
+            }
+            ByteBuffer record = segment.duplicate().position(position).limit(position + length).slice();
+            crc.reset();
+            crc.update(record.duplicate().position(8));
+            if ((int) crc.getValue() != record.getInt(4)) {
+                return null;
+            }
+            segment.position(position + length);
+            if (record.getLong(8) >= nextSequence) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * 打开满足条件的段，并把读取位置放在段首
+     *
+     * @param baseMatcher 段起始序号的匹配条件
+     * @param first true 取第一个匹配的段，false 取最后一个
+     * @return 找到可用的段时返回 true
+     */
+    private boolean openSegment(LongPredicate baseMatcher, boolean first) {
+        try {
+            Path target = null;
+            for (Path candidate : EventJournal.listSegments(directory)) {
+                if (baseMatcher.test(EventJournal.parseBaseSequence(candidate))) {
+                    target = candidate;
+                    if (first) {
+                        break;
+                    }
+                }
+            }
+            if (target == null) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            segmentBaseSequence = EventJournal.parseBaseSequence(target);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment in " + directory, e);
+        }
+    }
+}
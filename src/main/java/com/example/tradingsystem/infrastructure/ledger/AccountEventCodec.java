@@ -0,0 +1,62 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.shared.Money;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * 账户余额变动事件的二进制编码
+ *
+ * <p>字段布局（大端序，共 34 字节）：
+ * <pre>
+ * accountType:byte | accountId:long | changeType:byte | amount:long(分) | occurredOn:long(秒) + int(纳秒)
+ * </pre>
+ */
+public final class AccountEventCodec {
+
+    /** 日志记录类型：余额变动 */
+    public static final byte BALANCE_CHANGED = 1;
+    /** 编码后的固定长度 */
+    public static final int ENCODED_LENGTH = 1 + 8 + 1 + 8 + 8 + 4;
+
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final BalanceChangeType[] CHANGE_TYPES = BalanceChangeType.values();
+
+    private AccountEventCodec() {
+    }
+
+    public static void encode(AccountBalanceChangedEvent event, ByteBuffer out) {
+        out.put((byte) event.accountType().ordinal());
+        out.putLong(event.accountId());
+        out.put((byte) event.changeType().ordinal());
+        out.putLong(toCents(event.amount()));
+        out.putLong(event.occurredOn().getEpochSecond());
+        out.putInt(event.occurredOn().getNano());
+    }
+
+    public static AccountBalanceChangedEvent decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        AccountType accountType = ACCOUNT_TYPES[in.get()];
+        long accountId = in.getLong();
+        BalanceChangeType changeType = CHANGE_TYPES[in.get()];
+        Money amount = fromCents(in.getLong());
+        Instant occurredOn = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        return new AccountBalanceChangedEvent(accountType, accountId, changeType, amount, occurredOn);
+    }
+
+    /**
+     * 金额换算为整数“分”（Money 精度为 2 位小数）
+     */
+    public static long toCents(Money money) {
+        return money.getAmount().movePointRight(2).longValueExact();
+    }
+
+    public static Money fromCents(long cents) {
+        return Money.of(BigDecimal.valueOf(cents, 2));
+    }
+}
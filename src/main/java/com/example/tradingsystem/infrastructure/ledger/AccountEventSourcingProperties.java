@@ -0,0 +1,98 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 账户事件溯源配置（trading.ledger.event-sourcing.*）
+ */
+@ConfigurationProperties(prefix = "trading.ledger.event-sourcing")
+public class AccountEventSourcingProperties {
+
+    /** 是否启用事件溯源模式 */
+    private boolean enabled = false;
+
+    /** 账户事件日志目录 */
+    private String directory = "data/account-events";
+
+    /** 快照目录 */
+    private String snapshotDirectory = "data/account-snapshots";
+
+    /** 单个段文件大小（字节） */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /** 每隔多少条事件写一次快照 */
+    private int snapshotInterval = 100_000;
+
+    /** 保留的快照个数 */
+    private int snapshotsToKeep = 3;
+
+    /** 启动完成后是否核对一次投影与账户表 */
+    private boolean reconcileOnStartup = true;
+
+    /** 核对确认投影与账户表不一致时（崩溃丢失事件、停用期间的变动）是否从账户表重建投影 */
+    private boolean rebuildOnDrift = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public void setSnapshotInterval(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public int getSnapshotsToKeep() {
+        return snapshotsToKeep;
+    }
+
+    public void setSnapshotsToKeep(int snapshotsToKeep) {
+        this.snapshotsToKeep = snapshotsToKeep;
+    }
+
+    public boolean isReconcileOnStartup() {
+        return reconcileOnStartup;
+    }
+
+    public void setReconcileOnStartup(boolean reconcileOnStartup) {
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    public boolean isRebuildOnDrift() {
+        return rebuildOnDrift;
+    }
+
+    public void setRebuildOnDrift(boolean rebuildOnDrift) {
+        this.rebuildOnDrift = rebuildOnDrift;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import java.util.Map;
+
+/**
+ * 账户余额快照
+ *
+ * @param lastSequence 快照包含的最后一条事件序号（回放从 lastSequence + 1 开始）
+ * @param userBalances 用户ID -> 余额（分）
+ * @param merchantBalances 商家ID -> 余额（分）
+ */
+public record AccountSnapshot(long lastSequence, Map<Long, Long> userBalances, Map<Long, Long> merchantBalances) {
+}
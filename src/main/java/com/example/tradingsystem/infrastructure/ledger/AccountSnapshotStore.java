@@ -0,0 +1,147 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 账户快照文件存储
+ *
+ * <p>快照文件名为 {@code snapshot-<lastSequence>.bin}，内容为紧凑的二进制格式：
+ * <pre>
+ * magic:int | lastSequence:long | userCount:int | (id:long, cents:long)* | merchantCount:int | (id:long, cents:long)* | crc32c:int
+ * </pre>
+ * 写入时先写临时文件再原子重命名，读取时从最新的快照开始尝试，校验失败则回退到更早的快照。
+ */
+public class AccountSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountSnapshotStore.class);
+
+    private static final int MAGIC = 0x41435354; // "ACST"
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int snapshotsToKeep;
+
+    public AccountSnapshotStore(Path directory, int snapshotsToKeep) {
+        this.directory = directory;
+        this.snapshotsToKeep = Math.max(1, snapshotsToKeep);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create snapshot directory " + directory, e);
+        }
+    }
+
+    /**
+     * 写入快照，并清理多余的旧快照
+     */
+    public void write(AccountSnapshot snapshot) {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.lastSequence(), SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)), crc))) {
+            out.writeInt(MAGIC);
+            out.writeLong(snapshot.lastSequence());
+            writeBalances(out, snapshot.userBalances());
+            writeBalances(out, snapshot.merchantBalances());
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + target, e);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            List<Path> snapshots = listSnapshots();
+            for (int i = snapshotsToKeep; i < snapshots.size(); i++) {
+                Files.deleteIfExists(snapshots.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to publish snapshot " + target, e);
+        }
+    }
+
+    /**
+     * 读取最新的有效快照
+     */
+    public Optional<AccountSnapshot> loadLatest() {
+        for (Path file : listSnapshots()) {
+            try {
+                return Optional.of(read(file));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Skipping unreadable account snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private AccountSnapshot read(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bad snapshot magic");
+            }
+            long lastSequence = in.readLong();
+            Map<Long, Long> users = readBalances(in);
+            Map<Long, Long> merchants = readBalances(in);
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            return new AccountSnapshot(lastSequence, users, merchants);
+        }
+    }
+
+    /**
+     * @return 快照文件列表，按序号从新到旧排序
+     */
+    private List<Path> listSnapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list snapshots in " + directory, e);
+        }
+    }
+
+    private static void writeBalances(DataOutputStream out, Map<Long, Long> balances) throws IOException {
+        out.writeInt(balances.size());
+        for (Map.Entry<Long, Long> entry : balances.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    private static Map<Long, Long> readBalances(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<Long, Long> balances = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            balances.put(in.readLong(), in.readLong());
+        }
+        return balances;
+    }
+}
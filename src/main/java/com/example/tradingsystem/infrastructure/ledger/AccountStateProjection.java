@@ -0,0 +1,304 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadSource;
+import com.example.tradingsystem.infrastructure.journal.EventJournal;
+import com.example.tradingsystem.infrastructure.journal.JournalTailer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件溯源的账户余额投影
+ *
+ * <p>启用 {@code trading.ledger.event-sourcing.enabled} 后：
+ * <ul>
+ *   <li>每个已提交的 {@link AccountBalanceChangedEvent} 追加到独立的账户事件日志，并更新内存中的余额</li>
+ *   <li>每隔 N 条事件异步写一次二进制快照</li>
+ *   <li>启动时加载最新快照，只回放快照之后的事件；首次启用时从数据库生成初始快照</li>
+ *   <li>事件在提交后才写入日志并定期刷盘，崩溃会丢失最后一批事件；停用期间的变动也不在日志中。
+ *       核对发现投影与账户表不一致时由 {@link #rebuild()} 从数据库重新生成投影和快照</li>
+ *   <li>从数据库加载余额时经 {@link BulkReadSource} 流式读取，在锁外构建新的余额表，不阻塞提交后的余额事件</li>
+ * </ul>
+ * 余额审计直接基于内存投影完成，不需要全表扫描 user_accounts。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.ledger.event-sourcing", name = "enabled", havingValue = "true")
+public class AccountStateProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountStateProjection.class);
+
+    private final EventJournal journal;
+    private final AccountSnapshotStore snapshotStore;
+    private final BulkReadSource bulkReadSource;
+    private final int snapshotInterval;
+    private final ByteBuffer encodeBuffer = ByteBuffer.allocate(AccountEventCodec.ENCODED_LENGTH);
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "account-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 串行化重建 */
+    private final Object rebuildLock = new Object();
+
+    /** 以下状态均由 this 锁保护 */
+    private Map<Long, Long> userBalances = new HashMap<>();
+    private Map<Long, Long> merchantBalances = new HashMap<>();
+    private long appliedSequence;
+    private long eventsSinceSnapshot;
+    /** 重建期间应用的事件（序号大于重建水位），重建结束时在新的余额表上重放；不在重建时为 null */
+    private List<AccountBalanceChangedEvent> eventsDuringRebuild;
+
+    public AccountStateProjection(AccountEventSourcingProperties properties,
+                                  BulkReadSource bulkReadSource) {
+        this.journal = new EventJournal(Path.of(properties.getDirectory()), properties.getSegmentSize());
+        this.snapshotStore = new AccountSnapshotStore(Path.of(properties.getSnapshotDirectory()),
+                properties.getSnapshotsToKeep());
+        this.bulkReadSource = bulkReadSource;
+        this.snapshotInterval = Math.max(1, properties.getSnapshotInterval());
+    }
+
+    /**
+     * 重建内存状态：加载最新快照并回放其后的事件
+     *
+     * <p>首次启用（没有快照且事件日志为空）时，从数据库读取当前余额作为初始快照。
+     */
+    @PostConstruct
+    public synchronized void recover() {
+        userBalances.clear();
+        merchantBalances.clear();
+        appliedSequence = 0;
+
+        Optional<AccountSnapshot> snapshot = snapshotStore.loadLatest();
+        if (snapshot.isPresent()) {
+            userBalances.putAll(snapshot.get().userBalances());
+            merchantBalances.putAll(snapshot.get().merchantBalances());
+            appliedSequence = snapshot.get().lastSequence();
+        } else if (journal.lastSequence() == 0) {
+            Balances loaded = loadFromDatabase();
+            userBalances.putAll(loaded.users());
+            merchantBalances.putAll(loaded.merchants());
+            snapshotStore.write(takeSnapshot());
+        } else {
+            log.warn("No account snapshot found, replaying the full account event journal");
+        }
+
+        long replayed = 0;
+        try (JournalTailer tailer = journal.tailer(appliedSequence + 1)) {
+            int read;
+            do {
+                read = tailer.poll((sequence, timestamp, type, payload) -> {
+                    apply(AccountEventCodec.decode(payload));
+                    appliedSequence = sequence;
+                }, 4096);
+                replayed += read;
+            } while (read > 0);
+        }
+        eventsSinceSnapshot = replayed;
+        log.info("Account state recovered: users={}, merchants={}, lastSequence={}, replayed={}",
+                userBalances.size(), merchantBalances.size(), appliedSequence, replayed);
+    }
+
+    /**
+     * 从账户表重新生成投影，并以当前事件序号写一个快照，之后的恢复不再使用旧快照
+     *
+     * <p>先在锁内记下已应用的事件序号作为水位，再在锁外流式读取账户表构建新的余额表，期间的余额事件照常应用并另外记录；
+     * 读取结束后在锁内把序号大于水位的事件重放到新表上，再整体替换。
+     * 水位在读取事务开始前记下，水位之前的事件都已提交、包含在读取结果中，不会被计入两次。
+     * 只读事务的一致性视图在第一次读取时建立，水位之后、视图建立之前提交的变动既在读取结果中也会被重放；
+     * 这段窗口只有提交到提交后回调之间的一瞬间。
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long watermark;
+            synchronized (this) {
+                watermark = appliedSequence;
+                eventsDuringRebuild = new ArrayList<>();
+            }
+            Balances loaded;
+            try {
+                loaded = loadFromDatabase();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    eventsDuringRebuild = null;
+                }
+                throw e;
+            }
+            AccountSnapshot snapshot;
+            int replayed;
+            synchronized (this) {
+                replayed = eventsDuringRebuild.size();
+                for (AccountBalanceChangedEvent event : eventsDuringRebuild) {
+                    apply(event, event.accountType() == AccountType.USER ? loaded.users() : loaded.merchants());
+                }
+                eventsDuringRebuild = null;
+                userBalances = loaded.users();
+                merchantBalances = loaded.merchants();
+                eventsSinceSnapshot = 0;
+                snapshot = takeSnapshot();
+            }
+            writeSnapshotAsync(snapshot);
+            log.warn("Account state rebuilt from database at sequence {} (watermark {}, replayed {})",
+                    snapshot.lastSequence(), watermark, replayed);
+        }
+    }
+
+    /**
+     * 记录一条已提交的余额变动
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalanceChanged(AccountBalanceChangedEvent event) {
+        AccountSnapshot snapshot = null;
+        synchronized (this) {
+            encodeBuffer.clear();
+            AccountEventCodec.encode(event, encodeBuffer);
+            appliedSequence = journal.append(AccountEventCodec.BALANCE_CHANGED, encodeBuffer.flip());
+            apply(event);
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+            if (++eventsSinceSnapshot >= snapshotInterval) {
+                eventsSinceSnapshot = 0;
+                snapshot = takeSnapshot();
+            }
+        }
+        if (snapshot != null) {
+            writeSnapshotAsync(snapshot);
+        }
+    }
+
+    /**
+     * 查询投影中的账户余额
+     *
+     * @return 余额，账户从未出现过时返回 empty
+     */
+    public synchronized Optional<Money> balanceOf(AccountType accountType, Long accountId) {
+        Long cents = balances(accountType).get(accountId);
+        return cents == null ? Optional.empty() : Optional.of(AccountEventCodec.fromCents(cents));
+    }
+
+    /**
+     * 基于事件流的余额审计汇总
+     */
+    public synchronized AuditSummary audit() {
+        return new AuditSummary(
+                appliedSequence,
+                userBalances.size(),
+                AccountEventCodec.fromCents(userBalances.values().stream().mapToLong(Long::longValue).sum()),
+                merchantBalances.size(),
+                AccountEventCodec.fromCents(merchantBalances.values().stream().mapToLong(Long::longValue).sum()));
+    }
+
+    @Scheduled(fixedDelayString = "${trading.journal.flush-interval-ms:200}")
+    public void flush() {
+        journal.flush();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        snapshotWriter.shutdown();
+        snapshotWriter.awaitTermination(10, TimeUnit.SECONDS);
+        AccountSnapshot snapshot;
+        synchronized (this) {
+            snapshot = takeSnapshot();
+        }
+        journal.close();
+        snapshotStore.write(snapshot);
+    }
+
+    private void apply(AccountBalanceChangedEvent event) {
+        apply(event, balances(event.accountType()));
+    }
+
+    private static void apply(AccountBalanceChangedEvent event, Map<Long, Long> balances) {
+        long cents = AccountEventCodec.toCents(event.amount());
+        long delta = event.changeType().isIncrease() ? cents : -cents;
+        balances.merge(event.accountId(), delta, Long::sum);
+    }
+
+    private void writeSnapshotAsync(AccountSnapshot snapshot) {
+        snapshotWriter.execute(() -> {
+            journal.flush();
+            snapshotStore.write(snapshot);
+        });
+    }
+
+    private Map<Long, Long> balances(AccountType accountType) {
+        return accountType == AccountType.USER ? userBalances : merchantBalances;
+    }
+
+    private AccountSnapshot takeSnapshot() {
+        return new AccountSnapshot(appliedSequence, new HashMap<>(userBalances), new HashMap<>(merchantBalances));
+    }
+
+    /**
+     * 流式读取账户表，构建新的余额表（不持有 this 锁）
+     */
+    private Balances loadFromDatabase() {
+        Balances loaded = bulkReadSource.read(status -> {
+            Map<Long, Long> users = new HashMap<>();
+            Map<Long, Long> merchants = new HashMap<>();
+            try (Cursor<UserAccount> cursor = bulkReadSource.repository().streamUsers()) {
+                for (UserAccount user : cursor) {
+                    users.put(user.getId(), AccountEventCodec.toCents(user.getBalance()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try (Cursor<MerchantAccount> cursor = bulkReadSource.repository().streamMerchants()) {
+                for (MerchantAccount merchant : cursor) {
+                    merchants.put(merchant.getId(), AccountEventCodec.toCents(merchant.getBalance()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Balances(users, merchants);
+        });
+        log.info("Account balances loaded from database: users={}, merchants={}",
+                loaded.users().size(), loaded.merchants().size());
+        return loaded;
+    }
+
+    /**
+     * 从数据库读取的余额表（分）
+     */
+    private record Balances(Map<Long, Long> users, Map<Long, Long> merchants) {
+    }
+
+    /**
+     * 审计汇总
+     *
+     * @param lastSequence 已应用的最后一条事件序号
+     * @param userCount 用户账户数
+     * @param totalUserBalance 用户余额合计
+     * @param merchantCount 商家账户数
+     * @param totalMerchantBalance 商家余额合计
+     */
+    public record AuditSummary(long lastSequence, int userCount, Money totalUserBalance,
+                               int merchantCount, Money totalMerchantBalance) {
+    }
+}
@@ -0,0 +1,578 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.journal.EventJournal;
+import com.example.tradingsystem.infrastructure.journal.JournalTailer;
+import com.example.tradingsystem.repository.AccountBalance;
+import com.example.tradingsystem.repository.LedgerTransactionRepository;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * 内存余额账本
+ *
+ * <p>启用 {@code trading.ledger.engine.enabled} 后，用户和商家余额以“分”为单位保存在内存哈希表中，数据库只是检查点：
+ * <ul>
+ *   <li>每次变动在锁内检查余额、追加预写日志（记录变动金额）并更新内存，随后等待日志刷盘才算确认</li>
+ *   <li>刷盘按组提交：并发等待的变动由一次 fsync 一起落盘</li>
+ *   <li>在事务中调用时，日志记录带事务ID；提交前在同一数据库事务中写入事务登记并等待刷盘，
+ *       提交后追加提交标记，回滚后在内存中撤销并追加中止标记；提交结果未知时按事务登记判断</li>
+ *   <li>被修改的余额定期批量写回数据库（未完成事务的变动不写回），写回成功后记录检查点序号并删除更早的日志段</li>
+ *   <li>启动时从数据库加载余额，再回放检查点之后的非事务变动和已提交事务的变动；
+ *       没有提交或中止标记的事务按数据库中的事务登记决定是否生效</li>
+ * </ul>
+ * 余额只在本进程内存中，只能单节点运行；该模式下余额只能通过本账本修改，
+ * 不能与集群、分片、单次调用交易或库存配额路径同时使用（启动时检查）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.ledger.engine", name = "enabled", havingValue = "true")
+public class BalanceLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceLedger.class);
+
+    /** 日志记录类型：事务外的余额变动，追加即生效 */
+    static final byte MUTATION = 1;
+    /** 日志记录类型：事务内的余额变动，所属事务提交后才生效 */
+    static final byte TX_MUTATION = 2;
+    /** 日志记录类型：事务已提交 */
+    static final byte COMMIT = 3;
+    /** 日志记录类型：事务已回滚 */
+    static final byte ABORT = 4;
+    /** accountType:byte | accountId:long | changeType:byte | amount:long(分) | balanceAfter:long(分) */
+    private static final int MUTATION_LENGTH = 1 + 8 + 1 + 8 + 8;
+    /** 事务内的变动在前面加 txId:long，提交/中止标记只有 txId:long */
+    private static final int TX_ID_LENGTH = 8;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final BalanceChangeType[] CHANGE_TYPES = BalanceChangeType.values();
+
+    private final EventJournal wal;
+    private final Path checkpointFile;
+    private final UserAccountRepository userAccountRepository;
+    private final MerchantAccountRepository merchantAccountRepository;
+    private final LedgerTransactionRepository ledgerTransactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate lookupTemplate;
+    private final int checkpointBatchSize;
+    private final ByteBuffer encodeBuffer = ByteBuffer.allocate(TX_ID_LENGTH + MUTATION_LENGTH);
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object checkpointLock = new Object();
+
+    /** 以下状态均由 this 锁保护 */
+    private LongLongHashMap userBalances = new LongLongHashMap(1024);
+    private LongLongHashMap merchantBalances = new LongLongHashMap(1024);
+    private LongLongHashMap dirtyUsers = new LongLongHashMap(1024);
+    private LongLongHashMap dirtyMerchants = new LongLongHashMap(1024);
+    /** 已追加变动、尚未提交或回滚的事务（按事务ID） */
+    private Map<Long, LedgerTransaction> inFlight = new HashMap<>();
+
+    private volatile long durableSequence;
+    private volatile long checkpointSequence;
+    /** 检查点时未完成事务的最早日志序号减一，恢复从其后读取事务内的变动 */
+    private volatile long replayFromSequence;
+
+    public BalanceLedger(BalanceLedgerProperties properties,
+                         UserAccountRepository userAccountRepository,
+                         MerchantAccountRepository merchantAccountRepository,
+                         LedgerTransactionRepository ledgerTransactionRepository,
+                         PlatformTransactionManager transactionManager) {
+        Path directory = Path.of(properties.getDirectory());
+        this.wal = new EventJournal(directory, properties.getSegmentSize());
+        this.checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        this.userAccountRepository = userAccountRepository;
+        this.merchantAccountRepository = merchantAccountRepository;
+        this.ledgerTransactionRepository = ledgerTransactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lookupTemplate = new TransactionTemplate(transactionManager);
+        this.lookupTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lookupTemplate.setReadOnly(true);
+        this.checkpointBatchSize = Math.max(1, properties.getCheckpointBatchSize());
+    }
+
+    /**
+     * 重建内存余额：从数据库加载检查点状态，再回放检查点之后生效的变动
+     */
+    @PostConstruct
+    public synchronized void recover() {
+        userBalances = new LongLongHashMap(1024);
+        merchantBalances = new LongLongHashMap(1024);
+        dirtyUsers = new LongLongHashMap(1024);
+        dirtyMerchants = new LongLongHashMap(1024);
+        inFlight = new HashMap<>();
+        for (UserAccount user : userAccountRepository.selectList(null)) {
+            userBalances.put(user.getId(), AccountEventCodec.toCents(user.getBalance()));
+        }
+        for (MerchantAccount merchant : merchantAccountRepository.selectList(null)) {
+            merchantBalances.put(merchant.getId(), AccountEventCodec.toCents(merchant.getBalance()));
+        }
+
+        long[] checkpoint = readCheckpoint();
+        long checkpointed = checkpoint[0];
+        checkpointSequence = checkpointed;
+        replayFromSequence = checkpoint[1];
+        // 检查点之前的事务外变动和已提交事务已在数据库中；事务内的变动要等到提交标记才生效
+        Map<Long, List<Delta>> open = new HashMap<>();
+        long replayed = 0;
+        try (JournalTailer tailer = wal.tailer(replayFromSequence + 1)) {
+            int read;
+            do {
+                read = tailer.poll((sequence, timestamp, type, payload) -> {
+                    switch (type) {
+                        case MUTATION -> {
+                            if (sequence > checkpointed) {
+                                apply(decode(payload, 0));
+                            }
+                        }
+                        case TX_MUTATION -> open.computeIfAbsent(payload.getLong(0), id -> new ArrayList<>())
+                                .add(decode(payload, TX_ID_LENGTH));
+                        case COMMIT -> {
+                            List<Delta> deltas = open.remove(payload.getLong(0));
+                            if (deltas != null && sequence > checkpointed) {
+                                deltas.forEach(this::apply);
+                            }
+                        }
+                        case ABORT -> open.remove(payload.getLong(0));
+                        default -> throw new IllegalStateException("Unknown balance log record type: " + type);
+                    }
+                }, 4096);
+                replayed += read;
+            } while (read > 0);
+        }
+        int inDoubt = open.size();
+        if (inDoubt > 0) {
+            // 崩溃时未完成的事务：数据库中有登记即已提交
+            Set<Long> committed = new HashSet<>(ledgerTransactionRepository.selectCommitted(open.keySet()));
+            open.forEach((txId, deltas) -> {
+                boolean commit = committed.contains(txId);
+                if (commit) {
+                    deltas.forEach(this::apply);
+                }
+                appendMarker(commit ? COMMIT : ABORT, txId);
+            });
+            wal.flush();
+        }
+        durableSequence = wal.lastSequence();
+        log.info("Balance ledger recovered: users={}, merchants={}, checkpoint={}, replayed={}, inDoubt={}",
+                userBalances.size(), merchantBalances.size(), checkpointSequence, replayed, inDoubt);
+    }
+
+    /**
+     * @return 账户余额，账户从未出现过时为 0
+     */
+    public synchronized Money balanceOf(AccountType accountType, long accountId) {
+        return AccountEventCodec.fromCents(balances(accountType).get(accountId, 0));
+    }
+
+    /**
+     * 用户充值
+     *
+     * @return 充值后的余额
+     */
+    public Money deposit(long userId, Money amount) {
+        return change(AccountType.USER, userId, BalanceChangeType.DEPOSIT, amount);
+    }
+
+    /**
+     * 用户扣款
+     *
+     * @return 扣款后的余额
+     * @throws IllegalStateException 如果余额不足
+     */
+    public Money withdraw(long userId, Money amount) {
+        return change(AccountType.USER, userId, BalanceChangeType.WITHDRAW, amount);
+    }
+
+    /**
+     * 商家入账
+     *
+     * @return 入账后的余额
+     */
+    public Money credit(long merchantId, Money amount) {
+        return change(AccountType.MERCHANT, merchantId, BalanceChangeType.CREDIT, amount);
+    }
+
+    /**
+     * 商家出账
+     *
+     * @return 出账后的余额
+     * @throws IllegalStateException 如果余额不足
+     */
+    public Money debit(long merchantId, Money amount) {
+        return change(AccountType.MERCHANT, merchantId, BalanceChangeType.DEBIT, amount);
+    }
+
+    /**
+     * 从用户扣款并给商家入账（原子完成，两条日志记录）
+     *
+     * @throws IllegalStateException 如果用户余额不足
+     */
+    public void transfer(long userId, long merchantId, Money amount) {
+        long cents = positiveCents(amount);
+        LedgerTransaction tx = currentTransaction();
+        long sequence;
+        synchronized (this) {
+            long userBalance = userBalances.get(userId, 0);
+            if (userBalance < cents) {
+                throw new IllegalStateException("Insufficient balance");
+            }
+            append(tx, AccountType.USER, userId, BalanceChangeType.WITHDRAW, cents, userBalance - cents);
+            long merchantBalance = merchantBalances.get(merchantId, 0) + cents;
+            sequence = append(tx, AccountType.MERCHANT, merchantId, BalanceChangeType.CREDIT, cents, merchantBalance);
+        }
+        if (tx == null) {
+            awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * 等待指定序号及之前的日志刷盘（组提交：持有刷盘锁的线程一次刷出当前全部日志）
+     */
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long target = wal.lastSequence();
+            wal.flush();
+            durableSequence = target;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trading.ledger.engine.checkpoint-interval-ms:1000}")
+    public void scheduledCheckpoint() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("Balance checkpoint failed, will retry", e);
+        }
+    }
+
+    /**
+     * 把被修改的余额批量写回数据库并推进检查点
+     *
+     * @return 新的检查点序号
+     */
+    public long checkpoint() {
+        synchronized (checkpointLock) {
+            LongLongHashMap users;
+            LongLongHashMap merchants;
+            long sequence;
+            long replayFrom;
+            synchronized (this) {
+                users = dirtyUsers;
+                merchants = dirtyMerchants;
+                dirtyUsers = new LongLongHashMap(1024);
+                dirtyMerchants = new LongLongHashMap(1024);
+                sequence = wal.lastSequence();
+                replayFrom = sequence;
+                // 未完成事务的变动不写回，它们的日志记录从 replayFrom 之后保留到恢复时
+                for (LedgerTransaction tx : inFlight.values()) {
+                    replayFrom = Math.min(replayFrom, tx.id - 1);
+                    for (Delta delta : tx.deltas) {
+                        LongLongHashMap written = delta.accountType() == AccountType.USER ? users : merchants;
+                        if (written.containsKey(delta.accountId())) {
+                            written.put(delta.accountId(), written.get(delta.accountId(), 0) - delta.cents());
+                        }
+                    }
+                }
+            }
+            if (sequence == checkpointSequence) {
+                return sequence;
+            }
+            awaitDurable(sequence);
+            long obsoleteTransactions = replayFrom;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    writeBack(users, userAccountRepository::updateBalances);
+                    writeBack(merchants, merchantAccountRepository::updateBalances);
+                    ledgerTransactionRepository.deleteUpTo(obsoleteTransactions);
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    // 写回失败：未被更新的变动重新标记，下次再写
+                    users.forEach((id, cents) -> {
+                        if (!dirtyUsers.containsKey(id)) {
+                            dirtyUsers.put(id, cents);
+                        }
+                    });
+                    merchants.forEach((id, cents) -> {
+                        if (!dirtyMerchants.containsKey(id)) {
+                            dirtyMerchants.put(id, cents);
+                        }
+                    });
+                }
+                throw e;
+            }
+            writeCheckpoint(sequence, replayFrom);
+            checkpointSequence = sequence;
+            replayFromSequence = replayFrom;
+            wal.deleteSegmentsBefore(replayFrom + 1);
+            return sequence;
+        }
+    }
+
+    /**
+     * @return 最近一次检查点的日志序号
+     */
+    public long checkpointSequence() {
+        return checkpointSequence;
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("Final balance checkpoint failed, changes will be replayed from the log", e);
+        }
+        wal.close();
+    }
+
+    private Money change(AccountType accountType, long accountId, BalanceChangeType changeType, Money amount) {
+        long cents = positiveCents(amount);
+        LedgerTransaction tx = currentTransaction();
+        long sequence;
+        long balance;
+        synchronized (this) {
+            long current = balances(accountType).get(accountId, 0);
+            if (!changeType.isIncrease() && current < cents) {
+                throw new IllegalStateException("Insufficient balance");
+            }
+            balance = changeType.isIncrease() ? current + cents : current - cents;
+            sequence = append(tx, accountType, accountId, changeType, cents, balance);
+        }
+        if (tx == null) {
+            awaitDurable(sequence);
+        }
+        return AccountEventCodec.fromCents(balance);
+    }
+
+    /**
+     * @return 当前数据库事务对应的账本事务（首次调用时登记事务同步），不在事务中时返回 null
+     */
+    private LedgerTransaction currentTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        LedgerTransaction tx = (LedgerTransaction) TransactionSynchronizationManager.getResource(this);
+        if (tx == null) {
+            tx = new LedgerTransaction();
+            TransactionSynchronizationManager.bindResource(this, tx);
+            TransactionSynchronizationManager.registerSynchronization(tx);
+        }
+        return tx;
+    }
+
+    /**
+     * 追加日志并更新内存（调用方持有 this 锁）；事务内的变动以首条记录的序号作为事务ID
+     */
+    private long append(LedgerTransaction tx, AccountType accountType, long accountId, BalanceChangeType changeType,
+                        long cents, long balanceAfter) {
+        encodeBuffer.clear();
+        if (tx != null) {
+            encodeBuffer.putLong(tx.id == 0 ? wal.lastSequence() + 1 : tx.id);
+        }
+        encodeBuffer.put((byte) accountType.ordinal())
+                .putLong(accountId)
+                .put((byte) changeType.ordinal())
+                .putLong(cents)
+                .putLong(balanceAfter);
+        long sequence = wal.append(tx == null ? MUTATION : TX_MUTATION, encodeBuffer.flip());
+        if (tx != null) {
+            if (tx.id == 0) {
+                tx.id = sequence;
+                inFlight.put(sequence, tx);
+            }
+            tx.deltas.add(new Delta(accountType, accountId, changeType.isIncrease() ? cents : -cents));
+            tx.lastSequence = sequence;
+        }
+        balances(accountType).put(accountId, balanceAfter);
+        dirty(accountType).put(accountId, balanceAfter);
+        return sequence;
+    }
+
+    /**
+     * 追加提交或中止标记（调用方持有 this 锁）
+     */
+    private void appendMarker(byte type, long txId) {
+        encodeBuffer.clear();
+        encodeBuffer.putLong(txId);
+        wal.append(type, encodeBuffer.flip());
+    }
+
+    /**
+     * 事务结束：提交时变动生效，回滚时在内存中撤销
+     */
+    private synchronized void complete(LedgerTransaction tx, boolean committed) {
+        inFlight.remove(tx.id);
+        for (Delta delta : tx.deltas) {
+            long balance = balances(delta.accountType()).get(delta.accountId(), 0);
+            if (!committed) {
+                balance -= delta.cents();
+                balances(delta.accountType()).put(delta.accountId(), balance);
+            }
+            // 检查点写回时扣除了未完成事务的变动，这里重新标记
+            dirty(delta.accountType()).put(delta.accountId(), balance);
+        }
+        appendMarker(committed ? COMMIT : ABORT, tx.id);
+    }
+
+    /**
+     * 回放一条变动（调用方持有 this 锁）
+     */
+    private void apply(Delta delta) {
+        long balance = balances(delta.accountType()).get(delta.accountId(), 0) + delta.cents();
+        balances(delta.accountType()).put(delta.accountId(), balance);
+        dirty(delta.accountType()).put(delta.accountId(), balance);
+    }
+
+    private static Delta decode(ByteBuffer payload, int offset) {
+        AccountType accountType = ACCOUNT_TYPES[payload.get(offset)];
+        long accountId = payload.getLong(offset + 1);
+        BalanceChangeType changeType = CHANGE_TYPES[payload.get(offset + 1 + 8)];
+        long cents = payload.getLong(offset + 1 + 8 + 1);
+        return new Delta(accountType, accountId, changeType.isIncrease() ? cents : -cents);
+    }
+
+    private void writeBack(LongLongHashMap balances, ToIntFunction<List<AccountBalance>> update) {
+        List<AccountBalance> batch = new ArrayList<>(Math.min(balances.size(), checkpointBatchSize));
+        balances.forEach((id, cents) -> {
+            batch.add(new AccountBalance(id, AccountEventCodec.fromCents(cents).getAmount()));
+            if (batch.size() == checkpointBatchSize) {
+                update.applyAsInt(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            update.applyAsInt(batch);
+        }
+    }
+
+    /**
+     * @return [检查点序号, 回放起点]；旧格式只有检查点序号
+     */
+    private long[] readCheckpoint() {
+        try {
+            if (!Files.exists(checkpointFile)) {
+                return new long[] {0L, 0L};
+            }
+            String[] parts = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim().split("\\s+");
+            long sequence = Long.parseLong(parts[0]);
+            return new long[] {sequence, parts.length > 1 ? Long.parseLong(parts[1]) : sequence};
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read balance checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private void writeCheckpoint(long sequence, long replayFrom) {
+        Path temp = checkpointFile.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(temp, sequence + " " + replayFrom, StandardCharsets.UTF_8);
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write balance checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private LongLongHashMap balances(AccountType accountType) {
+        return accountType == AccountType.USER ? userBalances : merchantBalances;
+    }
+
+    private LongLongHashMap dirty(AccountType accountType) {
+        return accountType == AccountType.USER ? dirtyUsers : dirtyMerchants;
+    }
+
+    private static long positiveCents(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return AccountEventCodec.toCents(amount);
+    }
+
+    /**
+     * 一条余额变动（分，增加为正）
+     */
+    private record Delta(AccountType accountType, long accountId, long cents) {
+    }
+
+    /**
+     * 一个数据库事务中的账本变动
+     */
+    private final class LedgerTransaction implements TransactionSynchronization {
+
+        /** 首条日志记录的序号，尚未追加时为 0；id 和 deltas 由账本的 this 锁保护 */
+        long id;
+        final List<Delta> deltas = new ArrayList<>(4);
+        volatile long lastSequence;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (id == 0) {
+                return;
+            }
+            // 登记与业务数据同一事务提交：提交标记丢失时恢复据此判断结果
+            ledgerTransactionRepository.insert(id);
+            awaitDurable(lastSequence);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BalanceLedger.this);
+            if (id == 0) {
+                return;
+            }
+            boolean committed = status == STATUS_COMMITTED;
+            if (status == STATUS_UNKNOWN) {
+                try {
+                    committed = Boolean.TRUE.equals(lookupTemplate.execute(
+                            s -> !ledgerTransactionRepository.selectCommitted(List.of(id)).isEmpty()));
+                } catch (RuntimeException e) {
+                    // 保持未完成：不写回这些变动，重启恢复时再按登记判断
+                    log.error("Outcome of balance ledger transaction {} is unknown, left unresolved until recovery", id, e);
+                    return;
+                }
+            }
+            complete(this, committed);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 内存余额账本配置（trading.ledger.engine.*）
+ */
+@ConfigurationProperties(prefix = "trading.ledger.engine")
+public class BalanceLedgerProperties {
+
+    /** 是否启用内存余额账本 */
+    private boolean enabled = false;
+
+    /** 预写日志目录 */
+    private String directory = "data/balance-wal";
+
+    /** 单个段文件大小（字节） */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /** 检查点间隔（毫秒） */
+    private long checkpointIntervalMs = 1000;
+
+    /** 检查点每条批量 UPDATE 包含的账户数 */
+    private int checkpointBatchSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public long getCheckpointIntervalMs() {
+        return checkpointIntervalMs;
+    }
+
+    public void setCheckpointIntervalMs(long checkpointIntervalMs) {
+        this.checkpointIntervalMs = checkpointIntervalMs;
+    }
+
+    public int getCheckpointBatchSize() {
+        return checkpointBatchSize;
+    }
+
+    public void setCheckpointBatchSize(int checkpointBatchSize) {
+        this.checkpointBatchSize = checkpointBatchSize;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.tradingsystem.infrastructure.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 下单自适应并发限制配置（trading.limiter.*）
+ */
+@ConfigurationProperties(prefix = "trading.limiter")
+public class ConcurrencyLimitProperties {
+
+    /** 是否启用自适应并发限制 */
+    private boolean enabled = false;
+
+    /** 初始并发上限 */
+    private int initialLimit = 50;
+
+    /** 并发上限的下界 */
+    private int minLimit = 4;
+
+    /** 并发上限的上界 */
+    private int maxLimit = 500;
+
+    /** 新估计值的平滑系数（0~1，越大调整越快） */
+    private double smoothing = 0.2;
+
+    /** 容忍的延迟膨胀倍数：短期延迟不超过长期延迟的该倍数时不下调上限 */
+    private double rttTolerance = 1.5;
+
+    /** 长期延迟基线的样本窗口（指数平均的等效样本数） */
+    private int longWindow = 600;
+
+    /** 请求因锁等待或连接池耗尽失败时，上限乘以该系数 */
+    private double backoffRatio = 0.9;
+
+    /** 拒绝时建议客户端等待的最短时间（Retry-After） */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /** 是否为热点 SKU 单独限流，使热点 SKU 的锁等待不占满整个节点的并发额度 */
+    private boolean perSkuClass = true;
+
+    /** 热点 SKU 的初始并发上限 */
+    private int hotInitialLimit = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isPerSkuClass() {
+        return perSkuClass;
+    }
+
+    public void setPerSkuClass(boolean perSkuClass) {
+        this.perSkuClass = perSkuClass;
+    }
+
+    public int getHotInitialLimit() {
+        return hotInitialLimit;
+    }
+
+    public void setHotInitialLimit(int hotInitialLimit) {
+        this.hotInitialLimit = hotInitialLimit;
+    }
+}
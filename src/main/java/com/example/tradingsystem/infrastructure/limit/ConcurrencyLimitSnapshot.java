@@ -0,0 +1,12 @@
+package com.example.tradingsystem.infrastructure.limit;
+
+/**
+ * 并发上限的当前状态
+ *
+ * @param name 上限名称（node / hot-sku）
+ * @param limit 当前并发上限
+ * @param inFlight 在途请求数
+ * @param rejected 累计拒绝数
+ */
+public record ConcurrencyLimitSnapshot(String name, int limit, int inFlight, long rejected) {
+}
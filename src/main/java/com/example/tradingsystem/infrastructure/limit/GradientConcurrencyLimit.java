@@ -0,0 +1,153 @@
+package com.example.tradingsystem.infrastructure.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于延迟梯度的自适应并发上限
+ *
+ * <p>用延迟的变化判断是否开始排队，不需要预先知道系统容量：
+ * <ul>
+ *   <li>长期延迟是样本的指数平均，作为无排队时的基线；短期延迟是本次请求的耗时</li>
+ *   <li>梯度 = 容忍倍数 × 长期延迟 / 短期延迟，限制在 [0.5, 1]；延迟膨胀时梯度小于 1，上限随之下调</li>
+ *   <li>新上限 = 当前上限 × 梯度 + √当前上限（留出少量排队空间用于探测），再与当前值平滑</li>
+ *   <li>请求因锁等待超时或连接池耗尽失败时按退避系数直接下调</li>
+ *   <li>在途请求不到上限一半时不上调，避免空闲期把上限推高</li>
+ * </ul>
+ * 获取许可是一次无锁的比较和递增，样本更新在 this 锁内完成。
+ */
+public class GradientConcurrencyLimit {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double longWindowDecay;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile int limit;
+    /** 以下状态由 this 锁保护 */
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    public GradientConcurrencyLimit(String name, int initialLimit, ConcurrencyLimitProperties properties) {
+        this(name, initialLimit, properties, System::nanoTime);
+    }
+
+    GradientConcurrencyLimit(String name, int initialLimit, ConcurrencyLimitProperties properties,
+                             LongSupplier nanoClock) {
+        this.name = name;
+        this.nanoClock = nanoClock;
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.longWindowDecay = 1.0 / Math.max(1, properties.getLongWindow());
+        this.backoffRatio = properties.getBackoffRatio();
+        this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 获取一个许可
+     *
+     * @return 许可，在途请求已达上限时返回 null
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(nanoClock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public ConcurrencyLimitSnapshot snapshot() {
+        return new ConcurrencyLimitSnapshot(name, limit, inFlight.get(), rejected.get());
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * longWindowDecay;
+        }
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / Math.max(1, rttNanos)));
+        double candidate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - smoothing) + candidate * smoothing);
+    }
+
+    private synchronized void onDropped() {
+        update(estimatedLimit * backoffRatio);
+    }
+
+    private void update(double value) {
+        estimatedLimit = Math.min(maxLimit, Math.max(minLimit, value));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 一个已获取的许可，须且只能释放一次
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * 请求正常结束（包括业务上的拒绝），耗时作为延迟样本
+         */
+        public void release() {
+            inFlight.decrementAndGet();
+            onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+        }
+
+        /**
+         * 请求没有执行（如被另一个上限拒绝），不计样本
+         */
+        public void abandon() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * 请求因过载失败（锁等待超时、连接池耗尽），下调上限
+         */
+        public void dropped() {
+            inFlight.decrementAndGet();
+            onDropped();
+        }
+    }
+}
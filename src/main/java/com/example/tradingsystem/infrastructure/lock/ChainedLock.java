@@ -0,0 +1,65 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 依次获取两把锁，两把都拿到才算加锁成功
+ *
+ * <p>集群模式下归属节点在被其他节点报告不可达或交接期内，先拿进程内锁、再拿 Redis 锁，
+ * 与回退到本地下单（只拿 Redis 锁）的节点互斥。第二把锁没拿到时释放第一把；释放顺序与获取相反。
+ */
+public class ChainedLock implements DistributedLock {
+
+    private final DistributedLock first;
+    private final DistributedLock second;
+
+    public ChainedLock(DistributedLock first, DistributedLock second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public boolean tryLock(String key, long expireTime, TimeUnit timeUnit) {
+        if (!first.tryLock(key, expireTime, timeUnit)) {
+            return false;
+        }
+        return lockSecond(key, () -> second.tryLock(key, expireTime, timeUnit));
+    }
+
+    /**
+     * 两把锁共用同一个等待时间
+     */
+    @Override
+    public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit timeUnit) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(waitTime);
+        if (!first.tryLock(key, waitTime, leaseTime, timeUnit)) {
+            return false;
+        }
+        long remaining = Math.max(0, timeUnit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+        return lockSecond(key, () -> second.tryLock(key, remaining, leaseTime, timeUnit));
+    }
+
+    @Override
+    public void unlock(String key) {
+        try {
+            second.unlock(key);
+        } finally {
+            first.unlock(key);
+        }
+    }
+
+    private boolean lockSecond(String key, BooleanSupplier attempt) {
+        boolean locked;
+        try {
+            locked = attempt.getAsBoolean();
+        } catch (RuntimeException e) {
+            first.unlock(key);
+            throw e;
+        }
+        if (!locked) {
+            first.unlock(key);
+        }
+        return locked;
+    }
+}
@@ -17,6 +17,21 @@ public interface DistributedLock {
      */
     boolean tryLock(String key, long expireTime, TimeUnit timeUnit);
 
+    /**
+     * 在等待时间内尝试获取分布式锁
+     *
+     * <p>默认实现忽略等待时间，竞争时立即失败。
+     *
+     * @param key       锁的键
+     * @param waitTime  最长等待时间
+     * @param leaseTime 锁的过期时间
+     * @param timeUnit  时间单位
+     * @return 是否获取到锁
+     */
+    default boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit timeUnit) {
+        return tryLock(key, leaseTime, timeUnit);
+    }
+
     /**
      * 释放分布式锁
      *
@@ -0,0 +1,92 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内锁
+ *
+ * <p>集群模式下 SKU 的归属节点用它代替 Redis 锁串行化下单，加锁和释放都不需要网络往返。
+ * expireTime 作为等待时间；锁只能由持有线程释放。
+ * 每个键的锁记录持有和等待的次数，归零时从表中移除，表的大小不随处理过的 SKU 增长。
+ */
+public class InProcessLock implements DistributedLock {
+
+    private final ConcurrentHashMap<String, Entry> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryLock(String key, long expireTime, TimeUnit timeUnit) {
+        Entry entry = locks.compute(key, (k, existing) -> {
+            Entry joined = existing != null ? existing : new Entry();
+            joined.users++;
+            return joined;
+        });
+        boolean acquired;
+        try {
+            acquired = entry.lock.tryLock(expireTime, timeUnit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            release(key);
+        }
+        return acquired;
+    }
+
+    @Override
+    public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit timeUnit) {
+        return tryLock(key, waitTime, timeUnit);
+    }
+
+    @Override
+    public void unlock(String key) {
+        Entry entry = locks.get(key);
+        if (entry != null && entry.lock.isHeldByCurrentThread()) {
+            entry.lock.unlock();
+            release(key);
+        }
+    }
+
+    /**
+     * @return 该键上是否有持有者或等待者
+     */
+    public boolean isInUse(String key) {
+        return locks.containsKey(key);
+    }
+
+    /**
+     * @return 当前有持有者或等待者的键数
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    /**
+     * 等待当前持有者释放锁（用于 SKU 交接时排空进行中的下单）
+     *
+     * @return 在超时前锁空闲时返回 true
+     */
+    public boolean awaitReleased(String key, Duration timeout) {
+        if (!tryLock(key, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        unlock(key);
+        return true;
+    }
+
+    private void release(String key) {
+        locks.computeIfPresent(key, (k, entry) -> --entry.users == 0 ? null : entry);
+    }
+
+    /**
+     * 一个键的锁，users 只在 compute 内修改
+     */
+    private static final class Entry {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+}
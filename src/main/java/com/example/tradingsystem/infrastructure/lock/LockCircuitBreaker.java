@@ -0,0 +1,139 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis 锁服务熔断器
+ *
+ * <p>把 Redis 是否可用作为整体状态判断，而不是每次加锁各自等待 Redisson 超时：
+ * <ul>
+ *   <li>CLOSED：走 Redis；连续失败达到阈值后转为 OPEN</li>
+ *   <li>OPEN：所有加锁直接走降级模式，不访问 Redis；后台定时探测 Redis</li>
+ *   <li>HALF_OPEN：探测开始成功，仍走降级模式，连续成功达到阈值后转为 CLOSED，任一失败回到 OPEN</li>
+ * </ul>
+ * 每次状态变化发布 {@link LockCircuitStateChangedEvent}，并导出状态（trading.lock.circuit.state）
+ * 和变化次数（trading.lock.circuit.transitions）指标。
+ */
+@Component
+public class LockCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(LockCircuitBreaker.class);
+    private static final String PROBE_KEY = "trading:lock:probe";
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final RedissonClient redissonClient;
+    private final LockCircuitProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile State state = State.CLOSED;
+    /** 探测线程独占 */
+    private int consecutiveProbeSuccesses;
+
+    public LockCircuitBreaker(RedissonClient redissonClient,
+                              LockCircuitProperties properties,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        for (State to : State.values()) {
+            transitions.put(to, Counter.builder("trading.lock.circuit.transitions")
+                    .tag("to", to.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("trading.lock.circuit.state", this, breaker -> breaker.state.ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return 当前是否可以访问 Redis
+     */
+    public boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 记录一次成功的 Redis 调用
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * 记录一次失败的 Redis 调用，连续失败达到阈值时熔断
+     */
+    public void recordFailure(Throwable cause) {
+        if (consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) {
+            transition(State.CLOSED, State.OPEN, "Redis calls failing: " + cause);
+        }
+    }
+
+    /**
+     * 熔断期间探测 Redis
+     */
+    @Scheduled(fixedDelayString = "${trading.lock.circuit.probe-interval-ms:1000}")
+    public void probe() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return;
+        }
+        try {
+            redissonClient.getBucket(PROBE_KEY).isExists();
+        } catch (RuntimeException e) {
+            consecutiveProbeSuccesses = 0;
+            transition(current, State.OPEN, "Probe failed: " + e);
+            return;
+        }
+        if (++consecutiveProbeSuccesses >= properties.getSuccessThreshold()) {
+            consecutiveProbeSuccesses = 0;
+            consecutiveFailures.set(0);
+            transition(current, State.CLOSED, "Probe succeeded");
+        } else {
+            transition(current, State.HALF_OPEN, "Probe succeeded");
+        }
+    }
+
+    private void transition(State from, State to, String reason) {
+        synchronized (this) {
+            if (from == to || state != from) {
+                return;
+            }
+            state = to;
+        }
+        transitions.get(to).increment();
+        if (to == State.CLOSED) {
+            log.info("Lock circuit {} -> {}: {}", from, to, reason);
+        } else {
+            log.warn("Lock circuit {} -> {}: {}", from, to, reason);
+        }
+        eventPublisher.publishEvent(new LockCircuitStateChangedEvent(from, to, reason, Instant.now()));
+    }
+}
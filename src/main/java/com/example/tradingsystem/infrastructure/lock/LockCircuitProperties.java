@@ -0,0 +1,54 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 分布式锁熔断配置（trading.lock.circuit.*）
+ */
+@ConfigurationProperties(prefix = "trading.lock.circuit")
+public class LockCircuitProperties {
+
+    /** 连续失败多少次后熔断，整体切换到降级模式 */
+    private int failureThreshold = 3;
+
+    /** 熔断期间探测 Redis 的间隔（毫秒） */
+    private long probeIntervalMs = 1000;
+
+    /** 连续探测成功多少次后恢复 */
+    private int successThreshold = 2;
+
+    /** 降级模式下是否在事务内额外加数据库行锁，使多个节点之间仍然互斥 */
+    private boolean dbRowLocks = false;
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getProbeIntervalMs() {
+        return probeIntervalMs;
+    }
+
+    public void setProbeIntervalMs(long probeIntervalMs) {
+        this.probeIntervalMs = probeIntervalMs;
+    }
+
+    public int getSuccessThreshold() {
+        return successThreshold;
+    }
+
+    public void setSuccessThreshold(int successThreshold) {
+        this.successThreshold = successThreshold;
+    }
+
+    public boolean isDbRowLocks() {
+        return dbRowLocks;
+    }
+
+    public void setDbRowLocks(boolean dbRowLocks) {
+        this.dbRowLocks = dbRowLocks;
+    }
+}
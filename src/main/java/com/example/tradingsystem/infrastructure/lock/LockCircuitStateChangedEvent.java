@@ -0,0 +1,15 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import java.time.Instant;
+
+/**
+ * 分布式锁熔断状态变化事件
+ *
+ * @param from 原状态
+ * @param to 新状态
+ * @param reason 触发原因
+ * @param at 变化时间
+ */
+public record LockCircuitStateChangedEvent(LockCircuitBreaker.State from, LockCircuitBreaker.State to,
+                                           String reason, Instant at) {
+}
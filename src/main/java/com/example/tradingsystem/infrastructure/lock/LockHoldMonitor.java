@@ -0,0 +1,217 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 锁持有监控和租约看门狗
+ *
+ * <ul>
+ *   <li>按锁键前缀（最后一个冒号之前的部分，如 order:product）记录持锁时长直方图（trading.lock.hold）</li>
+ *   <li>提供当前持锁最久的持有者视图</li>
+ *   <li>可续期的持有在租约到期前由看门狗线程续期，超过最长持有时间后停止续期</li>
+ *   <li>看门狗发现租约已过期时抓取持有线程此刻的调用栈（即卡住的位置）记录警告日志，
+ *       释放时租约已过期（或锁已不属于自己）的再记录一次持有时长</li>
+ * </ul>
+ * 看门狗使用自己的线程，不占用 Spring 共享的调度线程，其他定时任务变慢时续期也不会被拖延。
+ */
+@Component
+public class LockHoldMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(LockHoldMonitor.class);
+
+    /**
+     * 续期动作
+     */
+    @FunctionalInterface
+    public interface Renewal {
+
+        /**
+         * @param holderThreadId 持锁线程ID
+         * @param lease 新的租约长度
+         * @return 锁仍由该线程持有且续期成功时返回 true
+         */
+        boolean renew(long holderThreadId, Duration lease);
+    }
+
+    private final LockLeaseProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "lock-lease-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LockHoldMonitor(LockLeaseProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        long interval = Math.max(1, properties.getRenewIntervalMs());
+        watchdog.scheduleAtFixedRate(this::scheduledRenew, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * 记录当前线程拿到了锁
+     *
+     * @param lease 租约，没有租约时为 null
+     * @param renewal 续期动作，不续期时为 null
+     */
+    public void onAcquired(String key, Duration lease, Renewal renewal) {
+        holds.put(key, new Hold(Thread.currentThread(), System.nanoTime(), lease, renewal));
+    }
+
+    /**
+     * 记录当前线程释放了锁
+     *
+     * <p>只移除当前线程自己的持有记录：租约过期后锁可能已被其他线程拿到，登记的是新持有者，
+     * 移除它会停止对一个仍然有效的租约续期。
+     *
+     * @param leaseLost 释放时发现锁已不属于当前线程
+     */
+    public void onReleased(String key, boolean leaseLost) {
+        Hold hold = holds.get(key);
+        if (hold == null) {
+            return;
+        }
+        if (hold.thread != Thread.currentThread()) {
+            log.warn("Lock {} released by {} after its lease expired and {} took the lock over",
+                    key, Thread.currentThread().getName(), hold.thread.getName());
+            return;
+        }
+        if (!holds.remove(key, hold)) {
+            return;
+        }
+        long heldNanos = System.nanoTime() - hold.acquiredAt;
+        timerFor(key).record(heldNanos, TimeUnit.NANOSECONDS);
+        if (leaseLost || hold.leaseExpired()) {
+            // 这里是释放处的调用栈，没有意义；持有者卡住的位置已由看门狗在发现过期时记录
+            log.warn("Lock {} released by {} {}ms after its lease expired (held {}ms, renewals {})",
+                    key, hold.thread.getName(), -hold.leaseRemainingMillis(),
+                    TimeUnit.NANOSECONDS.toMillis(heldNanos), hold.renewals);
+        }
+    }
+
+    /**
+     * @return 持锁最久的若干个当前持有者
+     */
+    public List<LockHolder> longestHolders(int limit) {
+        long now = System.nanoTime();
+        return holds.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().acquiredAt))
+                .limit(limit)
+                .map(entry -> new LockHolder(entry.getKey(), entry.getValue().thread.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(now - entry.getValue().acquiredAt),
+                        entry.getValue().lease == null ? null : entry.getValue().leaseRemainingMillis(),
+                        entry.getValue().renewals))
+                .toList();
+    }
+
+    /**
+     * 为快到期的可续期持有续期；租约已过期的持有记录一次持有线程当前的调用栈
+     */
+    public void renewLeases() {
+        long maxHoldNanos = properties.getMaxHold().toNanos();
+        long renewWithinMillis = Math.max(properties.getRenewIntervalMs() * 2,
+                properties.getInitialLease().toMillis() / 2);
+        holds.forEach((key, hold) -> {
+            if (hold.leaseExpired()) {
+                reportExpired(key, hold);
+                return;
+            }
+            if (hold.renewal == null || hold.leaseRemainingMillis() > renewWithinMillis) {
+                return;
+            }
+            if (System.nanoTime() - hold.acquiredAt > maxHoldNanos) {
+                return;
+            }
+            try {
+                if (hold.renewal.renew(hold.thread.getId(), hold.lease)) {
+                    hold.renewed();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew lease of lock {}", key, e);
+            }
+        });
+    }
+
+    private void scheduledRenew() {
+        try {
+            renewLeases();
+        } catch (RuntimeException e) {
+            // 抛出的异常会终止后续调度
+            log.warn("Lock lease watchdog run failed", e);
+        }
+    }
+
+    private void reportExpired(String key, Hold hold) {
+        if (hold.expiryReported) {
+            return;
+        }
+        hold.expiryReported = true;
+        Throwable holderStack = new Throwable("Lock holder " + hold.thread.getName() + " is here");
+        holderStack.setStackTrace(hold.thread.getStackTrace());
+        log.warn("Lease of lock {} expired while still held ({}ms, renewals {}), holder stack follows",
+                key, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - hold.acquiredAt), hold.renewals, holderStack);
+    }
+
+    private Timer timerFor(String key) {
+        int separator = key.lastIndexOf(':');
+        String prefix = separator > 0 ? key.substring(0, separator) : key;
+        return timers.computeIfAbsent(prefix, p -> Timer.builder("trading.lock.hold")
+                .tag("prefix", p)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static final class Hold {
+
+        private final Thread thread;
+        private final long acquiredAt;
+        private final Duration lease;
+        private final Renewal renewal;
+        private volatile long leaseExpiresAt;
+        private volatile int renewals;
+        /** 只由看门狗线程读写 */
+        private boolean expiryReported;
+
+        private Hold(Thread thread, long acquiredAt, Duration lease, Renewal renewal) {
+            this.thread = thread;
+            this.acquiredAt = acquiredAt;
+            this.lease = lease;
+            this.renewal = renewal;
+            this.leaseExpiresAt = lease == null ? Long.MAX_VALUE : acquiredAt + lease.toNanos();
+        }
+
+        boolean leaseExpired() {
+            return lease != null && System.nanoTime() - leaseExpiresAt > 0;
+        }
+
+        long leaseRemainingMillis() {
+            return lease == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(leaseExpiresAt - System.nanoTime());
+        }
+
+        void renewed() {
+            leaseExpiresAt = System.nanoTime() + lease.toNanos();
+            renewals++;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+/**
+ * 当前持锁者
+ *
+ * @param key 锁键
+ * @param thread 持锁线程名
+ * @param heldMillis 已持有的毫秒数
+ * @param leaseRemainingMillis 租约剩余毫秒数，没有租约（本地锁）时为 null，已过期时为负数
+ * @param renewals 已续期次数
+ */
+public record LockHolder(String key, String thread, long heldMillis, Long leaseRemainingMillis, int renewals) {
+}
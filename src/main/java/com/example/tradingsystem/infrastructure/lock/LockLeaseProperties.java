@@ -0,0 +1,56 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 锁租约配置（trading.lock.lease.*）
+ */
+@ConfigurationProperties(prefix = "trading.lock.lease")
+public class LockLeaseProperties {
+
+    /** 是否启用租约续期看门狗；启用时用较短的初始租约代替调用方给出的租约 */
+    private boolean watchdog = false;
+
+    /** 看门狗模式下的初始租约，也是每次续期的长度 */
+    private Duration initialLease = Duration.ofSeconds(2);
+
+    /** 续期检查的间隔（毫秒），应明显小于初始租约 */
+    private long renewIntervalMs = 500;
+
+    /** 持锁超过该时长后不再续期，避免卡住的线程永久占用锁 */
+    private Duration maxHold = Duration.ofSeconds(60);
+
+    public boolean isWatchdog() {
+        return watchdog;
+    }
+
+    public void setWatchdog(boolean watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    public Duration getInitialLease() {
+        return initialLease;
+    }
+
+    public void setInitialLease(Duration initialLease) {
+        this.initialLease = initialLease;
+    }
+
+    public long getRenewIntervalMs() {
+        return renewIntervalMs;
+    }
+
+    public void setRenewIntervalMs(long renewIntervalMs) {
+        this.renewIntervalMs = renewIntervalMs;
+    }
+
+    public Duration getMaxHold() {
+        return maxHold;
+    }
+
+    public void setMaxHold(Duration maxHold) {
+        this.maxHold = maxHold;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * SKU 锁等待队列配置（trading.lock.queue.*）
+ */
+@ConfigurationProperties(prefix = "trading.lock.queue")
+public class LockQueueProperties {
+
+    /** 是否启用按 SKU 的公平等待队列；关闭时锁竞争立即失败 */
+    private boolean enabled = false;
+
+    /** 每个 SKU 本节点最多排队的请求数（含持锁者） */
+    private int maxDepth = 64;
+
+    /** 每个请求从入队开始的最长等待时间 */
+    private Duration maxWait = Duration.ofSeconds(3);
+
+    /** 持锁时长指数平均的平滑系数，用于估算等待时间 */
+    private double holdTimeSmoothing = 0.2;
+
+    /** 空闲超过该时长的 SKU 队列被清除（连同其指标），清除后持锁时长的估算重新开始 */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+
+    /** 清除空闲队列的间隔 */
+    private long sweepIntervalMs = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public double getHoldTimeSmoothing() {
+        return holdTimeSmoothing;
+    }
+
+    public void setHoldTimeSmoothing(double holdTimeSmoothing) {
+        this.holdTimeSmoothing = holdTimeSmoothing;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getSweepIntervalMs() {
+        return sweepIntervalMs;
+    }
+
+    public void setSweepIntervalMs(long sweepIntervalMs) {
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import java.time.Duration;
+
+/**
+ * 等待队列已满，或请求无法在截止时间前拿到锁
+ */
+public class LockQueueRejectedException extends RuntimeException {
+
+    private final Duration estimatedWait;
+
+    public LockQueueRejectedException(String message, Duration estimatedWait) {
+        super(message);
+        this.estimatedWait = estimatedWait;
+    }
+
+    /**
+     * @return 按当前队列深度和平均持锁时长估算的等待时间
+     */
+    public Duration getEstimatedWait() {
+        return estimatedWait;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按 SKU 的公平等待队列
+ *
+ * <p>放在分布式锁前面，同一 SKU 在本节点的请求先在这里排队，只有队首去竞争分布式锁：
+ * <ul>
+ *   <li>每个 SKU 一个公平的 {@link ReentrantLock}，等待者按到达顺序依次拿到锁，不轮询 Redis</li>
+ *   <li>队列深度有上限，超出时立即拒绝</li>
+ *   <li>每个请求有截止时间；按深度 × 平均持锁时长估算的等待超过剩余时间时提前拒绝，而不是等到超时</li>
+ *   <li>拒绝时抛出 {@link LockQueueRejectedException}，附带估算的等待时间</li>
+ *   <li>空闲超过 {@code idle-timeout} 的队列定期清除，队列数量不随见过的 SKU 增长</li>
+ *   <li>只有 {@link HotKeyDetector} 判定为热点且发生过排队的 SKU 按 sku 标签导出队列深度（trading.lock.queue.depth）
+ *       和等待时间（trading.lock.queue.wait），其余 SKU 的等待时间汇总在 sku=other 下，指标数量有上界</li>
+ * </ul>
+ * 入队和离队须在同一线程上完成。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.lock.queue", name = "enabled", havingValue = "true")
+public class LockWaitQueue {
+
+    static final String OTHER_SKUS = "other";
+
+    private final LockQueueProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final HotKeyDetector hotKeyDetector;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public LockWaitQueue(LockQueueProperties properties, MeterRegistry meterRegistry, HotKeyDetector hotKeyDetector) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    /**
+     * 排队直到成为该 SKU 在本节点的队首
+     *
+     * @param sku 商品SKU
+     * @return 队首凭证，拿到分布式锁并处理完成后须调用 {@link Ticket#leave()}
+     * @throws LockQueueRejectedException 如果队列已满或无法在截止时间前轮到
+     */
+    public Ticket enter(String sku) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxWait().toNanos();
+        // 入队与清除在同一个键上互斥，清除只会移走没有人排队的队列
+        int[] position = new int[1];
+        Lane lane = lanes.compute(sku, (key, existing) -> {
+            Lane joined = existing != null ? existing : new Lane(key);
+            position[0] = joined.depth.incrementAndGet();
+            return joined;
+        });
+
+        int depth = position[0];
+        if (depth > 1) {
+            lane.contended();
+        }
+        if (depth > properties.getMaxDepth()) {
+            lane.depart();
+            lane.recordWait(System.nanoTime() - start, "rejected");
+            throw lane.reject("Order queue for " + sku + " is full", depth);
+        }
+        if (depth > 1) {
+            long estimate = lane.estimateWaitNanos(depth);
+            if (estimate > deadline - start) {
+                lane.depart();
+                lane.recordWait(System.nanoTime() - start, "rejected");
+                throw lane.reject("Order queue for " + sku + " cannot be served in time", depth);
+            }
+        }
+
+        boolean acquired;
+        try {
+            acquired = lane.turn.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        long waited = System.nanoTime() - start;
+        if (!acquired) {
+            lane.depart();
+            lane.recordWait(waited, "timeout");
+            throw lane.reject("Timed out waiting in order queue for " + sku, lane.depth.get());
+        }
+        lane.recordWait(waited, "admitted");
+        return new Ticket(lane, deadline);
+    }
+
+    /**
+     * @return SKU 在本节点的当前队列深度
+     */
+    public int depth(String sku) {
+        Lane lane = lanes.get(sku);
+        return lane == null ? 0 : lane.depth.get();
+    }
+
+    /**
+     * @return 本节点当前保留的 SKU 队列数
+     */
+    public int lanes() {
+        return lanes.size();
+    }
+
+    /**
+     * 清除空闲的队列及其指标
+     */
+    @Scheduled(fixedDelayString = "${trading.lock.queue.sweep-interval-ms:10000}")
+    public void sweepIdleLanes() {
+        long idleBefore = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        for (String sku : lanes.keySet()) {
+            lanes.computeIfPresent(sku, (key, lane) -> {
+                if (lane.depth.get() > 0 || lane.lastActive - idleBefore > 0) {
+                    return lane;
+                }
+                lane.unmeter();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 队首凭证
+     */
+    public final class Ticket {
+
+        private final Lane lane;
+        private final long deadline;
+        private final long admittedAt = System.nanoTime();
+
+        private Ticket(Lane lane, long deadline) {
+            this.lane = lane;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return 距截止时间的剩余毫秒数，可用作分布式锁的等待时间
+         */
+        public long remainingMillis() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        }
+
+        /**
+         * 离开队列，把队首交给下一个等待者
+         */
+        public void leave() {
+            lane.recordHold(System.nanoTime() - admittedAt);
+            lane.turn.unlock();
+            lane.depart();
+        }
+    }
+
+    /**
+     * 一个 SKU 的队列
+     */
+    private final class Lane {
+
+        private final String sku;
+        private final ReentrantLock turn = new ReentrantLock(true);
+        private final AtomicInteger depth = new AtomicInteger();
+        /** 该 SKU 自己的指标，清除队列时一并移除 */
+        private final List<Meter> meters = new ArrayList<>();
+        /** 平均持锁时长（纳秒），由 turn 保护写入 */
+        private volatile double averageHoldNanos;
+        private volatile long lastActive = System.nanoTime();
+        private volatile boolean metered;
+
+        private Lane(String sku) {
+            this.sku = sku;
+        }
+
+        void depart() {
+            lastActive = System.nanoTime();
+            depth.decrementAndGet();
+        }
+
+        long estimateWaitNanos(int depth) {
+            return (long) ((depth - 1) * averageHoldNanos);
+        }
+
+        void recordHold(long nanos) {
+            double smoothing = properties.getHoldTimeSmoothing();
+            averageHoldNanos = averageHoldNanos == 0 ? nanos : averageHoldNanos + (nanos - averageHoldNanos) * smoothing;
+        }
+
+        /**
+         * 热点 SKU 第一次发生排队时注册按 SKU 的指标，不竞争或不热的 SKU 不产生单独的指标
+         */
+        void contended() {
+            if (metered || !hotKeyDetector.isHot(sku)) {
+                return;
+            }
+            synchronized (this) {
+                if (!metered) {
+                    meters.add(Gauge.builder("trading.lock.queue.depth", depth, AtomicInteger::get)
+                            .tag("sku", sku)
+                            .register(meterRegistry));
+                    metered = true;
+                }
+            }
+        }
+
+        void recordWait(long nanos, String outcome) {
+            Timer timer = Timer.builder("trading.lock.queue.wait")
+                    .tag("sku", metered ? sku : OTHER_SKUS)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            if (metered) {
+                synchronized (this) {
+                    if (!meters.contains(timer)) {
+                        meters.add(timer);
+                    }
+                }
+            }
+        }
+
+        synchronized void unmeter() {
+            meters.forEach(meterRegistry::remove);
+            meters.clear();
+            metered = false;
+        }
+
+        LockQueueRejectedException reject(String message, int depth) {
+            return new LockQueueRejectedException(message,
+                    Duration.ofNanos(Math.max(estimateWaitNanos(depth), (long) averageHoldNanos)));
+        }
+    }
+}
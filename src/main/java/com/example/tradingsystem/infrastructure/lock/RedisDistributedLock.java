@@ -1,83 +1,205 @@
 package com.example.tradingsystem.infrastructure.lock;
 
+import com.example.tradingsystem.repository.LockRowRepository;
 import org.redisson.api.RLock;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Redisson分布式锁实现
+ *
+ * <p>Redis 不可用时整体降级，由 {@link LockCircuitBreaker} 判断：
+ * <ul>
+ *   <li>熔断期间不访问 Redis，直接使用按键的本地锁（{@link InProcessLock}），加锁只有本地开销，不同的键互不阻塞</li>
+ *   <li>开启 {@code trading.lock.circuit.db-row-locks} 时，降级加锁在事务内再锁住数据库中锁键对应的行，多个节点之间仍然互斥；
+ *       行锁用 NOWAIT 获取，被占用时在调用方的等待时间内退避重试</li>
+ *   <li>熔断前已拿到的 Redis 锁仍向 Redis 释放</li>
+ *   <li>恢复后，本地锁上仍有持有者或等待者的键继续走本地锁，直到全部释放，同一个键不会同时有本地和 Redis 两个持有者</li>
+ * </ul>
+ *
+ * <p>每次持有都登记到 {@link LockHoldMonitor}，用于持锁时长统计和租约过期告警。
+ * 开启 {@code trading.lock.lease.watchdog} 时 Redis 锁以较短的初始租约获取，由监控器在到期前续期，
+ * 慢事务不会被租约超时放行第二个节点，节点宕机后锁也能很快释放。
  */
 @Component
 public class RedisDistributedLock implements DistributedLock {
 
+    /** 数据库行锁被占用时的最长重试间隔 */
+    private static final long MAX_ROW_LOCK_BACKOFF_MILLIS = 50;
+
+    /**
+     * 锁哈希中仍有持有线程的字段时延长过期时间，与 Redisson 自带看门狗的续期脚本相同；
+     * 检查和续期在一次往返内原子完成，锁不会在两步之间换主
+     */
+    private static final String RENEW_SCRIPT =
+            "if redis.call('hexists', KEYS[1], ARGV[2]) == 1 then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[1]); "
+                    + "end; "
+                    + "return 0;";
+
     private final RedissonClient redissonClient;
-    private final ConcurrentHashMap<String, ReentrantLock> localLocks = new ConcurrentHashMap<>();
+    private final LockCircuitBreaker circuitBreaker;
+    private final LockCircuitProperties properties;
+    private final LockRowRepository lockRowRepository;
+    private final LockHoldMonitor holdMonitor;
+    private final LockLeaseProperties leaseProperties;
+    private final InProcessLock localLocks = new InProcessLock();
+    /** 以降级模式持有的锁键及其持有线程 */
+    private final ConcurrentHashMap<String, Thread> degradedHolds = new ConcurrentHashMap<>();
 
-    public RedisDistributedLock(RedissonClient redissonClient) {
+    public RedisDistributedLock(RedissonClient redissonClient,
+                                LockCircuitBreaker circuitBreaker,
+                                LockCircuitProperties properties,
+                                LockRowRepository lockRowRepository,
+                                LockHoldMonitor holdMonitor,
+                                LockLeaseProperties leaseProperties) {
         this.redissonClient = redissonClient;
+        this.circuitBreaker = circuitBreaker;
+        this.properties = properties;
+        this.lockRowRepository = lockRowRepository;
+        this.holdMonitor = holdMonitor;
+        this.leaseProperties = leaseProperties;
     }
 
     @Override
     public boolean tryLock(String key, long expireTime, TimeUnit timeUnit) {
-        if (redissonClient != null) {
-            RLock lock = redissonClient.getLock(key);
-            try {
-                return lock.tryLock(0, expireTime, timeUnit);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return false;
-            } catch (Exception e) {
-                // Redisson不可用时，降级为本地锁
-                return tryLocalLock(key, expireTime, timeUnit);
+        return tryLock(key, 0, expireTime, timeUnit);
+    }
+
+    /**
+     * 等待期间由 Redisson 订阅锁释放通知，不轮询 Redis
+     */
+    @Override
+    public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit timeUnit) {
+        if (redissonClient == null || !circuitBreaker.allowRequest() || localLocks.isInUse(key)) {
+            return tryDegradedLock(key, waitTime > 0 ? waitTime : leaseTime, timeUnit);
+        }
+        RLock lock = redissonClient.getLock(key);
+        boolean watchdog = leaseProperties.isWatchdog();
+        Duration lease = watchdog ? leaseProperties.getInitialLease() : Duration.ofNanos(timeUnit.toNanos(leaseTime));
+        try {
+            boolean locked = lock.tryLock(timeUnit.toMillis(waitTime), lease.toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.recordSuccess();
+            if (locked) {
+                holdMonitor.onAcquired(key, lease, watchdog ? (threadId, renewed) -> renew(key, threadId, renewed) : null);
             }
-        } else {
-            // RedissonClient为null时，使用本地锁
-            return tryLocalLock(key, expireTime, timeUnit);
+            return locked;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // Redisson不可用时，降级为本地锁
+            circuitBreaker.recordFailure(e);
+            return tryDegradedLock(key, waitTime > 0 ? waitTime : leaseTime, timeUnit);
         }
     }
 
     @Override
     public void unlock(String key) {
-        if (redissonClient != null) {
-            try {
-                RLock lock = redissonClient.getLock(key);
-                if (lock.isHeldByCurrentThread()) {
-                    lock.unlock();
-                }
-            } catch (Exception e) {
-                // Redisson不可用时，降级为本地锁
-                unlockLocalLock(key);
+        if (degradedHolds.remove(key, Thread.currentThread())) {
+            holdMonitor.onReleased(key, false);
+            localLocks.unlock(key);
+            return;
+        }
+        if (redissonClient == null) {
+            return;
+        }
+        try {
+            RLock lock = redissonClient.getLock(key);
+            boolean held = lock.isHeldByCurrentThread();
+            holdMonitor.onReleased(key, !held);
+            if (held) {
+                lock.unlock();
             }
-        } else {
-            // RedissonClient为null时，使用本地锁
-            unlockLocalLock(key);
+        } catch (Exception e) {
+            // 锁会在租约到期后自动释放
+            circuitBreaker.recordFailure(e);
         }
     }
 
     /**
-     * 尝试获取本地锁
+     * 降级加锁：按键的本地锁，按配置再加数据库行锁
      */
-    private boolean tryLocalLock(String key, long expireTime, TimeUnit timeUnit) {
-        ReentrantLock lock = localLocks.computeIfAbsent(key, k -> new ReentrantLock());
-        try {
-            return lock.tryLock(expireTime, timeUnit);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private boolean tryDegradedLock(String key, long waitTime, TimeUnit timeUnit) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(waitTime);
+        if (!localLocks.tryLock(key, waitTime, timeUnit)) {
             return false;
         }
+        if (properties.isDbRowLocks() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            boolean rowLocked;
+            try {
+                rowLocked = lockRowUntil(key, deadline);
+            } catch (RuntimeException e) {
+                localLocks.unlock(key);
+                throw e;
+            }
+            if (!rowLocked) {
+                localLocks.unlock(key);
+                return false;
+            }
+        }
+        degradedHolds.put(key, Thread.currentThread());
+        holdMonitor.onAcquired(key, null, null);
+        return true;
+    }
+
+    /**
+     * 在截止时间前锁住锁键对应的行：行被其他节点占用时退避重试，行不存在时先插入
+     */
+    private boolean lockRowUntil(String key, long deadline) {
+        long backoffMillis = 1;
+        while (true) {
+            try {
+                if (lockRowRepository.lockRow(key) != null) {
+                    return true;
+                }
+                lockRowRepository.ensureRow(key);
+                if (lockRowRepository.lockRow(key) != null) {
+                    return true;
+                }
+            } catch (PessimisticLockingFailureException e) {
+                // 其他节点持有该行，稍后重试
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(backoffMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_ROW_LOCK_BACKOFF_MILLIS);
+        }
     }
 
     /**
-     * 释放本地锁
+     * 锁仍由原持有线程持有时延长租约（看门狗线程调用）
      */
-    private void unlockLocalLock(String key) {
-        ReentrantLock lock = localLocks.get(key);
-        if (lock != null && lock.isHeldByCurrentThread()) {
-            lock.unlock();
+    private boolean renew(String key, long threadId, Duration lease) {
+        if (!circuitBreaker.allowRequest()) {
+            return false;
+        }
+        try {
+            // 锁哈希的字段是 Redisson 客户端ID:线程ID
+            Boolean renewed = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE,
+                    RENEW_SCRIPT, RScript.ReturnType.BOOLEAN, List.<Object>of(key),
+                    lease.toMillis(), redissonClient.getId() + ":" + threadId);
+            circuitBreaker.recordSuccess();
+            return Boolean.TRUE.equals(renewed);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure(e);
+            return false;
         }
     }
 }
@@ -0,0 +1,152 @@
+package com.example.tradingsystem.infrastructure.mybatis;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量持久化工作单元
+ *
+ * <p>在事务内收集新建和被修改的聚合根，到 {@link #flush()} 时用 {@link ExecutorType#BATCH} 发送：
+ * <ul>
+ *   <li>新建的聚合根先于更新发送，自增主键在 flush 后回填</li>
+ *   <li>SQL 相同的写入合并为一个 JDBC 批次；连接开启 {@code rewriteBatchedStatements} 时，
+ *       一个批次在 MySQL 驱动中改写为多值 INSERT 或多语句 UPDATE，只需一次往返。
+ *       不同的语句（不同的表）各自一个批次、各一次往返：单笔下单是订单 INSERT 加商品、用户、商家三条 UPDATE，共 4 次往返。
+ *       不把它们拼成一次多语句执行：那需要在事务连接上开启 allowMultiQueries，且拿不到 MyBatis 的逐条影响行数和自增主键。
+ *       需要整笔交易一次往返时使用存储过程路径（{@code trading.trade-execution.single-call}，见 TradeExecutionRepository）</li>
+ *   <li>批量会话通过 Spring 托管事务取得当前事务的连接，与普通 Mapper 调用处于同一个事务</li>
+ *   <li>仍走 {@link BaseMapper#updateById(Object)}，乐观锁插件照常追加版本条件</li>
+ *   <li>逐条检查影响行数，任何一条为 0 即抛出 {@link OptimisticLockingFailureException}，由事务回滚
+ *       （改写后的 INSERT 批次只返回 {@link java.sql.Statement#SUCCESS_NO_INFO}，不计为失败）</li>
+ *   <li>未显式 flush 的修改在事务提交前自动发送；事务结束时清空</li>
+ * </ul>
+ */
+@Component
+public class BatchUnitOfWork {
+
+    private final SqlSessionTemplate sqlSessionTemplate;
+
+    public BatchUnitOfWork(SqlSessionTemplate sqlSessionTemplate) {
+        this.sqlSessionTemplate = sqlSessionTemplate;
+    }
+
+    /**
+     * 登记一个待新建的聚合根，主键在 {@link #flush()} 后回填
+     *
+     * @param mapperType 聚合根对应的 Mapper
+     * @param entity 聚合根
+     * @throws IllegalStateException 如果当前没有活动事务
+     */
+    public <T> void registerInsert(Class<? extends BaseMapper<T>> mapperType, T entity) {
+        pending().inserts.add(new PendingWrite<>(mapperType, entity));
+    }
+
+    /**
+     * 登记一个待更新的聚合根（按主键和版本号更新）
+     *
+     * @param mapperType 聚合根对应的 Mapper
+     * @param entity 聚合根
+     * @throws IllegalStateException 如果当前没有活动事务
+     */
+    public <T> void registerUpdate(Class<? extends BaseMapper<T>> mapperType, T entity) {
+        pending().updates.add(new PendingWrite<>(mapperType, entity));
+    }
+
+    /**
+     * 发送当前事务中登记的全部写入
+     *
+     * @throws OptimisticLockingFailureException 如果某条更新没有匹配到行
+     */
+    public void flush() {
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch.inserts.isEmpty() && batch.updates.isEmpty()) {
+            return;
+        }
+        List<PendingWrite<?>> inserts = new ArrayList<>(batch.inserts);
+        List<PendingWrite<?>> updates = new ArrayList<>(batch.updates);
+        batch.inserts.clear();
+        batch.updates.clear();
+
+        List<BatchResult> results;
+        try (SqlSession session = sqlSessionTemplate.getSqlSessionFactory().openSession(ExecutorType.BATCH)) {
+            inserts.forEach(insert -> insert.insert(session));
+            updates.forEach(update -> update.update(session));
+            results = session.flushStatements();
+        }
+        // 普通会话的一级缓存看不到批量会话的写入，清掉以免同一事务内读到旧值
+        sqlSessionTemplate.clearCache();
+
+        for (BatchResult result : results) {
+            int[] counts = result.getUpdateCounts();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    Object entity = result.getParameterObjects().get(i);
+                    throw new OptimisticLockingFailureException(
+                            "Concurrent modification of " + describe(entity));
+                }
+            }
+        }
+    }
+
+    private Batch pending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BatchUnitOfWork requires an active transaction");
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            Batch created = new Batch();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    BatchUnitOfWork.this.flush();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BatchUnitOfWork.this);
+                }
+            });
+            batch = created;
+        }
+        return batch;
+    }
+
+    private static String describe(Object parameter) {
+        // updateById 的参数是以 "et" 为键的 ParamMap
+        Object entity = parameter instanceof Map<?, ?> map && map.containsKey(Constants.ENTITY)
+                ? map.get(Constants.ENTITY) : parameter;
+        return entity == null ? "entity" : entity.getClass().getSimpleName();
+    }
+
+    private static final class Batch {
+        private final List<PendingWrite<?>> inserts = new ArrayList<>();
+        private final List<PendingWrite<?>> updates = new ArrayList<>();
+    }
+
+    private record PendingWrite<T>(Class<? extends BaseMapper<T>> mapperType, T entity) {
+
+        void insert(SqlSession session) {
+            session.getMapper(mapperType).insert(entity);
+        }
+
+        void update(SqlSession session) {
+            session.getMapper(mapperType).updateById(entity);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.tradingsystem.infrastructure.prefilter;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadSource;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 下单前置过滤：在加锁和访问数据库之前拒绝不可能成交的订单
+ *
+ * <ul>
+ *   <li>已知 SKU 和用户名各一个 {@link BloomFilter}，启动时从数据库全量构建，新建用户和商品时同步加入，
+ *       并定期重建以吸收其他节点的新建</li>
+ *   <li>过滤器判定不存在时先查缓存的否定结果，没有再查一次数据库确认，其他节点新建的对象不会被误拒；
+ *       单节点部署可关闭 {@code verify-misses} 直接拒绝</li>
+ *   <li>售罄集合记录库存已为 0 的 SKU，条目在 {@code sold-out-ttl} 后过期，本节点补货时立即清除</li>
+ *   <li>各判定结果计入 trading.prefilter.requests（标签 outcome），过滤器置位比例见 trading.prefilter.fill_ratio</li>
+ * </ul>
+ * 过滤器只会放行不存在的对象（误判），不会拒绝已在本节点登记的对象；构建完成前全部放行。
+ * 用户过滤器从目录库构建，不能与用户分片同时开启（见 {@link com.example.tradingsystem.config.TradingModeGuard}）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.prefilter", name = "enabled", havingValue = "true")
+public class OrderPrefilter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPrefilter.class);
+
+    /**
+     * 判定结果
+     */
+    public enum Verdict {
+        PASSED, UNKNOWN_USER, UNKNOWN_SKU, SOLD_OUT
+    }
+
+    private final ProductRepository productRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final PrefilterProperties properties;
+    private final BulkReadSource bulkReadSource;
+    private final Cache<String, Boolean> soldOut;
+    private final Cache<String, Boolean> missingSkus;
+    private final Cache<String, Boolean> missingUsers;
+    private final Map<Verdict, Counter> counters = new EnumMap<>(Verdict.class);
+
+    private volatile Filters filters;
+    /** 重建期间正在构建的过滤器，新建的用户和商品同时加入 */
+    private volatile Filters building;
+
+    public OrderPrefilter(ProductRepository productRepository,
+                          UserAccountRepository userAccountRepository,
+                          PrefilterProperties properties,
+                          BulkReadSource bulkReadSource,
+                          MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.properties = properties;
+        this.bulkReadSource = bulkReadSource;
+        this.soldOut = Caffeine.newBuilder().expireAfterWrite(properties.getSoldOutTtl()).build();
+        this.missingSkus = Caffeine.newBuilder().expireAfterWrite(properties.getNegativeTtl())
+                .maximumSize(100_000).build();
+        this.missingUsers = Caffeine.newBuilder().expireAfterWrite(properties.getNegativeTtl())
+                .maximumSize(100_000).build();
+        for (Verdict verdict : Verdict.values()) {
+            counters.put(verdict, Counter.builder("trading.prefilter.requests")
+                    .tag("outcome", verdict.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("trading.prefilter.sold_out", soldOut, cache -> cache.estimatedSize())
+                .register(meterRegistry);
+        Gauge.builder("trading.prefilter.fill_ratio", this, p -> p.filters == null ? 0 : p.filters.skus.fillRatio())
+                .tag("filter", "sku")
+                .register(meterRegistry);
+        Gauge.builder("trading.prefilter.fill_ratio", this, p -> p.filters == null ? 0 : p.filters.users.fillRatio())
+                .tag("filter", "user")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 判定一笔订单能否进入下单流程
+     */
+    public Verdict check(String username, String sku) {
+        Verdict verdict = evaluate(username, sku);
+        counters.get(verdict).increment();
+        return verdict;
+    }
+
+    private Verdict evaluate(String username, String sku) {
+        Filters current = filters;
+        if (current == null) {
+            return Verdict.PASSED;
+        }
+        if (!current.skus.mightContain(sku) && !confirmSku(sku)) {
+            return Verdict.UNKNOWN_SKU;
+        }
+        if (!current.users.mightContain(username) && !confirmUser(username)) {
+            return Verdict.UNKNOWN_USER;
+        }
+        if (soldOut.getIfPresent(sku) != null) {
+            return Verdict.SOLD_OUT;
+        }
+        return Verdict.PASSED;
+    }
+
+    public void addSku(String sku) {
+        Filters current = filters;
+        Filters next = building;
+        if (current != null) {
+            current.skus.put(sku);
+        }
+        if (next != null) {
+            next.skus.put(sku);
+        }
+        missingSkus.invalidate(sku);
+    }
+
+    public void addUser(String username) {
+        Filters current = filters;
+        Filters next = building;
+        if (current != null) {
+            current.users.put(username);
+        }
+        if (next != null) {
+            next.users.put(username);
+        }
+        missingUsers.invalidate(username);
+    }
+
+    /**
+     * 标记 SKU 已售罄（在锁内读到库存为 0，或本节点的下单把库存扣到 0 并已提交）
+     */
+    public void markSoldOut(String sku) {
+        soldOut.put(sku, Boolean.TRUE);
+    }
+
+    /**
+     * SKU 新建或补货：立即登记 SKU，售罄标记在事务提交后清除（没有事务时立即清除）
+     *
+     * <p>提交前清除的话，锁内的下单仍会读到旧的 0 库存并重新标记。
+     */
+    public void restocked(String sku) {
+        addSku(sku);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            soldOut.invalidate(sku);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                soldOut.invalidate(sku);
+            }
+        });
+    }
+
+    /**
+     * 从数据库全量重建过滤器
+     */
+    @PostConstruct
+    public void rebuild() {
+        Filters next = new Filters(
+                new BloomFilter(properties.getExpectedSkus(), properties.getFalsePositiveRate()),
+                new BloomFilter(properties.getExpectedUsers(), properties.getFalsePositiveRate()));
+        building = next;
+        try {
+            long[] counts = bulkReadSource.read(status -> {
+                long skus = 0;
+                long users = 0;
+                try (Cursor<String> cursor = bulkReadSource.repository().streamSkus()) {
+                    for (String sku : cursor) {
+                        next.skus.put(sku);
+                        skus++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                try (Cursor<String> cursor = bulkReadSource.repository().streamUsernames()) {
+                    for (String username : cursor) {
+                        next.users.put(username);
+                        users++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new long[] {skus, users};
+            });
+            filters = next;
+            log.info("Order prefilter rebuilt: {} skus, {} users", counts[0], counts[1]);
+        } finally {
+            building = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trading.prefilter.rebuild-interval-ms:300000}",
+            initialDelayString = "${trading.prefilter.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild order prefilter, keeping the previous one", e);
+        }
+    }
+
+    private boolean confirmSku(String sku) {
+        if (!properties.isVerifyMisses() || missingSkus.getIfPresent(sku) != null) {
+            return false;
+        }
+        boolean exists = productRepository.exists(new LambdaQueryWrapper<Product>().eq(Product::getSku, sku));
+        if (exists) {
+            addSku(sku);
+        } else {
+            missingSkus.put(sku, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    private boolean confirmUser(String username) {
+        if (!properties.isVerifyMisses() || missingUsers.getIfPresent(username) != null) {
+            return false;
+        }
+        boolean exists = userAccountRepository.exists(
+                new LambdaQueryWrapper<UserAccount>().eq(UserAccount::getUsername, username));
+        if (exists) {
+            addUser(username);
+        } else {
+            missingUsers.put(username, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    private record Filters(BloomFilter skus, BloomFilter users) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.tradingsystem.infrastructure.prefilter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 下单前置过滤配置（trading.prefilter.*）
+ */
+@ConfigurationProperties(prefix = "trading.prefilter")
+public class PrefilterProperties {
+
+    /** 是否启用 */
+    private boolean enabled = false;
+
+    /** 预期 SKU 数，决定 SKU 过滤器大小 */
+    private long expectedSkus = 1_000_000;
+
+    /** 预期用户数，决定用户过滤器大小 */
+    private long expectedUsers = 1_000_000;
+
+    /** 达到预期元素数时的误判率 */
+    private double falsePositiveRate = 0.01;
+
+    /** 全量重建的间隔（毫秒），用于吸收其他节点新建的用户和商品 */
+    private long rebuildIntervalMs = 300_000;
+
+    /** 过滤器未命中时是否再查一次数据库确认（结果缓存 negative-ttl）；关闭后其他节点新建的用户和商品在下次重建前会被拒绝，只适合单节点 */
+    private boolean verifyMisses = true;
+
+    /** 确认不存在的用户/SKU 的缓存时长 */
+    private Duration negativeTtl = Duration.ofSeconds(5);
+
+    /** 售罄标记的有效期，其他节点补货后最多延迟这么久恢复下单 */
+    private Duration soldOutTtl = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedSkus() {
+        return expectedSkus;
+    }
+
+    public void setExpectedSkus(long expectedSkus) {
+        this.expectedSkus = expectedSkus;
+    }
+
+    public long getExpectedUsers() {
+        return expectedUsers;
+    }
+
+    public void setExpectedUsers(long expectedUsers) {
+        this.expectedUsers = expectedUsers;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public long getRebuildIntervalMs() {
+        return rebuildIntervalMs;
+    }
+
+    public void setRebuildIntervalMs(long rebuildIntervalMs) {
+        this.rebuildIntervalMs = rebuildIntervalMs;
+    }
+
+    public boolean isVerifyMisses() {
+        return verifyMisses;
+    }
+
+    public void setVerifyMisses(boolean verifyMisses) {
+        this.verifyMisses = verifyMisses;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public Duration getSoldOutTtl() {
+        return soldOutTtl;
+    }
+
+    public void setSoldOutTtl(Duration soldOutTtl) {
+        this.soldOutTtl = soldOutTtl;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.tradingsystem.infrastructure.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮
+ *
+ * <p>用固定数量的槽位管理大量定时任务，插入和取消都是 O(1)，不为每个任务创建调度任务：
+ * <ul>
+ *   <li>第 0 层每个槽位代表一个 tick，第 i 层每个槽位代表 wheelSize^i 个 tick</li>
+ *   <li>任务按到期时间放入能容纳它的最低一层；高层槽位到达时把其中的任务重新分配到低层</li>
+ *   <li>到期时间向上取整到 tick，任务不会提前到期，最多延迟一个 tick</li>
+ *   <li>时间由调用方通过 {@link #advanceTo(long)} 推进，到期的任务作为返回值交给调用方处理</li>
+ * </ul>
+ * 所有操作在 this 锁内完成。
+ *
+ * @param <T> 任务类型
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    /** 每层的槽位，槽位是带哨兵的双向链表 */
+    private final List<List<Timeout>> levels = new ArrayList<>();
+    /** 下一个要处理的 tick */
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis 第 0 层槽位的时间跨度（毫秒）
+     * @param wheelSize 每层的槽位数
+     * @param startMillis 起始时间（毫秒）
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * 登记一个任务
+     *
+     * @param task 任务
+     * @param deadlineMillis 到期时间（毫秒），早于当前时间时在下一次推进时到期
+     * @return 可用于取消的句柄
+     */
+    public synchronized Timeout schedule(T task, long deadlineMillis) {
+        long deadlineTick = Math.max(currentTick, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        Timeout timeout = new Timeout(task, deadlineTick);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * 推进到指定时间
+     *
+     * @param nowMillis 当前时间（毫秒）
+     * @return 到期的任务，按到期顺序排列
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            cascade();
+            if (!levels.isEmpty()) {
+                Timeout head = levels.get(0).get((int) (currentTick % wheelSize));
+                for (Timeout timeout = head.next; timeout != head; timeout = head.next) {
+                    timeout.unlink();
+                    size--;
+                    expired.add(timeout.task);
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * @return 尚未到期也未取消的任务数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 到达高层槽位的边界时，把该槽位中的任务重新分配到低层
+     */
+    private void cascade() {
+        long span = wheelSize;
+        for (int level = 1; level < levels.size(); level++, span *= wheelSize) {
+            if (currentTick % span != 0) {
+                return;
+            }
+            Timeout head = levels.get(level).get((int) ((currentTick / span) % wheelSize));
+            for (Timeout timeout = head.next; timeout != head; timeout = head.next) {
+                timeout.unlink();
+                insert(timeout);
+            }
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        long span = 1;
+        while (delta >= span * wheelSize) {
+            span *= wheelSize;
+            level++;
+        }
+        while (levels.size() <= level) {
+            List<Timeout> slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new Timeout(null, 0));
+            }
+            levels.add(slots);
+        }
+        levels.get(level).get((int) ((timeout.deadlineTick / span) % wheelSize)).append(timeout);
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public final class Timeout {
+
+        private final T task;
+        private final long deadlineTick;
+        private Timeout prev = this;
+        private Timeout next = this;
+
+        private Timeout(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return 任务尚未到期且未被取消时返回 true
+         */
+        public boolean cancel() {
+            synchronized (HierarchicalTimingWheel.this) {
+                if (next == this) {
+                    return false;
+                }
+                unlink();
+                size--;
+                return true;
+            }
+        }
+
+        private void append(Timeout timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.tradingsystem.infrastructure.reservation;
+
+import com.example.tradingsystem.domain.shared.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 库存和资金预留登记表
+ *
+ * <p>预留只保存在本节点内存中，不写数据库：
+ * <ul>
+ *   <li>每个商品的预留数量和每个用户的预留金额各用一个计数表示，可用量 = 实际量 - 预留量</li>
+ *   <li>库存预留须在 SKU 锁内登记，锁内只做一次比较和累加；资金预留用按用户的原子更新，不需要额外的锁</li>
+ *   <li>到期由一个 {@link HierarchicalTimingWheel} 驱动，定时推进一次即可释放所有到期的预留</li>
+ *   <li>确认或取消时先认领预留（取消其定时任务），与到期释放互斥，保证每个预留只释放一次</li>
+ *   <li>确认时预留的占用保留到事务结束：提交后释放，回滚后恢复为有效预留（已过有效期的直接释放）</li>
+ *   <li>下单扣款前用 {@link #holdDebit} 按用户原子检查扣除其他预留后的余额，并把扣款计为占用直到事务结束，
+ *       与其他 SKU 上同时进行的预留不会超额占用同一笔余额</li>
+ * </ul>
+ * 仅支持单节点部署：预留计数不在节点间共享，与集群模式同时开启时启动即失败。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.reservation", name = "enabled", havingValue = "true")
+public class ReservationHolds {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationHolds.class);
+
+    private final ReservationProperties properties;
+    private final HierarchicalTimingWheel<String> timingWheel;
+    private final Map<String, Entry> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Long> heldStock = new ConcurrentHashMap<>();
+    private final Map<Long, Money> heldFunds = new ConcurrentHashMap<>();
+
+    public ReservationHolds(ReservationProperties properties) {
+        this.properties = properties;
+        this.timingWheel = new HierarchicalTimingWheel<>(
+                properties.getTickMs(), properties.getWheelSize(), System.currentTimeMillis());
+    }
+
+    /**
+     * 登记一个预留（调用方持有商品的 SKU 锁）
+     *
+     * @param unitPrice 预留时的单价，确认时按该价格成交
+     * @param availableStock 商品的实际库存
+     * @param balance 用户的实际余额
+     * @return 预留
+     * @throws IllegalStateException 如果扣除已有预留后库存或余额不足
+     */
+    public Hold place(Long userId, String username, Long productId, String sku, long quantity, Money unitPrice,
+                      long availableStock, Money balance) {
+        if (availableStock - heldStock(productId) < quantity) {
+            throw new IllegalStateException("Insufficient stock");
+        }
+        Money amount = unitPrice.multiply(quantity);
+        heldFunds.compute(userId, (id, held) -> {
+            Money total = held == null ? amount : held.add(amount);
+            if (balance.isLessThan(total)) {
+                throw new IllegalStateException("Insufficient balance");
+            }
+            return total;
+        });
+        heldStock.merge(productId, quantity, Long::sum);
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, username, productId, sku, quantity, unitPrice,
+                amount, Instant.now().plus(properties.getTtl()));
+        holds.put(hold.id(), new Entry(hold, timingWheel.schedule(hold.id(), hold.expiresAt().toEpochMilli())));
+        return hold;
+    }
+
+    /**
+     * @return 预留，不存在或已到期时返回 null
+     */
+    public Hold find(String id) {
+        Entry entry = holds.get(id);
+        return entry == null ? null : entry.hold;
+    }
+
+    /**
+     * 确认时认领预留：占用保留到当前事务结束，提交后释放，回滚后恢复
+     *
+     * @return 被认领的预留，不存在、已到期或已被认领时返回 null
+     * @throws IllegalStateException 如果当前没有活动事务
+     */
+    public Hold claim(String id) {
+        requireTransaction();
+        Entry entry = holds.get(id);
+        if (entry == null || !entry.timeout.cancel()) {
+            return null;
+        }
+        Hold hold = entry.hold;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    release(hold);
+                } else {
+                    restore(hold);
+                }
+            }
+        });
+        return hold;
+    }
+
+    /**
+     * 取消时认领并立即释放预留
+     *
+     * @return 被取消的预留，不存在、已到期或已被认领时返回 null
+     */
+    public Hold cancel(String id) {
+        Entry entry = holds.get(id);
+        if (entry == null || !entry.timeout.cancel()) {
+            return null;
+        }
+        release(entry.hold);
+        return entry.hold;
+    }
+
+    /**
+     * 扣款前检查用户扣除其他预留后的余额，并把扣款金额计为占用直到当前事务结束
+     *
+     * @param balance 用户的实际余额
+     * @param own 本次确认的预留（其金额不算作其他预留），普通下单为 null
+     * @throws IllegalStateException 如果扣除其他预留后余额不足，或当前没有活动事务
+     */
+    public void holdDebit(Long userId, Money amount, Money balance, Hold own) {
+        requireTransaction();
+        heldFunds.compute(userId, (id, held) -> {
+            Money others = held == null ? Money.zero() : held;
+            if (own != null) {
+                others = others.subtract(own.amount());
+            }
+            if (balance.subtract(others).isLessThan(amount)) {
+                throw new IllegalStateException("Insufficient balance");
+            }
+            return held == null ? amount : held.add(amount);
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                releaseFunds(userId, amount);
+            }
+        });
+    }
+
+    /**
+     * @return 商品当前被预留的数量
+     */
+    public long heldStock(Long productId) {
+        return heldStock.getOrDefault(productId, 0L);
+    }
+
+    /**
+     * @return 用户当前被预留的金额
+     */
+    public Money heldFunds(Long userId) {
+        Money held = heldFunds.get(userId);
+        return held == null ? Money.zero() : held;
+    }
+
+    /**
+     * @return 有效的预留数
+     */
+    public int size() {
+        return holds.size();
+    }
+
+    /**
+     * 推进时间轮，释放到期的预留
+     *
+     * @return 释放的预留数
+     */
+    @Scheduled(fixedRateString = "${trading.reservation.tick-ms:100}")
+    public int expire() {
+        int expired = 0;
+        for (String id : timingWheel.advanceTo(System.currentTimeMillis())) {
+            Entry entry = holds.get(id);
+            if (entry != null) {
+                release(entry.hold);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.debug("Released {} expired reservations", expired);
+        }
+        return expired;
+    }
+
+    private void release(Hold hold) {
+        holds.remove(hold.id());
+        heldStock.computeIfPresent(hold.productId(), (id, held) -> held == hold.quantity() ? null : held - hold.quantity());
+        releaseFunds(hold.userId(), hold.amount());
+    }
+
+    private void releaseFunds(Long userId, Money amount) {
+        heldFunds.computeIfPresent(userId, (id, held) -> {
+            Money remaining = held.subtract(amount);
+            return remaining.isPositive() ? remaining : null;
+        });
+    }
+
+    /**
+     * 确认失败后恢复预留；已过有效期的直接释放
+     */
+    private void restore(Hold hold) {
+        if (hold.expiresAt().isAfter(Instant.now())) {
+            holds.put(hold.id(), new Entry(hold, timingWheel.schedule(hold.id(), hold.expiresAt().toEpochMilli())));
+        } else {
+            release(hold);
+        }
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Reservation debits require an active transaction");
+        }
+    }
+
+    /**
+     * 一个库存和资金预留
+     *
+     * @param unitPrice 预留时的单价
+     * @param amount 预留金额（单价 × 数量）
+     * @param expiresAt 到期时间
+     */
+    public record Hold(String id, Long userId, String username, Long productId, String sku, long quantity,
+                       Money unitPrice, Money amount, Instant expiresAt) {
+    }
+
+    private record Entry(Hold hold, HierarchicalTimingWheel<String>.Timeout timeout) {
+    }
+}
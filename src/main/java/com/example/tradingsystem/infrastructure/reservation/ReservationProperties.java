@@ -0,0 +1,56 @@
+package com.example.tradingsystem.infrastructure.reservation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 库存和资金预留配置（trading.reservation.*）
+ */
+@ConfigurationProperties(prefix = "trading.reservation")
+public class ReservationProperties {
+
+    /** 是否启用两阶段下单（预留 / 确认 / 取消） */
+    private boolean enabled = false;
+
+    /** 预留的有效期，到期未确认时自动释放 */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** 时间轮第 0 层槽位的跨度（毫秒），也是推进时间轮的间隔 */
+    private long tickMs = 100;
+
+    /** 时间轮每层的槽位数 */
+    private int wheelSize = 512;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public void setTickMs(long tickMs) {
+        this.tickMs = tickMs;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+}
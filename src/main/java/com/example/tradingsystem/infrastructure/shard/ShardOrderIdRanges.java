@@ -0,0 +1,78 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 各分片的订单ID区间
+ *
+ * <p>订单ID由各分片的自增列生成，每个分片从配置的 {@code order-id-start} 开始，到下一个更大的起点为止，
+ * 因此订单ID全局唯一，按ID即可确定订单所在的分片：
+ * <ul>
+ *   <li>启动时检查各分片已有的订单ID都在自己的区间内，订单表为空时把自增起点设为区间起点</li>
+ *   <li>某个分片的订单ID已经用到下一个区间时拒绝启动，须重新划分区间</li>
+ * </ul>
+ */
+public final class ShardOrderIdRanges {
+
+    private final TreeMap<Long, String> starts = new TreeMap<>();
+
+    public ShardOrderIdRanges(Iterable<ShardingProperties.Shard> shards) {
+        for (ShardingProperties.Shard shard : shards) {
+            if (shard.getOrderIdStart() < 1) {
+                throw new IllegalStateException("order-id-start of shard " + shard.getName() + " must be positive");
+            }
+            String previous = starts.put(shard.getOrderIdStart(), shard.getName());
+            if (previous != null) {
+                throw new IllegalStateException("Shards " + previous + " and " + shard.getName()
+                        + " share order-id-start " + shard.getOrderIdStart());
+            }
+        }
+    }
+
+    /**
+     * @return 订单所在的分片，ID 小于所有区间起点时返回 null
+     */
+    public String shardOf(long orderId) {
+        Map.Entry<Long, String> entry = starts.floorEntry(orderId);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * 检查分片的订单ID都在其区间内，订单表为空时把自增起点设为区间起点
+     *
+     * @throws IllegalStateException 如果已有订单ID落在区间之外
+     */
+    public void apply(String shard, DataSource dataSource) {
+        long start = startOf(shard);
+        Long next = starts.higherKey(start);
+        long end = next != null ? next : Long.MAX_VALUE;
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Long[] bounds = jdbc.queryForObject("SELECT MIN(id), MAX(id) FROM orders",
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (bounds[0] == null) {
+            String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            jdbc.execute("H2".equals(product)
+                    ? "ALTER TABLE orders ALTER COLUMN id RESTART WITH " + start
+                    : "ALTER TABLE orders AUTO_INCREMENT = " + start);
+            return;
+        }
+        if (bounds[0] < start || bounds[1] >= end) {
+            throw new IllegalStateException("Order IDs on shard " + shard + " span [" + bounds[0] + ", " + bounds[1]
+                    + "], outside its range [" + start + ", " + end + ")");
+        }
+    }
+
+    private long startOf(String shard) {
+        for (Map.Entry<Long, String> entry : starts.entrySet()) {
+            if (entry.getValue().equals(shard)) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Unknown shard: " + shard);
+    }
+}
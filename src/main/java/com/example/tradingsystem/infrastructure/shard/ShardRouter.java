@@ -0,0 +1,154 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 分片路由器
+ *
+ * <p>按用户名在一致性哈希环上确定分片，并在指定分片（或目录库）上开启独立事务执行一段工作：
+ * <ul>
+ *   <li>工作期间的 Mapper 调用全部落在该分片上，Mapper 本身不感知分片</li>
+ *   <li>每段工作是一个 REQUIRES_NEW 事务，跨分片的一致性由调用方通过补偿或发件箱保证</li>
+ *   <li>{@link #fanOut(Function)} 在所有分片上并行执行只读工作</li>
+ * </ul>
+ * 用户ID只在分片内唯一，跨分片定位用户一律使用用户名；订单ID全局唯一，按 {@link ShardOrderIdRanges} 定位分片。
+ */
+public class ShardRouter {
+
+    private final ConsistentHashRing ring;
+    private final ShardOrderIdRanges orderIdRanges;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(ConsistentHashRing ring, ShardOrderIdRanges orderIdRanges,
+                       PlatformTransactionManager transactionManager) {
+        this.ring = ring;
+        this.orderIdRanges = orderIdRanges;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(ring.nodes().size(), r -> {
+            Thread thread = new Thread(r, "shard-fan-out-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return 用户所在的分片
+     */
+    public String shardOf(String username) {
+        return ring.nodeFor(username);
+    }
+
+    /**
+     * @return 订单所在的分片，ID 不属于任何分片时返回 null
+     */
+    public String shardOfOrder(long orderId) {
+        return orderIdRanges.shardOf(orderId);
+    }
+
+    public List<String> shards() {
+        return ring.nodes();
+    }
+
+    /**
+     * 在用户所在分片的新事务中执行
+     */
+    public <T> T inShard(String username, Supplier<T> work) {
+        return inShardNamed(shardOf(username), work);
+    }
+
+    /**
+     * 在指定分片的新事务中执行
+     */
+    public <T> T inShardNamed(String shard, Supplier<T> work) {
+        if (!ring.nodes().contains(shard)) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return within(shard, writeTemplate, work);
+    }
+
+    /**
+     * 在用户所在分片的只读新事务中执行
+     */
+    public <T> T readInShard(String username, Supplier<T> work) {
+        return readInShardNamed(shardOf(username), work);
+    }
+
+    /**
+     * 在指定分片的只读新事务中执行，用于需要按分片依次处理的读取（例如流式导出）
+     */
+    public <T> T readInShardNamed(String shard, Supplier<T> work) {
+        if (!ring.nodes().contains(shard)) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return within(shard, readTemplate, work);
+    }
+
+    /**
+     * 在目录库的新事务中执行
+     */
+    public <T> T inCatalog(Supplier<T> work) {
+        return within(null, writeTemplate, work);
+    }
+
+    /**
+     * 在所有分片上并行执行只读工作
+     *
+     * @return 分片名称到结果的映射（按分片配置顺序）
+     */
+    public <T> Map<String, T> fanOut(Function<String, T> work) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (String shard : ring.nodes()) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> within(shard, readTemplate, () -> work.apply(shard)), fanOutExecutor));
+        }
+        Map<String, T> results = new LinkedHashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.put(ring.nodes().get(i), futures.get(i).join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    private static <T> T within(String shard, TransactionTemplate template, Supplier<T> work) {
+        String previous = ShardRoutingDataSource.current();
+        ShardRoutingDataSource.set(shard);
+        try {
+            return template.execute(status -> work.get());
+        } finally {
+            ShardRoutingDataSource.set(previous);
+        }
+    }
+}
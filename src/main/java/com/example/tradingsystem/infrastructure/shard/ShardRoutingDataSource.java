@@ -0,0 +1,31 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 按当前分片上下文路由的数据源，上下文为空时使用目录库
+ *
+ * <p>与 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 配合使用，
+ * 连接在事务的第一条语句时才按 {@link ShardRouter} 设置的上下文取得。
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    static String current() {
+        return CURRENT_SHARD.get();
+    }
+
+    static void set(String shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分片数据源配置（trading.sharding.enabled=true 时生效，不能与读写分离同时开启）
+ *
+ * <p>对外暴露的主数据源是 延迟取连接代理 + 按分片上下文路由的数据源，MyBatis 和事务管理器共用它；
+ * 分片连接池在 {@link #shardDataSources} 中统一创建和关闭。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "trading.sharding", name = "enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    @Bean
+    public HikariDataSource catalogDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("catalog");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("trading.sharding.shards must not be empty");
+        }
+        Map<String, HikariDataSource> dataSources = new HashMap<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                dataSource.setDriverClassName(shard.getDriverClassName());
+            }
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            if (dataSources.put(shard.getName(), dataSource) != null) {
+                throw new IllegalStateException("Duplicate shard name: " + shard.getName());
+            }
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("catalogDataSource") DataSource catalogDataSource,
+                                 ShardDataSources shardDataSources) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(new HashMap<>(shardDataSources.dataSources()));
+        routing.setDefaultTargetDataSource(catalogDataSource);
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * 启动时在每个分片上检查并设置订单ID区间（分片须已执行 db/shard-schema.sql）
+     */
+    @Bean
+    public ShardOrderIdRanges shardOrderIdRanges(ShardingProperties properties, ShardDataSources shardDataSources) {
+        ShardOrderIdRanges ranges = new ShardOrderIdRanges(properties.getShards());
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            ranges.apply(shard.getName(), shardDataSources.get(shard.getName()));
+        }
+        return ranges;
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, ShardOrderIdRanges orderIdRanges,
+                                   PlatformTransactionManager transactionManager) {
+        List<String> names = new ArrayList<>();
+        properties.getShards().forEach(shard -> names.add(shard.getName()));
+        return new ShardRouter(new ConsistentHashRing(names, properties.getVirtualNodes()), orderIdRanges,
+                transactionManager);
+    }
+
+    /**
+     * 分片连接池集合（不作为 DataSource 暴露，避免与主数据源冲突）
+     */
+    public record ShardDataSources(Map<String, HikariDataSource> dataSources) {
+
+        public DataSource get(String shard) {
+            return dataSources.get(shard);
+        }
+
+        public void close() {
+            dataSources.values().forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户/订单分片配置（trading.sharding.*）
+ *
+ * <p>spring.datasource 为目录库（products、merchant_accounts），shards 中的每个数据源保存一部分用户及其订单，
+ * 表结构见 {@code db/shard-schema.sql}。
+ */
+@ConfigurationProperties(prefix = "trading.sharding")
+public class ShardingProperties {
+
+    /** 是否启用分片 */
+    private boolean enabled = false;
+
+    /** 每个分片在哈希环上的虚拟节点数 */
+    private int virtualNodes = 160;
+
+    /** 商家入账中继每个分片每轮处理的记录数 */
+    private int relayBatchSize = 500;
+
+    /** 商家入账中继的运行间隔 */
+    private long relayIntervalMs = 200;
+
+    /** 待确认销售超过该时长仍未删除时由对账任务按分片结果处理（须明显长于一次分片事务） */
+    private Duration pendingSaleTimeout = Duration.ofSeconds(30);
+
+    /** 待确认销售对账的运行间隔 */
+    private long reconcileIntervalMs = 5_000;
+
+    /** 分片数据源，名称一旦投入使用不能修改（参与哈希） */
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public int getRelayBatchSize() {
+        return relayBatchSize;
+    }
+
+    public void setRelayBatchSize(int relayBatchSize) {
+        this.relayBatchSize = relayBatchSize;
+    }
+
+    public long getRelayIntervalMs() {
+        return relayIntervalMs;
+    }
+
+    public void setRelayIntervalMs(long relayIntervalMs) {
+        this.relayIntervalMs = relayIntervalMs;
+    }
+
+    public Duration getPendingSaleTimeout() {
+        return pendingSaleTimeout;
+    }
+
+    public void setPendingSaleTimeout(Duration pendingSaleTimeout) {
+        this.pendingSaleTimeout = pendingSaleTimeout;
+    }
+
+    public long getReconcileIntervalMs() {
+        return reconcileIntervalMs;
+    }
+
+    public void setReconcileIntervalMs(long reconcileIntervalMs) {
+        this.reconcileIntervalMs = reconcileIntervalMs;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * 单个分片的数据源配置
+     */
+    public static class Shard {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+        /** 该分片订单ID区间的起点，各分片须不同，区间到下一个更大的起点为止（见 {@link ShardOrderIdRanges}） */
+        private long orderIdStart = 1;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public long getOrderIdStart() {
+            return orderIdStart;
+        }
+
+        public void setOrderIdStart(long orderIdStart) {
+            this.orderIdStart = orderIdStart;
+        }
+    }
+}
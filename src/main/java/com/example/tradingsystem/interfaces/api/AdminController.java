@@ -0,0 +1,59 @@
+package com.example.tradingsystem.interfaces.api;
+
+import com.example.tradingsystem.application.BalanceReconciliation;
+import com.example.tradingsystem.application.BalanceReconciliationService;
+import com.example.tradingsystem.application.BusinessException;
+import com.example.tradingsystem.application.OrderAdmission;
+import com.example.tradingsystem.infrastructure.hotkey.HotKey;
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import com.example.tradingsystem.infrastructure.limit.ConcurrencyLimitSnapshot;
+import com.example.tradingsystem.infrastructure.lock.LockHoldMonitor;
+import com.example.tradingsystem.infrastructure.lock.LockHolder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final HotKeyDetector hotKeyDetector;
+    private final OrderAdmission orderAdmission;
+    private final LockHoldMonitor lockHoldMonitor;
+    private final BalanceReconciliationService balanceReconciliationService;
+
+    public AdminController(HotKeyDetector hotKeyDetector,
+                           ObjectProvider<OrderAdmission> orderAdmission,
+                           LockHoldMonitor lockHoldMonitor,
+                           ObjectProvider<BalanceReconciliationService> balanceReconciliationService) {
+        this.hotKeyDetector = hotKeyDetector;
+        this.orderAdmission = orderAdmission.getIfAvailable();
+        this.lockHoldMonitor = lockHoldMonitor;
+        this.balanceReconciliationService = balanceReconciliationService.getIfAvailable();
+    }
+
+    @GetMapping("/hot-skus")
+    public ResponseEntity<List<HotKey>> hotSkus() {
+        return ResponseEntity.ok(hotKeyDetector.topK());
+    }
+
+    @GetMapping("/concurrency-limits")
+    public ResponseEntity<List<ConcurrencyLimitSnapshot>> concurrencyLimits() {
+        return ResponseEntity.ok(orderAdmission == null ? List.of() : orderAdmission.limits());
+    }
+
+    @GetMapping("/lock-holders")
+    public ResponseEntity<List<LockHolder>> lockHolders(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lockHoldMonitor.longestHolders(limit));
+    }
+
+    @PostMapping("/balance-reconciliation")
+    public ResponseEntity<BalanceReconciliation> reconcileBalances() {
+        if (balanceReconciliationService == null) {
+            throw new BusinessException("Event-sourced balance projection is not enabled");
+        }
+        return ResponseEntity.ok(balanceReconciliationService.reconcile());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.tradingsystem.interfaces.api;
+
+import com.example.tradingsystem.application.BusinessException;
+import com.example.tradingsystem.application.ExportService;
+import com.example.tradingsystem.application.ExportSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 全量导出接口
+ *
+ * <p>在请求线程内同步写出响应（分块传输），不受异步请求超时限制；
+ * 客户端读取慢时写操作阻塞，由 TCP 把背压传回数据库游标。
+ */
+@RestController
+@RequestMapping("/api/admin/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(ExportService exportService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/orders")
+    public void exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                             HttpServletResponse response) throws IOException {
+        exportService.exportOrders(open(response, format, "orders"));
+    }
+
+    @GetMapping("/users")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        exportService.exportUsers(open(response, format, "user_accounts"));
+    }
+
+    @GetMapping("/merchants")
+    public void exportMerchants(@RequestParam(defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        exportService.exportMerchants(open(response, format, "merchant_accounts"));
+    }
+
+    private ExportSink open(HttpServletResponse response, String format, String name) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new BusinessException("Unsupported export format: " + format);
+        }
+        response.setContentType(csv ? StockImportReader.TEXT_CSV + ";charset=UTF-8"
+                : StockImportReader.APPLICATION_NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"");
+        OutputStream out = response.getOutputStream();
+        return csv ? new CsvExportSink(out) : new NdjsonExportSink(out, objectMapper.getFactory());
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.tradingsystem.interfaces.api;
 
 import com.example.tradingsystem.application.BusinessException;
+import com.example.tradingsystem.application.OverloadException;
 import com.example.tradingsystem.application.ResourceNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -19,6 +21,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error(ex.getMessage()));
     }
 
+    @ExceptionHandler(OverloadException.class)
+    public ResponseEntity<Map<String, String>> handleOverload(OverloadException ex) {
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(error(ex.getMessage()));
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Map<String, String>> handleBusiness(BusinessException ex) {
         return ResponseEntity.badRequest().body(error(ex.getMessage()));
@@ -1,24 +1,47 @@
 package com.example.tradingsystem.interfaces.api;
 
 import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderHistoryQuery;
+import com.example.tradingsystem.application.OrderPage;
+import com.example.tradingsystem.application.OrderQueryService;
+import com.example.tradingsystem.application.StockImportResult;
+import com.example.tradingsystem.application.StockImportService;
+import com.example.tradingsystem.domain.order.OrderStatus;
 import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.interfaces.api.dto.ProductResponse;
 import com.example.tradingsystem.interfaces.api.dto.StockRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api/merchants")
 public class MerchantController {
 
     private final InventoryService inventoryService;
+    private final StockImportService stockImportService;
+    private final ObjectMapper objectMapper;
+    private final OrderQueryService orderQueryService;
 
-    public MerchantController(InventoryService inventoryService) {
+    public MerchantController(InventoryService inventoryService,
+                              StockImportService stockImportService,
+                              ObjectMapper objectMapper,
+                              OrderQueryService orderQueryService) {
         this.inventoryService = inventoryService;
+        this.stockImportService = stockImportService;
+        this.objectMapper = objectMapper;
+        this.orderQueryService = orderQueryService;
     }
 
     @PostMapping("/{merchantName}/products/{sku}/stock")
-    public ResponseEntity<Product> addStock(@PathVariable String merchantName,
+    public ResponseEntity<ProductResponse> addStock(@PathVariable String merchantName,
                                             @PathVariable String sku,
                                             @Valid @RequestBody StockRequest request) {
         Product product = inventoryService.addOrUpdateProductStock(
@@ -28,8 +51,29 @@ public class MerchantController {
                 request.getPrice(),
                 request.getQuantity()
         );
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok(ProductResponse.of(product));
     }
-}
 
+    @PostMapping(value = "/stock/import",
+            consumes = {StockImportReader.TEXT_CSV, StockImportReader.APPLICATION_NDJSON})
+    public ResponseEntity<StockImportResult> importStock(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                         InputStream body) {
+        boolean ndjson = contentType.isCompatibleWith(MediaType.parseMediaType(StockImportReader.APPLICATION_NDJSON));
+        StockImportResult result = stockImportService.importStock(new StockImportReader(body, ndjson, objectMapper));
+        return ResponseEntity.ok(result);
+    }
 
+    @GetMapping("/{merchantName}/orders")
+    public ResponseEntity<OrderPage> orders(@PathVariable String merchantName,
+                                            @RequestParam(required = false) OrderStatus status,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        OrderPage page = orderQueryService.listByMerchant(merchantName,
+                new OrderHistoryQuery(status, from, to, cursor, limit));
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tradingsystem.interfaces.api;
+
+import com.example.tradingsystem.application.ExportSink;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 以 NDJSON 格式写出导出数据，每行一个 JSON 对象
+ *
+ * <p>使用 Jackson 的流式生成器直接写入输出流，不经过对象树。
+ */
+class NdjsonExportSink implements ExportSink {
+
+    private final JsonGenerator generator;
+    private String[] columns;
+
+    NdjsonExportSink(OutputStream out, JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void begin(List<String> columns) {
+        this.columns = columns.toArray(new String[0]);
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof BigDecimal number) {
+                generator.writeNumber(number);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void end() throws IOException {
+        generator.flush();
+    }
+}
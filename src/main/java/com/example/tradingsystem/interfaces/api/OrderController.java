@@ -1,27 +1,66 @@
 package com.example.tradingsystem.interfaces.api;
 
+import com.example.tradingsystem.application.CartLine;
+import com.example.tradingsystem.application.CartOrderService;
+import com.example.tradingsystem.application.ClusterOrderRouter;
+import com.example.tradingsystem.application.OrderAdmission;
 import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.OrderSummary;
 import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.interfaces.api.dto.OrderResponse;
+import com.example.tradingsystem.interfaces.api.dto.PlaceCartOrderRequest;
 import com.example.tradingsystem.interfaces.api.dto.PlaceOrderRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final CartOrderService cartOrderService;
+    private final ClusterOrderRouter clusterOrderRouter;
+    private final OrderAdmission orderAdmission;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           CartOrderService cartOrderService,
+                           ObjectProvider<ClusterOrderRouter> clusterOrderRouter,
+                           ObjectProvider<OrderAdmission> orderAdmission) {
         this.orderService = orderService;
+        this.cartOrderService = cartOrderService;
+        this.clusterOrderRouter = clusterOrderRouter.getIfAvailable();
+        this.orderAdmission = orderAdmission.getIfAvailable();
     }
 
     @PostMapping
-    public ResponseEntity<Order> placeOrder(@Valid @RequestBody PlaceOrderRequest request) {
-        Order order = orderService.placeOrder(request.getUsername(), request.getSku(), request.getQuantity());
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderResponse> placeOrder(@Valid @RequestBody PlaceOrderRequest request) {
+        Order order = orderAdmission != null
+                ? orderAdmission.placeOrder(request.getSku(), () -> place(request))
+                : place(request);
+        return ResponseEntity.ok(OrderResponse.of(order));
     }
-}
 
+    private Order place(PlaceOrderRequest request) {
+        return clusterOrderRouter != null
+                ? clusterOrderRouter.placeOrder(request.getUsername(), request.getSku(), request.getQuantity())
+                : orderService.placeOrder(request.getUsername(), request.getSku(), request.getQuantity());
+    }
 
+    @PostMapping("/cart")
+    public ResponseEntity<List<OrderResponse>> placeCartOrder(@Valid @RequestBody PlaceCartOrderRequest request) {
+        List<CartLine> lines = request.getLines().stream()
+                .map(line -> new CartLine(line.getSku(), line.getQuantity()))
+                .toList();
+        List<Order> orders = cartOrderService.placeCartOrder(request.getUsername(), lines);
+        return ResponseEntity.ok(orders.stream().map(OrderResponse::of).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderSummary> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(OrderSummary.of(orderService.findById(id)));
+    }
+}
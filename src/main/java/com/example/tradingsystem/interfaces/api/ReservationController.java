@@ -0,0 +1,39 @@
+package com.example.tradingsystem.interfaces.api;
+
+import com.example.tradingsystem.application.ReservationService;
+import com.example.tradingsystem.interfaces.api.dto.OrderResponse;
+import com.example.tradingsystem.interfaces.api.dto.PlaceOrderRequest;
+import com.example.tradingsystem.interfaces.api.dto.ReservationResponse;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+@ConditionalOnProperty(prefix = "trading.reservation", name = "enabled", havingValue = "true")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@Valid @RequestBody PlaceOrderRequest request) {
+        return ResponseEntity.ok(ReservationResponse.of(
+                reservationService.reserve(request.getUsername(), request.getSku(), request.getQuantity())));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<OrderResponse> confirm(@PathVariable String id) {
+        return ResponseEntity.ok(OrderResponse.of(reservationService.confirm(id)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@PathVariable String id) {
+        reservationService.cancel(id);
+        return ResponseEntity.noContent().build();
+    }
+}
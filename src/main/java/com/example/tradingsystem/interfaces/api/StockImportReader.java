@@ -0,0 +1,153 @@
+package com.example.tradingsystem.interfaces.api;
+
+import com.example.tradingsystem.application.StockImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行读取批量导入的请求体，不缓存整个文件
+ *
+ * <p>支持两种格式，字段顺序均为 merchant, sku, name, price, quantity：
+ * <ul>
+ *   <li>CSV：首行为表头时自动跳过，字段可用双引号包裹</li>
+ *   <li>NDJSON：每行一个 JSON 对象</li>
+ * </ul>
+ * 空行被忽略；格式错误的行以 {@link StockImportRow#malformed(long, String)} 返回，由服务层记为拒绝。
+ */
+class StockImportReader implements Iterator<StockImportRow> {
+
+    static final String TEXT_CSV = "text/csv";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int CSV_COLUMNS = 5;
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final boolean ndjson;
+    private long lineNumber;
+    private StockImportRow next;
+
+    StockImportReader(InputStream body, boolean ndjson, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.ndjson = ndjson;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                next = ndjson ? parseJson(line) : parseCsv(line);
+                if (next != null) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public StockImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        StockImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private StockImportRow parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return StockImportRow.malformed(lineNumber, "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            return StockImportRow.malformed(lineNumber, "Expected a JSON object");
+        }
+        return StockImportRow.of(lineNumber, text(node, "merchant"), text(node, "sku"), text(node, "name"),
+                text(node, "price"), text(node, "quantity"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * @return 解析出的行，表头返回 null
+     */
+    private StockImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return StockImportRow.malformed(lineNumber, "Unterminated quoted field");
+        }
+        if (lineNumber == 1 && "merchant".equalsIgnoreCase(fields.get(0).trim())) {
+            return null;
+        }
+        if (fields.size() != CSV_COLUMNS) {
+            return StockImportRow.malformed(lineNumber, "Expected " + CSV_COLUMNS + " columns");
+        }
+        return StockImportRow.of(lineNumber, fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                fields.get(4));
+    }
+
+    /**
+     * 按 RFC 4180 拆分一行（不支持字段内换行）
+     *
+     * @return 字段列表，引号未闭合时返回 null
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,28 +1,50 @@
 package com.example.tradingsystem.interfaces.api;
 
+import com.example.tradingsystem.application.OrderHistoryQuery;
+import com.example.tradingsystem.application.OrderPage;
+import com.example.tradingsystem.application.OrderQueryService;
 import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.domain.order.OrderStatus;
 import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.interfaces.api.dto.AccountResponse;
 import com.example.tradingsystem.interfaces.api.dto.DepositRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserAccountService userAccountService;
+    private final OrderQueryService orderQueryService;
 
-    public UserController(UserAccountService userAccountService) {
+    public UserController(UserAccountService userAccountService, OrderQueryService orderQueryService) {
         this.userAccountService = userAccountService;
+        this.orderQueryService = orderQueryService;
     }
 
     @PostMapping("/{username}/deposit")
-    public ResponseEntity<UserAccount> deposit(@PathVariable String username,
+    public ResponseEntity<AccountResponse> deposit(@PathVariable String username,
                                                @Valid @RequestBody DepositRequest request) {
         UserAccount account = userAccountService.deposit(username, request.getAmount());
-        return ResponseEntity.ok(account);
+        return ResponseEntity.ok(AccountResponse.of(account));
     }
-}
-
 
+    @GetMapping("/{username}/orders")
+    public ResponseEntity<OrderPage> orders(@PathVariable String username,
+                                            @RequestParam(required = false) OrderStatus status,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        OrderPage page = orderQueryService.listByUser(username,
+                new OrderHistoryQuery(status, from, to, cursor, limit));
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tradingsystem.interfaces.api.dto;
+
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.interfaces.api.json.JsonBuffer;
+import com.example.tradingsystem.interfaces.api.json.JsonWritable;
+
+import java.math.BigDecimal;
+
+/**
+ * 用户账户响应
+ */
+public record AccountResponse(Long id, String username, BigDecimal balance) implements JsonWritable {
+
+    private static final byte[] ID = JsonBuffer.name("id");
+    private static final byte[] USERNAME = JsonBuffer.name("username");
+    private static final byte[] BALANCE = JsonBuffer.name("balance");
+
+    public static AccountResponse of(UserAccount account) {
+        return new AccountResponse(account.getId(), account.getUsername(), account.getBalance().getAmount());
+    }
+
+    @Override
+    public void writeJson(JsonBuffer out) {
+        out.beginObject()
+                .field(ID, id)
+                .field(USERNAME, username)
+                .field(BALANCE, balance)
+                .endObject();
+    }
+}
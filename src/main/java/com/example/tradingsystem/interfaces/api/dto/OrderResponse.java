@@ -0,0 +1,48 @@
+package com.example.tradingsystem.interfaces.api.dto;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.interfaces.api.json.JsonBuffer;
+import com.example.tradingsystem.interfaces.api.json.JsonWritable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 下单响应（只包含订单自身字段，不展开用户、商家、商品）
+ */
+public record OrderResponse(Long id, Long userId, Long merchantId, Long productId, long quantity,
+                            BigDecimal unitPrice, BigDecimal totalPrice, OrderStatus status, Instant createdAt)
+        implements JsonWritable {
+
+    private static final byte[] ID = JsonBuffer.name("id");
+    private static final byte[] USER_ID = JsonBuffer.name("userId");
+    private static final byte[] MERCHANT_ID = JsonBuffer.name("merchantId");
+    private static final byte[] PRODUCT_ID = JsonBuffer.name("productId");
+    private static final byte[] QUANTITY = JsonBuffer.name("quantity");
+    private static final byte[] UNIT_PRICE = JsonBuffer.name("unitPrice");
+    private static final byte[] TOTAL_PRICE = JsonBuffer.name("totalPrice");
+    private static final byte[] STATUS = JsonBuffer.name("status");
+    private static final byte[] CREATED_AT = JsonBuffer.name("createdAt");
+
+    public static OrderResponse of(Order order) {
+        return new OrderResponse(order.getId(), order.getUserId(), order.getMerchantId(), order.getProductId(),
+                order.getQuantity().getValue(), order.getUnitPrice().getAmount(), order.getTotalPrice().getAmount(),
+                order.getStatus(), order.getCreatedAt());
+    }
+
+    @Override
+    public void writeJson(JsonBuffer out) {
+        out.beginObject()
+                .field(ID, id)
+                .field(USER_ID, userId)
+                .field(MERCHANT_ID, merchantId)
+                .field(PRODUCT_ID, productId)
+                .field(QUANTITY, quantity)
+                .field(UNIT_PRICE, unitPrice)
+                .field(TOTAL_PRICE, totalPrice)
+                .field(STATUS, status)
+                .field(CREATED_AT, createdAt)
+                .endObject();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.tradingsystem.interfaces.api.dto;
+
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.interfaces.api.json.JsonBuffer;
+import com.example.tradingsystem.interfaces.api.json.JsonWritable;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品库存响应（不展开商家对象）
+ */
+public record ProductResponse(Long id, String sku, String name, BigDecimal price, Long merchantId,
+                              long stockQuantity, long soldQuantity) implements JsonWritable {
+
+    private static final byte[] ID = JsonBuffer.name("id");
+    private static final byte[] SKU = JsonBuffer.name("sku");
+    private static final byte[] NAME = JsonBuffer.name("name");
+    private static final byte[] PRICE = JsonBuffer.name("price");
+    private static final byte[] MERCHANT_ID = JsonBuffer.name("merchantId");
+    private static final byte[] STOCK_QUANTITY = JsonBuffer.name("stockQuantity");
+    private static final byte[] SOLD_QUANTITY = JsonBuffer.name("soldQuantity");
+
+    public static ProductResponse of(Product product) {
+        return new ProductResponse(product.getId(), product.getSku(), product.getName(),
+                product.getPrice().getAmount(), product.getMerchantId(),
+                product.getStockQuantity().getValue(), product.getSoldQuantity().getValue());
+    }
+
+    @Override
+    public void writeJson(JsonBuffer out) {
+        out.beginObject()
+                .field(ID, id)
+                .field(SKU, sku)
+                .field(NAME, name)
+                .field(PRICE, price)
+                .field(MERCHANT_ID, merchantId)
+                .field(STOCK_QUANTITY, stockQuantity)
+                .field(SOLD_QUANTITY, soldQuantity)
+                .endObject();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.tradingsystem.interfaces.api.dto;
+
+import com.example.tradingsystem.infrastructure.reservation.ReservationHolds;
+import com.example.tradingsystem.interfaces.api.json.JsonBuffer;
+import com.example.tradingsystem.interfaces.api.json.JsonWritable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 预留响应
+ */
+public record ReservationResponse(String id, String username, String sku, long quantity, BigDecimal amount,
+                                  Instant expiresAt) implements JsonWritable {
+
+    private static final byte[] ID = JsonBuffer.name("id");
+    private static final byte[] USERNAME = JsonBuffer.name("username");
+    private static final byte[] SKU = JsonBuffer.name("sku");
+    private static final byte[] QUANTITY = JsonBuffer.name("quantity");
+    private static final byte[] AMOUNT = JsonBuffer.name("amount");
+    private static final byte[] EXPIRES_AT = JsonBuffer.name("expiresAt");
+
+    public static ReservationResponse of(ReservationHolds.Hold hold) {
+        return new ReservationResponse(hold.id(), hold.username(), hold.sku(), hold.quantity(),
+                hold.amount().getAmount(), hold.expiresAt());
+    }
+
+    @Override
+    public void writeJson(JsonBuffer out) {
+        out.beginObject()
+                .field(ID, id)
+                .field(USERNAME, username)
+                .field(SKU, sku)
+                .field(QUANTITY, quantity)
+                .field(AMOUNT, amount)
+                .field(EXPIRES_AT, expiresAt)
+                .endObject();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.tradingsystem.interfaces.api.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 可复用的 UTF-8 JSON 字节缓冲区
+ *
+ * <p>只支持响应对象需要的扁平结构：一个对象，字段值为整数、定点数、字符串或 null。
+ * 字段名在类加载时通过 {@link #name(String)} 预先编码，写出时直接拷贝字节。
+ */
+public final class JsonBuffer {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] bytes;
+    private int size;
+    private boolean firstField;
+
+    public JsonBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    /**
+     * 预编码字段名
+     *
+     * @param name 字段名（只能包含不需要转义的 ASCII 字符）
+     * @return 形如 {@code "name":} 的字节
+     */
+    public static byte[] name(String name) {
+        return ('"' + name + "\":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public JsonBuffer beginObject() {
+        put((byte) '{');
+        firstField = true;
+        return this;
+    }
+
+    public JsonBuffer endObject() {
+        put((byte) '}');
+        return this;
+    }
+
+    public JsonBuffer field(byte[] name, long value) {
+        fieldName(name);
+        putAscii(Long.toString(value));
+        return this;
+    }
+
+    public JsonBuffer field(byte[] name, Long value) {
+        if (value == null) {
+            return nullField(name);
+        }
+        return field(name, value.longValue());
+    }
+
+    public JsonBuffer field(byte[] name, BigDecimal value) {
+        if (value == null) {
+            return nullField(name);
+        }
+        fieldName(name);
+        putAscii(value.toPlainString());
+        return this;
+    }
+
+    public JsonBuffer field(byte[] name, Object value) {
+        if (value == null) {
+            return nullField(name);
+        }
+        fieldName(name);
+        putString(value.toString());
+        return this;
+    }
+
+    /**
+     * @return 已写入的字节数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 当前缓冲区容量
+     */
+    public int capacity() {
+        return bytes.length;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    private JsonBuffer nullField(byte[] name) {
+        fieldName(name);
+        put(NULL);
+        return this;
+    }
+
+    private void fieldName(byte[] name) {
+        if (!firstField) {
+            put((byte) ',');
+        }
+        firstField = false;
+        put(name);
+    }
+
+    private void putString(String value) {
+        ensure(value.length() + 2);
+        bytes[size++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                ensure(2);
+                bytes[size++] = '\\';
+                bytes[size++] = (byte) c;
+            } else if (c < 0x20) {
+                ensure(6);
+                bytes[size++] = '\\';
+                bytes[size++] = 'u';
+                bytes[size++] = '0';
+                bytes[size++] = '0';
+                bytes[size++] = HEX[c >> 4];
+                bytes[size++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                ensure(1);
+                bytes[size++] = (byte) c;
+            } else {
+                int end = i + 1;
+                while (end < value.length() && value.charAt(end) >= 0x80) {
+                    end++;
+                }
+                put(value.substring(i, end).getBytes(StandardCharsets.UTF_8));
+                i = end - 1;
+            }
+        }
+        ensure(1);
+        bytes[size++] = '"';
+    }
+
+    private void putAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            bytes[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        bytes[size++] = b;
+    }
+
+    private void put(byte[] src) {
+        ensure(src.length);
+        System.arraycopy(src, 0, bytes, size, src.length);
+        size += src.length;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
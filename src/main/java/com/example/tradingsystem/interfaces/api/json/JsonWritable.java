@@ -0,0 +1,12 @@
+package com.example.tradingsystem.interfaces.api.json;
+
+/**
+ * 能够自行写出 JSON 的响应对象
+ *
+ * <p>实现类按固定字段顺序调用 {@link JsonBuffer} 写出自身，不经过 Jackson 的反射序列化；
+ * 由 {@link JsonWritableHttpMessageConverter} 负责写入响应。
+ */
+public interface JsonWritable {
+
+    void writeJson(JsonBuffer out);
+}
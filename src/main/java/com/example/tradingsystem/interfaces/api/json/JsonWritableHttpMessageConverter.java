@@ -0,0 +1,58 @@
+package com.example.tradingsystem.interfaces.api.json;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * 写出 {@link JsonWritable} 响应的消息转换器
+ *
+ * <p>每个线程复用一个 {@link JsonBuffer}，写完后一次性输出并设置 Content-Length；
+ * 偶发的大响应使缓冲区超过上限时不再保留，避免长期占用内存。只负责写，不参与请求体解析。
+ */
+public class JsonWritableHttpMessageConverter extends AbstractHttpMessageConverter<JsonWritable> {
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<JsonBuffer> BUFFERS =
+            ThreadLocal.withInitial(() -> new JsonBuffer(INITIAL_CAPACITY));
+
+    public JsonWritableHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonWritable.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonWritable readInternal(Class<? extends JsonWritable> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonWritable is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(JsonWritable value, HttpOutputMessage outputMessage) throws IOException {
+        JsonBuffer buffer = BUFFERS.get();
+        buffer.reset();
+        try {
+            value.writeJson(buffer);
+            outputMessage.getHeaders().setContentLength(buffer.size());
+            buffer.writeTo(outputMessage.getBody());
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFERS.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.tradingsystem.interfaces.cluster;
+
+import com.example.tradingsystem.application.BusinessException;
+import com.example.tradingsystem.application.ConcurrentUpdateException;
+import com.example.tradingsystem.application.OrderAdmission;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.ResourceNotFoundException;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.infrastructure.cluster.ClusterFrameCodec;
+import com.example.tradingsystem.infrastructure.cluster.ClusterMembership;
+import com.example.tradingsystem.infrastructure.cluster.ClusterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节点间转发连接的服务端
+ *
+ * <p>其他节点与本节点保持常驻连接（通常每个对端一条），连接上的请求交给工作线程并发执行，应答按完成顺序写回：
+ * <ul>
+ *   <li>转发的下单直接在本节点执行，不再转发（避免视图不一致时来回转发）</li>
+ *   <li>启用 {@link OrderAdmission} 时转发的下单与本节点的请求共享并发上限</li>
+ *   <li>工作线程的等待队列有上限；队列已满或服务已停止时请求立即应答 BUSY（排空请求应答未排空），而不是无限堆积</li>
+ *   <li>排空请求先刷新成员视图，再等待该 SKU 上进行中的下单结束</li>
+ * </ul>
+ * 启动后以实际端口加入集群；停止时先离开集群，再等待进行中的请求完成。帧格式见 {@link ClusterFrameCodec}。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.cluster", name = "enabled", havingValue = "true")
+public class ClusterPeerServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterPeerServer.class);
+
+    private final OrderService orderService;
+    private final OrderAdmission orderAdmission;
+    private final ClusterMembership membership;
+    private final ClusterProperties properties;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong handledOrders = new AtomicLong();
+
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private ExecutorService workers;
+
+    public ClusterPeerServer(OrderService orderService, ClusterMembership membership, ClusterProperties properties,
+                             ObjectProvider<OrderAdmission> orderAdmission) {
+        this.orderService = orderService;
+        this.orderAdmission = orderAdmission.getIfAvailable();
+        this.membership = membership;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        try {
+            serverSocket = new ServerSocket(properties.getPort(), 50, InetAddress.getByName(properties.getBindAddress()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start cluster peer server", e);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, properties.getWorkerThreads());
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getWorkerQueueCapacity())), r -> {
+            Thread thread = new Thread(r, "cluster-peer-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "cluster-peer-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        membership.join(getLocalPort());
+    }
+
+    @Override
+    public void stop() {
+        membership.leave();
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Failed to close cluster peer server", e);
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(properties.getForwardTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connections.forEach(this::closeQuietly);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return 实际监听的端口（配置为 0 时由系统分配）
+     */
+    public int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return 本节点代其他节点执行的下单数
+     */
+    public long handledOrders() {
+        return handledOrders.get();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread reader = new Thread(() -> serve(socket), "cluster-peer-conn-" + socket.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Cluster peer accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (running) {
+                ClusterFrameCodec.Frame frame = ClusterFrameCodec.read(in);
+                if (frame instanceof ClusterFrameCodec.OrderRequest request) {
+                    try {
+                        workers.execute(() -> placeOrder(out, request));
+                    } catch (RejectedExecutionException e) {
+                        replyOrder(out, request, ClusterFrameCodec.STATUS_BUSY, null,
+                                "Cluster peer is busy, please retry later");
+                    }
+                } else if (frame instanceof ClusterFrameCodec.DrainRequest request) {
+                    try {
+                        workers.execute(() -> drain(out, request));
+                    } catch (RejectedExecutionException e) {
+                        replyDrained(out, request, false);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Unexpected cluster frame: " + frame);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Cluster peer connection {} closed", socket.getRemoteSocketAddress(), e);
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void placeOrder(DataOutputStream out, ClusterFrameCodec.OrderRequest request) {
+        byte status = ClusterFrameCodec.STATUS_OK;
+        Order order = null;
+        String reason = null;
+        try {
+            order = orderAdmission != null
+                    ? orderAdmission.placeOrder(request.sku(),
+                            () -> orderService.placeOrder(request.username(), request.sku(), request.quantity()))
+                    : orderService.placeOrder(request.username(), request.sku(), request.quantity());
+            handledOrders.incrementAndGet();
+        } catch (ResourceNotFoundException e) {
+            status = ClusterFrameCodec.STATUS_NOT_FOUND;
+            reason = e.getMessage();
+        } catch (ConcurrentUpdateException e) {
+            status = ClusterFrameCodec.STATUS_BUSY;
+            reason = e.getMessage();
+        } catch (BusinessException e) {
+            status = ClusterFrameCodec.STATUS_REJECTED;
+            reason = e.getMessage();
+        } catch (IllegalArgumentException e) {
+            status = ClusterFrameCodec.STATUS_INVALID_ARGUMENT;
+            reason = e.getMessage();
+        } catch (IllegalStateException e) {
+            status = ClusterFrameCodec.STATUS_INVALID_STATE;
+            reason = e.getMessage();
+        } catch (RuntimeException e) {
+            log.error("Forwarded order failed: seq={}", request.sequence(), e);
+            status = ClusterFrameCodec.STATUS_ERROR;
+            reason = "Internal server error";
+        }
+        replyOrder(out, request, status, order, reason);
+    }
+
+    private void replyOrder(DataOutputStream out, ClusterFrameCodec.OrderRequest request, byte status, Order order,
+                            String reason) {
+        try {
+            synchronized (out) {
+                ClusterFrameCodec.writeOrderResult(out, request.sequence(), status, order, reason);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to reply to forwarded order seq={}", request.sequence(), e);
+        }
+    }
+
+    private void drain(DataOutputStream out, ClusterFrameCodec.DrainRequest request) {
+        membership.refresh();
+        boolean drained = membership.localLock()
+                .awaitReleased(OrderService.lockKey(request.sku()), properties.getForwardTimeout());
+        replyDrained(out, request, drained);
+    }
+
+    private void replyDrained(DataOutputStream out, ClusterFrameCodec.DrainRequest request, boolean drained) {
+        try {
+            synchronized (out) {
+                ClusterFrameCodec.writeDrained(out, new ClusterFrameCodec.DrainResult(request.sequence(), drained));
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to reply to drain request for {}", request.sku(), e);
+        }
+    }
+
+    private void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Failed to close cluster peer connection", e);
+        }
+    }
+}
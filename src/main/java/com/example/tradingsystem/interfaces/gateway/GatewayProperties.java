@@ -0,0 +1,87 @@
+package com.example.tradingsystem.interfaces.gateway;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 二进制下单网关配置（trading.gateway.*）
+ */
+@ConfigurationProperties(prefix = "trading.gateway")
+public class GatewayProperties {
+
+    /** 是否启用二进制下单网关 */
+    private boolean enabled = false;
+
+    /** 监听地址 */
+    private String bindAddress = "0.0.0.0";
+
+    /** 监听端口，0 表示随机端口 */
+    private int port = 9090;
+
+    /** 执行下单的工作线程数 */
+    private int workerThreads = 16;
+
+    /** 单个连接未应答请求数的上限，达到后暂停读取该连接 */
+    private int maxInFlightPerConnection = 1024;
+
+    /** 每个连接的读缓冲区大小（字节） */
+    private int readBufferSize = 64 * 1024;
+
+    /** 单个连接已编码但未写出的应答字节数上限，达到后暂停读取该连接 */
+    private int maxPendingWriteBytes = 256 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getBindAddress() {
+        return bindAddress;
+    }
+
+    public void setBindAddress(String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getMaxInFlightPerConnection() {
+        return maxInFlightPerConnection;
+    }
+
+    public void setMaxInFlightPerConnection(int maxInFlightPerConnection) {
+        this.maxInFlightPerConnection = maxInFlightPerConnection;
+    }
+
+    public int getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public void setReadBufferSize(int readBufferSize) {
+        this.readBufferSize = readBufferSize;
+    }
+
+    public int getMaxPendingWriteBytes() {
+        return maxPendingWriteBytes;
+    }
+
+    public void setMaxPendingWriteBytes(int maxPendingWriteBytes) {
+        this.maxPendingWriteBytes = maxPendingWriteBytes;
+    }
+}
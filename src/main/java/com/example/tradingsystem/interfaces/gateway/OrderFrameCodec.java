@@ -0,0 +1,157 @@
+package com.example.tradingsystem.interfaces.gateway;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制下单网关的帧编解码（大端序）
+ *
+ * <p>下单请求：
+ * <pre>
+ *  0  u16  帧长度（含本字段）
+ *  2  u8   消息类型 = 1
+ *  3  i64  客户端序号
+ * 11  i64  购买数量
+ * 19  u8   用户名长度 U
+ * 20  u8   SKU 长度 S
+ * 21  U    用户名（UTF-8）
+ * 21+U S   SKU（UTF-8）
+ * </pre>
+ *
+ * <p>下单应答：
+ * <pre>
+ *  0  u16  帧长度（含本字段）
+ *  2  u8   消息类型 = 2
+ *  3  i64  客户端序号
+ * 11  u8   结果状态，见 STATUS_* 常量
+ * 12  i64  订单ID（失败时为 0）
+ * 20  u32  建议重试等待毫秒数（过载拒绝时大于 0，其余为 0）
+ * 24  u16  错误信息长度 R
+ * 26  R    错误信息（UTF-8）
+ * </pre>
+ */
+final class OrderFrameCodec {
+
+    static final byte NEW_ORDER = 1;
+    static final byte ORDER_ACK = 2;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_REJECTED = 1;
+    static final byte STATUS_NOT_FOUND = 2;
+    static final byte STATUS_BUSY = 3;
+    static final byte STATUS_ERROR = 4;
+
+    static final int REQUEST_HEADER_LENGTH = 21;
+    /** 最长的请求帧：用户名和 SKU 各 255 字节 */
+    static final int MAX_REQUEST_LENGTH = REQUEST_HEADER_LENGTH + 255 + 255;
+    static final int ACK_HEADER_LENGTH = 26;
+    static final int MAX_REASON_LENGTH = 512;
+
+    private OrderFrameCodec() {
+    }
+
+    /**
+     * 解码一个完整的请求帧
+     *
+     * @param in 读缓冲区（读模式）
+     * @return 请求；剩余字节不足一帧时返回 null 且不移动 position
+     * @throws IllegalArgumentException 帧格式错误
+     */
+    static OrderRequest decode(ByteBuffer in) {
+        if (in.remaining() < 2) {
+            return null;
+        }
+        int start = in.position();
+        int frameLength = Short.toUnsignedInt(in.getShort(start));
+        if (frameLength < REQUEST_HEADER_LENGTH) {
+            throw new IllegalArgumentException("Frame too short: " + frameLength);
+        }
+        if (in.remaining() < frameLength) {
+            return null;
+        }
+        byte type = in.get(start + 2);
+        if (type != NEW_ORDER) {
+            throw new IllegalArgumentException("Unknown message type: " + type);
+        }
+        long clientSequence = in.getLong(start + 3);
+        long quantity = in.getLong(start + 11);
+        int usernameLength = Byte.toUnsignedInt(in.get(start + 19));
+        int skuLength = Byte.toUnsignedInt(in.get(start + 20));
+        if (REQUEST_HEADER_LENGTH + usernameLength + skuLength != frameLength) {
+            throw new IllegalArgumentException("Frame length mismatch");
+        }
+        String username = string(in, start + REQUEST_HEADER_LENGTH, usernameLength);
+        String sku = string(in, start + REQUEST_HEADER_LENGTH + usernameLength, skuLength);
+        in.position(start + frameLength);
+        return new OrderRequest(clientSequence, username, sku, quantity);
+    }
+
+    /**
+     * 编码一个下单请求帧（供客户端和测试使用）
+     */
+    static void encodeRequest(ByteBuffer out, long clientSequence, String username, String sku, long quantity) {
+        byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        byte[] skuBytes = sku.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) (REQUEST_HEADER_LENGTH + user.length + skuBytes.length))
+                .put(NEW_ORDER)
+                .putLong(clientSequence)
+                .putLong(quantity)
+                .put((byte) user.length)
+                .put((byte) skuBytes.length)
+                .put(user)
+                .put(skuBytes);
+    }
+
+    /**
+     * @return 应答帧长度
+     */
+    static int ackLength(byte[] reason) {
+        return ACK_HEADER_LENGTH + reason.length;
+    }
+
+    /**
+     * 编码一个应答帧，调用方需保证剩余空间不小于 {@link #ackLength(byte[])}
+     */
+    static void encodeAck(ByteBuffer out, long clientSequence, byte status, long orderId, long retryAfterMillis,
+                          byte[] reason) {
+        out.putShort((short) ackLength(reason))
+                .put(ORDER_ACK)
+                .putLong(clientSequence)
+                .put(status)
+                .putLong(orderId)
+                .putInt((int) Math.min(Math.max(retryAfterMillis, 0), 0xFFFF_FFFFL))
+                .putShort((short) reason.length)
+                .put(reason);
+    }
+
+    /**
+     * 错误信息截断到 {@link #MAX_REASON_LENGTH} 字节
+     */
+    static byte[] reason(String message) {
+        if (message == null) {
+            return new byte[0];
+        }
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_REASON_LENGTH) {
+            return bytes;
+        }
+        byte[] truncated = new byte[MAX_REASON_LENGTH];
+        System.arraycopy(bytes, 0, truncated, 0, MAX_REASON_LENGTH);
+        return truncated;
+    }
+
+    private static String string(ByteBuffer in, int offset, int length) {
+        if (in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        in.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 解码后的下单请求
+     */
+    record OrderRequest(long clientSequence, String username, String sku, long quantity) {
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.tradingsystem.interfaces.gateway;
+
+import com.example.tradingsystem.application.BusinessException;
+import com.example.tradingsystem.application.ClusterOrderRouter;
+import com.example.tradingsystem.application.ConcurrentUpdateException;
+import com.example.tradingsystem.application.OrderAdmission;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.OverloadException;
+import com.example.tradingsystem.application.ResourceNotFoundException;
+import com.example.tradingsystem.domain.order.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 NIO 的二进制下单网关
+ *
+ * <p>供高频客户端使用，与 HTTP 接口共用 {@link OrderService#placeOrder(String, String, long)}：
+ * <ul>
+ *   <li>单个选择器线程负责 accept、读和写，每个连接复用固定的读缓冲区，一次读取可解码多个帧</li>
+ *   <li>解码出的请求交给工作线程池执行，应答编码进连接的写缓冲区后由选择器线程异步写回</li>
+ *   <li>应答按完成顺序返回（流水线），客户端用请求中的序号对应</li>
+ *   <li>单连接未应答请求或未写出的应答字节数达到上限时暂停读取该连接，由 TCP 把背压传回客户端；
+ *       不读取应答的客户端不会再有新请求被受理，写缓冲区最多为字节上限加上在途请求的应答</li>
+ *   <li>启用 {@link OrderAdmission} 时与 HTTP 接口共享节点的并发上限，超出时应答 BUSY 并带上建议的重试等待时间</li>
+ *   <li>集群模式下与 HTTP 接口一样经 {@link ClusterOrderRouter} 下单，非归属节点上的请求转发给归属节点</li>
+ * </ul>
+ * 读缓冲区必须能放下最长的请求帧（{@link OrderFrameCodec#MAX_REQUEST_LENGTH} 字节），否则启动失败。
+ * 帧格式见 {@link OrderFrameCodec}。
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.gateway", name = "enabled", havingValue = "true")
+public class OrderGateway implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderGateway.class);
+
+    private final OrderService orderService;
+    private final GatewayProperties properties;
+    private final OrderAdmission orderAdmission;
+    private final ClusterOrderRouter clusterOrderRouter;
+    private final Queue<Connection> pendingFlushes = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService workers;
+    private Thread selectorThread;
+
+    public OrderGateway(OrderService orderService,
+                        GatewayProperties properties,
+                        ObjectProvider<OrderAdmission> orderAdmission,
+                        ObjectProvider<ClusterOrderRouter> clusterOrderRouter) {
+        this.orderService = orderService;
+        this.properties = properties;
+        this.orderAdmission = orderAdmission.getIfAvailable();
+        this.clusterOrderRouter = clusterOrderRouter.getIfAvailable();
+        if (properties.getReadBufferSize() < OrderFrameCodec.MAX_REQUEST_LENGTH) {
+            // 放不下完整帧时连接会一直等待剩余字节而没有任何报错
+            throw new IllegalStateException("trading.gateway.read-buffer-size must be at least "
+                    + OrderFrameCodec.MAX_REQUEST_LENGTH + " bytes");
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start order gateway", e);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, properties.getWorkerThreads()), r -> {
+            Thread thread = new Thread(r, "order-gateway-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        selectorThread = new Thread(this::selectLoop, "order-gateway-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Order gateway listening on port {}", getLocalPort());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        try {
+            if (selectorThread != null) {
+                selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+            if (workers != null) {
+                workers.shutdown();
+                workers.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return 实际监听的端口（配置为 0 时由系统分配）
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException | IllegalArgumentException e) {
+                        log.debug("Closing gateway connection {}", connection.channel, e);
+                        connection.close();
+                    }
+                }
+                Connection connection;
+                while ((connection = pendingFlushes.poll()) != null) {
+                    try {
+                        connection.flush();
+                    } catch (IOException e) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                log.error("Order gateway selector failed", e);
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                connection.close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            log.warn("Failed to close order gateway", e);
+        }
+    }
+
+    private Order place(OrderFrameCodec.OrderRequest request) {
+        return clusterOrderRouter != null
+                ? clusterOrderRouter.placeOrder(request.username(), request.sku(), request.quantity())
+                : orderService.placeOrder(request.username(), request.sku(), request.quantity());
+    }
+
+    /**
+     * 执行下单并写回应答（工作线程）
+     */
+    private void execute(Connection connection, OrderFrameCodec.OrderRequest request) {
+        byte status = OrderFrameCodec.STATUS_OK;
+        long orderId = 0;
+        long retryAfterMillis = 0;
+        String reason = null;
+        try {
+            Order order = orderAdmission != null
+                    ? orderAdmission.placeOrder(request.sku(), () -> place(request))
+                    : place(request);
+            orderId = order.getId();
+        } catch (ResourceNotFoundException e) {
+            status = OrderFrameCodec.STATUS_NOT_FOUND;
+            reason = e.getMessage();
+        } catch (OverloadException e) {
+            status = OrderFrameCodec.STATUS_BUSY;
+            retryAfterMillis = e.getRetryAfter().toMillis();
+            reason = e.getMessage();
+        } catch (ConcurrentUpdateException e) {
+            status = OrderFrameCodec.STATUS_BUSY;
+            reason = e.getMessage();
+        } catch (BusinessException | IllegalArgumentException | IllegalStateException e) {
+            status = OrderFrameCodec.STATUS_REJECTED;
+            reason = e.getMessage();
+        } catch (RuntimeException e) {
+            log.error("Gateway order failed: seq={}", request.clientSequence(), e);
+            status = OrderFrameCodec.STATUS_ERROR;
+            reason = "Internal server error";
+        }
+        connection.acknowledge(request.clientSequence(), status, orderId, retryAfterMillis,
+                OrderFrameCodec.reason(reason));
+    }
+
+    /**
+     * 一个客户端连接
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(properties.getReadBufferSize());
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        /** 写缓冲区（写模式），由 this 锁保护 */
+        private ByteBuffer writeBuffer = ByteBuffer.allocate(4096);
+        /** 写缓冲区中尚未写出的字节数，在 this 锁内更新 */
+        private volatile int pendingWriteBytes;
+        private SelectionKey key;
+        private boolean readPaused;
+        private volatile boolean open = true;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * 读取并解码尽可能多的帧（选择器线程）
+         */
+        void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+            dispatch();
+        }
+
+        private void dispatch() {
+            readBuffer.flip();
+            try {
+                while (!saturated()) {
+                    OrderFrameCodec.OrderRequest request = OrderFrameCodec.decode(readBuffer);
+                    if (request == null) {
+                        break;
+                    }
+                    inFlight.incrementAndGet();
+                    workers.execute(() -> execute(this, request));
+                }
+            } finally {
+                readBuffer.compact();
+            }
+            boolean saturated = saturated();
+            if (saturated != readPaused && key.isValid()) {
+                readPaused = saturated;
+                key.interestOps(saturated
+                        ? key.interestOps() & ~SelectionKey.OP_READ
+                        : key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * 在途请求或未写出的应答达到上限时不再受理新请求
+         */
+        private boolean saturated() {
+            return inFlight.get() >= properties.getMaxInFlightPerConnection()
+                    || pendingWriteBytes >= properties.getMaxPendingWriteBytes();
+        }
+
+        /**
+         * 编码应答并安排写回（工作线程）
+         */
+        void acknowledge(long clientSequence, byte status, long orderId, long retryAfterMillis, byte[] reason) {
+            if (!open) {
+                return;
+            }
+            synchronized (this) {
+                int length = OrderFrameCodec.ackLength(reason);
+                if (writeBuffer.remaining() < length) {
+                    ByteBuffer larger = ByteBuffer.allocate(Math.max(writeBuffer.capacity() * 2,
+                            writeBuffer.position() + length));
+                    writeBuffer.flip();
+                    larger.put(writeBuffer);
+                    writeBuffer = larger;
+                }
+                OrderFrameCodec.encodeAck(writeBuffer, clientSequence, status, orderId, retryAfterMillis, reason);
+                pendingWriteBytes = writeBuffer.position();
+            }
+            inFlight.decrementAndGet();
+            if (flushScheduled.compareAndSet(false, true)) {
+                pendingFlushes.add(this);
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * 写出缓冲的应答，写不完时注册 OP_WRITE；恢复被暂停的读取（选择器线程）
+         */
+        void flush() throws IOException {
+            flushScheduled.set(false);
+            if (!open) {
+                return;
+            }
+            boolean pending;
+            synchronized (this) {
+                writeBuffer.flip();
+                channel.write(writeBuffer);
+                pending = writeBuffer.hasRemaining();
+                writeBuffer.compact();
+                pendingWriteBytes = writeBuffer.position();
+            }
+            if (key.isValid()) {
+                key.interestOps(pending
+                        ? key.interestOps() | SelectionKey.OP_WRITE
+                        : key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+            if (readPaused) {
+                dispatch();
+            }
+        }
+
+        void close() {
+            open = false;
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close gateway connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.tradingsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 检查点写回的账户余额
+ *
+ * @param id 账户ID
+ * @param balance 余额
+ */
+public record AccountBalance(Long id, BigDecimal balance) {
+}
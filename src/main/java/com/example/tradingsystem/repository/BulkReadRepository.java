@@ -0,0 +1,86 @@
+package com.example.tradingsystem.repository;
+
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadSource;
+import com.example.tradingsystem.infrastructure.mybatis.MoneyTypeHandler;
+import com.example.tradingsystem.infrastructure.mybatis.QuantityTypeHandler;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+/**
+ * 全表流式读取Mapper
+ *
+ * <p>导出、余额核对和下单前置过滤重建使用的游标查询，结果逐行读取，不在内存中物化；须在事务内消费。
+ * 不继承 BaseMapper，可以单独注册到 {@link BulkReadSource} 的会话工厂，
+ * 配合 MySQL 连接参数 useCursorFetch=true 时 fetchSize 生效，每次只从服务端取一批行。
+ */
+@Mapper
+public interface BulkReadRepository {
+
+    /**
+     * 按ID顺序流式读取全部订单
+     */
+    @Select("SELECT id, user_id, merchant_id, product_id, quantity, unit_price, total_price, status, created_at, version "
+            + "FROM orders ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @Results(id = "bulkOrderRow", value = {
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "quantity", property = "quantity", typeHandler = QuantityTypeHandler.class),
+            @Result(column = "unit_price", property = "unitPrice", typeHandler = MoneyTypeHandler.class),
+            @Result(column = "total_price", property = "totalPrice", typeHandler = MoneyTypeHandler.class)
+    })
+    Cursor<Order> streamOrders();
+
+    /**
+     * 按ID顺序流式读取全部归档订单
+     */
+    @Select("SELECT id, user_id, merchant_id, product_id, quantity, unit_price, total_price, status, created_at, version "
+            + "FROM orders_archive ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultMap("bulkOrderRow")
+    Cursor<Order> streamArchivedOrders();
+
+    /**
+     * 按ID顺序流式读取全部用户账户
+     */
+    @Select("SELECT id, username, balance, version FROM user_accounts ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @Results({
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "balance", property = "balance", typeHandler = MoneyTypeHandler.class)
+    })
+    Cursor<UserAccount> streamUsers();
+
+    /**
+     * 按ID顺序流式读取全部商家账户
+     */
+    @Select("SELECT id, name, balance, version FROM merchant_accounts ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @Results({
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "balance", property = "balance", typeHandler = MoneyTypeHandler.class)
+    })
+    Cursor<MerchantAccount> streamMerchants();
+
+    /**
+     * 流式读取全部用户名
+     */
+    @Select("SELECT username FROM user_accounts")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    Cursor<String> streamUsernames();
+
+    /**
+     * 流式读取全部 SKU
+     */
+    @Select("SELECT sku FROM products")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    Cursor<String> streamSkus();
+}
@@ -0,0 +1,38 @@
+package com.example.tradingsystem.repository;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 内存余额账本的事务登记Mapper
+ *
+ * <p>账本在数据库事务提交前写入一行，与订单等数据一起提交或回滚；
+ * 预写日志中缺少提交标记的事务在恢复时按这里是否有登记判断是否已提交。
+ */
+@Mapper
+public interface LedgerTransactionRepository {
+
+    @Insert("INSERT INTO ledger_transactions (tx_id) VALUES (#{txId})")
+    int insert(@Param("txId") long txId);
+
+    /**
+     * @return 给定事务中已提交（有登记）的事务ID
+     */
+    @Select({"<script>",
+            "SELECT tx_id FROM ledger_transactions WHERE tx_id IN",
+            "<foreach collection='txIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<Long> selectCommitted(@Param("txIds") Collection<Long> txIds);
+
+    /**
+     * 删除检查点之前的登记，恢复时不再需要
+     */
+    @Delete("DELETE FROM ledger_transactions WHERE tx_id <= #{txId}")
+    int deleteUpTo(@Param("txId") long txId);
+}
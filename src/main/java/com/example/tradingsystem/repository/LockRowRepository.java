@@ -0,0 +1,31 @@
+package com.example.tradingsystem.repository;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 数据库行锁Mapper
+ *
+ * <p>锁服务降级时，在当前事务内锁住锁键对应的行，跨节点串行化；行锁在事务结束时释放。
+ * 加锁使用 NOWAIT，行被占用时立即失败，由调用方按自己的等待时间重试，而不是等满 innodb_lock_wait_timeout。
+ */
+@Mapper
+public interface LockRowRepository {
+
+    /**
+     * 插入锁键对应的行（锁键首次使用时）
+     */
+    @Insert("INSERT IGNORE INTO lock_rows (lock_key) VALUES (#{key})")
+    int ensureRow(@Param("key") String key);
+
+    /**
+     * 锁住锁键对应的行，直到当前事务结束
+     *
+     * @return 锁键，行不存在时返回 null
+     * @throws org.springframework.dao.PessimisticLockingFailureException 如果行已被其他事务锁住
+     */
+    @Select("SELECT lock_key FROM lock_rows WHERE lock_key = #{key} FOR UPDATE NOWAIT")
+    String lockRow(@Param("key") String key);
+}
@@ -2,7 +2,15 @@ package com.example.tradingsystem.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 商家账户Mapper
@@ -11,10 +19,43 @@ import org.apache.ibatis.annotations.Mapper;
  * <ul>
  *   <li>继承BaseMapper，自动提供基本的CRUD操作</li>
  *   <li>提供根据商家名称查询的方法（通过Service层使用LambdaQueryWrapper实现）</li>
+ *   <li>提供余额的原子入账方法（不经过读-改-写）</li>
+ *   <li>提供内存余额账本检查点使用的批量余额写回</li>
  * </ul>
  */
 @Mapper
 public interface MerchantAccountRepository extends BaseMapper<MerchantAccount> {
-}
 
+    /**
+     * 原子增加商家余额
+     *
+     * @return 影响行数
+     */
+    @Update("UPDATE merchant_accounts SET balance = balance + #{amount}, version = version + 1 "
+            + "WHERE id = #{id}")
+    int creditBalance(@Param("id") Long id, @Param("amount") BigDecimal amount);
 
+    /**
+     * 批量创建不存在的商家（初始余额为0），已存在的名称被忽略
+     *
+     * @return 新建的商家数
+     */
+    @Insert({"<script>",
+            "INSERT IGNORE INTO merchant_accounts (name, balance, version) VALUES",
+            "<foreach collection='names' item='name' separator=','>(#{name}, 0, 0)</foreach>",
+            "</script>"})
+    int insertMissing(@Param("names") Collection<String> names);
+
+    /**
+     * 批量写回余额（内存余额账本的检查点），一条语句更新多个账户
+     *
+     * @return 更新的行数
+     */
+    @Update({"<script>",
+            "UPDATE merchant_accounts SET version = version + 1, balance = CASE id",
+            "<foreach collection='balances' item='b'>WHEN #{b.id} THEN #{b.balance} </foreach>",
+            "END WHERE id IN",
+            "<foreach collection='balances' item='b' open='(' separator=',' close=')'>#{b.id}</foreach>",
+            "</script>"})
+    int updateBalances(@Param("balances") List<AccountBalance> balances);
+}
@@ -0,0 +1,14 @@
+package com.example.tradingsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 分片发件箱中一笔待入账的商家收入
+ *
+ * @param id 发件箱记录ID（分片内唯一）
+ * @param orderId 订单ID（各分片区间错开，全局唯一）
+ * @param merchantId 商家ID
+ * @param amount 入账金额
+ */
+public record MerchantCredit(Long id, Long orderId, Long merchantId, BigDecimal amount) {
+}
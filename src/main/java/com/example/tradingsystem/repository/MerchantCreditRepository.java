@@ -0,0 +1,74 @@
+package com.example.tradingsystem.repository;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 分片模式下商家入账的Mapper
+ *
+ * <p>订单和用户扣款在用户分片上提交，商家入账通过发件箱异步完成：
+ * <ul>
+ *   <li>分片库：merchant_credit_outbox，与订单在同一事务中写入</li>
+ *   <li>目录库：merchant_credit_applied，按 (分片, 订单ID) 去重，保证重复投递只入账一次</li>
+ * </ul>
+ */
+@Mapper
+public interface MerchantCreditRepository {
+
+    /**
+     * 写入一笔待入账记录（分片库）
+     */
+    @Insert("INSERT INTO merchant_credit_outbox (sale_id, order_id, merchant_id, amount, applied) "
+            + "VALUES (#{saleId}, #{orderId}, #{merchantId}, #{amount}, FALSE)")
+    int insertPending(@Param("saleId") String saleId, @Param("orderId") Long orderId,
+                      @Param("merchantId") Long merchantId, @Param("amount") BigDecimal amount);
+
+    /**
+     * 按ID顺序读取待入账记录（分片库）
+     */
+    @Select("SELECT id, order_id, merchant_id, amount FROM merchant_credit_outbox "
+            + "WHERE applied = FALSE ORDER BY id LIMIT #{limit}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = Long.class),
+            @Arg(column = "order_id", javaType = Long.class),
+            @Arg(column = "merchant_id", javaType = Long.class),
+            @Arg(column = "amount", javaType = BigDecimal.class)
+    })
+    List<MerchantCredit> selectPending(@Param("limit") int limit);
+
+    /**
+     * 标记记录已入账（分片库）
+     */
+    @Update({"<script>",
+            "UPDATE merchant_credit_outbox SET applied = TRUE WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int markApplied(@Param("ids") List<Long> ids);
+
+    /**
+     * 按商家汇总待入账金额（分片库）
+     */
+    @Select("SELECT merchant_id, SUM(amount) AS amount FROM merchant_credit_outbox "
+            + "WHERE applied = FALSE GROUP BY merchant_id")
+    @ConstructorArgs({
+            @Arg(column = "merchant_id", javaType = Long.class),
+            @Arg(column = "amount", javaType = BigDecimal.class)
+    })
+    List<MerchantCreditTotal> sumPendingByMerchant();
+
+    /**
+     * 登记一笔已入账的订单（目录库）
+     *
+     * @return 1 表示首次登记，0 表示已经入账过
+     */
+    @Insert("INSERT IGNORE INTO merchant_credit_applied (shard, order_id) VALUES (#{shard}, #{orderId})")
+    int insertApplied(@Param("shard") String shard, @Param("orderId") Long orderId);
+}
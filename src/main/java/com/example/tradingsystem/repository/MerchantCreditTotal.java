@@ -0,0 +1,12 @@
+package com.example.tradingsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 某个商家尚未入账的收入合计
+ *
+ * @param merchantId 商家ID
+ * @param amount 合计金额
+ */
+public record MerchantCreditTotal(Long merchantId, BigDecimal amount) {
+}
@@ -1,20 +1,73 @@
 package com.example.tradingsystem.repository;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.infrastructure.mybatis.MoneyTypeHandler;
+import com.example.tradingsystem.infrastructure.mybatis.QuantityTypeHandler;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 订单Mapper
- * 
+ *
  * <p>提供订单的数据库操作：
  * <ul>
  *   <li>继承BaseMapper，自动提供基本的CRUD操作</li>
  *   <li>支持根据ID查询、保存、更新、删除等操作</li>
+ *   <li>提供归档表 orders_archive 的迁移和查询方法，归档行同样映射为 {@link Order}</li>
  * </ul>
  */
 @Mapper
 public interface OrderRepository extends BaseMapper<Order> {
-}
 
+    /**
+     * @return orders 表中最小的订单ID，表为空时返回 null
+     */
+    @Select("SELECT MIN(id) FROM orders")
+    Long selectMinId();
+
+    /**
+     * 把指定订单复制到归档表
+     *
+     * @return 复制的行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO orders_archive (id, user_id, merchant_id, product_id, quantity, unit_price, total_price,",
+            "status, created_at, version)",
+            "SELECT id, user_id, merchant_id, product_id, quantity, unit_price, total_price, status, created_at, version",
+            "FROM orders WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int copyToArchive(@Param("ids") List<Long> ids);
 
+    /**
+     * 按ID查询归档订单
+     *
+     * @return 归档订单，不存在时返回 null
+     */
+    @Select("SELECT id, user_id, merchant_id, product_id, quantity, unit_price, total_price, status, created_at, version "
+            + "FROM orders_archive WHERE id = #{id}")
+    @Results(id = "orderRow", value = {
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "quantity", property = "quantity", typeHandler = QuantityTypeHandler.class),
+            @Result(column = "unit_price", property = "unitPrice", typeHandler = MoneyTypeHandler.class),
+            @Result(column = "total_price", property = "totalPrice", typeHandler = MoneyTypeHandler.class)
+    })
+    Order selectArchivedById(@Param("id") Long id);
+
+    /**
+     * 按条件查询归档订单，条件构造方式与 orders 表相同
+     */
+    @Select("SELECT ${ew.sqlSelect} FROM orders_archive ${ew.customSqlSegment}")
+    @ResultMap("orderRow")
+    List<Order> selectArchivedList(@Param(Constants.WRAPPER) Wrapper<Order> wrapper);
+}
@@ -0,0 +1,15 @@
+package com.example.tradingsystem.repository;
+
+import java.time.Instant;
+
+/**
+ * 分片模式下一笔已在目录库扣减库存、尚未确认分片结果的销售
+ *
+ * @param id 销售ID，同时写入分片发件箱，用于判断分片事务是否提交
+ * @param shard 用户所在的分片
+ * @param productId 商品ID
+ * @param quantity 数量
+ * @param createdAt 扣减库存的时间
+ */
+public record PendingSale(String id, String shard, Long productId, long quantity, Instant createdAt) {
+}
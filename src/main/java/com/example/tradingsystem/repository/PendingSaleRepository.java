@@ -0,0 +1,46 @@
+package com.example.tradingsystem.repository;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 分片模式下待确认销售的Mapper（目录库）
+ *
+ * <p>与 {@link ProductRepository#recordSale(Long, long)} 在同一个目录库事务中写入，
+ * 分片事务确认提交后删除；删除成功的一方（下单线程或对账任务）负责后续处理，保证同一笔销售只撤销一次。
+ */
+@Mapper
+public interface PendingSaleRepository {
+
+    @Insert("INSERT INTO pending_sales (id, shard, product_id, quantity, created_at) "
+            + "VALUES (#{id}, #{shard}, #{productId}, #{quantity}, #{createdAt})")
+    int insert(PendingSale sale);
+
+    /**
+     * 读取早于指定时间的待确认销售
+     */
+    @Select("SELECT id, shard, product_id, quantity, created_at FROM pending_sales "
+            + "WHERE created_at < #{before} ORDER BY created_at LIMIT #{limit}")
+    @ConstructorArgs({
+            @Arg(column = "id", javaType = String.class),
+            @Arg(column = "shard", javaType = String.class),
+            @Arg(column = "product_id", javaType = Long.class),
+            @Arg(column = "quantity", javaType = long.class),
+            @Arg(column = "created_at", javaType = Instant.class)
+    })
+    List<PendingSale> selectOlderThan(@Param("before") Instant before, @Param("limit") int limit);
+
+    /**
+     * @return 1 表示由本次调用认领，0 表示已被其他调用处理
+     */
+    @Delete("DELETE FROM pending_sales WHERE id = #{id}")
+    int deleteById(@Param("id") String id);
+}
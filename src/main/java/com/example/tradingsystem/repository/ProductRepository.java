@@ -2,7 +2,13 @@ package com.example.tradingsystem.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.tradingsystem.domain.product.Product;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 商品Mapper
@@ -11,10 +17,80 @@ import org.apache.ibatis.annotations.Mapper;
  * <ul>
  *   <li>继承BaseMapper，自动提供基本的CRUD操作</li>
  *   <li>提供根据SKU查询的方法（通过Service层使用LambdaQueryWrapper实现）</li>
+ *   <li>提供库存的原子增减方法（不经过读-改-写，供库存配额等高并发路径使用）</li>
  * </ul>
  */
 @Mapper
 public interface ProductRepository extends BaseMapper<Product> {
-}
 
+    /**
+     * 查询当前库存
+     *
+     * @return 库存数量，商品不存在时返回 null
+     */
+    @Select("SELECT stock_quantity FROM products WHERE id = #{id}")
+    Long selectStockQuantity(@Param("id") Long id);
+
+    /**
+     * 库存充足时原子扣减库存
+     *
+     * @return 影响行数，库存不足时为 0
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity - #{quantity}, version = version + 1 "
+            + "WHERE id = #{id} AND stock_quantity >= #{quantity}")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") long quantity);
+
+    /**
+     * 原子增加库存
+     *
+     * @return 影响行数
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity + #{quantity}, version = version + 1 "
+            + "WHERE id = #{id}")
+    int increaseStock(@Param("id") Long id, @Param("quantity") long quantity);
 
+    /**
+     * 原子增加已售数量
+     *
+     * @return 影响行数
+     */
+    @Update("UPDATE products SET sold_quantity = sold_quantity + #{quantity}, version = version + 1 "
+            + "WHERE id = #{id}")
+    int increaseSoldQuantity(@Param("id") Long id, @Param("quantity") long quantity);
+
+    /**
+     * 库存充足时原子记录一笔销售：扣减库存并增加已售数量
+     *
+     * @return 影响行数，库存不足时为 0
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity - #{quantity}, "
+            + "sold_quantity = sold_quantity + #{quantity}, version = version + 1 "
+            + "WHERE id = #{id} AND stock_quantity >= #{quantity}")
+    int recordSale(@Param("id") Long id, @Param("quantity") long quantity);
+
+    /**
+     * 撤销 {@link #recordSale(Long, long)}（补偿）
+     *
+     * @return 影响行数
+     */
+    @Update("UPDATE products SET stock_quantity = stock_quantity + #{quantity}, "
+            + "sold_quantity = sold_quantity - #{quantity}, version = version + 1 WHERE id = #{id}")
+    int revertSale(@Param("id") Long id, @Param("quantity") long quantity);
+
+    /**
+     * 多行 upsert 商品库存：商品不存在时创建，存在且属于同一商家时累加库存，属于其他商家时整行保持不变
+     *
+     * @param rows 每个 SKU 一行，按 SKU 排序
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO products (sku, name, price, merchant_id, stock_quantity, sold_quantity, version) VALUES",
+            "<foreach collection='rows' item='row' separator=','>",
+            "(#{row.sku}, #{row.name}, #{row.price}, #{row.merchantId}, #{row.quantity}, 0, 0)",
+            "</foreach>",
+            "ON DUPLICATE KEY UPDATE stock_quantity = CASE WHEN merchant_id = VALUES(merchant_id)",
+            "THEN stock_quantity + VALUES(stock_quantity) ELSE stock_quantity END,",
+            "version = CASE WHEN merchant_id = VALUES(merchant_id) THEN version + 1 ELSE version END",
+            "</script>"})
+    int upsertStock(@Param("rows") List<ProductStockUpsert> rows);
+}
@@ -0,0 +1,22 @@
+package com.example.tradingsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品库存 upsert 的一行参数
+ *
+ * @param sku 商品SKU
+ * @param name 商品名称（仅新建时使用）
+ * @param price 商品价格（仅新建时使用）
+ * @param merchantId 商家ID
+ * @param quantity 增加的库存数量
+ */
+public record ProductStockUpsert(String sku, String name, BigDecimal price, Long merchantId, long quantity) {
+
+    /**
+     * @return 库存数量累加后的新行
+     */
+    public ProductStockUpsert plus(long more) {
+        return new ProductStockUpsert(sku, name, price, merchantId, quantity + more);
+    }
+}
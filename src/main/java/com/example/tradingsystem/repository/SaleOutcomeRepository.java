@@ -0,0 +1,42 @@
+package com.example.tradingsystem.repository;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 分片模式下销售结果栅栏的Mapper（分片库）
+ *
+ * <p>每笔销售在用户分片上最多有一行结果，由先写入的一方决定：
+ * <ul>
+ *   <li>下单事务在分片事务开头写入 {@link #COMMITTED}，与订单一起提交或回滚</li>
+ *   <li>对账任务在撤销库存前写入 {@link #ABORTED}；下单事务已写入但未提交时，写入等待其结束</li>
+ * </ul>
+ * 对账任务写入 ABORTED 之后，迟到的下单事务会因主键冲突回滚，不会在库存撤销后再提交。
+ */
+@Mapper
+public interface SaleOutcomeRepository {
+
+    String COMMITTED = "COMMITTED";
+    String ABORTED = "ABORTED";
+
+    /**
+     * 下单事务登记销售
+     *
+     * @throws org.springframework.dao.DuplicateKeyException 如果对账任务已判定该销售中止
+     */
+    @Insert("INSERT INTO sale_outcomes (sale_id, outcome) VALUES (#{saleId}, 'COMMITTED')")
+    int insertCommitted(@Param("saleId") String saleId);
+
+    /**
+     * 对账任务判定销售中止，已有结果时不覆盖
+     *
+     * @return 1 表示本次写入了中止结果，0 表示已有结果
+     */
+    @Insert("INSERT IGNORE INTO sale_outcomes (sale_id, outcome) VALUES (#{saleId}, 'ABORTED')")
+    int insertAbortedIfAbsent(@Param("saleId") String saleId);
+
+    @Select("SELECT outcome FROM sale_outcomes WHERE sale_id = #{saleId}")
+    String selectOutcome(@Param("saleId") String saleId);
+}
@@ -0,0 +1,45 @@
+package com.example.tradingsystem.repository;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.StatementType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 单次调用完成交易的Mapper
+ *
+ * <p>调用存储过程 execute_trade，在一次数据库往返中完成：
+ * <ul>
+ *   <li>按用户名和 SKU 解析用户、商品和商家，商品行加锁后读取单价</li>
+ *   <li>条件扣减库存（库存不足时不修改）</li>
+ *   <li>条件扣减用户余额（余额不足时回补库存）</li>
+ *   <li>商家入账并插入已完成的订单</li>
+ * </ul>
+ * MySQL 的存储过程定义见 {@code db/mysql/execute_trade.sql}；必须在调用方事务内执行。
+ */
+@Mapper
+public interface TradeExecutionRepository {
+
+    @Select("{CALL execute_trade(#{username}, #{sku}, #{quantity}, #{createdAt})}")
+    // 过程会写数据：每次调用前清空一级缓存，且结果不进入缓存，避免同一事务内相同参数的调用被缓存命中
+    @Options(statementType = StatementType.CALLABLE, flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    @ConstructorArgs({
+            @Arg(column = "status", javaType = int.class),
+            @Arg(column = "order_id", javaType = Long.class),
+            @Arg(column = "user_id", javaType = Long.class),
+            @Arg(column = "merchant_id", javaType = Long.class),
+            @Arg(column = "product_id", javaType = Long.class),
+            @Arg(column = "unit_price", javaType = BigDecimal.class),
+            @Arg(column = "total_price", javaType = BigDecimal.class)
+    })
+    TradeExecutionResult executeTrade(@Param("username") String username,
+                                      @Param("sku") String sku,
+                                      @Param("quantity") long quantity,
+                                      @Param("createdAt") Instant createdAt);
+}
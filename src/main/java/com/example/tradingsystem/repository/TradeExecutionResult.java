@@ -0,0 +1,24 @@
+package com.example.tradingsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 存储过程 execute_trade 的返回行
+ *
+ * @param status 执行结果，见本类常量
+ * @param orderId 新订单ID（仅成功时有值）
+ * @param userId 用户ID（用户不存在时为 null）
+ * @param merchantId 商家ID（商品不存在时为 null）
+ * @param productId 商品ID（商品不存在时为 null）
+ * @param unitPrice 成交单价
+ * @param totalPrice 订单总价
+ */
+public record TradeExecutionResult(int status, Long orderId, Long userId, Long merchantId, Long productId,
+                                   BigDecimal unitPrice, BigDecimal totalPrice) {
+
+    public static final int OK = 0;
+    public static final int USER_NOT_FOUND = 1;
+    public static final int PRODUCT_NOT_FOUND = 2;
+    public static final int INSUFFICIENT_STOCK = 3;
+    public static final int INSUFFICIENT_BALANCE = 4;
+}
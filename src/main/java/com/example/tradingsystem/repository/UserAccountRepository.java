@@ -2,7 +2,14 @@ package com.example.tradingsystem.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.tradingsystem.domain.user.UserAccount;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * 用户账户Mapper
@@ -11,10 +18,32 @@ import org.apache.ibatis.annotations.Mapper;
  * <ul>
  *   <li>继承BaseMapper，自动提供基本的CRUD操作</li>
  *   <li>提供根据用户名查询的方法（通过Service层使用LambdaQueryWrapper实现）</li>
+ *   <li>提供充值的原子 upsert 方法（不经过读-改-写）</li>
+ *   <li>提供内存余额账本检查点使用的批量余额写回</li>
  * </ul>
  */
 @Mapper
 public interface UserAccountRepository extends BaseMapper<UserAccount> {
-}
 
+    /**
+     * 原子充值：账户不存在时以充值金额为初始余额创建，存在时在原余额上累加
+     *
+     * @return 影响行数（MySQL 语义：新建为 1，累加为 2）
+     */
+    @Insert("INSERT INTO user_accounts (username, balance, version) VALUES (#{username}, #{amount}, 0) "
+            + "ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance), version = version + 1")
+    int upsertDeposit(@Param("username") String username, @Param("amount") BigDecimal amount);
 
+    /**
+     * 批量写回余额（内存余额账本的检查点），一条语句更新多个账户
+     *
+     * @return 更新的行数
+     */
+    @Update({"<script>",
+            "UPDATE user_accounts SET version = version + 1, balance = CASE id",
+            "<foreach collection='balances' item='b'>WHEN #{b.id} THEN #{b.balance} </foreach>",
+            "END WHERE id IN",
+            "<foreach collection='balances' item='b' open='(' separator=',' close=')'>#{b.id}</foreach>",
+            "</script>"})
+    int updateBalances(@Param("balances") List<AccountBalance> balances);
+}
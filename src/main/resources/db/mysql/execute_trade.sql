@@ -0,0 +1,73 @@
+-- 单次往返完成交易的存储过程（trading.trade-execution.single-call=true 时使用）
+-- 通过 mysql 客户端安装：mysql tradingdb < execute_trade.sql
+-- 返回一行：status(0 成功 / 1 用户不存在 / 2 商品不存在 / 3 库存不足 / 4 余额不足), order_id, user_id,
+--           merchant_id, product_id, unit_price, total_price
+-- 测试使用的 H2 实现（H2TradeProcedure）逐条对应这里的 SELECT/UPDATE/INSERT 语句，由 H2TradeProcedureTest 对照检查
+
+DROP PROCEDURE IF EXISTS execute_trade;
+
+DELIMITER //
+
+CREATE PROCEDURE execute_trade(IN p_username VARCHAR(255),
+                               IN p_sku VARCHAR(255),
+                               IN p_quantity BIGINT,
+                               IN p_created_at TIMESTAMP(6))
+BEGIN
+    DECLARE v_status INT DEFAULT 0;
+    DECLARE v_order_id BIGINT DEFAULT NULL;
+    DECLARE v_user_id BIGINT DEFAULT NULL;
+    DECLARE v_merchant_id BIGINT DEFAULT NULL;
+    DECLARE v_product_id BIGINT DEFAULT NULL;
+    DECLARE v_price DECIMAL(19, 2) DEFAULT NULL;
+    DECLARE v_total DECIMAL(19, 2) DEFAULT NULL;
+
+    SELECT id INTO v_user_id FROM user_accounts WHERE username = p_username;
+    -- 先锁定商品行再读单价，收取的单价与随后扣减库存时的行一致，不会是并发改价前的旧值
+    SELECT id, merchant_id, price INTO v_product_id, v_merchant_id, v_price FROM products WHERE sku = p_sku FOR UPDATE;
+
+    IF v_user_id IS NULL THEN
+        SET v_status = 1;
+    ELSEIF v_product_id IS NULL THEN
+        SET v_status = 2;
+    ELSE
+        SET v_total = v_price * p_quantity;
+
+        UPDATE products
+           SET stock_quantity = stock_quantity - p_quantity,
+               sold_quantity = sold_quantity + p_quantity,
+               version = version + 1
+         WHERE id = v_product_id AND stock_quantity >= p_quantity;
+
+        IF ROW_COUNT() = 0 THEN
+            SET v_status = 3;
+        ELSE
+            UPDATE user_accounts
+               SET balance = balance - v_total, version = version + 1
+             WHERE id = v_user_id AND balance >= v_total;
+
+            IF ROW_COUNT() = 0 THEN
+                UPDATE products
+                   SET stock_quantity = stock_quantity + p_quantity,
+                       sold_quantity = sold_quantity - p_quantity,
+                       version = version + 1
+                 WHERE id = v_product_id;
+                SET v_status = 4;
+            ELSE
+                UPDATE merchant_accounts
+                   SET balance = balance + v_total, version = version + 1
+                 WHERE id = v_merchant_id;
+
+                INSERT INTO orders (user_id, merchant_id, product_id, quantity, unit_price, total_price,
+                                    status, created_at, version)
+                VALUES (v_user_id, v_merchant_id, v_product_id, p_quantity, v_price, v_total,
+                        'COMPLETED', p_created_at, 0);
+                SET v_order_id = LAST_INSERT_ID();
+            END IF;
+        END IF;
+    END IF;
+
+    SELECT v_status AS status, v_order_id AS order_id, v_user_id AS user_id, v_merchant_id AS merchant_id,
+           v_product_id AS product_id, v_price AS unit_price, v_total AS total_price;
+END //
+
+DELIMITER ;
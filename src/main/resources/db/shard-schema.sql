@@ -0,0 +1,47 @@
+-- 用户分片的表结构（trading.sharding.enabled=true 时每个分片库执行一次）
+-- 各分片的 orders 自增ID从 trading.sharding.shards[].order-id-start 开始，区间互不重叠，
+-- 启动时由 ShardOrderIdRanges 检查并设置自增起点；商品和商家在目录库中，因此没有对应的外键
+
+CREATE TABLE IF NOT EXISTS user_accounts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    balance DECIMAL(19, 2) NOT NULL,
+    version BIGINT DEFAULT 0,
+    CONSTRAINT uk_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    merchant_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    unit_price DECIMAL(19, 2) NOT NULL,
+    total_price DECIMAL(19, 2) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    version BIGINT DEFAULT 0,
+    INDEX idx_orders_user_created (user_id, created_at, id, status, merchant_id, product_id, quantity, total_price),
+    INDEX idx_orders_merchant_created (merchant_id, created_at, id, status, user_id, product_id, quantity, total_price),
+    CONSTRAINT fk_order_user FOREIGN KEY (user_id) REFERENCES user_accounts(id)
+);
+
+-- 商家入账发件箱：与订单同事务写入，由中继异步入账到目录库；
+-- sale_id 对应目录库 pending_sales，记录存在即说明该笔销售的分片事务已提交
+CREATE TABLE IF NOT EXISTS merchant_credit_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sale_id VARCHAR(36) NOT NULL,
+    order_id BIGINT NOT NULL,
+    merchant_id BIGINT NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    applied BOOLEAN NOT NULL,
+    INDEX idx_outbox_pending (applied, id),
+    UNIQUE INDEX uk_outbox_sale (sale_id)
+);
+
+-- 销售结果栅栏：下单事务在分片上写入 COMMITTED，对账任务撤销前写入 ABORTED，主键冲突保证只有一方成功；
+-- 下单事务未提交时对账任务的写入等待其行锁，因此读到的结果一定是分片上的最终结果
+CREATE TABLE IF NOT EXISTS sale_outcomes (
+    sale_id VARCHAR(36) PRIMARY KEY,
+    outcome VARCHAR(16) NOT NULL
+);
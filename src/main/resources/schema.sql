@@ -28,6 +28,8 @@ CREATE TABLE IF NOT EXISTS products (
     stock_quantity BIGINT NOT NULL,
     sold_quantity BIGINT NOT NULL,
     version BIGINT DEFAULT 0,
+    -- 缓存预热按 (sold_quantity, id) 倒序做键集分页
+    INDEX idx_products_sold (sold_quantity, id),
     CONSTRAINT uk_sku UNIQUE (sku),
     CONSTRAINT fk_product_merchant FOREIGN KEY (merchant_id) REFERENCES merchant_accounts(id)
 );
@@ -44,8 +46,61 @@ CREATE TABLE IF NOT EXISTS orders (
     status VARCHAR(50) NOT NULL,
     created_at TIMESTAMP NOT NULL,
     version BIGINT DEFAULT 0,
+    -- 订单历史的键集分页：按 (created_at, id) 倒序定位，status 用于过滤，
+    -- 其余列是历史查询的投影，整页从索引读出，不回表
+    INDEX idx_orders_user_created (user_id, created_at, id, status, merchant_id, product_id, quantity, total_price),
+    INDEX idx_orders_merchant_created (merchant_id, created_at, id, status, user_id, product_id, quantity, total_price),
     CONSTRAINT fk_order_user FOREIGN KEY (user_id) REFERENCES user_accounts(id),
     CONSTRAINT fk_order_merchant FOREIGN KEY (merchant_id) REFERENCES merchant_accounts(id),
     CONSTRAINT fk_order_product FOREIGN KEY (product_id) REFERENCES products(id)
 );
 
+
+-- 订单归档表（已完成/失败且超过保留期的订单，由归档任务从 orders 迁入）
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    merchant_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    unit_price DECIMAL(19, 2) NOT NULL,
+    total_price DECIMAL(19, 2) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    version BIGINT DEFAULT 0,
+    INDEX idx_orders_archive_user_created (user_id, created_at, id, status, merchant_id, product_id, quantity, total_price),
+    INDEX idx_orders_archive_merchant_created (merchant_id, created_at, id, status, user_id, product_id, quantity, total_price)
+);
+
+-- 复制心跳表（读写分离时由主库定期写入，从副本读取以测量复制延迟）
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at TIMESTAMP(6) NOT NULL
+);
+
+-- 分片模式下已入账的商家收入（按分片和订单ID去重，见 db/shard-schema.sql 中的发件箱）
+CREATE TABLE IF NOT EXISTS merchant_credit_applied (
+    shard VARCHAR(64) NOT NULL,
+    order_id BIGINT NOT NULL,
+    PRIMARY KEY (shard, order_id)
+);
+
+-- 分片模式下已扣减库存、尚未确认用户分片结果的销售（与扣减在同一事务写入，确认后删除）
+CREATE TABLE IF NOT EXISTS pending_sales (
+    id VARCHAR(36) PRIMARY KEY,
+    shard VARCHAR(64) NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_pending_sales_created (created_at)
+);
+
+-- 内存余额账本的事务登记（与业务数据同一事务写入，用于判断预写日志中缺少提交标记的事务是否已提交）
+CREATE TABLE IF NOT EXISTS ledger_transactions (
+    tx_id BIGINT PRIMARY KEY
+);
+
+-- 锁服务降级时的数据库行锁（每个锁键一行，在事务内 SELECT ... FOR UPDATE）
+CREATE TABLE IF NOT EXISTS lock_rows (
+    lock_key VARCHAR(191) PRIMARY KEY
+);
@@ -0,0 +1,67 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.user.UserAccount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BalanceReconciliationServiceTest {
+
+    @DynamicPropertySource
+    static void eventSourcing(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("balance-reconciliation");
+        registry.add("trading.ledger.event-sourcing.enabled", () -> "true");
+        registry.add("trading.ledger.event-sourcing.directory", () -> dir.resolve("events").toString());
+        registry.add("trading.ledger.event-sourcing.snapshot-directory", () -> dir.resolve("snapshots").toString());
+    }
+
+    @Autowired
+    private BalanceReconciliationService reconciliationService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reportsAccountsWhoseTableBalanceDivergesFromTheProjection() {
+        UserAccount account = userAccountService.deposit("reconcile-alice", new BigDecimal("30.00"));
+        UserAccount empty = userAccountService.getOrCreate("reconcile-empty");
+        // 测试之间共享数据库，只看本测试的账户
+        assertThat(reconciliationService.reconcile().mismatches())
+                .noneMatch(mismatch -> mismatch.accountId() == account.getId() || mismatch.accountId() == empty.getId());
+
+        // 模拟事件在刷盘前丢失：账户表已变化，投影没有收到事件
+        jdbcTemplate.update("UPDATE user_accounts SET balance = balance - 5 WHERE id = ?", account.getId());
+
+        BalanceReconciliation result = reconciliationService.reconcile();
+        assertThat(result.isConsistent()).isFalse();
+        assertThat(result.mismatches())
+                .filteredOn(mismatch -> mismatch.accountType() == AccountType.USER
+                        && mismatch.accountId() == account.getId())
+                .singleElement().satisfies(mismatch -> {
+                    assertThat(mismatch.databaseBalance()).isEqualByComparingTo("25.00");
+                    assertThat(mismatch.projectedBalance()).isEqualByComparingTo("30.00");
+                });
+        // 确认不一致后投影已从账户表重建
+        assertThat(result.rebuilt()).isTrue();
+        assertThat(reconciliationService.reconcile().mismatches())
+                .noneMatch(mismatch -> mismatch.accountId() == account.getId());
+
+        jdbcTemplate.update("UPDATE user_accounts SET balance = balance + 5 WHERE id = ?", account.getId());
+        assertThat(reconciliationService.reconcile().rebuilt()).isTrue();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CartOrderServiceTest {
+
+    @Autowired
+    private CartOrderService cartOrderService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantAccountRepository merchantAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void executesAllLinesWithOneUserWriteAndNettedMerchantCredits() {
+        userAccountService.deposit("cart-alice", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("cart-m1", "cart-a", "A", new BigDecimal("3.00"), 10);
+        inventoryService.addOrUpdateProductStock("cart-m1", "cart-b", "B", new BigDecimal("5.00"), 10);
+        inventoryService.addOrUpdateProductStock("cart-m2", "cart-c", "C", new BigDecimal("7.00"), 1);
+
+        List<Order> orders = cartOrderService.placeCartOrder("cart-alice", List.of(
+                new CartLine("cart-c", 1), new CartLine("cart-a", 1), new CartLine("cart-b", 2),
+                new CartLine("cart-a", 1)));
+
+        // 同一 SKU 的行合并，按 SKU 排序
+        assertThat(orders).extracting(order -> order.getProduct().getSku())
+                .containsExactly("cart-a", "cart-b", "cart-c");
+        assertThat(orders).allMatch(order -> order.getStatus() == OrderStatus.COMPLETED);
+        assertThat(product("cart-a").getStockQuantity().getValue()).isEqualTo(8);
+        assertThat(product("cart-c").getStockQuantity().getValue()).isZero();
+
+        assertThat(userAccountService.getOrCreate("cart-alice").getBalance().getAmount())
+                .isEqualByComparingTo("77.00");
+        assertThat(merchant("cart-m1").getBalance().getAmount()).isEqualByComparingTo("16.00");
+        assertThat(merchant("cart-m2").getBalance().getAmount()).isEqualByComparingTo("7.00");
+        // 用户行和商家行各只更新一次
+        assertThat(version("user_accounts", "username", "cart-alice")).isEqualTo(1);
+        assertThat(version("merchant_accounts", "name", "cart-m1")).isEqualTo(1);
+    }
+
+    @Test
+    void failingLineRollsBackTheWholeCart() {
+        userAccountService.deposit("cart-bob", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("cart-m3", "cart-d", "D", new BigDecimal("1.00"), 5);
+        inventoryService.addOrUpdateProductStock("cart-m3", "cart-e", "E", new BigDecimal("1.00"), 1);
+
+        assertThatThrownBy(() -> cartOrderService.placeCartOrder("cart-bob",
+                List.of(new CartLine("cart-d", 2), new CartLine("cart-e", 2))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient stock");
+        assertThat(product("cart-d").getStockQuantity().getValue()).isEqualTo(5);
+        assertThat(userAccountService.getOrCreate("cart-bob").getBalance().getAmount())
+                .isEqualByComparingTo("100.00");
+
+        assertThatThrownBy(() -> cartOrderService.placeCartOrder("cart-bob", List.of()))
+                .isInstanceOf(BusinessException.class);
+        // 锁已释放，同样的 SKU 可以继续下单
+        assertThat(cartOrderService.placeCartOrder("cart-bob",
+                List.of(new CartLine("cart-d", 2), new CartLine("cart-e", 1)))).hasSize(2);
+    }
+
+    private Product product(String sku) {
+        return productRepository.selectOne(new LambdaQueryWrapper<Product>().eq(Product::getSku, sku));
+    }
+
+    private MerchantAccount merchant(String name) {
+        return merchantAccountRepository.selectOne(
+                new LambdaQueryWrapper<MerchantAccount>().eq(MerchantAccount::getName, name));
+    }
+
+    private long version(String table, String column, String value) {
+        return jdbcTemplate.queryForObject("SELECT version FROM " + table + " WHERE " + column + " = ?",
+                Long.class, value);
+    }
+}
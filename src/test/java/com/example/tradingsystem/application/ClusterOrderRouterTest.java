@@ -0,0 +1,141 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.TradingSystemApplication;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.infrastructure.cluster.ClusterMembership;
+import com.example.tradingsystem.interfaces.cluster.ClusterPeerServer;
+import com.example.tradingsystem.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 两个节点在同一个 JVM 中运行：测试上下文为节点 a，另外启动一个上下文作为节点 b，
+ * 通过共享目录注册成员，共用同一个 H2 内存库
+ */
+@SpringBootTest(properties = {
+        "trading.cluster.enabled=true",
+        "trading.cluster.node-id=a",
+        "trading.cluster.coordinator=directory",
+        "trading.cluster.directory=target/test-cluster",
+        "trading.cluster.bind-address=127.0.0.1",
+        "trading.cluster.port=0",
+        "trading.cluster.heartbeat-interval-ms=100",
+        "trading.cluster.member-ttl=1s"
+})
+class ClusterOrderRouterTest {
+
+    private static final String[] NODE_B_PROPERTIES = {
+            "trading.cluster.enabled=true",
+            "trading.cluster.node-id=b",
+            "trading.cluster.coordinator=directory",
+            "trading.cluster.directory=target/test-cluster",
+            "trading.cluster.bind-address=127.0.0.1",
+            "trading.cluster.port=0",
+            "trading.cluster.heartbeat-interval-ms=100",
+            "trading.cluster.member-ttl=1s"
+    };
+
+    @Autowired
+    private ClusterOrderRouter router;
+
+    @Autowired
+    private ClusterMembership membership;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private ConfigurableApplicationContext nodeB;
+
+    @AfterEach
+    void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void forwardsToOwnerAndHandsOverOnJoinAndLeave() throws Exception {
+        await(() -> membership.members().size() == 1);
+        nodeB = new SpringApplicationBuilder(TradingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(NODE_B_PROPERTIES)
+                .run();
+        ClusterMembership membershipB = nodeB.getBean(ClusterMembership.class);
+        await(() -> membership.members().size() == 2 && membershipB.members().size() == 2);
+
+        String sku = skuOwnedBy("b");
+        userAccountService.deposit("cluster-user", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("cluster-merchant", sku, "Clustered", new BigDecimal("1.00"), 50);
+        assertThat(membership.isLocal(sku)).isFalse();
+        assertThat(membershipB.isLocal(sku)).isTrue();
+
+        // b 刚获得该 SKU：a 上进行中的下单结束前，b 不能开始处理
+        assertThat(membership.localLock().tryLock(OrderService.lockKey(sku), 1, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Order> handedOver = CompletableFuture.supplyAsync(
+                () -> nodeB.getBean(ClusterOrderRouter.class).placeOrder("cluster-user", sku, 1));
+        Thread.sleep(300);
+        assertThat(handedOver).isNotDone();
+        membership.localLock().unlock(OrderService.lockKey(sku));
+        assertThat(handedOver.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(OrderStatus.COMPLETED);
+
+        // a 上的请求转发给 b 执行
+        ClusterPeerServer serverB = nodeB.getBean(ClusterPeerServer.class);
+        long handledBefore = serverB.handledOrders();
+        Order forwarded = router.placeOrder("cluster-user", sku, 2);
+        assertThat(forwarded.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(forwarded.getTotalPrice().getAmount()).isEqualByComparingTo("2.00");
+        assertThat(orderRepository.selectById(forwarded.getId())).isNotNull();
+        assertThat(serverB.handledOrders()).isEqualTo(handledBefore + 1);
+        assertThat(router.forwardedOrders()).isPositive();
+
+        // 归属节点上的失败按原异常类型返回
+        assertThatThrownBy(() -> router.placeOrder("cluster-user", sku, 1000))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> router.placeOrder("cluster-nobody", sku, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // b 离开后 a 接管
+        nodeB.close();
+        nodeB = null;
+        await(() -> membership.members().size() == 1);
+        assertThat(membership.isLocal(sku)).isTrue();
+        assertThat(router.placeOrder("cluster-user", sku, 1).getStatus()).isEqualTo(OrderStatus.COMPLETED);
+    }
+
+    private String skuOwnedBy(String nodeId) {
+        for (int i = 0; ; i++) {
+            String sku = "cluster-sku-" + i;
+            if (membership.ownerOf(sku).nodeId().equals(nodeId)) {
+                return sku;
+            }
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.user.UserAccount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "trading.deposit.coalescing.enabled=true")
+class DepositCoalescerTest {
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private DepositCoalescer depositCoalescer;
+
+    @Test
+    void concurrentDepositsAreNeverLost() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<UserAccount>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String username = i % 2 == 0 ? "payroll-a" : "payroll-b";
+                results.add(pool.submit(() -> userAccountService.deposit(username, new BigDecimal("1.50"))));
+            }
+            for (Future<UserAccount> result : results) {
+                assertThat(result.get().getId()).isNotNull();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(userAccountService.getOrCreate("payroll-a").getBalance().getAmount()).isEqualByComparingTo("150.00");
+        assertThat(userAccountService.getOrCreate("payroll-b").getBalance().getAmount()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    @DirtiesContext
+    void depositsAfterShutdownAreAppliedDirectly() throws Exception {
+        depositCoalescer.close();
+
+        UserAccount account = userAccountService.deposit("payroll-late", new BigDecimal("2.00"));
+
+        assertThat(account.getBalance().getAmount()).isEqualByComparingTo("2.00");
+    }
+}
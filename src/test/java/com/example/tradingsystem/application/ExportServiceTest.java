@@ -0,0 +1,109 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class ExportServiceTest {
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ExportService exportService;
+
+    private final List<Long> placed = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        userAccountService.deposit("export-user", new BigDecimal("50.00"));
+        inventoryService.addOrUpdateProductStock("export-merchant", "export-sku", "Prod", new BigDecimal("2.50"), 10);
+        for (int i = 0; i < 3; i++) {
+            placed.add(orderService.placeOrder("export-user", "export-sku", 1).getId());
+        }
+    }
+
+    @Test
+    void streamsOrdersInIdOrder() throws IOException {
+        RecordingSink sink = new RecordingSink();
+
+        long rows = exportService.exportOrders(sink);
+
+        assertThat(sink.columns).isEqualTo(ExportService.ORDER_COLUMNS);
+        assertThat(sink.ended).isTrue();
+        assertThat(rows).isEqualTo(sink.rows.size());
+        List<Object[]> exported = sink.rows.stream().filter(row -> placed.contains((Long) row[0])).toList();
+        assertThat(exported).extracting(row -> row[0]).containsExactlyElementsOf(placed);
+        assertThat(exported.get(0)[6]).isEqualTo(new BigDecimal("2.50"));
+        assertThat(exported.get(0)[7]).isEqualTo(OrderStatus.COMPLETED);
+    }
+
+    @Test
+    void streamsAccountBalances() throws IOException {
+        RecordingSink users = new RecordingSink();
+        RecordingSink merchants = new RecordingSink();
+
+        exportService.exportUsers(users);
+        exportService.exportMerchants(merchants);
+
+        assertThat(users.rows).filteredOn(row -> "export-user".equals(row[1]))
+                .singleElement().satisfies(row -> assertThat(row[2]).isEqualTo(new BigDecimal("42.50")));
+        assertThat(merchants.rows).filteredOn(row -> "export-merchant".equals(row[1]))
+                .singleElement().satisfies(row -> assertThat(row[2]).isEqualTo(new BigDecimal("7.50")));
+    }
+
+    @Test
+    void propagatesSinkFailureWithoutEndingExport() {
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void row(Object[] values) throws IOException {
+                throw new IOException("client gone");
+            }
+        };
+
+        assertThatThrownBy(() -> exportService.exportUsers(sink)).isInstanceOf(IOException.class)
+                .hasMessage("client gone");
+        assertThat(sink.ended).isFalse();
+    }
+
+    private static class RecordingSink implements ExportSink {
+
+        private final List<Object[]> rows = new ArrayList<>();
+        private List<String> columns;
+        private boolean ended;
+
+        @Override
+        public void begin(List<String> columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            rows.add(values.clone());
+        }
+
+        @Override
+        public void end() {
+            ended = true;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import com.example.tradingsystem.infrastructure.inventory.StockAllotmentManager;
+import com.example.tradingsystem.infrastructure.limit.ConcurrencyLimitProperties;
+import com.example.tradingsystem.infrastructure.lock.DistributedLock;
+import com.example.tradingsystem.infrastructure.lock.LockQueueProperties;
+import com.example.tradingsystem.infrastructure.lock.LockQueueRejectedException;
+import com.example.tradingsystem.infrastructure.lock.LockWaitQueue;
+import com.example.tradingsystem.interfaces.api.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderAdmissionTest {
+
+    private final HotKeyDetector hotKeyDetector = Mockito.mock(HotKeyDetector.class);
+    private final Order order = Mockito.mock(Order.class);
+
+    @Test
+    void shedsOrdersBeyondTheNodeLimit() {
+        OrderAdmission admission = new OrderAdmission(properties(), hotKeyDetector);
+
+        Order placed = admission.placeOrder("cold", () -> {
+            // 在途请求已占满节点上限
+            assertThatThrownBy(() -> admission.placeOrder("cold", () -> order))
+                    .isInstanceOf(OverloadException.class)
+                    .hasMessageContaining("Too many concurrent orders");
+            return order;
+        });
+
+        assertThat(placed).isSameAs(order);
+        assertThat(admission.limits().get(0).inFlight()).isZero();
+        assertThat(admission.limits().get(0).rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void cartOrdersShareTheNodeLimit() {
+        OrderAdmission admission = new OrderAdmission(properties(), hotKeyDetector);
+
+        admission.placeOrder("cold", () -> {
+            assertThatThrownBy(() -> admission.placeCartOrder(() -> List.of(order)))
+                    .isInstanceOf(OverloadException.class)
+                    .hasMessageContaining("Too many concurrent orders");
+            return order;
+        });
+
+        assertThat(admission.placeCartOrder(() -> List.of(order))).containsExactly(order);
+        assertThat(admission.limits().get(0).inFlight()).isZero();
+    }
+
+    @Test
+    void hotSkusHaveTheirOwnLimit() {
+        ConcurrencyLimitProperties properties = properties();
+        properties.setInitialLimit(10);
+        OrderAdmission admission = new OrderAdmission(properties, hotKeyDetector);
+        Mockito.when(hotKeyDetector.isHot("hot")).thenReturn(true);
+
+        admission.placeOrder("hot", () -> {
+            assertThatThrownBy(() -> admission.placeOrder("hot", () -> order))
+                    .hasMessageContaining("hot product hot");
+            assertThat(admission.placeOrder("cold", () -> order)).isSameAs(order);
+            return order;
+        });
+        assertThat(admission.limits()).allSatisfy(limit -> assertThat(limit.inFlight()).isZero());
+    }
+
+    @Test
+    void skuContentionLowersOnlyTheHotSkuLimit() {
+        ConcurrencyLimitProperties properties = properties();
+        properties.setInitialLimit(20);
+        properties.setHotInitialLimit(20);
+        OrderAdmission admission = new OrderAdmission(properties, hotKeyDetector);
+        Mockito.when(hotKeyDetector.isHot("hot")).thenReturn(true);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> admission.placeOrder("hot", () -> {
+                throw new ConcurrentUpdateException("System busy, please try again later");
+            })).isInstanceOf(ConcurrentUpdateException.class);
+        }
+        assertThat(admission.limits().get(0).limit()).isEqualTo(20);
+        assertThat(admission.limits().get(1).limit()).isLessThan(20);
+
+        assertThatThrownBy(() -> admission.placeOrder("cold", () -> {
+            throw new CannotCreateTransactionException("pool exhausted");
+        })).isInstanceOf(CannotCreateTransactionException.class);
+        assertThat(admission.limits().get(0).limit()).isLessThan(20);
+    }
+
+    @Test
+    void skuQueueRejectionsFromTheOrderServiceLowerOnlyTheHotSkuLimit() {
+        ConcurrencyLimitProperties properties = properties();
+        properties.setInitialLimit(20);
+        properties.setHotInitialLimit(20);
+        OrderAdmission admission = new OrderAdmission(properties, hotKeyDetector);
+        Mockito.when(hotKeyDetector.isHot("hot")).thenReturn(true);
+        LockQueueProperties queueProperties = new LockQueueProperties();
+        queueProperties.setMaxDepth(1);
+        LockWaitQueue queue = new LockWaitQueue(queueProperties, new SimpleMeterRegistry(), hotKeyDetector);
+        OrderService orderService = orderService(queue);
+
+        // 队首一直被占着，之后的下单在 SKU 队列上被拒绝，走不到加锁
+        LockWaitQueue.Ticket head = queue.enter("hot");
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertThatThrownBy(() -> admission.placeOrder("hot", () -> orderService.placeOrder("alice", "hot", 1)))
+                        .isInstanceOf(OverloadException.class)
+                        .hasCauseInstanceOf(LockQueueRejectedException.class);
+            }
+        } finally {
+            head.leave();
+        }
+
+        assertThat(admission.limits().get(0).limit()).isEqualTo(20);
+        assertThat(admission.limits().get(1).limit()).isLessThan(20);
+        assertThat(admission.limits()).allSatisfy(limit -> assertThat(limit.inFlight()).isZero());
+    }
+
+    @Test
+    void overloadMapsToTooManyRequestsWithRetryAfter() {
+        ResponseEntity<Map<String, String>> response = new GlobalExceptionHandler()
+                .handleOverload(new OverloadException("Too many concurrent orders", Duration.ofMillis(1500)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    private OrderService orderService(LockWaitQueue queue) {
+        return new OrderService(null, null, null, null, null, null,
+                Mockito.mock(DistributedLock.class), null, hotKeyDetector, Mockito.mock(StockAllotmentManager.class),
+                null, null, new TradeExecutionProperties(),
+                provider(null), provider(null), provider(null), provider(null), provider(queue), provider(null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(T bean) {
+        ObjectProvider<T> provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getIfAvailable()).thenReturn(bean);
+        return provider;
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setMinLimit(1);
+        properties.setInitialLimit(1);
+        properties.setHotInitialLimit(1);
+        return properties;
+    }
+}
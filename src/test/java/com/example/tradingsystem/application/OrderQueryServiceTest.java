@@ -0,0 +1,75 @@
+package com.example.tradingsystem.application;
+
+import com.example.tradingsystem.domain.order.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class OrderQueryServiceTest {
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    private final List<Long> placed = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        userAccountService.deposit("history-user", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("history-merchant", "history-sku", "Prod", new BigDecimal("1.00"), 10);
+        for (int i = 0; i < 5; i++) {
+            placed.add(orderService.placeOrder("history-user", "history-sku", 1).getId());
+        }
+    }
+
+    @Test
+    void pagesThroughUserHistoryWithKeysetCursor() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPage page = orderQueryService.listByUser("history-user",
+                    new OrderHistoryQuery(OrderStatus.COMPLETED, null, null, cursor, 2));
+            page.items().forEach(item -> seen.add(item.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> newestFirst = new ArrayList<>(placed);
+        Collections.reverse(newestFirst);
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void filtersMerchantHistoryByStatus() {
+        OrderPage failed = orderQueryService.listByMerchant("history-merchant",
+                new OrderHistoryQuery(OrderStatus.FAILED, null, null, null, 20));
+        assertThat(failed.items()).isEmpty();
+        assertThat(failed.nextCursor()).isNull();
+
+        assertThatThrownBy(() -> orderQueryService.listByMerchant("history-merchant",
+                new OrderHistoryQuery(null, null, null, "not-a-cursor", 20)))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.infrastructure.reservation.ReservationHolds;
+import com.example.tradingsystem.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "trading.reservation.enabled=true",
+        "trading.reservation.ttl=300ms",
+        "trading.reservation.tick-ms=20"
+})
+class ReservationServiceTest {
+
+    private static final String MERCHANT = "reservation-merchant";
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationHolds reservationHolds;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void heldStockIsUnavailableUntilConfirmedOrCancelled() {
+        userAccountService.deposit("reservation-alice", new BigDecimal("100.00"));
+        userAccountService.deposit("reservation-bob", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, "reservation-sku", "Reserved", new BigDecimal("5.00"), 10);
+
+        ReservationHolds.Hold hold = reservationService.reserve("reservation-alice", "reservation-sku", 8);
+        assertThat(hold.amount().getAmount()).isEqualByComparingTo("40.00");
+        assertThatThrownBy(() -> orderService.placeOrder("reservation-bob", "reservation-sku", 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient stock");
+        assertThatThrownBy(() -> reservationService.reserve("reservation-bob", "reservation-sku", 3))
+                .hasMessage("Insufficient stock");
+
+        Order order = reservationService.confirm(hold.id());
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(product("reservation-sku").getStockQuantity().getValue()).isEqualTo(2);
+        assertThat(reservationHolds.heldStock(product("reservation-sku").getId())).isZero();
+        assertThatThrownBy(() -> reservationService.confirm(hold.id()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        ReservationHolds.Hold cancelled = reservationService.reserve("reservation-bob", "reservation-sku", 2);
+        reservationService.cancel(cancelled.id());
+        assertThat(orderService.placeOrder("reservation-bob", "reservation-sku", 1).getStatus())
+                .isEqualTo(OrderStatus.COMPLETED);
+    }
+
+    @Test
+    void heldFundsAreUnavailableAndExpireWithTheReservation() throws InterruptedException {
+        userAccountService.deposit("reservation-carol", new BigDecimal("50.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, "reservation-a", "A", new BigDecimal("10.00"), 10);
+        inventoryService.addOrUpdateProductStock(MERCHANT, "reservation-b", "B", new BigDecimal("10.00"), 10);
+
+        ReservationHolds.Hold hold = reservationService.reserve("reservation-carol", "reservation-a", 4);
+        assertThatThrownBy(() -> orderService.placeOrder("reservation-carol", "reservation-b", 2))
+                .hasMessage("Insufficient balance");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (reservationHolds.find(hold.id()) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(reservationHolds.find(hold.id())).isNull();
+        assertThat(reservationHolds.heldFunds(hold.userId()).isPositive()).isFalse();
+        assertThatThrownBy(() -> reservationService.confirm(hold.id()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(orderService.placeOrder("reservation-carol", "reservation-b", 2).getStatus())
+                .isEqualTo(OrderStatus.COMPLETED);
+    }
+
+    @Test
+    void confirmKeepsTheHoldUntilCommitAndChargesTheReservedPrice() {
+        userAccountService.deposit("reservation-dave", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, "reservation-c", "C", new BigDecimal("5.00"), 4);
+        ReservationHolds.Hold hold = reservationService.reserve("reservation-dave", "reservation-c", 4);
+
+        // 确认所在的事务回滚：预留恢复，占用仍在
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reservationService.confirm(hold.id());
+            assertThat(reservationHolds.heldStock(hold.productId())).isEqualTo(4);
+            status.setRollbackOnly();
+        });
+        assertThat(reservationHolds.find(hold.id())).isNotNull();
+        assertThat(reservationHolds.heldStock(hold.productId())).isEqualTo(4);
+        assertThat(reservationHolds.heldFunds(hold.userId()).getAmount()).isEqualByComparingTo("20.00");
+
+        // 涨价后确认仍按预留时的价格成交
+        inventoryService.addOrUpdateProductStock(MERCHANT, "reservation-c", "C", new BigDecimal("9.00"), 1);
+        Order order = reservationService.confirm(hold.id());
+        assertThat(order.getTotalPrice().getAmount()).isEqualByComparingTo("20.00");
+        assertThat(reservationHolds.heldStock(hold.productId())).isZero();
+        assertThat(reservationHolds.heldFunds(hold.userId()).isPositive()).isFalse();
+        assertThat(userAccountService.getOrCreate("reservation-dave").getBalance().getAmount())
+                .isEqualByComparingTo("80.00");
+    }
+
+    private Product product(String sku) {
+        return productRepository.selectOne(new LambdaQueryWrapper<Product>().eq(Product::getSku, sku));
+    }
+}
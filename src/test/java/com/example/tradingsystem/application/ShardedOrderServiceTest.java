@@ -0,0 +1,266 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.shard.ShardRouter;
+import com.example.tradingsystem.infrastructure.shard.ShardingDataSourceConfig;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.PendingSale;
+import com.example.tradingsystem.repository.PendingSaleRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 目录库使用测试默认的 H2 库，另用两个独立的 H2 内存库充当用户分片；
+ * 分片表结构在建立连接时创建，启动时已存在，订单ID区间由启动检查设置
+ */
+@SpringBootTest(properties = {
+        "trading.sharding.enabled=true",
+        "trading.sharding.relay-interval-ms=3600000",
+        "trading.sharding.reconcile-interval-ms=3600000",
+        "trading.sharding.pending-sale-timeout=0s",
+        "trading.sharding.shards[0].name=s0",
+        "trading.sharding.shards[0].url=jdbc:h2:mem:shard0;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/shard-schema.sql'",
+        "trading.sharding.shards[0].username=sa",
+        "trading.sharding.shards[0].order-id-start=1",
+        "trading.sharding.shards[1].name=s1",
+        "trading.sharding.shards[1].url=jdbc:h2:mem:shard1;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/shard-schema.sql'",
+        "trading.sharding.shards[1].username=sa",
+        "trading.sharding.shards[1].order-id-start=1000000"
+})
+class ShardedOrderServiceTest {
+
+    private static final String MERCHANT = "sharded-merchant";
+    private static final String SKU = "sharded-sku";
+
+    @Autowired
+    private ShardingDataSourceConfig.ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MerchantCreditRelay merchantCreditRelay;
+
+    @Autowired
+    private PendingSaleReconciler pendingSaleReconciler;
+
+    @Autowired
+    private PendingSaleRepository pendingSaleRepository;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantAccountRepository merchantAccountRepository;
+
+    private String alice;
+    private String bob;
+
+    @BeforeEach
+    void setup() {
+        alice = userOnShard("s0");
+        bob = userOnShard("s1");
+        userAccountService.deposit(alice, new BigDecimal("100.00"));
+        userAccountService.deposit(bob, new BigDecimal("15.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, SKU, "Sharded", new BigDecimal("10.00"), 10);
+    }
+
+    @Test
+    void placesOrdersOnUserShardsAndRelaysMerchantCredit() {
+        BigDecimal merchantBefore = merchant().getBalance().getAmount();
+        BigDecimal aliceBefore = user(alice).getBalance().getAmount();
+        BigDecimal bobBefore = user(bob).getBalance().getAmount();
+        long stockBefore = product().getStockQuantity().getValue();
+
+        Order first = orderService.placeOrder(alice, SKU, 2);
+        Order second = orderService.placeOrder(bob, SKU, 1);
+
+        assertThat(first.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(user(alice).getBalance().getAmount()).isEqualByComparingTo(aliceBefore.subtract(new BigDecimal("20.00")));
+        assertThat(user(bob).getBalance().getAmount()).isEqualByComparingTo(bobBefore.subtract(new BigDecimal("10.00")));
+        assertThat(product().getStockQuantity().getValue()).isEqualTo(stockBefore - 3);
+        assertThat(shardRouter.inShard(alice, () -> orderRepository.selectById(first.getId()))).isNotNull();
+        assertThat(shardRouter.inShard(bob, () -> orderRepository.selectById(second.getId()))).isNotNull();
+        // 订单ID落在各自分片的区间内，按ID只查询所在分片
+        assertThat(first.getId()).isLessThan(1_000_000L);
+        assertThat(second.getId()).isGreaterThanOrEqualTo(1_000_000L);
+        assertThat(orderService.findById(first.getId()).getUserId()).isEqualTo(first.getUserId());
+        assertThat(orderService.findById(second.getId()).getUserId()).isEqualTo(second.getUserId());
+        assertThat(pendingSales()).isZero();
+
+        // 入账前：余额未变，但结算把分片中待入账的收入计入实际金额
+        assertThat(merchant().getBalance().getAmount()).isEqualByComparingTo(merchantBefore);
+        assertThat(settlementDiff()).isEqualByComparingTo("0.00");
+
+        assertThat(merchantCreditRelay.relay()).isEqualTo(2);
+        assertThat(merchantCreditRelay.relay()).isZero();
+        assertThat(merchant().getBalance().getAmount()).isEqualByComparingTo(merchantBefore.add(new BigDecimal("30.00")));
+        assertThat(settlementDiff()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void readsHistoryAndExportsFromTheUserShards() throws Exception {
+        Order first = orderService.placeOrder(alice, SKU, 1);
+        Order second = orderService.placeOrder(bob, SKU, 1);
+
+        OrderPage aliceHistory = orderQueryService.listByUser(alice, new OrderHistoryQuery(null, null, null, null, 10));
+        assertThat(aliceHistory.items()).extracting(OrderSummary::id).contains(first.getId())
+                .doesNotContain(second.getId());
+        assertThatThrownBy(() -> orderQueryService.listByUser("sharded-nobody",
+                new OrderHistoryQuery(null, null, null, null, 10)))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // 商家历史跨分片合并，一页一条也能翻到两个分片上的订单
+        OrderPage page = orderQueryService.listByMerchant(MERCHANT, new OrderHistoryQuery(null, null, null, null, 1));
+        OrderPage next = orderQueryService.listByMerchant(MERCHANT,
+                new OrderHistoryQuery(null, null, null, page.nextCursor(), 1));
+        assertThat(List.of(page.items().get(0).id(), next.items().get(0).id()))
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        List<Object> exportedIds = new ArrayList<>();
+        exportService.exportOrders(new ExportSink() {
+            @Override
+            public void begin(List<String> columns) {
+            }
+
+            @Override
+            public void row(Object[] values) {
+                exportedIds.add(values[0]);
+            }
+
+            @Override
+            public void end() {
+            }
+        });
+        assertThat(exportedIds).contains(first.getId(), second.getId());
+    }
+
+    @Test
+    void revertsSaleWhenShardStepFails() {
+        long stockBefore = product().getStockQuantity().getValue();
+        long soldBefore = product().getSoldQuantity().getValue();
+        BigDecimal bobBefore = user(bob).getBalance().getAmount();
+
+        assertThatThrownBy(() -> orderService.placeOrder(bob, SKU, 9))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderService.placeOrder("sharded-nobody", SKU, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(product().getStockQuantity().getValue()).isEqualTo(stockBefore);
+        assertThat(product().getSoldQuantity().getValue()).isEqualTo(soldBefore);
+        assertThat(user(bob).getBalance().getAmount()).isEqualByComparingTo(bobBefore);
+        assertThat(pendingSales()).isZero();
+    }
+
+    @Test
+    void reconcilerKeepsCommittedSalesAndRevertsLostOnes() {
+        Long productId = product().getId();
+        long stockBefore = product().getStockQuantity().getValue();
+        Instant past = Instant.now().minusSeconds(1);
+
+        // 分片已提交但应答丢失：分片上有提交结果和发件箱记录，且已由中继入账
+        String committed = UUID.randomUUID().toString();
+        shardRouter.inCatalog(() -> productRepository.recordSale(productId, 1));
+        pendingSaleRepository.insert(new PendingSale(committed, "s0", productId, 1, past));
+        JdbcTemplate shard0 = new JdbcTemplate(shardDataSources.get("s0"));
+        shard0.update("INSERT INTO sale_outcomes (sale_id, outcome) VALUES (?, 'COMMITTED')", committed);
+        shard0.update("INSERT INTO merchant_credit_outbox (sale_id, order_id, merchant_id, amount, applied) "
+                + "VALUES (?, ?, ?, ?, TRUE)", committed, -1L, merchant().getId(), new BigDecimal("10.00"));
+        merchantAccountRepository.creditBalance(merchant().getId(), new BigDecimal("10.00"));
+        // 分片从未提交：只有目录库的扣减
+        String lost = UUID.randomUUID().toString();
+        shardRouter.inCatalog(() -> productRepository.recordSale(productId, 2));
+        pendingSaleRepository.insert(new PendingSale(lost, "s1", productId, 2, past));
+
+        assertThat(pendingSaleReconciler.reconcile()).isEqualTo(1);
+        assertThat(pendingSaleReconciler.reconcile()).isZero();
+        assertThat(product().getStockQuantity().getValue()).isEqualTo(stockBefore - 1);
+        assertThat(pendingSales()).isZero();
+        // 撤销前已在分片上封住该销售，迟到的分片事务无法再提交
+        assertThat(new JdbcTemplate(shardDataSources.get("s1")).queryForObject(
+                "SELECT outcome FROM sale_outcomes WHERE sale_id = ?", String.class, lost)).isEqualTo("ABORTED");
+    }
+
+    private String userOnShard(String shard) {
+        for (int i = 0; ; i++) {
+            String username = "sharded-user-" + i;
+            if (shardRouter.shardOf(username).equals(shard)) {
+                return username;
+            }
+        }
+    }
+
+    private UserAccount user(String username) {
+        return shardRouter.inShard(username, () -> userAccountRepository.selectOne(
+                new LambdaQueryWrapper<UserAccount>().eq(UserAccount::getUsername, username)));
+    }
+
+    private Product product() {
+        return productRepository.selectOne(new LambdaQueryWrapper<Product>().eq(Product::getSku, SKU));
+    }
+
+    private MerchantAccount merchant() {
+        return merchantAccountRepository.selectOne(
+                new LambdaQueryWrapper<MerchantAccount>().eq(MerchantAccount::getName, MERCHANT));
+    }
+
+    private int pendingSales() {
+        return pendingSaleRepository.selectOlderThan(Instant.now().plusSeconds(1), 100).stream()
+                .filter(sale -> sale.productId().equals(product().getId()))
+                .toList()
+                .size();
+    }
+
+    private BigDecimal settlementDiff() {
+        return settlementService.settle().stream()
+                .filter(result -> result.merchantName().equals(MERCHANT))
+                .findFirst()
+                .orElseThrow()
+                .diff()
+                .getAmount();
+    }
+}
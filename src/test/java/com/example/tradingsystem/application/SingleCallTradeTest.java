@@ -0,0 +1,101 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "trading.trade-execution.single-call=true")
+@Transactional
+class SingleCallTradeTest {
+
+    private static final String USER = "single-call-user";
+    private static final String MERCHANT = "single-call-merchant";
+    private static final String SKU = "single-call-sku";
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantAccountRepository merchantAccountRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setup() {
+        userAccountService.deposit(USER, new BigDecimal("30.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, SKU, "Prod", new BigDecimal("10.00"), 3);
+    }
+
+    @Test
+    void executesTradeInOneCall() {
+        Order order = orderService.placeOrder(USER, SKU, 3);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(order.getTotalPrice().getAmount()).isEqualByComparingTo("30.00");
+        Order stored = orderRepository.selectById(order.getId());
+        assertThat(stored.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(stored.getQuantity().getValue()).isEqualTo(3L);
+
+        assertThat(product().getStockQuantity().getValue()).isZero();
+        assertThat(product().getSoldQuantity().getValue()).isEqualTo(3L);
+        assertThat(userAccountService.getOrCreate(USER).getBalance().getAmount()).isEqualByComparingTo("0.00");
+        assertThat(merchant().getBalance().getAmount()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void insufficientBalanceLeavesStockUntouched() {
+        userAccountService.deposit("single-call-poor", new BigDecimal("5.00"));
+
+        assertThatThrownBy(() -> orderService.placeOrder("single-call-poor", SKU, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient balance");
+
+        assertThat(product().getStockQuantity().getValue()).isEqualTo(3L);
+        assertThat(merchant().getBalance().getAmount()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void mapsStatusCodesToExceptions() {
+        assertThatThrownBy(() -> orderService.placeOrder(USER, SKU, 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient stock");
+        assertThatThrownBy(() -> orderService.placeOrder("single-call-nobody", SKU, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> orderService.placeOrder(USER, "single-call-missing", 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Product product() {
+        return productRepository.selectOne(new LambdaQueryWrapper<Product>().eq(Product::getSku, SKU));
+    }
+
+    private MerchantAccount merchant() {
+        return merchantAccountRepository.selectOne(
+                new LambdaQueryWrapper<MerchantAccount>().eq(MerchantAccount::getName, MERCHANT));
+    }
+}
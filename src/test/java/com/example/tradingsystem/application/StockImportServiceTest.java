@@ -0,0 +1,55 @@
+package com.example.tradingsystem.application;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "trading.stock-import.chunk-size=2")
+@Transactional
+class StockImportServiceTest {
+
+    @Autowired
+    private StockImportService stockImportService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void importsInChunksAndRejectsForeignSkus() {
+        inventoryService.addOrUpdateProductStock("imp-owner", "imp-taken", "Taken", new BigDecimal("1.00"), 1);
+
+        StockImportResult result = stockImportService.importStock(List.of(
+                StockImportRow.of(1, "imp-m1", "imp-a", "A", "2.50", "3"),
+                StockImportRow.of(2, "imp-m1", "imp-a", "A", "2.50", "4"),
+                StockImportRow.of(3, "imp-m2", "imp-taken", "Taken", "1.00", "5"),
+                StockImportRow.of(4, "imp-m2", "imp-b", "B", "abc", "1"),
+                StockImportRow.malformed(5, "Expected 5 columns"),
+                StockImportRow.of(6, "imp-owner", "imp-taken", "Taken", "1.00", "9")
+        ).iterator());
+
+        assertThat(result.accepted()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.rejections()).extracting(StockImportResult.Rejection::line).containsExactly(3L, 4L, 5L);
+        assertThat(result.rejections().get(0).reason()).isEqualTo("Product belongs to another merchant");
+
+        assertThat(stock("imp-a")).isEqualTo(7L);
+        assertThat(stock("imp-taken")).isEqualTo(10L);
+    }
+
+    private long stock(String sku) {
+        return productRepository.selectOne(new LambdaQueryWrapper<Product>().eq(Product::getSku, sku))
+                .getStockQuantity().getValue();
+    }
+}
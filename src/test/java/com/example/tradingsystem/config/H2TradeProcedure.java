@@ -0,0 +1,124 @@
+package com.example.tradingsystem.config;
+
+import org.h2.tools.SimpleResultSet;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 存储过程 execute_trade 的 H2 实现（通过 CREATE ALIAS 注册，见 schema-h2.sql）
+ *
+ * <p>语句与 MySQL 版本（db/mysql/execute_trade.sql）一一对应，在调用方的连接和事务内执行；
+ * {@link #STATEMENTS} 按 SQL 文件中的顺序列出全部语句，由 H2TradeProcedureTest 与 SQL 文件逐条对照。
+ */
+public final class H2TradeProcedure {
+
+    static final String SELECT_USER = "SELECT id FROM user_accounts WHERE username = ?";
+    static final String SELECT_PRODUCT = "SELECT id, merchant_id, price FROM products WHERE sku = ? FOR UPDATE";
+    static final String DEDUCT_STOCK = "UPDATE products SET stock_quantity = stock_quantity - ?, "
+            + "sold_quantity = sold_quantity + ?, version = version + 1 WHERE id = ? AND stock_quantity >= ?";
+    static final String DEBIT_USER = "UPDATE user_accounts SET balance = balance - ?, version = version + 1 "
+            + "WHERE id = ? AND balance >= ?";
+    static final String RESTORE_STOCK = "UPDATE products SET stock_quantity = stock_quantity + ?, "
+            + "sold_quantity = sold_quantity - ?, version = version + 1 WHERE id = ?";
+    static final String CREDIT_MERCHANT = "UPDATE merchant_accounts SET balance = balance + ?, version = version + 1 "
+            + "WHERE id = ?";
+    static final String INSERT_ORDER = "INSERT INTO orders (user_id, merchant_id, product_id, quantity, unit_price, "
+            + "total_price, status, created_at, version) VALUES (?, ?, ?, ?, ?, ?, 'COMPLETED', ?, 0)";
+
+    /** 按 SQL 文件中出现的顺序 */
+    static final List<String> STATEMENTS = List.of(SELECT_USER, SELECT_PRODUCT, DEDUCT_STOCK, DEBIT_USER,
+            RESTORE_STOCK, CREDIT_MERCHANT, INSERT_ORDER);
+
+    private H2TradeProcedure() {
+    }
+
+    public static ResultSet executeTrade(Connection connection, String username, String sku, Long quantity,
+                                         Timestamp createdAt) throws SQLException {
+        SimpleResultSet result = new SimpleResultSet();
+        result.addColumn("STATUS", Types.INTEGER, 10, 0);
+        result.addColumn("ORDER_ID", Types.BIGINT, 19, 0);
+        result.addColumn("USER_ID", Types.BIGINT, 19, 0);
+        result.addColumn("MERCHANT_ID", Types.BIGINT, 19, 0);
+        result.addColumn("PRODUCT_ID", Types.BIGINT, 19, 0);
+        result.addColumn("UNIT_PRICE", Types.DECIMAL, 19, 2);
+        result.addColumn("TOTAL_PRICE", Types.DECIMAL, 19, 2);
+        if ("jdbc:columnlist:connection".equals(connection.getMetaData().getURL())) {
+            return result;
+        }
+
+        int status = 0;
+        Long orderId = null;
+        Long userId = queryLong(connection, SELECT_USER, username);
+        Long productId = null;
+        Long merchantId = null;
+        BigDecimal price = null;
+        BigDecimal total = null;
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_PRODUCT)) {
+            ps.setString(1, sku);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    productId = rs.getLong(1);
+                    merchantId = rs.getLong(2);
+                    price = rs.getBigDecimal(3);
+                }
+            }
+        }
+
+        if (userId == null) {
+            status = 1;
+        } else if (productId == null) {
+            status = 2;
+        } else {
+            total = price.multiply(BigDecimal.valueOf(quantity));
+            if (update(connection, DEDUCT_STOCK, quantity, quantity, productId, quantity) == 0) {
+                status = 3;
+            } else if (update(connection, DEBIT_USER, total, userId, total) == 0) {
+                update(connection, RESTORE_STOCK, quantity, quantity, productId);
+                status = 4;
+            } else {
+                update(connection, CREDIT_MERCHANT, total, merchantId);
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_ORDER,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    bind(ps, userId, merchantId, productId, quantity, price, total, createdAt);
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        keys.next();
+                        orderId = keys.getLong(1);
+                    }
+                }
+            }
+        }
+        result.addRow(status, orderId, userId, merchantId, productId, price, total);
+        return result;
+    }
+
+    private static Long queryLong(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    private static int update(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            bind(ps, params);
+            return ps.executeUpdate();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.tradingsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 实现与 MySQL 存储过程逐条对照，任何一方修改语句而另一方没有跟上时失败
+ */
+class H2TradeProcedureTest {
+
+    /** 行首的数据读写语句，到分号为止 */
+    private static final Pattern STATEMENT = Pattern.compile("(?m)^\\s*((?:SELECT|UPDATE|INSERT)\\b[^;]*);");
+    /** SELECT ... INTO 局部变量 */
+    private static final Pattern SELECT_INTO = Pattern.compile("\\s+INTO\\s+v_\\w+(?:\\s*,\\s*v_\\w+)*");
+    /** 参数和局部变量，对应 JDBC 的占位符 */
+    private static final Pattern VARIABLE = Pattern.compile("\\b[pv]_\\w+\\b");
+
+    @Test
+    void statementsMatchTheMysqlProcedure() throws IOException {
+        String procedure = new ClassPathResource("db/mysql/execute_trade.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> statements = new ArrayList<>();
+        Matcher matcher = STATEMENT.matcher(procedure);
+        while (matcher.find()) {
+            String statement = SELECT_INTO.matcher(matcher.group(1)).replaceAll("");
+            // 最后一条 SELECT 只把局部变量作为结果行返回，H2 实现用 SimpleResultSet 组装
+            if (statement.startsWith("SELECT v_")) {
+                continue;
+            }
+            statements.add(normalize(VARIABLE.matcher(statement).replaceAll("?")));
+        }
+
+        assertThat(statements).containsExactlyElementsOf(
+                H2TradeProcedure.STATEMENTS.stream().map(H2TradeProcedureTest::normalize).toList());
+    }
+
+    private static String normalize(String statement) {
+        return statement.replaceAll("\\s+", " ").replace("( ", "(").replace(" )", ")").trim();
+    }
+}
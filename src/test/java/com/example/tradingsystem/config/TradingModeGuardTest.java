@@ -0,0 +1,72 @@
+package com.example.tradingsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradingModeGuardTest {
+
+    @Test
+    void rejectsLedgerCombinedWithClusterOrAllotment() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("trading.ledger.engine.enabled", "true")
+                .withProperty("trading.cluster.enabled", "true")
+                .withProperty("trading.allotment.enabled", "true");
+
+        assertThat(TradingModeGuard.conflicts(environment)).hasSize(2);
+        assertThatThrownBy(() -> new TradingModeGuard(environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("trading.cluster.enabled")
+                .hasMessageContaining("trading.allotment.enabled");
+    }
+
+    @Test
+    void rejectsReservationsOnPathsThatSkipHoldsOrOnMultipleNodes() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("trading.reservation.enabled", "true")
+                .withProperty("trading.cluster.enabled", "true")
+                .withProperty("trading.sharding.enabled", "true")
+                .withProperty("trading.trade-execution.single-call", "true");
+
+        assertThat(TradingModeGuard.conflicts(environment)).hasSize(3)
+                .allSatisfy(conflict -> assertThat(conflict).startsWith("trading.reservation.enabled"));
+        assertThat(TradingModeGuard.conflicts(new MockEnvironment()
+                .withProperty("trading.reservation.enabled", "true")
+                .withProperty("trading.ledger.engine.enabled", "true"))).isEmpty();
+    }
+
+    @Test
+    void rejectsLedgerCombinedWithEventSourcedProjection() {
+        assertThat(TradingModeGuard.conflicts(new MockEnvironment()
+                .withProperty("trading.ledger.engine.enabled", "true")
+                .withProperty("trading.ledger.event-sourcing.enabled", "true")))
+                .singleElement().asString().contains("trading.ledger.event-sourcing.enabled");
+    }
+
+    @Test
+    void rejectsArchivingShardedOrders() {
+        assertThat(TradingModeGuard.conflicts(new MockEnvironment()
+                .withProperty("trading.archive.enabled", "true")
+                .withProperty("trading.sharding.enabled", "true")))
+                .singleElement().asString().startsWith("trading.archive.enabled");
+    }
+
+    @Test
+    void rejectsPrefilteringShardedOrders() {
+        assertThat(TradingModeGuard.conflicts(new MockEnvironment()
+                .withProperty("trading.prefilter.enabled", "true")
+                .withProperty("trading.sharding.enabled", "true")))
+                .singleElement().asString().startsWith("trading.prefilter.enabled");
+    }
+
+    @Test
+    void acceptsEachModeOnItsOwn() {
+        assertThat(TradingModeGuard.conflicts(new MockEnvironment()
+                .withProperty("trading.ledger.engine.enabled", "true"))).isEmpty();
+        assertThat(TradingModeGuard.conflicts(new MockEnvironment()
+                .withProperty("trading.cluster.enabled", "true")
+                .withProperty("trading.allotment.enabled", "true"))).isEmpty();
+    }
+}
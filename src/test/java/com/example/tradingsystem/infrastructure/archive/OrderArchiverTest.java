@@ -0,0 +1,69 @@
+package com.example.tradingsystem.infrastructure.archive;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderHistoryQuery;
+import com.example.tradingsystem.application.OrderPage;
+import com.example.tradingsystem.application.OrderQueryService;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.OrderSummary;
+import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.domain.order.Order;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OrderArchiverTest {
+
+    @Autowired
+    private UserAccountService userAccountService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderQueryService orderQueryService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Test
+    void movesOldTerminalOrdersAndReadsFallThrough() {
+        userAccountService.deposit("archive-user", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("archive-merchant", "archive-sku", "Prod", new BigDecimal("2.00"), 10);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(orderService.placeOrder("archive-user", "archive-sku", 1).getId());
+        }
+        orderRepository.update(null, new LambdaUpdateWrapper<Order>()
+                .set(Order::getCreatedAt, Instant.parse("2020-01-01T00:00:00Z"))
+                .in(Order::getId, ids.subList(0, 2)));
+
+        assertThat(orderArchiver.archive()).isEqualTo(2);
+        assertThat(orderRepository.selectById(ids.get(0))).isNull();
+
+        Order archived = orderService.findById(ids.get(0));
+        assertThat(archived.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(archived.getTotalPrice().getAmount()).isEqualByComparingTo("2.00");
+
+        OrderPage first = orderQueryService.listByUser("archive-user", new OrderHistoryQuery(null, null, null, null, 2));
+        OrderPage second = orderQueryService.listByUser("archive-user",
+                new OrderHistoryQuery(null, null, null, first.nextCursor(), 2));
+        assertThat(first.items()).extracting(OrderSummary::id).containsExactly(ids.get(2), ids.get(1));
+        assertThat(second.items()).extracting(OrderSummary::id).containsExactly(ids.get(0));
+        assertThat(second.nextCursor()).isNull();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.tradingsystem.infrastructure.cache;
+
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.OrderRepository;
+import com.example.tradingsystem.repository.ProductRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CacheWarmupTest {
+
+    @Autowired
+    private UserAccountService userAccountService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MerchantAccountRepository merchantAccountRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Test
+    void warmsHotProductsAndRecentUsers() {
+        userAccountService.deposit("warm-user", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("warm-merchant", "warm-sku", "Prod", new BigDecimal("1.00"), 10);
+        orderService.placeOrder("warm-user", "warm-sku", 1);
+
+        CacheProperties properties = new CacheProperties();
+        properties.getWarmup().setPageSize(1);
+        CatalogCache cache = new CatalogCache(productRepository, userAccountRepository, merchantAccountRepository, properties);
+        new CacheWarmup(cache, productRepository, merchantAccountRepository, orderRepository, userAccountRepository, properties)
+                .run(null);
+
+        assertThat(cache.productCount()).isPositive();
+        assertThat(cache.userCount()).isPositive();
+        assertThat(cache.loadUser("warm-user").getBalance().getAmount()).isEqualByComparingTo("99.00");
+    }
+}
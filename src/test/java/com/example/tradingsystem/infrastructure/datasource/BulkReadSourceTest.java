@@ -0,0 +1,53 @@
+package com.example.tradingsystem.infrastructure.datasource;
+
+import com.example.tradingsystem.domain.user.UserAccount;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 独立连接池指向单独的 H2 内存库，不经过主数据源和主事务管理器
+ */
+class BulkReadSourceTest {
+
+    private static final String URL = "jdbc:h2:mem:bulkread;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void streamsThroughItsOwnPoolAndSessionFactory() {
+        DriverManagerDataSource setup = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(setup);
+        JdbcTemplate jdbc = new JdbcTemplate(setup);
+        jdbc.update("INSERT INTO user_accounts (username, balance, version) VALUES ('bulk-b', 2.50, 0), ('bulk-a', 1.00, 0)");
+
+        BulkReadProperties properties = new BulkReadProperties();
+        properties.setEnabled(true);
+        properties.setUrl(URL);
+        properties.setUsername("sa");
+        BulkReadSource source = new BulkReadSource(properties, null, null);
+        try {
+            List<String> rows = source.read(status -> {
+                List<String> read = new ArrayList<>();
+                try (Cursor<UserAccount> cursor = source.repository().streamUsers()) {
+                    cursor.forEach(user -> read.add(user.getUsername() + "=" + user.getBalance().getAmount()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return read;
+            });
+            assertThat(rows).containsExactly("bulk-b=2.50", "bulk-a=1.00");
+        } finally {
+            source.close();
+        }
+    }
+}
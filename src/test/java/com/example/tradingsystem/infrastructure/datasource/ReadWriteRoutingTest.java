@@ -0,0 +1,104 @@
+package com.example.tradingsystem.infrastructure.datasource;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用两个独立的 H2 内存库分别充当主库和副本，通过手工复制心跳模拟复制进度
+ */
+@SpringBootTest(properties = {
+        "trading.datasource.replica.enabled=true",
+        "trading.datasource.replica.url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "trading.datasource.replica.username=sa",
+        "trading.datasource.replica.max-lag=1ms",
+        "trading.datasource.replica.heartbeat-interval-ms=3600000"
+})
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private MerchantAccountRepository merchantAccountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setup() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM merchant_accounts WHERE name = 'replica-only'");
+        replica.update("INSERT INTO merchant_accounts (name, balance, version) VALUES ('replica-only', 0, 0)");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnlyWhileCaughtUp() {
+        lagMonitor.check();
+        replicateHeartbeat();
+        lagMonitor.check();
+        assertThat(lagMonitor.isAvailable()).isTrue();
+
+        long before = routingDataSource.replicaConnections();
+        assertThat(findReplicaOnly(true)).isTrue();
+        assertThat(routingDataSource.replicaConnections()).isEqualTo(before + 1);
+        assertThat(findReplicaOnly(false)).isFalse();
+
+        // 副本停止复制：延迟超过上限后回退到主库
+        lagMonitor.check();
+        assertThat(lagMonitor.isAvailable()).isFalse();
+        assertThat(findReplicaOnly(true)).isFalse();
+        assertThat(routingDataSource.fallbacks()).isPositive();
+
+        replicateHeartbeat();
+        lagMonitor.check();
+        assertThat(lagMonitor.isAvailable()).isTrue();
+        assertThat(findReplicaOnly(true)).isTrue();
+    }
+
+    private boolean findReplicaOnly(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        Boolean found = template.execute(status -> merchantAccountRepository.exists(
+                new LambdaQueryWrapper<MerchantAccount>().eq(MerchantAccount::getName, "replica-only")));
+        return Boolean.TRUE.equals(found);
+    }
+
+    private void replicateHeartbeat() {
+        Timestamp beat = primary.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1",
+                Timestamp.class);
+        replica.update("DELETE FROM replication_heartbeat");
+        replica.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+    }
+}
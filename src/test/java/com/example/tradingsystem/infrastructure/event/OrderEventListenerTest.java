@@ -0,0 +1,46 @@
+package com.example.tradingsystem.infrastructure.event;
+
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.infrastructure.journal.DomainEventJournal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderEventListenerTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private DomainEventJournal domainEventJournal;
+
+    @Test
+    void rolledBackOrderLeavesNoJournalRecord() {
+        userAccountService.deposit("journal-u", new BigDecimal("5.00"));
+        inventoryService.addOrUpdateProductStock("journal-m", "journal-sku", "J", new BigDecimal("10.00"), 10);
+        long before = domainEventJournal.lastSequence();
+
+        // 余额不足：OrderPlaced 已在事务内发布，但事务回滚后不写流水
+        assertThatThrownBy(() -> orderService.placeOrder("journal-u", "journal-sku", 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(domainEventJournal.lastSequence()).isEqualTo(before);
+
+        userAccountService.deposit("journal-u", new BigDecimal("5.00"));
+        orderService.placeOrder("journal-u", "journal-sku", 1);
+        assertThat(domainEventJournal.lastSequence()).isGreaterThan(before);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.tradingsystem.infrastructure.hotkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyDetectorTest {
+
+    @Test
+    void sketchTracksHeavyHittersInSkewedStream() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.offer(i % 10 == 0 ? "hot" : "cold-" + i, 1);
+        }
+        SpaceSavingSketch.Entry top = sketch.entries().get(0);
+        assertThat(top.key()).isEqualTo("hot");
+        assertThat(top.count() - top.error()).isLessThanOrEqualTo(1_000);
+        assertThat(top.count()).isGreaterThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void contentionMarksKeyHotUntilWindowExpires() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        HotKeyProperties properties = new HotKeyProperties();
+        properties.setWindow(Duration.ofSeconds(6));
+        properties.setSlots(6);
+        properties.setContentionThreshold(5);
+        List<HotKeysChangedEvent> events = new ArrayList<>();
+        HotKeyDetector detector = new HotKeyDetector(properties,
+                event -> events.add((HotKeysChangedEvent) event), now::get);
+
+        for (int i = 0; i < 5; i++) {
+            detector.recordOrder("SKU-1");
+            detector.recordContention("SKU-1");
+            detector.recordOrder("SKU-2");
+        }
+        detector.refresh();
+        assertThat(detector.isHot("SKU-1")).isTrue();
+        assertThat(detector.isHot("SKU-2")).isFalse();
+        assertThat(detector.topK().get(0)).isEqualTo(new HotKey("SKU-1", 5, 5, true));
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).added()).containsExactly("SKU-1");
+
+        now.addAndGet(Duration.ofSeconds(7).toMillis());
+        detector.refresh();
+        assertThat(detector.isHot("SKU-1")).isFalse();
+        assertThat(detector.topK()).isEmpty();
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1).removed()).containsExactly("SKU-1");
+    }
+
+    @Test
+    void concurrentOffersAcrossStripesAreAllCounted() throws Exception {
+        HotKeyProperties properties = new HotKeyProperties();
+        properties.setStripes(4);
+        properties.setTopK(100);
+        HotKeyDetector detector = new HotKeyDetector(properties, event -> { }, () -> 1_000_000L);
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    detector.recordOrder("SKU-" + (i % 20));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<HotKey> top = detector.topK();
+        assertThat(top).hasSize(20);
+        assertThat(top).allSatisfy(key -> assertThat(key.orders()).isEqualTo(400));
+    }
+}
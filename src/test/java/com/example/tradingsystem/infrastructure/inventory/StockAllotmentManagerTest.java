@@ -0,0 +1,67 @@
+package com.example.tradingsystem.infrastructure.inventory;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.domain.product.Product;
+import com.example.tradingsystem.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "trading.allotment.enabled=true",
+        "trading.allotment.skus=flash-sku",
+        "trading.allotment.lease-size=5",
+        "trading.allotment.refill-threshold=0",
+        "trading.allotment.reconcile-interval-ms=3600000"
+})
+class StockAllotmentManagerTest {
+
+    @Autowired
+    private UserAccountService userAccountService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private StockAllotmentManager stockAllotmentManager;
+
+    @Test
+    void sellsFromLeasedBlocksAndReconcilesInBulk() throws InterruptedException {
+        userAccountService.deposit("flash-buyer", new BigDecimal("100.00"));
+        userAccountService.deposit("flash-poor", new BigDecimal("1.00"));
+        inventoryService.addOrUpdateProductStock("flash-merchant", "flash-sku", "Prod", new BigDecimal("1.00"), 12);
+
+        for (int i = 0; i < 3; i++) {
+            orderService.placeOrder("flash-buyer", "flash-sku", 2);
+        }
+        assertThatThrownBy(() -> orderService.placeOrder("flash-poor", "flash-sku", 2))
+                .hasMessage("Insufficient balance");
+
+        // 两次租借共 10 件，卖出 6 件，失败订单的 2 件已退回本地配额
+        Product product = load();
+        assertThat(product.getStockQuantity().getValue()).isEqualTo(2L);
+        assertThat(product.getSoldQuantity().getValue()).isZero();
+
+        stockAllotmentManager.reconcile();
+        assertThat(load().getSoldQuantity().getValue()).isEqualTo(6L);
+
+        stockAllotmentManager.shutdown();
+        product = load();
+        assertThat(product.getStockQuantity().getValue()).isEqualTo(6L);
+        assertThat(product.getSoldQuantity().getValue()).isEqualTo(6L);
+    }
+
+    private Product load() {
+        return productRepository.selectOne(new LambdaQueryWrapper<Product>().eq(Product::getSku, "flash-sku"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.tradingsystem.infrastructure.journal;
+
+import com.example.tradingsystem.domain.order.OrderCompletedEvent;
+import com.example.tradingsystem.domain.order.OrderPlacedEvent;
+import com.example.tradingsystem.domain.shared.DomainEvent;
+import com.example.tradingsystem.domain.shared.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendRollAndReplayFromOffset() throws IOException {
+        try (EventJournal journal = new EventJournal(dir, 512)) {
+            for (int i = 1; i <= 100; i++) {
+                DomainEvent event = new OrderPlacedEvent((long) i, "u" + i, "m", "sku-" + i, 1L, Money.of("9.99"));
+                ByteBuffer buffer = ByteBuffer.allocate(256);
+                DomainEventCodec.encode(event, buffer);
+                assertThat(journal.append(DomainEventCodec.typeOf(event), buffer.flip())).isEqualTo(i);
+            }
+            assertThat(EventJournal.listSegments(dir)).hasSizeGreaterThan(1);
+
+            List<Long> orderIds = new ArrayList<>();
+            try (JournalTailer tailer = journal.tailer(40)) {
+                while (tailer.poll((seq, ts, type, payload) ->
+                        orderIds.add(((OrderPlacedEvent) DomainEventCodec.decode(type, payload)).orderId()), 7) > 0) {
+                }
+            }
+            assertThat(orderIds).hasSize(61).startsWith(40L).endsWith(100L);
+        }
+    }
+
+    @Test
+    void reopenRecoversSequenceAndTailerSeesNewRecords() {
+        try (EventJournal journal = new EventJournal(dir, 4096)) {
+            journal.append((byte) 9, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            journal.append((byte) 9, ByteBuffer.wrap(new byte[]{4, 5, 6}));
+        }
+        try (EventJournal journal = new EventJournal(dir, 4096)) {
+            assertThat(journal.lastSequence()).isEqualTo(2);
+            JournalTailer tailer = journal.tailer(1);
+            List<Long> seen = new ArrayList<>();
+            assertThat(tailer.poll((seq, ts, type, payload) -> seen.add(seq), 10)).isEqualTo(2);
+
+            assertThat(journal.append((byte) 9, ByteBuffer.wrap(new byte[]{7}))).isEqualTo(3);
+            assertThat(tailer.poll((seq, ts, type, payload) -> seen.add(seq), 10)).isEqualTo(1);
+            assertThat(seen).containsExactly(1L, 2L, 3L);
+        }
+    }
+
+    @Test
+    void codecRoundTrip() {
+        OrderCompletedEvent event = new OrderCompletedEvent(7L, "用户", "m", "sku", 3L, Money.of("12.30"));
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        DomainEventCodec.encode(event, buffer);
+        assertThat(DomainEventCodec.decode(DomainEventCodec.ORDER_COMPLETED, buffer.flip())).isEqualTo(event);
+    }
+
+    @Test
+    void codecKeepsNullStringsApartFromEmptyOnes() {
+        OrderPlacedEvent event = new OrderPlacedEvent(7L, null, "", "sku", 3L, Money.of("12.30"));
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        DomainEventCodec.encode(event, buffer);
+        assertThat(DomainEventCodec.decode(DomainEventCodec.ORDER_PLACED, buffer.flip())).isEqualTo(event);
+    }
+
+    @Test
+    void codecRejectsStringsLongerThanTheLengthPrefix() {
+        OrderPlacedEvent event = new OrderPlacedEvent(1L, "u".repeat(70_000), "m", "sku", 1L, Money.of("1.00"));
+        assertThatThrownBy(() -> DomainEventCodec.encode(event, ByteBuffer.allocate(256 * 1024)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("String too long");
+    }
+}
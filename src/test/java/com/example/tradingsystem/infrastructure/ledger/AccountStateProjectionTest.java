@@ -0,0 +1,119 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import com.example.tradingsystem.domain.ledger.AccountBalanceChangedEvent;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.ledger.BalanceChangeType;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadProperties;
+import com.example.tradingsystem.infrastructure.datasource.BulkReadSource;
+import com.example.tradingsystem.repository.BulkReadRepository;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountStateProjectionTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversFromSnapshotAndTail() throws Exception {
+        AccountEventSourcingProperties properties = properties();
+        properties.setSnapshotInterval(3);
+
+        BulkReadRepository accounts = Mockito.mock(BulkReadRepository.class);
+        Mockito.when(accounts.streamUsers()).thenAnswer(invocation -> cursor(List.of(user(2L, "5.00"))));
+        Mockito.when(accounts.streamMerchants()).thenAnswer(invocation -> cursor(List.of()));
+        BulkReadSource source = bulkReadSource(accounts);
+
+        AccountStateProjection projection = new AccountStateProjection(properties, source);
+        projection.recover();
+        for (int i = 0; i < 5; i++) {
+            projection.onBalanceChanged(new AccountBalanceChangedEvent(AccountType.USER, 1L, BalanceChangeType.DEPOSIT, Money.of("10.00")));
+        }
+        projection.onBalanceChanged(new AccountBalanceChangedEvent(AccountType.USER, 1L, BalanceChangeType.WITHDRAW, Money.of("7.50")));
+        projection.onBalanceChanged(new AccountBalanceChangedEvent(AccountType.MERCHANT, 9L, BalanceChangeType.CREDIT, Money.of("7.50")));
+        projection.close();
+
+        AccountStateProjection recovered = new AccountStateProjection(properties, source);
+        recovered.recover();
+        assertThat(recovered.balanceOf(AccountType.USER, 1L)).contains(Money.of("42.50"));
+        assertThat(recovered.balanceOf(AccountType.USER, 2L)).contains(Money.of("5.00"));
+        assertThat(recovered.balanceOf(AccountType.MERCHANT, 9L)).contains(Money.of("7.50"));
+        assertThat(recovered.audit().lastSequence()).isEqualTo(7);
+        Mockito.verify(accounts, Mockito.times(1)).streamUsers();
+        recovered.close();
+    }
+
+    @Test
+    void rebuildReplacesAStaleSnapshotAndReplaysEventsAfterTheWatermark() throws Exception {
+        AccountEventSourcingProperties properties = properties();
+
+        BulkReadRepository accounts = Mockito.mock(BulkReadRepository.class);
+        Mockito.when(accounts.streamUsers()).thenAnswer(invocation -> cursor(List.of()));
+        Mockito.when(accounts.streamMerchants()).thenAnswer(invocation -> cursor(List.of()));
+        BulkReadSource source = bulkReadSource(accounts);
+        AccountStateProjection projection = new AccountStateProjection(properties, source);
+        projection.recover();
+        projection.onBalanceChanged(new AccountBalanceChangedEvent(AccountType.USER, 1L, BalanceChangeType.DEPOSIT, Money.of("10.00")));
+        projection.close();
+
+        // 停用期间账户表发生了变化，重新启用后旧快照已过期
+        AccountStateProjection reenabled = new AccountStateProjection(properties, source);
+        reenabled.recover();
+        assertThat(reenabled.balanceOf(AccountType.USER, 1L)).contains(Money.of("10.00"));
+
+        // 读取账户表期间又提交了一笔变动：读取结果中没有它，重建结束时按水位重放
+        Mockito.when(accounts.streamUsers()).thenAnswer(invocation -> {
+            Cursor<UserAccount> rows = cursor(List.of(user(1L, "3.00")));
+            reenabled.onBalanceChanged(new AccountBalanceChangedEvent(AccountType.USER, 1L, BalanceChangeType.DEPOSIT, Money.of("2.00")));
+            return rows;
+        });
+        reenabled.rebuild();
+        assertThat(reenabled.balanceOf(AccountType.USER, 1L)).contains(Money.of("5.00"));
+        reenabled.onBalanceChanged(new AccountBalanceChangedEvent(AccountType.USER, 1L, BalanceChangeType.DEPOSIT, Money.of("1.00")));
+        reenabled.close();
+
+        AccountStateProjection recovered = new AccountStateProjection(properties, source);
+        recovered.recover();
+        assertThat(recovered.balanceOf(AccountType.USER, 1L)).contains(Money.of("6.00"));
+        recovered.close();
+    }
+
+    private AccountEventSourcingProperties properties() {
+        AccountEventSourcingProperties properties = new AccountEventSourcingProperties();
+        properties.setDirectory(dir.resolve("events").toString());
+        properties.setSnapshotDirectory(dir.resolve("snapshots").toString());
+        properties.setSegmentSize(4096);
+        return properties;
+    }
+
+    /**
+     * 未开启独立连接池时直接使用传入的 Mapper，事务管理器只需要能开启和提交
+     */
+    private static BulkReadSource bulkReadSource(BulkReadRepository accounts) {
+        return new BulkReadSource(new BulkReadProperties(), accounts, Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    private static UserAccount user(long id, String balance) {
+        UserAccount user = Mockito.mock(UserAccount.class);
+        Mockito.when(user.getId()).thenReturn(id);
+        Mockito.when(user.getBalance()).thenReturn(Money.of(balance));
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Cursor<T> cursor(List<T> rows) {
+        Cursor<T> cursor = Mockito.mock(Cursor.class);
+        Mockito.when(cursor.iterator()).thenAnswer(invocation -> rows.iterator());
+        return cursor;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.tradingsystem.infrastructure.ledger;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.domain.ledger.AccountType;
+import com.example.tradingsystem.domain.merchant.MerchantAccount;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.repository.MerchantAccountRepository;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "trading.ledger.engine.enabled=true",
+        "trading.ledger.engine.directory=target/test-balance-wal",
+        "trading.ledger.engine.segment-size=1048576",
+        "trading.ledger.engine.checkpoint-interval-ms=3600000"
+})
+class BalanceLedgerTest {
+
+    private static final String MERCHANT = "ledger-merchant";
+    private static final String SKU = "ledger-sku";
+
+    static {
+        FileSystemUtils.deleteRecursively(Path.of("target/test-balance-wal").toFile());
+    }
+
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private MerchantAccountRepository merchantAccountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void keepsBalancesInMemoryAndCheckpointsToDatabase() {
+        UserAccount deposited = userAccountService.deposit("ledger-alice", new BigDecimal("50.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, SKU, "Ledger", new BigDecimal("10.00"), 10);
+        Long merchantId = merchant().getId();
+        Money merchantBefore = balanceLedger.balanceOf(AccountType.MERCHANT, merchantId);
+
+        assertThat(deposited.getBalance()).isEqualTo(Money.of("50.00"));
+        assertThat(orderService.placeOrder("ledger-alice", SKU, 2).getStatus()).isEqualTo(OrderStatus.COMPLETED);
+
+        // 内存余额已变，数据库仍是旧值
+        assertThat(userAccountService.getOrCreate("ledger-alice").getBalance()).isEqualTo(Money.of("30.00"));
+        assertThat(balanceLedger.balanceOf(AccountType.MERCHANT, merchantId)).isEqualTo(merchantBefore.add(Money.of("20.00")));
+        assertThat(user("ledger-alice").getBalance()).isEqualTo(Money.of("0.00"));
+
+        balanceLedger.checkpoint();
+        assertThat(user("ledger-alice").getBalance()).isEqualTo(Money.of("30.00"));
+        assertThat(merchant().getBalance()).isEqualTo(merchantBefore.add(Money.of("20.00")));
+    }
+
+    @Test
+    void rejectsUnfundedOrderAndRecoversFromLog() {
+        userAccountService.deposit("ledger-bob", new BigDecimal("15.00"));
+        inventoryService.addOrUpdateProductStock(MERCHANT, SKU, "Ledger", new BigDecimal("10.00"), 10);
+        balanceLedger.checkpoint();
+
+        assertThatThrownBy(() -> orderService.placeOrder("ledger-bob", SKU, 2))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient balance");
+        orderService.placeOrder("ledger-bob", SKU, 1);
+        userAccountService.deposit("ledger-bob", new BigDecimal("7.50"));
+        Long bobId = user("ledger-bob").getId();
+        Money merchantBalance = balanceLedger.balanceOf(AccountType.MERCHANT, merchant().getId());
+
+        // 检查点之后的变动只在日志中，重建后回放得到相同余额
+        assertThat(user("ledger-bob").getBalance()).isEqualTo(Money.of("15.00"));
+        balanceLedger.recover();
+        assertThat(balanceLedger.balanceOf(AccountType.USER, bobId)).isEqualTo(Money.of("12.50"));
+        assertThat(balanceLedger.balanceOf(AccountType.MERCHANT, merchant().getId())).isEqualTo(merchantBalance);
+    }
+
+    @Test
+    void checkpointExcludesOpenTransactionsAndRecoveryAppliesOnlyCommittedOnes() {
+        userAccountService.deposit("ledger-carol", new BigDecimal("10.00"));
+        long carolId = user("ledger-carol").getId();
+        balanceLedger.checkpoint();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 事务未结束时运行检查点：未提交的变动不写回数据库
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceLedger.deposit(carolId, Money.of("5.00"));
+            CompletableFuture.runAsync(balanceLedger::checkpoint).join();
+            assertThat(user("ledger-carol").getBalance()).isEqualTo(Money.of("10.00"));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceLedger.withdraw(carolId, Money.of("3.00"));
+            CompletableFuture.runAsync(balanceLedger::checkpoint).join();
+            status.setRollbackOnly();
+        });
+        assertThat(balanceLedger.balanceOf(AccountType.USER, carolId)).isEqualTo(Money.of("15.00"));
+
+        // 提交的事务在检查点之前追加的变动由提交标记回放，回滚的事务不回放
+        balanceLedger.recover();
+        assertThat(balanceLedger.balanceOf(AccountType.USER, carolId)).isEqualTo(Money.of("15.00"));
+        balanceLedger.checkpoint();
+        assertThat(user("ledger-carol").getBalance()).isEqualTo(Money.of("15.00"));
+    }
+
+    private UserAccount user(String username) {
+        return userAccountRepository.selectOne(new LambdaQueryWrapper<UserAccount>()
+                .eq(UserAccount::getUsername, username));
+    }
+
+    private MerchantAccount merchant() {
+        return merchantAccountRepository.selectOne(new LambdaQueryWrapper<MerchantAccount>()
+                .eq(MerchantAccount::getName, MERCHANT));
+    }
+}
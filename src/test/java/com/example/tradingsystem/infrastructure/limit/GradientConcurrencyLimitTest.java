@@ -0,0 +1,72 @@
+package com.example.tradingsystem.infrastructure.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void rejectsBeyondTheLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit("test", 4, properties(), clock::get);
+
+        GradientConcurrencyLimit.Permit first = limit.tryAcquire();
+        for (int i = 1; i < 4; i++) {
+            assertThat(limit.tryAcquire()).isNotNull();
+        }
+        assertThat(first).isNotNull();
+        assertThat(limit.tryAcquire()).isNull();
+        assertThat(limit.snapshot().rejected()).isEqualTo(1);
+
+        first.abandon();
+        assertThat(limit.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void growsWhileLatencyIsStableAndShrinksWhenItInflates() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit("test", 10, properties(), clock::get);
+        for (int round = 0; round < 3; round++) {
+            saturate(limit, 1_000_000);
+        }
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        // 延迟突然膨胀：长期基线还没跟上，上限下调
+        saturate(limit, 10_000_000);
+        assertThat(limit.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void backsOffOnOverloadSignals() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit("test", 100, properties(), clock::get);
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire().dropped();
+        }
+        assertThat(limit.getLimit()).isEqualTo(4);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    private void saturate(GradientConcurrencyLimit limit, long rttNanos) {
+        List<GradientConcurrencyLimit.Permit> permits = new ArrayList<>();
+        GradientConcurrencyLimit.Permit permit;
+        while ((permit = limit.tryAcquire()) != null) {
+            permits.add(permit);
+        }
+        clock.addAndGet(rttNanos);
+        permits.forEach(GradientConcurrencyLimit.Permit::release);
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setMinLimit(4);
+        properties.setMaxLimit(1000);
+        properties.setLongWindow(100);
+        return properties;
+    }
+}
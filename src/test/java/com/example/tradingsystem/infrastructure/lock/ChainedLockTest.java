@@ -0,0 +1,29 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChainedLockTest {
+
+    @Test
+    void excludesHoldersOfEitherLockAndReleasesTheFirstOnFailure() throws Exception {
+        InProcessLock local = new InProcessLock();
+        InProcessLock shared = new InProcessLock();
+        ChainedLock chained = new ChainedLock(local, shared);
+
+        // 另一个线程只持有第二把锁（回退下单的节点）：链式加锁失败，且不留下第一把锁
+        assertThat(CompletableFuture.supplyAsync(() -> shared.tryLock("sku", 0, TimeUnit.MILLISECONDS)).get()).isTrue();
+        assertThat(chained.tryLock("sku", 20, 1000, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(local.isInUse("sku")).isFalse();
+
+        ChainedLock other = new ChainedLock(local, new InProcessLock());
+        assertThat(other.tryLock("sku", 0, 1000, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(CompletableFuture.supplyAsync(() -> local.tryLock("sku", 10, TimeUnit.MILLISECONDS)).get()).isFalse();
+        other.unlock("sku");
+        assertThat(local.size()).isZero();
+    }
+}
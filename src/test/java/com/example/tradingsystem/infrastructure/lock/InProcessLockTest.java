@@ -0,0 +1,33 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InProcessLockTest {
+
+    @Test
+    void dropsKeysOnceNobodyHoldsOrWaits() throws Exception {
+        InProcessLock lock = new InProcessLock();
+
+        assertThat(lock.tryLock("a", 0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(lock.tryLock("a", 0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(CompletableFuture.supplyAsync(() -> lock.tryLock("a", 10, TimeUnit.MILLISECONDS)).get()).isFalse();
+        lock.unlock("a");
+        assertThat(lock.size()).isEqualTo(1);
+        lock.unlock("a");
+        assertThat(lock.size()).isZero();
+
+        for (int i = 0; i < 100; i++) {
+            String key = "sku-" + i;
+            assertThat(lock.tryLock(key, 0, TimeUnit.MILLISECONDS)).isTrue();
+            lock.unlock(key);
+        }
+        assertThat(lock.awaitReleased("b", Duration.ofMillis(10))).isTrue();
+        assertThat(lock.size()).isZero();
+    }
+}
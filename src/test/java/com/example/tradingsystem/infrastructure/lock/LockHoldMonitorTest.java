@@ -0,0 +1,60 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LockHoldMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void staleHolderReleaseKeepsTheNewOwnersHold() throws Exception {
+        LockLeaseProperties properties = new LockLeaseProperties();
+        properties.setInitialLease(Duration.ofMillis(300));
+        // 由测试手动触发续期，看门狗线程不参与
+        properties.setRenewIntervalMs(60_000);
+        LockHoldMonitor monitor = new LockHoldMonitor(properties, meterRegistry);
+        AtomicInteger renewals = new AtomicInteger();
+
+        // 原持有者的租约已过期，另一个线程拿到了同一个锁
+        monitor.onAcquired("order:product:42", Duration.ofMillis(1), null);
+        Thread.sleep(5);
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        Thread owner = new Thread(() -> {
+            monitor.onAcquired("order:product:42", Duration.ofMillis(100), (threadId, lease) -> {
+                renewals.incrementAndGet();
+                return true;
+            });
+            acquired.countDown();
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            monitor.onReleased("order:product:42", false);
+        }, "new-owner");
+        owner.start();
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+
+        monitor.onReleased("order:product:42", true);
+        assertThat(monitor.longestHolders(10)).singleElement()
+                .satisfies(holder -> assertThat(holder.thread()).isEqualTo("new-owner"));
+        monitor.renewLeases();
+        assertThat(renewals).hasValue(1);
+
+        released.countDown();
+        owner.join(5_000);
+        assertThat(monitor.longestHolders(10)).isEmpty();
+        assertThat(meterRegistry.get("trading.lock.hold").tag("prefix", "order:product").timer().count())
+                .isEqualTo(1);
+        monitor.close();
+    }
+}
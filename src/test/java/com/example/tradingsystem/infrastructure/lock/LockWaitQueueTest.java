@@ -0,0 +1,127 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import com.example.tradingsystem.infrastructure.hotkey.HotKeyDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LockWaitQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HotKeyDetector hotKeyDetector = mock(HotKeyDetector.class);
+
+    @Test
+    void admitsWaitersInArrivalOrder() throws Exception {
+        when(hotKeyDetector.isHot("sku")).thenReturn(true);
+        LockWaitQueue queue = new LockWaitQueue(properties(8, Duration.ofSeconds(5)), meterRegistry, hotKeyDetector);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+
+        LockWaitQueue.Ticket head = queue.enter("sku");
+        Thread[] waiters = new Thread[3];
+        for (int i = 0; i < waiters.length; i++) {
+            String name = "w" + i;
+            waiters[i] = new Thread(() -> {
+                LockWaitQueue.Ticket ticket = queue.enter("sku");
+                admitted.add(name);
+                ticket.leave();
+            });
+            waiters[i].start();
+            awaitParked(waiters[i]);
+        }
+        head.leave();
+        for (Thread waiter : waiters) {
+            waiter.join(5_000);
+        }
+
+        assertThat(admitted).containsExactly("w0", "w1", "w2");
+        assertThat(queue.depth("sku")).isZero();
+        assertThat(meterRegistry.get("trading.lock.queue.depth").tag("sku", "sku").gauge().value()).isZero();
+        assertThat(meterRegistry.get("trading.lock.queue.wait").tag("sku", "sku").tag("outcome", "admitted")
+                .timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsWhenFullOrPastTheDeadlineWithAnEstimate() throws Exception {
+        LockWaitQueue queue = new LockWaitQueue(properties(1, Duration.ofMillis(100)), meterRegistry, hotKeyDetector);
+
+        LockWaitQueue.Ticket head = queue.enter("busy");
+        assertThatThrownBy(() -> queue.enter("busy"))
+                .isInstanceOf(LockQueueRejectedException.class)
+                .hasMessageContaining("is full");
+        head.leave();
+
+        LockWaitQueue roomy = new LockWaitQueue(properties(8, Duration.ofMillis(100)), meterRegistry, hotKeyDetector);
+        LockWaitQueue.Ticket slow = roomy.enter("slow");
+        Thread.sleep(150);
+        slow.leave();
+        // 平均持锁时长已超过截止时间，排在持锁者后面的请求直接被拒绝
+        LockWaitQueue.Ticket holder = roomy.enter("slow");
+        assertThatThrownBy(() -> roomy.enter("slow"))
+                .isInstanceOfSatisfying(LockQueueRejectedException.class, e -> {
+                    assertThat(e.getMessage()).contains("cannot be served in time");
+                    assertThat(e.getEstimatedWait()).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+                });
+        holder.leave();
+        assertThat(roomy.depth("slow")).isZero();
+    }
+
+    @Test
+    void evictsIdleLanesAndTagsOnlyHotSkus() throws Exception {
+        when(hotKeyDetector.isHot("hot")).thenReturn(true);
+        LockQueueProperties properties = properties(8, Duration.ofSeconds(5));
+        properties.setIdleTimeout(Duration.ZERO);
+        LockWaitQueue queue = new LockWaitQueue(properties, meterRegistry, hotKeyDetector);
+
+        for (String sku : List.of("hot", "cold")) {
+            LockWaitQueue.Ticket head = queue.enter(sku);
+            Thread waiter = new Thread(() -> queue.enter(sku).leave());
+            waiter.start();
+            awaitParked(waiter);
+            head.leave();
+            waiter.join(5_000);
+        }
+        assertThat(meterRegistry.find("trading.lock.queue.depth").tag("sku", "hot").gauge()).isNotNull();
+        assertThat(meterRegistry.find("trading.lock.queue.depth").tag("sku", "cold").gauge()).isNull();
+        assertThat(meterRegistry.find("trading.lock.queue.wait").tag("sku", "cold").timer()).isNull();
+        // 两个 cold 请求，加上 hot 在发生排队之前进入的队首
+        assertThat(meterRegistry.get("trading.lock.queue.wait").tag("sku", LockWaitQueue.OTHER_SKUS)
+                .tag("outcome", "admitted").timer().count()).isEqualTo(3);
+
+        // 有人排队的队列不会被清除
+        LockWaitQueue.Ticket held = queue.enter("hot");
+        queue.sweepIdleLanes();
+        assertThat(queue.lanes()).isEqualTo(1);
+        held.leave();
+
+        queue.sweepIdleLanes();
+        assertThat(queue.lanes()).isZero();
+        assertThat(meterRegistry.find("trading.lock.queue.depth").tag("sku", "hot").gauge()).isNull();
+        assertThat(meterRegistry.find("trading.lock.queue.wait").tag("sku", "hot").timer()).isNull();
+    }
+
+    /**
+     * 等到线程阻塞在公平锁上，保证下一个等待者排在它后面
+     */
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static LockQueueProperties properties(int maxDepth, Duration maxWait) {
+        LockQueueProperties properties = new LockQueueProperties();
+        properties.setEnabled(true);
+        properties.setMaxDepth(maxDepth);
+        properties.setMaxWait(maxWait);
+        return properties;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.tradingsystem.infrastructure.lock;
+
+import com.example.tradingsystem.repository.LockRowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class RedisDistributedLockTest {
+
+    private final RedissonClient redissonClient = Mockito.mock(RedissonClient.class);
+    private final RLock redisLock = Mockito.mock(RLock.class);
+    private final RScript script = Mockito.mock(RScript.class);
+    @SuppressWarnings("unchecked")
+    private final RBucket<Object> probeBucket = Mockito.mock(RBucket.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<LockCircuitStateChangedEvent> events = new ArrayList<>();
+    private final ApplicationEventPublisher eventPublisher =
+            event -> events.add((LockCircuitStateChangedEvent) event);
+
+    @Test
+    void opensAfterRepeatedFailuresAndStopsCallingRedis() throws Exception {
+        Mockito.when(redissonClient.getLock(anyString())).thenReturn(redisLock);
+        Mockito.when(redisLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new IllegalStateException("Redis timeout"));
+        LockCircuitProperties properties = new LockCircuitProperties();
+        LockCircuitBreaker breaker = new LockCircuitBreaker(redissonClient, properties, eventPublisher, meterRegistry);
+        RedisDistributedLock lock = new RedisDistributedLock(redissonClient, breaker, properties,
+                Mockito.mock(LockRowRepository.class), new LockHoldMonitor(new LockLeaseProperties(), meterRegistry),
+                new LockLeaseProperties());
+
+        for (int i = 0; i < properties.getFailureThreshold(); i++) {
+            assertThat(lock.tryLock("k" + i, 5, TimeUnit.SECONDS)).isTrue();
+            lock.unlock("k" + i);
+        }
+        assertThat(breaker.getState()).isEqualTo(LockCircuitBreaker.State.OPEN);
+
+        // 熔断后不再访问 Redis，本地锁仍然互斥
+        Mockito.clearInvocations(redissonClient);
+        assertThat(lock.tryLock("sku", 5, TimeUnit.SECONDS)).isTrue();
+        AtomicBoolean lockedByOther = new AtomicBoolean(true);
+        Thread other = new Thread(() -> lockedByOther.set(lock.tryLock("sku", 0, 5, TimeUnit.MILLISECONDS)));
+        other.start();
+        other.join();
+        assertThat(lockedByOther).isFalse();
+        lock.unlock("sku");
+        Mockito.verifyNoInteractions(redissonClient);
+
+        assertThat(events).extracting(LockCircuitStateChangedEvent::to).containsExactly(LockCircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.get("trading.lock.circuit.state").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void closesAgainAfterSuccessfulProbes() {
+        LockCircuitProperties properties = new LockCircuitProperties();
+        properties.setFailureThreshold(1);
+        LockCircuitBreaker breaker = new LockCircuitBreaker(redissonClient, properties, eventPublisher, meterRegistry);
+        breaker.recordFailure(new IllegalStateException("down"));
+
+        Mockito.when(redissonClient.getBucket(anyString())).thenThrow(new IllegalStateException("still down"));
+        breaker.probe();
+        assertThat(breaker.getState()).isEqualTo(LockCircuitBreaker.State.OPEN);
+
+        Mockito.reset(redissonClient);
+        Mockito.when(redissonClient.<Object>getBucket(anyString())).thenReturn(probeBucket);
+        breaker.probe();
+        assertThat(breaker.getState()).isEqualTo(LockCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+        breaker.probe();
+        assertThat(breaker.allowRequest()).isTrue();
+
+        assertThat(events).extracting(LockCircuitStateChangedEvent::to).containsExactly(
+                LockCircuitBreaker.State.OPEN, LockCircuitBreaker.State.HALF_OPEN, LockCircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry.get("trading.lock.circuit.transitions").tag("to", "CLOSED").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void degradedHoldsStayLocalAfterTheCircuitCloses() throws Exception {
+        Mockito.when(redissonClient.getLock(anyString())).thenReturn(redisLock);
+        Mockito.when(redisLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        Mockito.when(redissonClient.<Object>getBucket(anyString())).thenReturn(probeBucket);
+        LockCircuitProperties properties = new LockCircuitProperties();
+        properties.setFailureThreshold(1);
+        LockCircuitBreaker breaker = new LockCircuitBreaker(redissonClient, properties, eventPublisher, meterRegistry);
+        RedisDistributedLock lock = new RedisDistributedLock(redissonClient, breaker, properties,
+                Mockito.mock(LockRowRepository.class), new LockHoldMonitor(new LockLeaseProperties(), meterRegistry),
+                new LockLeaseProperties());
+        breaker.recordFailure(new IllegalStateException("down"));
+
+        // 降级期间每个键单独一把锁，互不阻塞
+        assertThat(lock.tryLock("a", 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(lock.tryLock("b", 5, TimeUnit.SECONDS)).isTrue();
+        lock.unlock("b");
+
+        breaker.probe();
+        breaker.probe();
+        assertThat(breaker.allowRequest()).isTrue();
+
+        // 仍被本地持有的键不转向 Redis，否则会出现两个持有者
+        AtomicBoolean lockedByOther = new AtomicBoolean(true);
+        Thread other = new Thread(() -> lockedByOther.set(lock.tryLock("a", 0, 5, TimeUnit.MILLISECONDS)));
+        other.start();
+        other.join();
+        assertThat(lockedByOther).isFalse();
+        Mockito.verify(redissonClient, Mockito.never()).getLock("a");
+
+        lock.unlock("a");
+        assertThat(lock.tryLock("a", 5, TimeUnit.SECONDS)).isTrue();
+        Mockito.verify(redissonClient).getLock("a");
+    }
+
+    @Test
+    void degradedRowLockInsertsOnlyOnFirstUseAndGivesUpAtTheWaitTime() {
+        LockCircuitProperties properties = new LockCircuitProperties();
+        properties.setDbRowLocks(true);
+        LockRowRepository rows = Mockito.mock(LockRowRepository.class);
+        RedisDistributedLock lock = new RedisDistributedLock(null,
+                new LockCircuitBreaker(null, properties, eventPublisher, meterRegistry), properties,
+                rows, new LockHoldMonitor(new LockLeaseProperties(), meterRegistry), new LockLeaseProperties());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            Mockito.when(rows.lockRow("existing")).thenReturn("existing");
+            assertThat(lock.tryLock("existing", 100, 5000, TimeUnit.MILLISECONDS)).isTrue();
+            lock.unlock("existing");
+            Mockito.verify(rows, Mockito.never()).ensureRow("existing");
+
+            // 行被其他节点锁住：NOWAIT 失败后在等待时间内重试，超时返回 false 而不是等数据库的锁超时
+            Mockito.when(rows.lockRow("busy")).thenThrow(new CannotAcquireLockException("NOWAIT"));
+            long started = System.nanoTime();
+            assertThat(lock.tryLock("busy", 100, 5000, TimeUnit.MILLISECONDS)).isFalse();
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+            Mockito.verify(rows, Mockito.atLeast(2)).lockRow("busy");
+            assertThat(lock.tryLock("busy", 0, 5, TimeUnit.MILLISECONDS)).isFalse();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void watchdogRenewsShortLeaseWhileHeld() throws Exception {
+        Mockito.when(redissonClient.getLock(anyString())).thenReturn(redisLock);
+        Mockito.when(redisLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        Mockito.when(redissonClient.getId()).thenReturn("client-id");
+        Mockito.when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        Mockito.when(script.eval(anyString(), any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                Mockito.<List<Object>>any(), any(), any())).thenReturn(true);
+        LockCircuitProperties properties = new LockCircuitProperties();
+        LockLeaseProperties leaseProperties = new LockLeaseProperties();
+        leaseProperties.setWatchdog(true);
+        leaseProperties.setInitialLease(Duration.ofMillis(300));
+        // 由测试手动触发续期，看门狗线程不参与
+        leaseProperties.setRenewIntervalMs(60_000);
+        LockHoldMonitor monitor = new LockHoldMonitor(leaseProperties, meterRegistry);
+        RedisDistributedLock lock = new RedisDistributedLock(redissonClient,
+                new LockCircuitBreaker(redissonClient, properties, eventPublisher, meterRegistry), properties,
+                Mockito.mock(LockRowRepository.class), monitor, leaseProperties);
+
+        // 调用方给出的 5 秒租约被短租约代替
+        assertThat(lock.tryLock("order:product:42", 5, TimeUnit.SECONDS)).isTrue();
+        Mockito.verify(redisLock).tryLock(0L, 300L, TimeUnit.MILLISECONDS);
+
+        monitor.renewLeases();
+        // 持有字段检查和续期在同一个脚本中完成
+        Mockito.verify(script).eval(eq("order:product:42"), eq(RScript.Mode.READ_WRITE), anyString(),
+                eq(RScript.ReturnType.BOOLEAN), eq(List.<Object>of("order:product:42")),
+                eq(300L), eq("client-id:" + Thread.currentThread().getId()));
+        assertThat(monitor.longestHolders(10)).singleElement().satisfies(holder -> {
+            assertThat(holder.key()).isEqualTo("order:product:42");
+            assertThat(holder.renewals()).isEqualTo(1);
+            assertThat(holder.leaseRemainingMillis()).isPositive();
+        });
+
+        // 租约已丢失：不向 Redis 释放，仍记录持锁时长
+        Mockito.when(redisLock.isHeldByCurrentThread()).thenReturn(false);
+        lock.unlock("order:product:42");
+        Mockito.verify(redisLock, Mockito.never()).unlock();
+        assertThat(monitor.longestHolders(10)).isEmpty();
+        assertThat(meterRegistry.get("trading.lock.hold").tag("prefix", "order:product").timer().count())
+                .isEqualTo(1);
+        monitor.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.tradingsystem.infrastructure.mybatis;
+
+import com.example.tradingsystem.domain.shared.Money;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BatchUnitOfWorkTest {
+
+    @Autowired
+    private BatchUnitOfWork unitOfWork;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void flushesRegisteredUpdatesBeforeCommit() {
+        Long a = insert("uow-a");
+        Long b = insert("uow-b");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UserAccount first = userAccountRepository.selectById(a);
+            UserAccount second = userAccountRepository.selectById(b);
+            first.deposit(Money.of(new BigDecimal("5.00")));
+            second.deposit(Money.of(new BigDecimal("7.00")));
+            unitOfWork.registerUpdate(UserAccountRepository.class, first);
+            unitOfWork.registerUpdate(UserAccountRepository.class, second);
+        });
+
+        assertThat(userAccountRepository.selectById(a).getBalance().getAmount()).isEqualByComparingTo("15.00");
+        assertThat(userAccountRepository.selectById(b).getBalance().getAmount()).isEqualByComparingTo("17.00");
+    }
+
+    @Test
+    void sendsInsertsWithUpdatesAndFillsInGeneratedIds() {
+        Long a = insert("uow-ins-a");
+        UserAccount first = new UserAccount("uow-ins-b", new BigDecimal("1.00"));
+        UserAccount second = new UserAccount("uow-ins-c", new BigDecimal("2.00"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UserAccount existing = userAccountRepository.selectById(a);
+            existing.deposit(Money.of(new BigDecimal("5.00")));
+            unitOfWork.registerInsert(UserAccountRepository.class, first);
+            unitOfWork.registerInsert(UserAccountRepository.class, second);
+            unitOfWork.registerUpdate(UserAccountRepository.class, existing);
+            unitOfWork.flush();
+            assertThat(first.getId()).isNotNull();
+            assertThat(second.getId()).isNotNull().isNotEqualTo(first.getId());
+        });
+
+        assertThat(userAccountRepository.selectById(second.getId()).getUsername()).isEqualTo("uow-ins-c");
+        assertThat(userAccountRepository.selectById(a).getBalance().getAmount()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void staleVersionFailsAndRollsBackTheBatch() {
+        Long a = insert("uow-stale-a");
+        Long b = insert("uow-stale-b");
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UserAccount fresh = userAccountRepository.selectById(a);
+            UserAccount stale = userAccountRepository.selectById(b);
+            userAccountRepository.upsertDeposit("uow-stale-b", new BigDecimal("1.00"));
+
+            fresh.deposit(Money.of(new BigDecimal("5.00")));
+            stale.deposit(Money.of(new BigDecimal("5.00")));
+            unitOfWork.registerUpdate(UserAccountRepository.class, fresh);
+            unitOfWork.registerUpdate(UserAccountRepository.class, stale);
+            unitOfWork.flush();
+        })).isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("UserAccount");
+
+        assertThat(userAccountRepository.selectById(a).getBalance().getAmount()).isEqualByComparingTo("10.00");
+        assertThat(userAccountRepository.selectById(b).getBalance().getAmount()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void requiresTransaction() {
+        UserAccount account = new UserAccount("uow-none", new BigDecimal("1.00"));
+        assertThatThrownBy(() -> unitOfWork.registerUpdate(UserAccountRepository.class, account))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private Long insert(String username) {
+        UserAccount account = new UserAccount(username, new BigDecimal("10.00"));
+        userAccountRepository.insert(account);
+        return account.getId();
+    }
+}
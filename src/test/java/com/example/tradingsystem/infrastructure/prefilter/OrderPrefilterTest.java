@@ -0,0 +1,98 @@
+package com.example.tradingsystem.infrastructure.prefilter;
+
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderService;
+import com.example.tradingsystem.application.ResourceNotFoundException;
+import com.example.tradingsystem.application.UserAccountService;
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.domain.user.UserAccount;
+import com.example.tradingsystem.repository.UserAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "trading.prefilter.enabled=true")
+class OrderPrefilterTest {
+
+    @Autowired
+    private OrderPrefilter orderPrefilter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rejectsUnknownUsersAndSkusBeforeTheLock() {
+        userAccountService.deposit("prefilter-alice", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("prefilter-merchant", "prefilter-known", "Known",
+                new BigDecimal("1.00"), 10);
+
+        double unknownSkus = count("unknown_sku");
+        assertThatThrownBy(() -> orderService.placeOrder("prefilter-alice", "prefilter-missing", 1))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Product not found: prefilter-missing");
+        assertThat(count("unknown_sku")).isEqualTo(unknownSkus + 1);
+
+        assertThatThrownBy(() -> orderService.placeOrder("prefilter-nobody", "prefilter-known", 1))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("User not found: prefilter-nobody");
+
+        // 重建后仍能识别已有的用户和商品
+        orderPrefilter.rebuild();
+        assertThat(orderPrefilter.check("prefilter-alice", "prefilter-known")).isEqualTo(OrderPrefilter.Verdict.PASSED);
+    }
+
+    @Test
+    void acceptsUsersCreatedOnAnotherNode() {
+        inventoryService.addOrUpdateProductStock("prefilter-merchant", "prefilter-shared", "Shared",
+                new BigDecimal("1.00"), 10);
+        // 直接写库，模拟在其他节点注册、本节点过滤器里还没有的用户
+        userAccountRepository.insert(new UserAccount("prefilter-remote", new BigDecimal("10.00")));
+
+        assertThat(orderPrefilter.check("prefilter-remote", "prefilter-shared")).isEqualTo(OrderPrefilter.Verdict.PASSED);
+        assertThat(orderService.placeOrder("prefilter-remote", "prefilter-shared", 1).getStatus())
+                .isEqualTo(OrderStatus.COMPLETED);
+    }
+
+    @Test
+    void soldOutSkuIsRejectedUntilRestocked() {
+        userAccountService.deposit("prefilter-bob", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("prefilter-merchant", "prefilter-scarce", "Scarce",
+                new BigDecimal("2.00"), 2);
+
+        // 库存恰好卖到 0
+        assertThat(orderService.placeOrder("prefilter-bob", "prefilter-scarce", 2).getStatus())
+                .isEqualTo(OrderStatus.COMPLETED);
+        double soldOut = count("sold_out");
+        assertThatThrownBy(() -> orderService.placeOrder("prefilter-bob", "prefilter-scarce", 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Insufficient stock");
+        assertThat(count("sold_out")).isEqualTo(soldOut + 1);
+
+        inventoryService.addOrUpdateProductStock("prefilter-merchant", "prefilter-scarce", "Scarce",
+                new BigDecimal("2.00"), 1);
+        assertThat(orderService.placeOrder("prefilter-bob", "prefilter-scarce", 1).getStatus())
+                .isEqualTo(OrderStatus.COMPLETED);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("trading.prefilter.requests").tag("outcome", outcome).counter().count();
+    }
+}
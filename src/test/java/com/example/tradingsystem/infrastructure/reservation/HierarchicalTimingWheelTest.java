@@ -0,0 +1,49 @@
+package com.example.tradingsystem.infrastructure.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresTasksAtTheirDeadlineAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = random.nextInt(100_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long now = 0; now <= 100_000; now += 7) {
+            for (long deadline : wheel.advanceTo(now)) {
+                // 不提前，最多晚一个 tick 加一次推进间隔
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                assertThat(now - deadline).isLessThan(10 + 7);
+                fired++;
+            }
+        }
+        assertThat(fired).isEqualTo(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTasksNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 1_000);
+        HierarchicalTimingWheel<String>.Timeout kept = wheel.schedule("kept", 1_500);
+        HierarchicalTimingWheel<String>.Timeout cancelled = wheel.schedule("cancelled", 1_500);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(wheel.advanceTo(1_490)).isEmpty();
+        assertThat(wheel.advanceTo(1_500)).containsExactly("kept");
+        assertThat(kept.cancel()).isFalse();
+    }
+}
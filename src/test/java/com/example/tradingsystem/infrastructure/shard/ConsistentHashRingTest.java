@@ -0,0 +1,58 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void spreadsKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("s0", "s1", "s2", "s3"), 160);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("user-" + i), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(4);
+        counts.values().forEach(count -> assertThat(count).isBetween(KEYS / 4 * 80 / 100, KEYS / 4 * 120 / 100));
+    }
+
+    @Test
+    void addingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("s0", "s1", "s2"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("s0", "s1", "s2", "s3"), 160);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            String from = before.nodeFor(key);
+            String to = after.nodeFor(key);
+            if (!from.equals(to)) {
+                assertThat(to).isEqualTo("s3");
+                moved++;
+            }
+        }
+
+        // 理想情况下约 1/4 的键迁移到新节点
+        assertThat(moved).isBetween(KEYS / 4 * 80 / 100, KEYS / 4 * 120 / 100);
+    }
+
+    @Test
+    void isDeterministic() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("s0", "s1"), 16);
+        ConsistentHashRing same = new ConsistentHashRing(List.of("s0", "s1"), 16);
+
+        assertThat(ring.nodeFor("alice")).isEqualTo(same.nodeFor("alice"));
+        assertThatThrownBy(() -> new ConsistentHashRing(List.of(), 16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
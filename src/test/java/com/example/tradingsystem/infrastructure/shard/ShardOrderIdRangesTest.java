@@ -0,0 +1,36 @@
+package com.example.tradingsystem.infrastructure.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardOrderIdRangesTest {
+
+    @Test
+    void locatesTheShardByOrderId() {
+        ShardOrderIdRanges ranges = new ShardOrderIdRanges(List.of(shard("s1", 1_000), shard("s0", 1)));
+
+        assertThat(ranges.shardOf(0)).isNull();
+        assertThat(ranges.shardOf(1)).isEqualTo("s0");
+        assertThat(ranges.shardOf(999)).isEqualTo("s0");
+        assertThat(ranges.shardOf(1_000)).isEqualTo("s1");
+        assertThat(ranges.shardOf(Long.MAX_VALUE)).isEqualTo("s1");
+    }
+
+    @Test
+    void rejectsOverlappingRanges() {
+        assertThatThrownBy(() -> new ShardOrderIdRanges(List.of(shard("s0", 1), shard("s1", 1))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("share order-id-start");
+    }
+
+    private static ShardingProperties.Shard shard(String name, long orderIdStart) {
+        ShardingProperties.Shard shard = new ShardingProperties.Shard();
+        shard.setName(name);
+        shard.setOrderIdStart(orderIdStart);
+        return shard;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.tradingsystem.interfaces.api.json;
+
+import com.example.tradingsystem.domain.order.OrderStatus;
+import com.example.tradingsystem.interfaces.api.dto.AccountResponse;
+import com.example.tradingsystem.interfaces.api.dto.OrderResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonWritableHttpMessageConverterTest {
+
+    private final JsonWritableHttpMessageConverter converter = new JsonWritableHttpMessageConverter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesOrderAsFlatJson() throws IOException {
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.123Z");
+        OrderResponse order = new OrderResponse(7L, 1L, 2L, 3L, 4, new BigDecimal("2.50"),
+                new BigDecimal("10.00"), OrderStatus.COMPLETED, createdAt);
+
+        MockHttpOutputMessage message = write(order);
+
+        JsonNode json = objectMapper.readTree(message.getBodyAsBytes());
+        assertThat(json.size()).isEqualTo(9);
+        assertThat(json.get("id").asLong()).isEqualTo(7);
+        assertThat(json.get("quantity").asLong()).isEqualTo(4);
+        assertThat(json.get("totalPrice").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(json.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(json.get("createdAt").asText()).isEqualTo(createdAt.toString());
+        assertThat(message.getHeaders().getContentLength()).isEqualTo(message.getBodyAsBytes().length);
+        assertThat(message.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void escapesStringsAndWritesNulls() throws IOException {
+        String username = "quote\" back\\ tab\t 用户 😀";
+
+        MockHttpOutputMessage message = write(new AccountResponse(null, username, new BigDecimal("1E+2")));
+
+        JsonNode json = objectMapper.readTree(message.getBodyAsBytes());
+        assertThat(json.get("id").isNull()).isTrue();
+        assertThat(json.get("username").asText()).isEqualTo(username);
+        assertThat(json.get("balance").decimalValue()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void onlyWritesJsonWritable() {
+        assertThat(converter.canWrite(OrderResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(String.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(OrderResponse.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private MockHttpOutputMessage write(JsonWritable value) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.tradingsystem.interfaces.gateway;
+
+import com.example.tradingsystem.application.ClusterOrderRouter;
+import com.example.tradingsystem.application.InventoryService;
+import com.example.tradingsystem.application.OrderAdmission;
+import com.example.tradingsystem.application.UserAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "trading.gateway.enabled=true",
+        "trading.gateway.bind-address=127.0.0.1",
+        "trading.gateway.port=0",
+        "trading.gateway.worker-threads=4"
+})
+class OrderGatewayTest {
+
+    @Autowired
+    private OrderGateway orderGateway;
+    @Autowired
+    private UserAccountService userAccountService;
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void pipelinedOrdersAreAcknowledgedBySequence() throws IOException {
+        userAccountService.deposit("gw-user", new BigDecimal("100.00"));
+        inventoryService.addOrUpdateProductStock("gw-merchant", "gw-sku", "Prod", new BigDecimal("1.00"), 100);
+
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", orderGateway.getLocalPort()))) {
+            ByteBuffer out = ByteBuffer.allocate(1024);
+            OrderFrameCodec.encodeRequest(out, 1, "gw-user", "gw-sku", 1);
+            OrderFrameCodec.encodeRequest(out, 2, "gw-user", "gw-sku", 2);
+            OrderFrameCodec.encodeRequest(out, 3, "gw-user", "missing-sku", 1);
+            OrderFrameCodec.encodeRequest(out, 4, "gw-user", "gw-sku", 1000);
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+
+            Map<Long, Byte> statuses = new HashMap<>();
+            Map<Long, Long> orderIds = new HashMap<>();
+            ByteBuffer in = ByteBuffer.allocate(4096);
+            while (statuses.size() < 4) {
+                assertThat(channel.read(in)).isNotNegative();
+                in.flip();
+                while (in.remaining() >= 2 && in.remaining() >= Short.toUnsignedInt(in.getShort(in.position()))) {
+                    int start = in.position();
+                    int length = Short.toUnsignedInt(in.getShort(start));
+                    assertThat(in.get(start + 2)).isEqualTo(OrderFrameCodec.ORDER_ACK);
+                    statuses.put(in.getLong(start + 3), in.get(start + 11));
+                    orderIds.put(in.getLong(start + 3), in.getLong(start + 12));
+                    in.position(start + length);
+                }
+                in.compact();
+            }
+
+            assertThat(statuses).containsEntry(1L, OrderFrameCodec.STATUS_OK)
+                    .containsEntry(2L, OrderFrameCodec.STATUS_OK)
+                    .containsEntry(3L, OrderFrameCodec.STATUS_NOT_FOUND)
+                    .containsEntry(4L, OrderFrameCodec.STATUS_REJECTED);
+            assertThat(orderIds.get(1L)).isPositive();
+        }
+    }
+
+    @Test
+    void busyAckCarriesRetryAfterAndSmallReadBufferIsRejected() {
+        ByteBuffer out = ByteBuffer.allocate(64);
+        OrderFrameCodec.encodeAck(out, 7, OrderFrameCodec.STATUS_BUSY, 0, 1500, OrderFrameCodec.reason("busy"));
+        assertThat(out.getShort(0)).isEqualTo((short) out.position());
+        assertThat(out.get(11)).isEqualTo(OrderFrameCodec.STATUS_BUSY);
+        assertThat(out.getInt(20)).isEqualTo(1500);
+        assertThat(out.getShort(24)).isEqualTo((short) 4);
+
+        GatewayProperties properties = new GatewayProperties();
+        properties.setReadBufferSize(OrderFrameCodec.MAX_REQUEST_LENGTH - 1);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        assertThatThrownBy(() -> new OrderGateway(null, properties, beans.getBeanProvider(OrderAdmission.class),
+                beans.getBeanProvider(ClusterOrderRouter.class)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("read-buffer-size");
+    }
+}
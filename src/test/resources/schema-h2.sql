@@ -0,0 +1,4 @@
+-- 测试环境的 H2 专用对象
+
+-- 存储过程 execute_trade 的 H2 等价实现
+CREATE ALIAS IF NOT EXISTS execute_trade FOR "com.example.tradingsystem.config.H2TradeProcedure.executeTrade";